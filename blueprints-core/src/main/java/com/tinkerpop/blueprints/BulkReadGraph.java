@@ -0,0 +1,28 @@
+package com.tinkerpop.blueprints;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A BulkReadGraph retrieves many elements by their ids in one call, which saves the round trip or index lookup that
+ * every single getVertex() or getEdge() costs.
+ * Graphs that do not implement it are served one id at a time by GraphHelper.getVertices() and GraphHelper.getEdges().
+ */
+public interface BulkReadGraph extends Graph {
+
+    /**
+     * Return the vertices referenced by the provided ids.
+     *
+     * @param ids the ids of the vertices to retrieve (an id may not be null)
+     * @return the vertices in the order of the ids, with null for every id that does not reference a vertex
+     */
+    public List<Vertex> getVertices(Collection<?> ids);
+
+    /**
+     * Return the edges referenced by the provided ids.
+     *
+     * @param ids the ids of the edges to retrieve (an id may not be null)
+     * @return the edges in the order of the ids, with null for every id that does not reference an edge
+     */
+    public List<Edge> getEdges(Collection<?> ids);
+}
@@ -0,0 +1,111 @@
+package com.tinkerpop.blueprints;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A BulkWriteGraph creates an element together with its properties in one step, validating the properties and
+ * updating the key indices once instead of once per setProperty() call.
+ * Graphs that do not implement it are served by GraphHelper.addVertex(), GraphHelper.addEdge(), GraphHelper.addVertices()
+ * and GraphHelper.addEdges(), which set the properties one by one.
+ */
+public interface BulkWriteGraph extends Graph {
+
+    /**
+     * Create a new vertex with the provided properties.
+     *
+     * @param id         the recommended object identifier
+     * @param properties the properties of the new vertex
+     * @return the newly created vertex
+     */
+    public Vertex addVertex(Object id, Map<String, ?> properties);
+
+    /**
+     * Create a new edge with the provided properties.
+     *
+     * @param id         the recommended object identifier
+     * @param outVertex  the vertex on the tail of the edge
+     * @param inVertex   the vertex on the head of the edge
+     * @param label      the label associated with the edge
+     * @param properties the properties of the new edge
+     * @return the newly created edge
+     */
+    public Edge addEdge(Object id, Vertex outVertex, Vertex inVertex, String label, Map<String, ?> properties);
+
+    /**
+     * Create a new vertex for every spec.
+     *
+     * @param vertices the ids and properties of the vertices to create
+     * @return the newly created vertices in the order of the specs
+     */
+    public List<Vertex> addVertices(List<VertexSpec> vertices);
+
+    /**
+     * Create a new edge for every spec.
+     *
+     * @param edges the ids, vertices, labels and properties of the edges to create
+     * @return the newly created edges in the order of the specs
+     */
+    public List<Edge> addEdges(List<EdgeSpec> edges);
+
+    /**
+     * The id and properties of a vertex to create.
+     */
+    public static class VertexSpec {
+        private final Object id;
+        private final Map<String, ?> properties;
+
+        public VertexSpec(final Object id, final Map<String, ?> properties) {
+            this.id = id;
+            this.properties = null == properties ? Collections.<String, Object>emptyMap() : properties;
+        }
+
+        public Object getId() {
+            return this.id;
+        }
+
+        public Map<String, ?> getProperties() {
+            return this.properties;
+        }
+    }
+
+    /**
+     * The id, vertices, label and properties of an edge to create.
+     */
+    public static class EdgeSpec {
+        private final Object id;
+        private final Vertex outVertex;
+        private final Vertex inVertex;
+        private final String label;
+        private final Map<String, ?> properties;
+
+        public EdgeSpec(final Object id, final Vertex outVertex, final Vertex inVertex, final String label, final Map<String, ?> properties) {
+            this.id = id;
+            this.outVertex = outVertex;
+            this.inVertex = inVertex;
+            this.label = label;
+            this.properties = null == properties ? Collections.<String, Object>emptyMap() : properties;
+        }
+
+        public Object getId() {
+            return this.id;
+        }
+
+        public Vertex getOutVertex() {
+            return this.outVertex;
+        }
+
+        public Vertex getInVertex() {
+            return this.inVertex;
+        }
+
+        public String getLabel() {
+            return this.label;
+        }
+
+        public Map<String, ?> getProperties() {
+            return this.properties;
+        }
+    }
+}
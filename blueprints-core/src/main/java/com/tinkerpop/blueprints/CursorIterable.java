@@ -0,0 +1,17 @@
+package com.tinkerpop.blueprints;
+
+/**
+ * A CursorIterable is the result of a GraphQuery that can report where its iteration stopped.
+ * The reported cursor is an opaque continuation token that can be handed to GraphQuery.cursor() to begin the next page
+ * of results directly after the last element that was returned.
+ */
+public interface CursorIterable<T> extends Iterable<T> {
+
+    /**
+     * Get the continuation token for the last element returned by the most recently created iterator.
+     * If no element has been returned yet, the token the query was started from is returned (null for the first page).
+     *
+     * @return the opaque continuation token
+     */
+    public String getCursor();
+}
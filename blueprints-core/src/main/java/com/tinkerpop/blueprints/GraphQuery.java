@@ -33,4 +33,23 @@ public interface GraphQuery extends Query {
 
     @Override
     public GraphQuery limit(int limit);
+
+    /**
+     * Filter out the first number of elements that would otherwise be returned.
+     *
+     * @param skip the number of matching elements to pass over
+     * @return the modified query object
+     */
+    public GraphQuery skip(int skip);
+
+    /**
+     * Resume the query directly after the element at which a previous page of the same query stopped.
+     * The cursor is the opaque token reported by the CursorIterable returned from that previous page.
+     * Calling this method marks the query as paged, which lets a graph return the elements in an order it can resume
+     * from cheaply, so the first page of a paged query should call it with null.
+     *
+     * @param cursor the continuation token of the previous page (null starts from the beginning)
+     * @return the modified query object
+     */
+    public GraphQuery cursor(String cursor);
 }
@@ -0,0 +1,25 @@
+package com.tinkerpop.blueprints;
+
+/**
+ * An IdOrderedGraph is a graph that can iterate its vertices and edges in a stable, ascending id order and can
+ * begin that iteration directly after a given id.
+ * This allows GraphQuery cursors to resume a scan where the previous page ended without re-reading the elements before it.
+ */
+public interface IdOrderedGraph extends Graph {
+
+    /**
+     * Return the vertices of the graph in ascending id order, starting with the first vertex whose id follows the provided id.
+     *
+     * @param id the id to start after (null starts at the first vertex of the graph)
+     * @return the vertices that follow the provided id
+     */
+    public Iterable<Vertex> getVerticesAfter(Object id);
+
+    /**
+     * Return the edges of the graph in ascending id order, starting with the first edge whose id follows the provided id.
+     *
+     * @param id the id to start after (null starts at the first edge of the graph)
+     * @return the edges that follow the provided id
+     */
+    public Iterable<Edge> getEdgesAfter(Object id);
+}
@@ -0,0 +1,56 @@
+package com.tinkerpop.blueprints.impls.csr;
+
+import com.tinkerpop.blueprints.Element;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterates the edges or adjacent vertices of a vertex of a CsrGraph, given as ranges of positions in the adjacency
+ * arrays.
+ */
+class CsrAdjacencyIterable<T extends Element> implements Iterable<T> {
+
+    private final CsrGraph graph;
+    private final int[] ranges;
+    private final boolean vertices;
+
+    CsrAdjacencyIterable(final CsrGraph graph, final int[] ranges, final boolean vertices) {
+        this.graph = graph;
+        this.ranges = ranges;
+        this.vertices = vertices;
+    }
+
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+            // the current range and position in it
+            private int range = 0;
+            private int position = ranges.length == 0 ? 0 : ranges[1];
+
+            private boolean skipEmpty() {
+                while (this.range < ranges.length && this.position >= ranges[this.range + 2]) {
+                    this.range += 3;
+                    if (this.range < ranges.length) this.position = ranges[this.range + 1];
+                }
+                return this.range < ranges.length;
+            }
+
+            public boolean hasNext() {
+                return this.skipEmpty();
+            }
+
+            public T next() {
+                if (!this.skipEmpty()) throw new NoSuchElementException();
+                final int direction = ranges[this.range];
+                final int position = this.position++;
+                return (T) (vertices ?
+                        new CsrVertex(graph, graph.getAdjacentVertex(direction, position)) :
+                        new CsrEdge(graph, graph.getAdjacentEdge(direction, position)));
+            }
+
+            public void remove() {
+                throw new UnsupportedOperationException(CsrGraph.MUTATE_ERROR_MESSAGE);
+            }
+        };
+    }
+}
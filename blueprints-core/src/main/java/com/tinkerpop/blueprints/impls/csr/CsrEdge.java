@@ -0,0 +1,48 @@
+package com.tinkerpop.blueprints.impls.csr;
+
+import com.tinkerpop.blueprints.Direction;
+import com.tinkerpop.blueprints.Edge;
+import com.tinkerpop.blueprints.Vertex;
+import com.tinkerpop.blueprints.util.ExceptionFactory;
+import com.tinkerpop.blueprints.util.StringFactory;
+
+import java.util.Set;
+
+/**
+ * A view of an edge of a CsrGraph.
+ */
+class CsrEdge extends CsrElement implements Edge {
+
+    CsrEdge(final CsrGraph graph, final int index) {
+        super(graph, index);
+    }
+
+    public Object getId() {
+        return this.graph.getEdgeId(this.index);
+    }
+
+    public <T> T getProperty(final String key) {
+        return (T) this.graph.getEdgeProperty(this.index, key);
+    }
+
+    public Set<String> getPropertyKeys() {
+        return this.graph.getPropertyKeys(false, this.index);
+    }
+
+    public String getLabel() {
+        return this.graph.getLabel(this.index);
+    }
+
+    public Vertex getVertex(final Direction direction) throws IllegalArgumentException {
+        if (direction.equals(Direction.OUT))
+            return new CsrVertex(this.graph, this.graph.getOutVertex(this.index));
+        else if (direction.equals(Direction.IN))
+            return new CsrVertex(this.graph, this.graph.getInVertex(this.index));
+        else
+            throw ExceptionFactory.bothIsNotSupported();
+    }
+
+    public String toString() {
+        return StringFactory.edgeString(this);
+    }
+}
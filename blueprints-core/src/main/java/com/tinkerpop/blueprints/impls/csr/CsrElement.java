@@ -0,0 +1,49 @@
+package com.tinkerpop.blueprints.impls.csr;
+
+import com.tinkerpop.blueprints.Element;
+import com.tinkerpop.blueprints.util.ElementHelper;
+
+import java.util.Set;
+
+/**
+ * A view of a vertex or edge of a CsrGraph by its number.
+ */
+abstract class CsrElement implements Element {
+
+    protected final CsrGraph graph;
+    protected final int index;
+
+    protected CsrElement(final CsrGraph graph, final int index) {
+        this.graph = graph;
+        this.index = index;
+    }
+
+    /**
+     * @return the number of the element in the graph
+     */
+    public int getIndex() {
+        return this.index;
+    }
+
+    public void setProperty(final String key, final Object value) {
+        throw new UnsupportedOperationException(CsrGraph.MUTATE_ERROR_MESSAGE);
+    }
+
+    public <T> T removeProperty(final String key) {
+        throw new UnsupportedOperationException(CsrGraph.MUTATE_ERROR_MESSAGE);
+    }
+
+    public void remove() {
+        throw new UnsupportedOperationException(CsrGraph.MUTATE_ERROR_MESSAGE);
+    }
+
+    public abstract Set<String> getPropertyKeys();
+
+    public int hashCode() {
+        return this.getId().hashCode();
+    }
+
+    public boolean equals(final Object object) {
+        return ElementHelper.areEqual(this, object);
+    }
+}
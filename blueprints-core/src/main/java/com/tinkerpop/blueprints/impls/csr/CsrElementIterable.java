@@ -0,0 +1,68 @@
+package com.tinkerpop.blueprints.impls.csr;
+
+import com.tinkerpop.blueprints.Element;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterates the vertices or edges of a CsrGraph by their numbers, optionally only those whose property column holds
+ * a value.
+ */
+class CsrElementIterable<T extends Element> implements Iterable<T> {
+
+    private final CsrGraph graph;
+    private final boolean vertices;
+    private final int count;
+    private final Object[] column;
+    private final Object value;
+    private final boolean filter;
+
+    CsrElementIterable(final CsrGraph graph, final boolean vertices, final int count) {
+        this.graph = graph;
+        this.vertices = vertices;
+        this.count = count;
+        this.column = null;
+        this.value = null;
+        this.filter = false;
+    }
+
+    CsrElementIterable(final CsrGraph graph, final boolean vertices, final Object[] column, final Object value) {
+        this.graph = graph;
+        this.vertices = vertices;
+        this.count = null == column ? 0 : column.length;
+        this.column = column;
+        this.value = value;
+        this.filter = true;
+    }
+
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+            private int next = this.advance(0);
+
+            private int advance(int index) {
+                if (filter) {
+                    while (index < count && !(null != column[index] && column[index].equals(value))) {
+                        index++;
+                    }
+                }
+                return index;
+            }
+
+            public boolean hasNext() {
+                return this.next < count;
+            }
+
+            public T next() {
+                if (this.next >= count) throw new NoSuchElementException();
+                final int index = this.next;
+                this.next = this.advance(index + 1);
+                return (T) (vertices ? new CsrVertex(graph, index) : new CsrEdge(graph, index));
+            }
+
+            public void remove() {
+                throw new UnsupportedOperationException(CsrGraph.MUTATE_ERROR_MESSAGE);
+            }
+        };
+    }
+}
@@ -0,0 +1,533 @@
+package com.tinkerpop.blueprints.impls.csr;
+
+import com.tinkerpop.blueprints.Direction;
+import com.tinkerpop.blueprints.Edge;
+import com.tinkerpop.blueprints.Element;
+import com.tinkerpop.blueprints.Features;
+import com.tinkerpop.blueprints.Graph;
+import com.tinkerpop.blueprints.GraphQuery;
+import com.tinkerpop.blueprints.Vertex;
+import com.tinkerpop.blueprints.util.DefaultGraphQuery;
+import com.tinkerpop.blueprints.util.ExceptionFactory;
+import com.tinkerpop.blueprints.util.StringFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * CsrGraph is an immutable, in-memory snapshot of another graph for read-only analytics, compiled with a
+ * {@link Builder}.
+ *
+ * Vertices and edges are numbered densely from 0. The adjacency of the vertices is stored in compressed sparse row
+ * form for each direction: the edges of vertex v are at the positions offsets[v] to offsets[v + 1] of the arrays of
+ * adjacent vertices and edges, sorted by label so that the edges of one label are contiguous. Properties are stored
+ * in one column per key. Hence, the graph has no per-element objects: the vertices and edges returned through the
+ * Graph interface are views which are created on demand.
+ *
+ * Besides the read-only Graph interface, CsrGraph offers primitive access to its structure by the numbers of the
+ * vertices and edges (e.g. getOffsets, getAdjacentVertices and getLabelStart), which avoids creating views altogether.
+ * The arrays returned must not be modified.
+ *
+ * Mutating methods throw an UnsupportedOperationException.
+ */
+public class CsrGraph implements Graph {
+
+    public static final String MUTATE_ERROR_MESSAGE = "It is not possible to mutate a CsrGraph";
+
+    private static final Features FEATURES = new Features();
+
+    static {
+        FEATURES.supportsDuplicateEdges = true;
+        FEATURES.supportsSelfLoops = true;
+        FEATURES.supportsSerializableObjectProperty = true;
+        FEATURES.supportsBooleanProperty = true;
+        FEATURES.supportsDoubleProperty = true;
+        FEATURES.supportsFloatProperty = true;
+        FEATURES.supportsIntegerProperty = true;
+        FEATURES.supportsPrimitiveArrayProperty = true;
+        FEATURES.supportsUniformListProperty = true;
+        FEATURES.supportsMixedListProperty = true;
+        FEATURES.supportsLongProperty = true;
+        FEATURES.supportsMapProperty = true;
+        FEATURES.supportsStringProperty = true;
+
+        FEATURES.ignoresSuppliedIds = false;
+        FEATURES.isPersistent = false;
+        FEATURES.isWrapper = false;
+
+        FEATURES.supportsIndices = false;
+        FEATURES.supportsKeyIndices = false;
+        FEATURES.supportsVertexKeyIndex = false;
+        FEATURES.supportsEdgeKeyIndex = false;
+        FEATURES.supportsVertexIndex = false;
+        FEATURES.supportsEdgeIndex = false;
+        FEATURES.supportsTransactions = false;
+        FEATURES.supportsVertexIteration = true;
+        FEATURES.supportsEdgeIteration = true;
+        FEATURES.supportsEdgeRetrieval = true;
+        FEATURES.supportsVertexProperties = true;
+        FEATURES.supportsEdgeProperties = true;
+        FEATURES.supportsThreadedTransactions = false;
+        FEATURES.supportsThreadIsolatedTransactions = false;
+    }
+
+    private static final int OUT = 0;
+    private static final int IN = 1;
+
+    private final Object[] vertexIds;
+    private final Map<Object, Integer> vertexIndices;
+    private final Object[] edgeIds;
+    private final Map<Object, Integer> edgeIndices;
+
+    private final int[] outVertices;
+    private final int[] inVertices;
+    private final int[] edgeLabels;
+    private final String[] labels;
+    private final Map<String, Integer> labelIndices;
+
+    // per direction: offsets of the vertices, adjacent vertices, edges and their labels
+    private final int[][] offsets = new int[2][];
+    private final int[][] adjacentVertices = new int[2][];
+    private final int[][] adjacentEdges = new int[2][];
+    private final int[][] adjacentLabels = new int[2][];
+
+    private final Map<String, Object[]> vertexColumns;
+    private final Map<String, Object[]> edgeColumns;
+
+    private final boolean stringIds;
+
+    private CsrGraph(final Builder builder) {
+        final Graph source = builder.graph;
+
+        // vertices and their properties
+        final List<Object> vertexIdList = new ArrayList<Object>();
+        this.vertexIndices = new HashMap<Object, Integer>();
+        final Map<String, Column> vertexColumns = new HashMap<String, Column>();
+        boolean stringIds = true;
+        for (final Vertex vertex : source.getVertices()) {
+            final int index = vertexIdList.size();
+            final Object id = vertex.getId();
+            stringIds = stringIds && id instanceof String;
+            vertexIdList.add(id);
+            this.vertexIndices.put(id, index);
+            readProperties(vertex, index, builder.vertexKeys, vertexColumns);
+        }
+        this.vertexIds = vertexIdList.toArray();
+
+        // edges and their properties
+        final List<Object> edgeIdList = new ArrayList<Object>();
+        this.edgeIndices = new HashMap<Object, Integer>();
+        final Map<String, Column> edgeColumns = new HashMap<String, Column>();
+        final List<String> labelList = new ArrayList<String>();
+        this.labelIndices = new HashMap<String, Integer>();
+        int[] outVertices = new int[1024];
+        int[] inVertices = new int[1024];
+        int[] edgeLabels = new int[1024];
+        for (final Edge edge : source.getEdges()) {
+            final int index = edgeIdList.size();
+            if (index == outVertices.length) {
+                outVertices = Arrays.copyOf(outVertices, index * 2);
+                inVertices = Arrays.copyOf(inVertices, index * 2);
+                edgeLabels = Arrays.copyOf(edgeLabels, index * 2);
+            }
+            final Object id = edge.getId();
+            stringIds = stringIds && id instanceof String;
+            edgeIdList.add(id);
+            this.edgeIndices.put(id, index);
+            outVertices[index] = this.requireVertex(edge.getVertex(Direction.OUT).getId());
+            inVertices[index] = this.requireVertex(edge.getVertex(Direction.IN).getId());
+            Integer label = this.labelIndices.get(edge.getLabel());
+            if (null == label) {
+                label = labelList.size();
+                labelList.add(edge.getLabel());
+                this.labelIndices.put(edge.getLabel(), label);
+            }
+            edgeLabels[index] = label;
+            readProperties(edge, index, builder.edgeKeys, edgeColumns);
+        }
+        this.edgeIds = edgeIdList.toArray();
+        this.outVertices = Arrays.copyOf(outVertices, this.edgeIds.length);
+        this.inVertices = Arrays.copyOf(inVertices, this.edgeIds.length);
+        this.edgeLabels = Arrays.copyOf(edgeLabels, this.edgeIds.length);
+        this.labels = labelList.toArray(new String[labelList.size()]);
+        this.stringIds = stringIds;
+
+        this.vertexColumns = toColumns(vertexColumns, this.vertexIds.length);
+        this.edgeColumns = toColumns(edgeColumns, this.edgeIds.length);
+
+        // order the edges by label, so that the edges of each vertex are sorted by label
+        final int[] byLabel = countingSort(this.edgeLabels, this.labels.length);
+        this.buildAdjacency(OUT, this.outVertices, this.inVertices, byLabel);
+        this.buildAdjacency(IN, this.inVertices, this.outVertices, byLabel);
+    }
+
+    private int requireVertex(final Object id) {
+        final Integer index = this.vertexIndices.get(id);
+        if (null == index) throw ExceptionFactory.vertexWithIdDoesNotExist(id);
+        return index;
+    }
+
+    private static void readProperties(final Element element, final int index,
+                                       final Set<String> keys, final Map<String, Column> columns) {
+        for (final String key : null == keys ? element.getPropertyKeys() : keys) {
+            final Object value = element.getProperty(key);
+            if (null == value) continue;
+            Column column = columns.get(key);
+            if (null == column) {
+                column = new Column();
+                columns.put(key, column);
+            }
+            column.set(index, value);
+        }
+    }
+
+    private static Map<String, Object[]> toColumns(final Map<String, Column> columns, final int size) {
+        final Map<String, Object[]> result = new HashMap<String, Object[]>();
+        for (final Map.Entry<String, Column> entry : columns.entrySet()) {
+            result.put(entry.getKey(), Arrays.copyOf(entry.getValue().values, size));
+        }
+        return result;
+    }
+
+    /**
+     * @return the positions 0 to keys.length - 1 in the stable order of their keys
+     */
+    private static int[] countingSort(final int[] keys, final int range) {
+        final int[] starts = new int[range + 1];
+        for (final int key : keys) {
+            starts[key + 1]++;
+        }
+        for (int i = 0; i < range; i++) {
+            starts[i + 1] += starts[i];
+        }
+        final int[] order = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            order[starts[keys[i]]++] = i;
+        }
+        return order;
+    }
+
+    private void buildAdjacency(final int direction, final int[] from, final int[] to, final int[] order) {
+        final int[] offsets = new int[this.vertexIds.length + 1];
+        for (final int vertex : from) {
+            offsets[vertex + 1]++;
+        }
+        for (int i = 0; i < this.vertexIds.length; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+        final int[] positions = Arrays.copyOf(offsets, this.vertexIds.length);
+        final int[] vertices = new int[from.length];
+        final int[] edges = new int[from.length];
+        final int[] labels = new int[from.length];
+        for (final int edge : order) {
+            final int position = positions[from[edge]]++;
+            vertices[position] = to[edge];
+            edges[position] = edge;
+            labels[position] = this.edgeLabels[edge];
+        }
+        this.offsets[direction] = offsets;
+        this.adjacentVertices[direction] = vertices;
+        this.adjacentEdges[direction] = edges;
+        this.adjacentLabels[direction] = labels;
+    }
+
+    ////////////////////////
+    // primitive access
+    ////////////////////////
+
+    public int getVertexCount() {
+        return this.vertexIds.length;
+    }
+
+    public int getEdgeCount() {
+        return this.edgeIds.length;
+    }
+
+    /**
+     * @return the number of the vertex with the given id or -1 if there is none
+     */
+    public int getVertexIndex(final Object id) {
+        return index(this.vertexIndices, id);
+    }
+
+    /**
+     * @return the number of the edge with the given id or -1 if there is none
+     */
+    public int getEdgeIndex(final Object id) {
+        return index(this.edgeIndices, id);
+    }
+
+    private int index(final Map<Object, Integer> indices, final Object id) {
+        Integer index = indices.get(id);
+        // ids of graphs like TinkerGraph are strings, which can be looked up by their numbers as well
+        if (null == index && this.stringIds && !(id instanceof String)) index = indices.get(id.toString());
+        return null == index ? -1 : index;
+    }
+
+    public Object getVertexId(final int vertex) {
+        return this.vertexIds[vertex];
+    }
+
+    public Object getEdgeId(final int edge) {
+        return this.edgeIds[edge];
+    }
+
+    public int getOutVertex(final int edge) {
+        return this.outVertices[edge];
+    }
+
+    public int getInVertex(final int edge) {
+        return this.inVertices[edge];
+    }
+
+    public String getLabel(final int edge) {
+        return this.labels[this.edgeLabels[edge]];
+    }
+
+    /**
+     * @return the labels of the graph, indexed by the label numbers used by the adjacency arrays
+     */
+    public List<String> getLabels() {
+        return Collections.unmodifiableList(Arrays.asList(this.labels));
+    }
+
+    /**
+     * @return the number of the label or -1 if no edge has the label
+     */
+    public int getLabelIndex(final String label) {
+        final Integer index = this.labelIndices.get(label);
+        return null == index ? -1 : index;
+    }
+
+    public int getDegree(final int vertex, final Direction direction) {
+        if (direction == Direction.BOTH)
+            return this.getDegree(vertex, Direction.OUT) + this.getDegree(vertex, Direction.IN);
+        final int[] offsets = this.offsets[direction(direction)];
+        return offsets[vertex + 1] - offsets[vertex];
+    }
+
+    /**
+     * @return the offsets of the vertices in the adjacency arrays of the direction, with one more entry than vertices
+     */
+    public int[] getOffsets(final Direction direction) {
+        return this.offsets[direction(direction)];
+    }
+
+    /**
+     * @return the numbers of the adjacent vertices in the direction, for the positions given by the offsets
+     */
+    public int[] getAdjacentVertices(final Direction direction) {
+        return this.adjacentVertices[direction(direction)];
+    }
+
+    /**
+     * @return the numbers of the adjacent edges in the direction, for the positions given by the offsets
+     */
+    public int[] getAdjacentEdges(final Direction direction) {
+        return this.adjacentEdges[direction(direction)];
+    }
+
+    /**
+     * @return the label numbers of the adjacent edges in the direction, for the positions given by the offsets
+     */
+    public int[] getAdjacentLabels(final Direction direction) {
+        return this.adjacentLabels[direction(direction)];
+    }
+
+    /**
+     * @return the first position of the edges of the vertex with the label in the adjacency arrays of the direction
+     */
+    public int getLabelStart(final int vertex, final Direction direction, final int label) {
+        final int d = direction(direction);
+        return lowerBound(this.adjacentLabels[d], this.offsets[d][vertex], this.offsets[d][vertex + 1], label);
+    }
+
+    /**
+     * @return the position after the edges of the vertex with the label in the adjacency arrays of the direction
+     */
+    public int getLabelEnd(final int vertex, final Direction direction, final int label) {
+        final int d = direction(direction);
+        return lowerBound(this.adjacentLabels[d], this.offsets[d][vertex], this.offsets[d][vertex + 1], label + 1);
+    }
+
+    private static int lowerBound(final int[] values, int from, int to, final int value) {
+        while (from < to) {
+            final int middle = (from + to) >>> 1;
+            if (values[middle] < value) from = middle + 1;
+            else to = middle;
+        }
+        return from;
+    }
+
+    private static int direction(final Direction direction) {
+        if (direction == Direction.OUT) return OUT;
+        else if (direction == Direction.IN) return IN;
+        else throw ExceptionFactory.bothIsNotSupported();
+    }
+
+    public Object getVertexProperty(final int vertex, final String key) {
+        final Object[] column = this.vertexColumns.get(key);
+        return null == column ? null : column[vertex];
+    }
+
+    public Object getEdgeProperty(final int edge, final String key) {
+        final Object[] column = this.edgeColumns.get(key);
+        return null == column ? null : column[edge];
+    }
+
+    Set<String> getPropertyKeys(final boolean vertex, final int index) {
+        final Set<String> keys = new HashSet<String>();
+        for (final Map.Entry<String, Object[]> entry : (vertex ? this.vertexColumns : this.edgeColumns).entrySet()) {
+            if (null != entry.getValue()[index]) keys.add(entry.getKey());
+        }
+        return keys;
+    }
+
+    /**
+     * @return the ranges of positions in the adjacency arrays holding the edges of the vertex as triples of direction,
+     *         first and last position (exclusive)
+     */
+    int[] getRanges(final int vertex, final Direction direction, final String... labels) {
+        final int directions = direction == Direction.BOTH ? 2 : 1;
+        final int[] ranges = new int[3 * directions * Math.max(1, labels.length)];
+        int size = 0;
+        for (int i = 0; i < directions; i++) {
+            final int d = direction == Direction.BOTH ? i : direction(direction);
+            if (labels.length == 0) {
+                ranges[size++] = d;
+                ranges[size++] = this.offsets[d][vertex];
+                ranges[size++] = this.offsets[d][vertex + 1];
+            } else {
+                for (final String label : labels) {
+                    final int index = this.getLabelIndex(label);
+                    if (index < 0) continue;
+                    ranges[size++] = d;
+                    ranges[size++] = lowerBound(this.adjacentLabels[d], this.offsets[d][vertex], this.offsets[d][vertex + 1], index);
+                    ranges[size++] = lowerBound(this.adjacentLabels[d], this.offsets[d][vertex], this.offsets[d][vertex + 1], index + 1);
+                }
+            }
+        }
+        return size == ranges.length ? ranges : Arrays.copyOf(ranges, size);
+    }
+
+    int getAdjacentVertex(final int direction, final int position) {
+        return this.adjacentVertices[direction][position];
+    }
+
+    int getAdjacentEdge(final int direction, final int position) {
+        return this.adjacentEdges[direction][position];
+    }
+
+    ////////////////////////
+    // Graph
+    ////////////////////////
+
+    public Features getFeatures() {
+        return FEATURES;
+    }
+
+    public Vertex getVertex(final Object id) {
+        if (null == id) throw ExceptionFactory.vertexIdCanNotBeNull();
+        final int index = this.getVertexIndex(id);
+        return index < 0 ? null : new CsrVertex(this, index);
+    }
+
+    public Edge getEdge(final Object id) {
+        if (null == id) throw ExceptionFactory.edgeIdCanNotBeNull();
+        final int index = this.getEdgeIndex(id);
+        return index < 0 ? null : new CsrEdge(this, index);
+    }
+
+    public Iterable<Vertex> getVertices() {
+        return new CsrElementIterable<Vertex>(this, true, this.vertexIds.length);
+    }
+
+    public Iterable<Vertex> getVertices(final String key, final Object value) {
+        return new CsrElementIterable<Vertex>(this, true, this.vertexColumns.get(key), value);
+    }
+
+    public Iterable<Edge> getEdges() {
+        return new CsrElementIterable<Edge>(this, false, this.edgeIds.length);
+    }
+
+    public Iterable<Edge> getEdges(final String key, final Object value) {
+        return new CsrElementIterable<Edge>(this, false, this.edgeColumns.get(key), value);
+    }
+
+    public GraphQuery query() {
+        return new DefaultGraphQuery(this);
+    }
+
+    public Vertex addVertex(final Object id) {
+        throw new UnsupportedOperationException(MUTATE_ERROR_MESSAGE);
+    }
+
+    public void removeVertex(final Vertex vertex) {
+        throw new UnsupportedOperationException(MUTATE_ERROR_MESSAGE);
+    }
+
+    public Edge addEdge(final Object id, final Vertex outVertex, final Vertex inVertex, final String label) {
+        throw new UnsupportedOperationException(MUTATE_ERROR_MESSAGE);
+    }
+
+    public void removeEdge(final Edge edge) {
+        throw new UnsupportedOperationException(MUTATE_ERROR_MESSAGE);
+    }
+
+    public void shutdown() {
+    }
+
+    public String toString() {
+        return StringFactory.graphString(this, "vertices:" + this.vertexIds.length + " edges:" + this.edgeIds.length);
+    }
+
+    /**
+     * Compiles a graph into a CsrGraph, reading each vertex and edge of the graph once.
+     */
+    public static class Builder {
+
+        private final Graph graph;
+        private Set<String> vertexKeys = null;
+        private Set<String> edgeKeys = null;
+
+        public Builder(final Graph graph) {
+            this.graph = graph;
+        }
+
+        /**
+         * Only copy the given properties of the vertices instead of all.
+         */
+        public Builder vertexKeys(final String... keys) {
+            this.vertexKeys = new HashSet<String>(Arrays.asList(keys));
+            return this;
+        }
+
+        /**
+         * Only copy the given properties of the edges instead of all.
+         */
+        public Builder edgeKeys(final String... keys) {
+            this.edgeKeys = new HashSet<String>(Arrays.asList(keys));
+            return this;
+        }
+
+        public CsrGraph build() {
+            return new CsrGraph(this);
+        }
+    }
+
+    private static class Column {
+        private Object[] values = new Object[16];
+
+        private void set(final int index, final Object value) {
+            if (index >= this.values.length)
+                this.values = Arrays.copyOf(this.values, Math.max(index + 1, this.values.length * 2));
+            this.values[index] = value;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.tinkerpop.blueprints.impls.csr;
+
+import com.tinkerpop.blueprints.Direction;
+import com.tinkerpop.blueprints.Edge;
+import com.tinkerpop.blueprints.Vertex;
+import com.tinkerpop.blueprints.VertexQuery;
+import com.tinkerpop.blueprints.util.DefaultVertexQuery;
+import com.tinkerpop.blueprints.util.StringFactory;
+
+import java.util.Set;
+
+/**
+ * A view of a vertex of a CsrGraph.
+ */
+class CsrVertex extends CsrElement implements Vertex {
+
+    CsrVertex(final CsrGraph graph, final int index) {
+        super(graph, index);
+    }
+
+    public Object getId() {
+        return this.graph.getVertexId(this.index);
+    }
+
+    public <T> T getProperty(final String key) {
+        return (T) this.graph.getVertexProperty(this.index, key);
+    }
+
+    public Set<String> getPropertyKeys() {
+        return this.graph.getPropertyKeys(true, this.index);
+    }
+
+    public Iterable<Edge> getEdges(final Direction direction, final String... labels) {
+        return new CsrAdjacencyIterable<Edge>(this.graph, this.graph.getRanges(this.index, direction, labels), false);
+    }
+
+    public Iterable<Vertex> getVertices(final Direction direction, final String... labels) {
+        return new CsrAdjacencyIterable<Vertex>(this.graph, this.graph.getRanges(this.index, direction, labels), true);
+    }
+
+    public VertexQuery query() {
+        return new DefaultVertexQuery(this);
+    }
+
+    public Edge addEdge(final String label, final Vertex inVertex) {
+        throw new UnsupportedOperationException(CsrGraph.MUTATE_ERROR_MESSAGE);
+    }
+
+    public String toString() {
+        return StringFactory.vertexString(this);
+    }
+}
@@ -36,19 +36,56 @@ abstract class TinkerElement implements Element, Serializable {
 
     public void setProperty(final String key, final Object value) {
         ElementHelper.validateProperty(this, key, value);
-        Object oldValue = this.properties.put(key, value);
-        if (this instanceof TinkerVertex)
-            this.graph.vertexKeyIndex.autoUpdate(key, value, oldValue, (TinkerVertex) this);
-        else
-            this.graph.edgeKeyIndex.autoUpdate(key, value, oldValue, (TinkerEdge) this);
+        // the key index is locked so that background index builds do not read the property while it changes
+        if (this instanceof TinkerVertex) {
+            synchronized (this.graph.vertexKeyIndex) {
+                final Object oldValue = this.properties.put(key, value);
+                this.graph.vertexKeyIndex.autoUpdate(key, value, oldValue, (TinkerVertex) this);
+            }
+        } else {
+            synchronized (this.graph.edgeKeyIndex) {
+                final Object oldValue = this.properties.put(key, value);
+                this.graph.edgeKeyIndex.autoUpdate(key, value, oldValue, (TinkerEdge) this);
+            }
+        }
+    }
+
+    /**
+     * Sets properties which are validated already, locking the key index once for all of them.
+     */
+    void setValidatedProperties(final Map<String, ?> properties) {
+        if (properties.isEmpty())
+            return;
+        if (this instanceof TinkerVertex) {
+            synchronized (this.graph.vertexKeyIndex) {
+                for (final Map.Entry<String, ?> entry : properties.entrySet()) {
+                    final Object oldValue = this.properties.put(entry.getKey(), entry.getValue());
+                    this.graph.vertexKeyIndex.autoUpdate(entry.getKey(), entry.getValue(), oldValue, (TinkerVertex) this);
+                }
+            }
+        } else {
+            synchronized (this.graph.edgeKeyIndex) {
+                for (final Map.Entry<String, ?> entry : properties.entrySet()) {
+                    final Object oldValue = this.properties.put(entry.getKey(), entry.getValue());
+                    this.graph.edgeKeyIndex.autoUpdate(entry.getKey(), entry.getValue(), oldValue, (TinkerEdge) this);
+                }
+            }
+        }
     }
 
     public <T> T removeProperty(final String key) {
-        Object oldValue = this.properties.remove(key);
-        if (this instanceof TinkerVertex)
-            this.graph.vertexKeyIndex.autoRemove(key, oldValue, (TinkerVertex) this);
-        else
-            this.graph.edgeKeyIndex.autoRemove(key, oldValue, (TinkerEdge) this);
+        final Object oldValue;
+        if (this instanceof TinkerVertex) {
+            synchronized (this.graph.vertexKeyIndex) {
+                oldValue = this.properties.remove(key);
+                this.graph.vertexKeyIndex.autoRemove(key, oldValue, (TinkerVertex) this);
+            }
+        } else {
+            synchronized (this.graph.edgeKeyIndex) {
+                oldValue = this.properties.remove(key);
+                this.graph.edgeKeyIndex.autoRemove(key, oldValue, (TinkerEdge) this);
+            }
+        }
         return (T) oldValue;
     }
 
@@ -1,20 +1,27 @@
 package com.tinkerpop.blueprints.impls.tg;
 
 
+import com.tinkerpop.blueprints.BulkReadGraph;
+import com.tinkerpop.blueprints.BulkWriteGraph;
+import com.tinkerpop.blueprints.CloseableIterable;
 import com.tinkerpop.blueprints.Direction;
 import com.tinkerpop.blueprints.Edge;
 import com.tinkerpop.blueprints.Element;
 import com.tinkerpop.blueprints.Features;
 import com.tinkerpop.blueprints.GraphQuery;
+import com.tinkerpop.blueprints.IdOrderedGraph;
 import com.tinkerpop.blueprints.Index;
 import com.tinkerpop.blueprints.IndexableGraph;
 import com.tinkerpop.blueprints.KeyIndexableGraph;
 import com.tinkerpop.blueprints.Parameter;
 import com.tinkerpop.blueprints.Vertex;
 import com.tinkerpop.blueprints.util.DefaultGraphQuery;
+import com.tinkerpop.blueprints.util.DefaultQuery;
+import com.tinkerpop.blueprints.util.ElementHelper;
 import com.tinkerpop.blueprints.util.ExceptionFactory;
-import com.tinkerpop.blueprints.util.KeyIndexableGraphHelper;
+import com.tinkerpop.blueprints.util.KeyIndexBuild;
 import com.tinkerpop.blueprints.util.PropertyFilteredIterable;
+import com.tinkerpop.blueprints.util.SlowQueryListener;
 import com.tinkerpop.blueprints.util.StringFactory;
 import org.apache.commons.configuration.Configuration;
 
@@ -22,19 +29,25 @@ import java.io.File;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * An in-memory, reference implementation of the property graph interfaces provided by Blueprints.
  *
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  */
-public class TinkerGraph implements IndexableGraph, KeyIndexableGraph, Serializable {
+public class TinkerGraph implements IndexableGraph, KeyIndexableGraph, IdOrderedGraph, BulkReadGraph, BulkWriteGraph, Serializable {
 
     protected Long currentId = 0l;
     protected Map<String, Vertex> vertices = new HashMap<String, Vertex>();
@@ -44,9 +57,18 @@ public class TinkerGraph implements IndexableGraph, KeyIndexableGraph, Serializa
     protected TinkerKeyIndex<TinkerVertex> vertexKeyIndex = new TinkerKeyIndex<TinkerVertex>(TinkerVertex.class, this);
     protected TinkerKeyIndex<TinkerEdge> edgeKeyIndex = new TinkerKeyIndex<TinkerEdge>(TinkerEdge.class, this);
 
+    // sorted id snapshots for cursor queries, built on demand and dropped whenever an element is added or removed
+    private transient String[] orderedVertexIds = null;
+    private transient String[] orderedEdgeIds = null;
+
     private final String directory;
     private final FileType fileType;
 
+    private transient volatile SlowQueryListener slowQueryListener = null;
+    private transient volatile long slowQueryThreshold = 0;
+
+    public static final int DEFAULT_CHUNK_SIZE = 1000;
+
     private static final Features FEATURES = new Features();
     private static final Features PERSISTENT_FEATURES;
 
@@ -175,6 +197,57 @@ public class TinkerGraph implements IndexableGraph, KeyIndexableGraph, Serializa
         }
     }
 
+    /**
+     * Builds the key index in the background, in chunks of DEFAULT_CHUNK_SIZE elements run by the executor.
+     *
+     * @see #buildKeyIndex(String, Class, java.util.concurrent.Executor, int)
+     */
+    public <T extends Element> KeyIndexBuild buildKeyIndex(final String key, final Class<T> elementClass, final Executor executor) {
+        return this.buildKeyIndex(key, elementClass, executor, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Builds the key index in the background while the graph stays available. The elements existing when the build
+     * starts are indexed in chunks which the executor may run in parallel, while properties set or removed in the
+     * meantime are indexed right away. Reads of the key keep filtering all elements until the last chunk is done and
+     * the key becomes one of the indexed keys. The build of a key which is indexed already is complete at once.
+     *
+     * @return the progress of the build, which completes with the number of properties indexed
+     * @throws IllegalStateException if the index of the key is already being built
+     */
+    public <T extends Element> KeyIndexBuild buildKeyIndex(final String key, final Class<T> elementClass, final Executor executor, final int chunkSize) {
+        if (elementClass == null)
+            throw ExceptionFactory.classForElementCannotBeNull();
+        if (null == executor)
+            throw new IllegalArgumentException("Executor may not be null");
+        if (chunkSize <= 0)
+            throw new IllegalArgumentException("Chunk size must be positive");
+
+        if (Vertex.class.isAssignableFrom(elementClass)) {
+            return this.vertexKeyIndex.buildKeyIndex(key, executor, chunkSize);
+        } else if (Edge.class.isAssignableFrom(elementClass)) {
+            return this.edgeKeyIndex.buildKeyIndex(key, executor, chunkSize);
+        } else {
+            throw ExceptionFactory.classIsNotIndexable(elementClass);
+        }
+    }
+
+    /**
+     * @return the build of the key index running in the background or null
+     */
+    public <T extends Element> KeyIndexBuild getKeyIndexBuild(final String key, final Class<T> elementClass) {
+        if (elementClass == null)
+            throw ExceptionFactory.classForElementCannotBeNull();
+
+        if (Vertex.class.isAssignableFrom(elementClass)) {
+            return this.vertexKeyIndex.getKeyIndexBuild(key);
+        } else if (Edge.class.isAssignableFrom(elementClass)) {
+            return this.edgeKeyIndex.getKeyIndexBuild(key);
+        } else {
+            throw ExceptionFactory.classIsNotIndexable(elementClass);
+        }
+    }
+
     public <T extends Element> void dropKeyIndex(final String key, final Class<T> elementClass) {
         if (elementClass == null)
             throw ExceptionFactory.classForElementCannotBeNull();
@@ -254,8 +327,29 @@ public class TinkerGraph implements IndexableGraph, KeyIndexableGraph, Serializa
 
         vertex = new TinkerVertex(idString, this);
         this.vertices.put(vertex.getId().toString(), vertex);
+        this.orderedVertexIds = null;
+        return vertex;
+
+    }
+
+    public Vertex addVertex(final Object id, final Map<String, ?> properties) {
+        ElementHelper.validateProperties(Vertex.class, properties);
+        final TinkerVertex vertex = (TinkerVertex) this.addVertex(id);
+        vertex.setValidatedProperties(properties);
         return vertex;
+    }
 
+    public List<Vertex> addVertices(final List<VertexSpec> vertices) {
+        for (final VertexSpec spec : vertices) {
+            ElementHelper.validateProperties(Vertex.class, spec.getProperties());
+        }
+        final List<Vertex> added = new ArrayList<Vertex>(vertices.size());
+        for (final VertexSpec spec : vertices) {
+            final TinkerVertex vertex = (TinkerVertex) this.addVertex(spec.getId());
+            vertex.setValidatedProperties(spec.getProperties());
+            added.add(vertex);
+        }
+        return added;
     }
 
     public Vertex getVertex(final Object id) {
@@ -274,6 +368,26 @@ public class TinkerGraph implements IndexableGraph, KeyIndexableGraph, Serializa
         return this.edges.get(idString);
     }
 
+    public List<Vertex> getVertices(final Collection<?> ids) {
+        final List<Vertex> vertices = new ArrayList<Vertex>(ids.size());
+        for (final Object id : ids) {
+            if (null == id)
+                throw ExceptionFactory.vertexIdCanNotBeNull();
+            vertices.add(this.vertices.get(id.toString()));
+        }
+        return vertices;
+    }
+
+    public List<Edge> getEdges(final Collection<?> ids) {
+        final List<Edge> edges = new ArrayList<Edge>(ids.size());
+        for (final Object id : ids) {
+            if (null == id)
+                throw ExceptionFactory.edgeIdCanNotBeNull();
+            edges.add(this.edges.get(id.toString()));
+        }
+        return edges;
+    }
+
 
     public Iterable<Vertex> getVertices() {
         return new ArrayList<Vertex>(this.vertices.values());
@@ -283,6 +397,31 @@ public class TinkerGraph implements IndexableGraph, KeyIndexableGraph, Serializa
         return new ArrayList<Edge>(this.edges.values());
     }
 
+    /**
+     * Vertices are ordered by the natural ordering of their string ids.
+     * The sorted ids are kept between calls so paging through an unchanged graph only costs a binary search per page.
+     */
+    public Iterable<Vertex> getVerticesAfter(final Object id) {
+        if (null == this.orderedVertexIds)
+            this.orderedVertexIds = sortIds(this.vertices.keySet());
+        return new IdOrderedIterable<Vertex>(this.vertices, this.orderedVertexIds, id);
+    }
+
+    /**
+     * Edges are ordered by the natural ordering of their string ids.
+     */
+    public Iterable<Edge> getEdgesAfter(final Object id) {
+        if (null == this.orderedEdgeIds)
+            this.orderedEdgeIds = sortIds(this.edges.keySet());
+        return new IdOrderedIterable<Edge>(this.edges, this.orderedEdgeIds, id);
+    }
+
+    private static String[] sortIds(final Set<String> ids) {
+        final String[] sorted = ids.toArray(new String[ids.size()]);
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
     public void removeVertex(final Vertex vertex) {
         if (!this.vertices.containsKey(vertex.getId().toString()))
             throw ExceptionFactory.vertexWithIdDoesNotExist(vertex.getId());
@@ -300,6 +439,7 @@ public class TinkerGraph implements IndexableGraph, KeyIndexableGraph, Serializa
         }
 
         this.vertices.remove(vertex.getId().toString());
+        this.orderedVertexIds = null;
     }
 
     public Edge addEdge(final Object id, final Vertex outVertex, final Vertex inVertex, final String label) {
@@ -326,6 +466,7 @@ public class TinkerGraph implements IndexableGraph, KeyIndexableGraph, Serializa
 
         edge = new TinkerEdge(idString, outVertex, inVertex, label, this);
         this.edges.put(edge.getId().toString(), edge);
+        this.orderedEdgeIds = null;
         final TinkerVertex out = (TinkerVertex) outVertex;
         final TinkerVertex in = (TinkerVertex) inVertex;
         out.addOutEdge(label, edge);
@@ -334,6 +475,28 @@ public class TinkerGraph implements IndexableGraph, KeyIndexableGraph, Serializa
 
     }
 
+    public Edge addEdge(final Object id, final Vertex outVertex, final Vertex inVertex, final String label, final Map<String, ?> properties) {
+        ElementHelper.validateProperties(Edge.class, properties);
+        final TinkerEdge edge = (TinkerEdge) this.addEdge(id, outVertex, inVertex, label);
+        edge.setValidatedProperties(properties);
+        return edge;
+    }
+
+    public List<Edge> addEdges(final List<EdgeSpec> edges) {
+        for (final EdgeSpec spec : edges) {
+            if (null == spec.getLabel())
+                throw ExceptionFactory.edgeLabelCanNotBeNull();
+            ElementHelper.validateProperties(Edge.class, spec.getProperties());
+        }
+        final List<Edge> added = new ArrayList<Edge>(edges.size());
+        for (final EdgeSpec spec : edges) {
+            final TinkerEdge edge = (TinkerEdge) this.addEdge(spec.getId(), spec.getOutVertex(), spec.getInVertex(), spec.getLabel());
+            edge.setValidatedProperties(spec.getProperties());
+            added.add(edge);
+        }
+        return added;
+    }
+
     public void removeEdge(final Edge edge) {
         TinkerVertex outVertex = (TinkerVertex) edge.getVertex(Direction.OUT);
         TinkerVertex inVertex = (TinkerVertex) edge.getVertex(Direction.IN);
@@ -358,10 +521,36 @@ public class TinkerGraph implements IndexableGraph, KeyIndexableGraph, Serializa
         }
 
         this.edges.remove(edge.getId().toString());
+        this.orderedEdgeIds = null;
     }
 
     public GraphQuery query() {
-        return new DefaultGraphQuery(this);
+        return this.withSlowQueryListener(new DefaultGraphQuery(this));
+    }
+
+    /**
+     * Sets the listener on every query created by this graph and its vertices from now on.
+     *
+     * @param listener  the listener or null to stop profiling the queries
+     * @param threshold the minimum time in milliseconds spent in a query to report it
+     * @see DefaultQuery#setSlowQueryListener(SlowQueryListener, long)
+     */
+    public void setSlowQueryListener(final SlowQueryListener listener, final long threshold) {
+        if (threshold < 0)
+            throw new IllegalArgumentException("The slow query threshold can not be negative: " + threshold);
+        this.slowQueryThreshold = threshold;
+        this.slowQueryListener = listener;
+    }
+
+    public SlowQueryListener getSlowQueryListener() {
+        return this.slowQueryListener;
+    }
+
+    <Q extends DefaultQuery> Q withSlowQueryListener(final Q query) {
+        final SlowQueryListener listener = this.slowQueryListener;
+        if (null != listener)
+            query.setSlowQueryListener(listener, this.slowQueryThreshold);
+        return query;
     }
 
 
@@ -377,6 +566,8 @@ public class TinkerGraph implements IndexableGraph, KeyIndexableGraph, Serializa
         this.edges.clear();
         this.indices.clear();
         this.currentId = 0l;
+        this.orderedVertexIds = null;
+        this.orderedEdgeIds = null;
         this.vertexKeyIndex = new TinkerKeyIndex<TinkerVertex>(TinkerVertex.class, this);
         this.edgeKeyIndex = new TinkerKeyIndex<TinkerEdge>(TinkerEdge.class, this);
     }
@@ -410,44 +601,172 @@ public class TinkerGraph implements IndexableGraph, KeyIndexableGraph, Serializa
             return PERSISTENT_FEATURES;
     }
 
+    private static class IdOrderedIterable<T extends Element> implements Iterable<T> {
+
+        private final Map<String, T> elements;
+        private final String[] ids;
+        private final int start;
+
+        public IdOrderedIterable(final Map<String, T> elements, final String[] ids, final Object after) {
+            this.elements = elements;
+            this.ids = ids;
+            if (null == after) {
+                this.start = 0;
+            } else {
+                final int index = Arrays.binarySearch(ids, after.toString());
+                this.start = index >= 0 ? index + 1 : -(index + 1);
+            }
+        }
+
+        public Iterator<T> iterator() {
+            return new Iterator<T>() {
+                private int index = start;
+                private T nextElement = null;
+
+                public boolean hasNext() {
+                    // elements removed after the ids were sorted are passed over
+                    while (null == this.nextElement && this.index < ids.length) {
+                        this.nextElement = elements.get(ids[this.index++]);
+                    }
+                    return null != this.nextElement;
+                }
+
+                public T next() {
+                    if (!this.hasNext())
+                        throw new NoSuchElementException();
+                    final T temp = this.nextElement;
+                    this.nextElement = null;
+                    return temp;
+                }
+
+                public void remove() {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+    }
+
     protected class TinkerKeyIndex<T extends TinkerElement> extends TinkerIndex<T> implements Serializable {
 
         private final Set<String> indexedKeys = new HashSet<String>();
         private TinkerGraph graph;
 
+        // the builds running in the background, by key
+        private transient Map<String, Build> builds;
+
         public TinkerKeyIndex(final Class<T> indexClass, final TinkerGraph graph) {
             super(null, indexClass);
             this.graph = graph;
         }
 
-        public void autoUpdate(final String key, final Object newValue, final Object oldValue, final T element) {
+        public synchronized void put(final String key, final Object value, final T element) {
+            super.put(key, value, element);
+        }
+
+        public synchronized CloseableIterable<T> get(final String key, final Object value) {
+            return super.get(key, value);
+        }
+
+        public synchronized long count(final String key, final Object value) {
+            return super.count(key, value);
+        }
+
+        public synchronized void remove(final String key, final Object value, final T element) {
+            super.remove(key, value, element);
+        }
+
+        public synchronized void removeElement(final T element) {
+            super.removeElement(element);
+            for (final Build build : this.getBuilds().values()) {
+                build.removeElement(element);
+            }
+        }
+
+        public synchronized void autoUpdate(final String key, final Object newValue, final Object oldValue, final T element) {
             if (this.indexedKeys.contains(key)) {
                 if (oldValue != null)
                     this.remove(key, oldValue, element);
                 this.put(key, newValue, element);
+            } else {
+                final Build build = this.getBuilds().get(key);
+                if (null != build)
+                    build.update(newValue, oldValue, element);
             }
         }
 
-        public void autoRemove(final String key, final Object oldValue, final T element) {
+        public synchronized void autoRemove(final String key, final Object oldValue, final T element) {
             if (this.indexedKeys.contains(key)) {
                 this.remove(key, oldValue, element);
+            } else {
+                final Build build = this.getBuilds().get(key);
+                if (null != build)
+                    build.update(null, oldValue, element);
             }
         }
 
-        public void createKeyIndex(final String key) {
+        /**
+         * Indexes the current property values directly, without setting the properties again.
+         */
+        public synchronized void createKeyIndex(final String key) {
             if (this.indexedKeys.contains(key))
                 return;
 
+            final Build build = this.getBuilds().get(key);
+            if (null != build)
+                build.cancel(false);
+
+            final Map<Object, Set<T>> keyMap = new HashMap<Object, Set<T>>();
+            for (final T element : this.getElements()) {
+                index(keyMap, element.getProperty(key), element);
+            }
+            this.index.put(key, keyMap);
             this.indexedKeys.add(key);
+        }
 
-            if (TinkerVertex.class.equals(this.indexClass)) {
-                KeyIndexableGraphHelper.reIndexElements(graph, graph.getVertices(), new HashSet<String>(Arrays.asList(key)));
-            } else {
-                KeyIndexableGraphHelper.reIndexElements(graph, graph.getEdges(), new HashSet<String>(Arrays.asList(key)));
+        /**
+         * Starts to build the index of the key in chunks of elements, which are indexed by the executor. Properties
+         * which change during the build are indexed right away, so that the index is complete when the last chunk is
+         * done. Until then, the key is not one of the indexed keys and reads of the key keep filtering all elements.
+         */
+        public synchronized KeyIndexBuild buildKeyIndex(final String key, final Executor executor, final int chunkSize) {
+            if (this.getBuilds().containsKey(key))
+                throw new IllegalStateException("The index of key " + key + " is already being built");
+
+            final List<T> elements = this.indexedKeys.contains(key) ? Collections.<T>emptyList() : new ArrayList<T>(this.getElements());
+            final Build build = new Build(key, elements);
+            if (this.indexedKeys.contains(key) || elements.isEmpty()) {
+                build.install();
+                return build;
             }
+
+            this.getBuilds().put(key, build);
+            for (int start = 0; start < elements.size(); start = start + chunkSize) {
+                final int from = start;
+                final int to = Math.min(start + chunkSize, elements.size());
+                build.chunks.incrementAndGet();
+                try {
+                    executor.execute(new Runnable() {
+                        public void run() {
+                            build.index(from, to);
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    build.fail(e);
+                    break;
+                }
+            }
+            return build;
+        }
+
+        public synchronized KeyIndexBuild getKeyIndexBuild(final String key) {
+            return this.getBuilds().get(key);
         }
 
-        public void dropKeyIndex(final String key) {
+        public synchronized void dropKeyIndex(final String key) {
+            final Build build = this.getBuilds().get(key);
+            if (null != build)
+                build.cancel(false);
+
             if (!this.indexedKeys.contains(key))
                 return;
 
@@ -456,12 +775,126 @@ public class TinkerGraph implements IndexableGraph, KeyIndexableGraph, Serializa
 
         }
 
-        public Set<String> getIndexedKeys() {
+        public synchronized Set<String> getIndexedKeys() {
             if (null != this.indexedKeys)
                 return new HashSet<String>(this.indexedKeys);
             else
                 return Collections.emptySet();
         }
+
+        private Collection<T> getElements() {
+            if (TinkerVertex.class.equals(this.indexClass))
+                return (Collection) graph.vertices.values();
+            else
+                return (Collection) graph.edges.values();
+        }
+
+        private Map<String, Build> getBuilds() {
+            if (null == this.builds)
+                this.builds = new HashMap<String, Build>();
+            return this.builds;
+        }
+
+        private void index(final Map<Object, Set<T>> keyMap, final Object value, final T element) {
+            if (null == value)
+                return;
+            Set<T> objects = keyMap.get(value);
+            if (null == objects) {
+                objects = new HashSet<T>();
+                keyMap.put(value, objects);
+            }
+            objects.add(element);
+        }
+
+        /**
+         * The chunks and the updates of a build are applied while holding the lock of the key index, which
+         * TinkerElement also holds while it changes a property.
+         */
+        private class Build extends KeyIndexBuild {
+
+            private final List<T> elements;
+            private final Map<Object, Set<T>> keyMap = new HashMap<Object, Set<T>>();
+            // elements removed from the graph before their chunk was indexed
+            private final Set<T> removed = new HashSet<T>();
+            private final AtomicInteger chunks = new AtomicInteger();
+
+            private Build(final String key, final List<T> elements) {
+                super(key, TinkerVertex.class.equals(indexClass) ? Vertex.class : Edge.class, elements.size());
+                this.elements = elements;
+            }
+
+            private void index(final int from, final int to) {
+                synchronized (TinkerKeyIndex.this) {
+                    if (this.isDone())
+                        return;
+                    try {
+                        long count = 0;
+                        for (int i = from; i < to; i++) {
+                            final T element = this.elements.get(i);
+                            if (this.removed.contains(element))
+                                continue;
+                            final Object value = element.getProperty(this.getKey());
+                            if (null != value) {
+                                TinkerKeyIndex.this.index(this.keyMap, value, element);
+                                count++;
+                            }
+                        }
+                        this.processed(to - from, count);
+                        if (this.chunks.decrementAndGet() == 0)
+                            this.install();
+                    } catch (RuntimeException e) {
+                        this.fail(e);
+                    }
+                }
+            }
+
+            private void update(final Object newValue, final Object oldValue, final T element) {
+                if (null != oldValue) {
+                    final Set<T> objects = this.keyMap.get(oldValue);
+                    if (null != objects) {
+                        objects.remove(element);
+                        if (objects.isEmpty())
+                            this.keyMap.remove(oldValue);
+                    }
+                }
+                TinkerKeyIndex.this.index(this.keyMap, newValue, element);
+            }
+
+            private void removeElement(final T element) {
+                this.removed.add(element);
+                for (final Set<T> set : this.keyMap.values()) {
+                    set.remove(element);
+                }
+            }
+
+            private void install() {
+                if (this.isDone())
+                    return;
+                if (!indexedKeys.contains(this.getKey())) {
+                    index.put(this.getKey(), this.keyMap);
+                    indexedKeys.add(this.getKey());
+                }
+                getBuilds().remove(this.getKey());
+                this.finish(null);
+            }
+
+            private void fail(final Throwable failure) {
+                synchronized (TinkerKeyIndex.this) {
+                    if (getBuilds().get(this.getKey()) == this)
+                        getBuilds().remove(this.getKey());
+                    this.finish(failure);
+                }
+            }
+
+            public boolean cancel(final boolean mayInterruptIfRunning) {
+                synchronized (TinkerKeyIndex.this) {
+                    if (!super.cancel(mayInterruptIfRunning))
+                        return false;
+                    getBuilds().remove(this.getKey());
+                    return true;
+                }
+            }
+        }
     }
 
 }
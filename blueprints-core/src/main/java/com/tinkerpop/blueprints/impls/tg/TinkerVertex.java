@@ -99,7 +99,7 @@ class TinkerVertex extends TinkerElement implements Vertex, Serializable {
     }
 
     public VertexQuery query() {
-        return new DefaultVertexQuery(this);
+        return this.graph.withSlowQueryListener(new DefaultVertexQuery(this));
     }
 
     public String toString() {
@@ -0,0 +1,160 @@
+package com.tinkerpop.blueprints.util;
+
+import com.tinkerpop.blueprints.Graph;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A ContentionTracker is shared by the retry strategies executing work against the same graph. It keeps the recent
+ * rate of attempts which conflicted, i.e. failed with an exception to retry on, and widens the backoff of the
+ * strategies while the rate is high, so that threads contending for the same elements spread out further.
+ *
+ * The rate decays exponentially with the configured half life. The tracker also holds a retry budget: every first
+ * attempt deposits budgetRatio tokens up to a maximum and every retry takes one token, so that retries are limited to
+ * a fraction of the executions once the reserve is spent, instead of multiplying the load on a graph which is
+ * overloaded.
+ *
+ * Attempts are counted per class of TransactionWork, see {@link #getMetrics(Class)}.
+ *
+ * The retry strategies which are not given a tracker use the tracker of the graph they execute against, see
+ * {@link #forGraph(Graph)}.
+ */
+public class ContentionTracker {
+
+    public static final long DEFAULT_HALF_LIFE_MS = 1000;
+    public static final double DEFAULT_WIDENING = 4.0d;
+    public static final double DEFAULT_BUDGET_RATIO = 0.2d;
+    public static final int DEFAULT_BUDGET_RESERVE = 100;
+
+    private final double halfLifeNanos;
+    private final double widening;
+    private final double budgetRatio;
+    private final double maxTokens;
+
+    private double attempts = 0;
+    private double conflicts = 0;
+    private long lastDecay = System.nanoTime();
+    private double tokens;
+
+    private final ConcurrentMap<Class, RetryMetrics> metrics = new ConcurrentHashMap<Class, RetryMetrics>();
+
+    private static final Map<Graph, ContentionTracker> GRAPH_TRACKERS = new WeakHashMap<Graph, ContentionTracker>();
+
+    public ContentionTracker() {
+        this(DEFAULT_HALF_LIFE_MS, DEFAULT_WIDENING, DEFAULT_BUDGET_RATIO, DEFAULT_BUDGET_RESERVE);
+    }
+
+    /**
+     * @param halfLife      the time in milliseconds after which past attempts count half towards the conflict rate
+     * @param widening      how much the backoff widens at a conflict rate of 1, e.g. 4 for five times the delay
+     * @param budgetRatio   the number of retries allowed per execution once the reserve is spent
+     * @param budgetReserve the number of retries allowed at any time, which is also the initial budget
+     */
+    public ContentionTracker(final long halfLife, final double widening, final double budgetRatio, final int budgetReserve) {
+        if (halfLife <= 0) throw new IllegalArgumentException("Half life must be positive");
+        if (widening < 0) throw new IllegalArgumentException("Widening can not be negative");
+        if (budgetRatio < 0) throw new IllegalArgumentException("Budget ratio can not be negative");
+        if (budgetReserve < 0) throw new IllegalArgumentException("Budget reserve can not be negative");
+        this.halfLifeNanos = halfLife * 1e6d;
+        this.widening = widening;
+        this.budgetRatio = budgetRatio;
+        this.maxTokens = budgetReserve;
+        this.tokens = budgetReserve;
+    }
+
+    /**
+     * @return the tracker with the default settings shared by all users of the graph, which is created on first use
+     *         and dropped with the graph
+     */
+    public static ContentionTracker forGraph(final Graph graph) {
+        if (null == graph) throw new IllegalArgumentException("Graph can not be null");
+        synchronized (GRAPH_TRACKERS) {
+            ContentionTracker tracker = GRAPH_TRACKERS.get(graph);
+            if (null == tracker) {
+                tracker = new ContentionTracker();
+                GRAPH_TRACKERS.put(graph, tracker);
+            }
+            return tracker;
+        }
+    }
+
+    /**
+     * Records an attempt of the work.
+     *
+     * @param conflict whether the attempt failed with an exception to retry on
+     */
+    synchronized void recordAttempt(final boolean first, final boolean conflict) {
+        this.decay();
+        this.attempts++;
+        if (conflict) this.conflicts++;
+        if (first) this.tokens = Math.min(this.maxTokens, this.tokens + this.budgetRatio);
+    }
+
+    /**
+     * @return whether the budget allows another retry, taking a token if it does
+     */
+    synchronized boolean tryAcquireRetry() {
+        if (this.tokens < 1) return false;
+        this.tokens--;
+        return true;
+    }
+
+    private void decay() {
+        final long now = System.nanoTime();
+        final double factor = Math.pow(0.5d, (now - this.lastDecay) / this.halfLifeNanos);
+        this.attempts *= factor;
+        this.conflicts *= factor;
+        this.lastDecay = now;
+    }
+
+    /**
+     * @return the fraction of recent attempts which conflicted, between 0 and 1
+     */
+    public synchronized double getConflictRate() {
+        this.decay();
+        return this.attempts < 1e-9d ? 0.0d : this.conflicts / this.attempts;
+    }
+
+    /**
+     * @return the factor applied to the delays between retries for the recent conflict rate
+     */
+    public double getBackoffFactor() {
+        return 1.0d + this.widening * this.getConflictRate();
+    }
+
+    /**
+     * @return the number of retries the budget currently allows
+     */
+    public synchronized int getRetryBudget() {
+        return (int) this.tokens;
+    }
+
+    /**
+     * @return the metrics of the class of work, which are created on first use
+     */
+    public RetryMetrics getMetrics(final Class workType) {
+        RetryMetrics result = this.metrics.get(workType);
+        if (null == result) {
+            result = new RetryMetrics();
+            final RetryMetrics existing = this.metrics.putIfAbsent(workType, result);
+            if (null != existing) result = existing;
+        }
+        return result;
+    }
+
+    /**
+     * @return the metrics of all classes of work executed so far
+     */
+    public Map<Class, RetryMetrics> getMetrics() {
+        return Collections.unmodifiableMap(new HashMap<Class, RetryMetrics>(this.metrics));
+    }
+
+    public String toString() {
+        return "contentiontracker[conflict rate:" + this.getConflictRate() + " retry budget:" + this.getRetryBudget() + "]";
+    }
+}
@@ -1,5 +1,7 @@
 package com.tinkerpop.blueprints.util;
 
+import com.tinkerpop.blueprints.CursorIterable;
+import com.tinkerpop.blueprints.IdOrderedGraph;
 import com.tinkerpop.blueprints.Predicate;
 import com.tinkerpop.blueprints.Edge;
 import com.tinkerpop.blueprints.Element;
@@ -15,12 +17,21 @@ import java.util.Set;
 /**
  * For those graph engines that do not support the low-level querying of the vertices or edges, then DefaultGraphQuery can be used.
  * DefaultGraphQuery assumes, at minimum, that Graph.getVertices() and Graph.getEdges() is implemented by the respective Graph.
+ * A query is paged once cursor() has been called, also with null for its first page. Paged queries read an
+ * IdOrderedGraph in id order and resume by seeking directly after the cursor; on any other graph the cursor records how
+ * many source elements were consumed so that the next page can pass over them without evaluating them again. Queries
+ * which only set a limit or skip are not paged and read the key index or all elements in the order of the graph.
+ * explain() shows whether a query uses a key index, an IdOrderedGraph or a scan of all elements and profile() reports
+ * how many elements each stage of the query processed.
  *
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  */
 public class DefaultGraphQuery extends DefaultQuery implements GraphQuery {
 
     protected final Graph graph;
+    public int skip = 0;
+    public String cursor = null;
+    public boolean paged = false;
 
     public DefaultGraphQuery(final Graph graph) {
         this.graph = graph;
@@ -66,6 +77,19 @@ public class DefaultGraphQuery extends DefaultQuery implements GraphQuery {
         return this;
     }
 
+    public GraphQuery skip(final int skip) {
+        if (skip < 0)
+            throw new IllegalArgumentException("The number of elements to skip can not be negative: " + skip);
+        this.skip = skip;
+        return this;
+    }
+
+    public GraphQuery cursor(final String cursor) {
+        this.cursor = cursor;
+        this.paged = true;
+        return this;
+    }
+
     public Iterable<Edge> edges() {
         return new DefaultGraphQueryIterable<Edge>(false);
     }
@@ -74,12 +98,83 @@ public class DefaultGraphQuery extends DefaultQuery implements GraphQuery {
         return new DefaultGraphQueryIterable<Vertex>(true);
     }
 
-    protected class DefaultGraphQueryIterable<T extends Element> implements Iterable<T> {
+    /**
+     * @param elementClass Vertex.class or Edge.class
+     * @return the access path and filters the query would use for the elements, without evaluating it
+     */
+    public QueryPlan explain(final Class<? extends Element> elementClass) {
+        return this.plan(elementClass, QueryCursor.decode(this.cursor));
+    }
+
+    /**
+     * Evaluates the query to its end or limit and reports the elements scanned, filtered and returned and the time
+     * spent in each stage.
+     *
+     * @param elementClass Vertex.class or Edge.class
+     */
+    public QueryProfile profile(final Class<? extends Element> elementClass) {
+        final DefaultGraphQueryIterable<Element> iterable = new DefaultGraphQueryIterable<Element>(Vertex.class.isAssignableFrom(elementClass), true);
+        final Iterator<Element> itty = iterable.iterator();
+        while (itty.hasNext()) {
+            itty.next();
+        }
+        return iterable.profile;
+    }
+
+    protected QueryPlan plan(final Class<? extends Element> elementClass, final QueryCursor startCursor) {
+        QueryPlan.AccessPath accessPath = QueryPlan.AccessPath.SCAN;
+        HasContainer container = null;
+        if (null != startCursor && startCursor.isIdCursor()) {
+            if (!(graph instanceof IdOrderedGraph))
+                throw new IllegalArgumentException("The provided cursor can only be resumed on an IdOrderedGraph: " + cursor);
+            accessPath = QueryPlan.AccessPath.ID_ORDERED;
+        } else {
+            if (graph instanceof KeyIndexableGraph) {
+                final Set<String> keys = getIndexedKeys(elementClass);
+                for (final HasContainer hasContainer : hasContainers) {
+                    if (hasContainer.predicate.equals(com.tinkerpop.blueprints.Compare.EQUAL) && keys.contains(hasContainer.key)) {
+                        container = hasContainer;
+                        accessPath = QueryPlan.AccessPath.KEY_INDEX;
+                        break;
+                    }
+                }
+            }
+            if (null == container && null == startCursor && paged && graph instanceof IdOrderedGraph)
+                accessPath = QueryPlan.AccessPath.ID_ORDERED;
+        }
+        return new QueryPlan(elementClass, accessPath, null == container ? null : container.key, null == container ? null : container.value,
+                null, null, this.getFilterDescriptions(), this.skip, this.limit);
+    }
+
+    protected Set<String> getIndexedKeys(final Class<? extends Element> elementClass) {
+        return ((KeyIndexableGraph) graph).getIndexedKeys(elementClass);
+    }
+
+    protected class DefaultGraphQueryIterable<T extends Element> implements CursorIterable<T> {
 
         private Iterable<T> iterable = null;
+        private final QueryCursor startCursor;
+        private final QueryPlan plan;
+        private boolean idOrdered = false;
+        private String lastCursor;
+        private final QueryProfile profile;
 
         public DefaultGraphQueryIterable(final boolean forVertex) {
+            this(forVertex, false);
+        }
+
+        DefaultGraphQueryIterable(final boolean forVertex, final boolean profiling) {
+            this.startCursor = QueryCursor.decode(cursor);
+            this.lastCursor = cursor;
+            final long start = System.nanoTime();
+            this.plan = plan(forVertex ? Vertex.class : Edge.class, this.startCursor);
             this.iterable = (Iterable<T>) getElementIterable(forVertex ? Vertex.class : Edge.class);
+            this.profile = profiling || isProfilingSlowQueries() ? new QueryProfile(this.plan) : null;
+            if (null != this.profile) this.profile.addSourceTime(System.nanoTime() - start);
+        }
+
+        public String getCursor() {
+            return this.lastCursor;
         }
 
         public Iterator<T> iterator() {
@@ -87,6 +182,9 @@ public class DefaultGraphQuery extends DefaultQuery implements GraphQuery {
                 T nextElement = null;
                 final Iterator<T> itty = iterable.iterator();
                 long count = 0;
+                long skipped = 0;
+                long position = 0;
+                long nextPosition = 0;
 
                 public boolean hasNext() {
                     if (null != this.nextElement) {
@@ -101,6 +199,7 @@ public class DefaultGraphQuery extends DefaultQuery implements GraphQuery {
                         if (this.nextElement != null) {
                             final T temp = this.nextElement;
                             this.nextElement = null;
+                            lastCursor = idOrdered ? QueryCursor.encodeId(temp.getId()) : QueryCursor.encodePosition(this.nextPosition);
                             return temp;
                         }
 
@@ -115,59 +214,71 @@ public class DefaultGraphQuery extends DefaultQuery implements GraphQuery {
 
                 private boolean loadNext() {
                     this.nextElement = null;
-                    if (this.count > limit) return false;
-                    while (this.itty.hasNext()) {
-                        final T element = this.itty.next();
-                        boolean filter = false;
-
-                        for (final HasContainer hasContainer : hasContainers) {
-                            if (!hasContainer.isLegal(element)) {
-                                filter = true;
-                                break;
-                            }
+                    if (this.count >= limit) {
+                        finish(profile);
+                        return false;
+                    }
+                    if (!idOrdered && null != startCursor) {
+                        // pass over the elements consumed by the previous pages without evaluating them
+                        while (this.position < startCursor.getPosition() && this.itty.hasNext()) {
+                            this.itty.next();
+                            this.position++;
                         }
+                    }
+                    while (true) {
+                        final long start = null == profile ? 0 : System.nanoTime();
+                        if (!this.itty.hasNext()) {
+                            if (null != profile) profile.addScanTime(System.nanoTime() - start);
+                            break;
+                        }
+                        final T element = this.itty.next();
+                        if (null != profile) profile.scanned(System.nanoTime() - start);
+                        this.position++;
 
-                        if (!filter) {
-                            if (++this.count <= limit) {
+                        if (isLegal(element, profile)) {
+                            if (this.skipped < skip) {
+                                this.skipped++;
+                                if (null != profile) profile.skipped();
+                            } else {
+                                this.count++;
                                 this.nextElement = element;
+                                this.nextPosition = this.position;
+                                if (null != profile) profile.returned();
                                 return true;
                             }
                         }
 
                     }
+                    finish(profile);
                     return false;
                 }
             };
         }
 
         private Iterable<?> getElementIterable(final Class<? extends Element> elementClass) {
-            if (graph instanceof KeyIndexableGraph) {
-                final Set<String> keys = getIndexedKeys(elementClass);
-                HasContainer container = null;
-                for (final HasContainer hasContainer : hasContainers) {
-                    if (hasContainer.predicate.equals(com.tinkerpop.blueprints.Compare.EQUAL) && keys.contains(hasContainer.key)) {
-                        container = hasContainer;
-                        break;
-                    }
-                }
-                if (container != null) {
+            switch (this.plan.getAccessPath()) {
+                case ID_ORDERED:
+                    return getElementsAfter(elementClass, null == this.startCursor ? null : this.startCursor.getId());
+                case KEY_INDEX:
                     if (Vertex.class.isAssignableFrom(elementClass))
-                        return graph.getVertices(container.key, container.value);
+                        return graph.getVertices(this.plan.getIndexKey(), this.plan.getIndexValue());
                     else
-                        return graph.getEdges(container.key, container.value);
-                }
+                        return graph.getEdges(this.plan.getIndexKey(), this.plan.getIndexValue());
+                default:
+                    if (Vertex.class.isAssignableFrom(elementClass))
+                        return graph.getVertices();
+                    else
+                        return graph.getEdges();
             }
+        }
 
+        private Iterable<?> getElementsAfter(final Class<? extends Element> elementClass, final Object id) {
+            this.idOrdered = true;
             if (Vertex.class.isAssignableFrom(elementClass))
-                return graph.getVertices();
+                return ((IdOrderedGraph) graph).getVerticesAfter(id);
             else
-                return graph.getEdges();
-        }
-
-        protected Set<String> getIndexedKeys(final Class<? extends Element> elementClass) {
-          return ((KeyIndexableGraph) graph).getIndexedKeys(elementClass);
+                return ((IdOrderedGraph) graph).getEdgesAfter(id);
         }
-        
     }
 
 }
@@ -8,6 +8,7 @@ import com.tinkerpop.blueprints.Query;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author Marko A. Rodriguez (http://markorodriguez.com)
@@ -16,6 +17,9 @@ public abstract class DefaultQuery implements Query {
 
     private static final String[] EMPTY_LABELS = new String[]{};
 
+    private SlowQueryListener slowQueryListener = null;
+    private long slowQueryThreshold = 0;
+
     public Direction direction = Direction.BOTH;
     public String[] labels = EMPTY_LABELS;
     public int limit = Integer.MAX_VALUE;
@@ -61,6 +65,72 @@ public abstract class DefaultQuery implements Query {
         return this;
     }
 
+    /**
+     * Notifies the listener if an evaluation of this query takes at least the threshold. While a listener is set,
+     * the evaluations are profiled, which adds two calls of System.nanoTime() per element scanned. Graphs like
+     * TinkerGraph set the listener of the graph on every query they create.
+     *
+     * @param listener  the listener or null to stop profiling the query
+     * @param threshold the minimum time in milliseconds spent in the query to report it
+     */
+    public void setSlowQueryListener(final SlowQueryListener listener, final long threshold) {
+        if (threshold < 0)
+            throw new IllegalArgumentException("The slow query threshold can not be negative: " + threshold);
+        this.slowQueryThreshold = TimeUnit.MILLISECONDS.toNanos(threshold);
+        this.slowQueryListener = listener;
+    }
+
+    public SlowQueryListener getSlowQueryListener() {
+        return this.slowQueryListener;
+    }
+
+    protected boolean isProfilingSlowQueries() {
+        return null != this.slowQueryListener;
+    }
+
+    protected List<String> getFilterDescriptions() {
+        final List<String> filters = new ArrayList<String>(this.hasContainers.size());
+        for (final HasContainer hasContainer : this.hasContainers) {
+            filters.add(hasContainer.toString());
+        }
+        return filters;
+    }
+
+    /**
+     * @return whether the element passes all has-containers, recording the evaluation in the profile if not null
+     */
+    protected boolean isLegal(final Element element, final QueryProfile profile) {
+        if (null == profile) {
+            for (final HasContainer hasContainer : this.hasContainers) {
+                if (!hasContainer.isLegal(element))
+                    return false;
+            }
+            return true;
+        }
+
+        final long start = System.nanoTime();
+        try {
+            for (int i = 0; i < this.hasContainers.size(); i++) {
+                if (!this.hasContainers.get(i).isLegal(element)) {
+                    profile.rejected(i);
+                    return false;
+                }
+            }
+            return true;
+        } finally {
+            profile.addFilterTime(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Completes the profile of a query and reports it if it was slow.
+     */
+    protected void finish(final QueryProfile profile) {
+        if (null == profile || !profile.finish()) return;
+        if (null != this.slowQueryListener && profile.getTotalTime() >= this.slowQueryThreshold)
+            this.slowQueryListener.slowQuery(profile);
+    }
+
     ////////////////////
 
 
@@ -84,5 +154,9 @@ public abstract class DefaultQuery implements Query {
                 return this.predicate.evaluate(element.getProperty(this.key), this.value);
             }
         }
+
+        public String toString() {
+            return this.key + " " + this.predicate + " " + this.value;
+        }
     }
 }
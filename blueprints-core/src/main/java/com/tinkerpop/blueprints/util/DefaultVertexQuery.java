@@ -100,14 +100,46 @@ public class DefaultVertexQuery extends DefaultQuery implements VertexQuery {
         return list;
     }
 
+    /**
+     * @param elementClass Vertex.class or Edge.class
+     * @return the edges and filters the query would use, without evaluating it
+     */
+    public QueryPlan explain(final Class<? extends Element> elementClass) {
+        return new QueryPlan(elementClass, QueryPlan.AccessPath.ADJACENCY, null, null, this.direction, this.labels,
+                this.getFilterDescriptions(), 0, this.limit);
+    }
+
+    /**
+     * Evaluates the query to its end or limit and reports the edges scanned, filtered and returned and the time spent
+     * in each stage.
+     *
+     * @param elementClass Vertex.class or Edge.class
+     */
+    public QueryProfile profile(final Class<? extends Element> elementClass) {
+        final DefaultVertexQueryIterable<Element> iterable = new DefaultVertexQueryIterable<Element>(Vertex.class.isAssignableFrom(elementClass), true);
+        final Iterator<Element> itty = iterable.iterator();
+        while (itty.hasNext()) {
+            itty.next();
+        }
+        return iterable.profile;
+    }
+
     private class DefaultVertexQueryIterable<T extends Element> implements Iterable<T> {
 
         private Iterable<Edge> iterable;
         private boolean forVertex;
+        private final QueryProfile profile;
 
         public DefaultVertexQueryIterable(final boolean forVertex) {
+            this(forVertex, false);
+        }
+
+        DefaultVertexQueryIterable(final boolean forVertex, final boolean profiling) {
             this.forVertex = forVertex;
+            final long start = System.nanoTime();
             this.iterable = vertex.getEdges(direction, labels);
+            this.profile = profiling || isProfilingSlowQueries() ? new QueryProfile(explain(forVertex ? Vertex.class : Edge.class)) : null;
+            if (null != this.profile) this.profile.addSourceTime(System.nanoTime() - start);
         }
 
         public Iterator<T> iterator() {
@@ -158,25 +190,29 @@ public class DefaultVertexQuery extends DefaultQuery implements VertexQuery {
 
                 private boolean loadNext() {
                     this.nextEdge = null;
-                    if (this.count > limit) return false;
+                    if (this.count >= limit) {
+                        finish(profile);
+                        return false;
+                    }
 
-                    while (this.itty.hasNext()) {
-                        final Edge edge = this.itty.next();
-                        boolean filter = false;
-                        for (final HasContainer hasContainer : hasContainers) {
-                            if (!hasContainer.isLegal(edge)) {
-                                filter = true;
-                                break;
-                            }
+                    while (true) {
+                        final long start = null == profile ? 0 : System.nanoTime();
+                        if (!this.itty.hasNext()) {
+                            if (null != profile) profile.addScanTime(System.nanoTime() - start);
+                            break;
                         }
+                        final Edge edge = this.itty.next();
+                        if (null != profile) profile.scanned(System.nanoTime() - start);
 
-                        if (!filter) {
+                        if (isLegal(edge, profile)) {
                             if (++this.count <= limit) {
                                 this.nextEdge = edge;
+                                if (null != profile) profile.returned();
                                 return true;
                             }
                         }
                     }
+                    finish(profile);
                     return false;
                 }
             };
@@ -24,13 +24,32 @@ public class ElementHelper {
      * @throws IllegalArgumentException whether the triple is legal and if not, a clear reason message is provided
      */
     public static final void validateProperty(final Element element, final String key, final Object value) throws IllegalArgumentException {
+        validateProperty(element instanceof Edge, key, value);
+    }
+
+    /**
+     * Determines whether all the properties of the map can be legally set on an element of the provided class.
+     * This is typically used as a pre-condition check prior to creating an element with its properties.
+     *
+     * @param elementClass the class of the element for the properties to be set
+     * @param properties   the properties to be set
+     * @throws IllegalArgumentException whether the properties are legal and if not, a clear reason message is provided
+     */
+    public static void validateProperties(final Class<? extends Element> elementClass, final Map<String, ?> properties) throws IllegalArgumentException {
+        final boolean edge = Edge.class.isAssignableFrom(elementClass);
+        for (final Map.Entry<String, ?> entry : properties.entrySet()) {
+            validateProperty(edge, entry.getKey(), entry.getValue());
+        }
+    }
+
+    private static void validateProperty(final boolean edge, final String key, final Object value) throws IllegalArgumentException {
         if (null == value)
             throw ExceptionFactory.propertyValueCanNotBeNull();
         if (null == key)
             throw ExceptionFactory.propertyKeyCanNotBeNull();
         if (key.equals(StringFactory.ID))
             throw ExceptionFactory.propertyKeyIdIsReserved();
-        if (element instanceof Edge && key.equals(StringFactory.LABEL))
+        if (edge && key.equals(StringFactory.LABEL))
             throw ExceptionFactory.propertyKeyLabelIsReservedForEdges();
         if (key.isEmpty())
             throw ExceptionFactory.propertyKeyCanNotBeEmpty();
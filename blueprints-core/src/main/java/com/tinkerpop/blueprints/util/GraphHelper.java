@@ -1,10 +1,18 @@
 package com.tinkerpop.blueprints.util;
 
+import com.tinkerpop.blueprints.BulkReadGraph;
+import com.tinkerpop.blueprints.BulkWriteGraph;
 import com.tinkerpop.blueprints.Direction;
 import com.tinkerpop.blueprints.Edge;
 import com.tinkerpop.blueprints.Graph;
 import com.tinkerpop.blueprints.Vertex;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  */
@@ -21,6 +29,8 @@ public class GraphHelper {
     public static Vertex addVertex(final Graph graph, final Object id, final Object... properties) {
         if ((properties.length % 2) != 0)
             throw new RuntimeException("There must be an equal number of keys and values");
+        if (graph instanceof BulkWriteGraph)
+            return ((BulkWriteGraph) graph).addVertex(id, toMap(properties));
         final Vertex vertex = graph.addVertex(id);
         for (int i = 0; i < properties.length; i = i + 2) {
             vertex.setProperty((String) properties[i], properties[i + 1]);
@@ -28,6 +38,41 @@ public class GraphHelper {
         return vertex;
     }
 
+    /**
+     * Add a vertex to the graph with specified id and provided properties, in one step if the graph is a BulkWriteGraph.
+     *
+     * @param graph      the graph to create a vertex in
+     * @param id         the id of the vertex to create
+     * @param properties the properties of the vertex to add
+     * @return the vertex created in the graph with the provided properties set
+     */
+    public static Vertex addVertex(final Graph graph, final Object id, final Map<String, ?> properties) {
+        if (graph instanceof BulkWriteGraph)
+            return ((BulkWriteGraph) graph).addVertex(id, properties);
+        final Vertex vertex = graph.addVertex(id);
+        for (final Map.Entry<String, ?> entry : properties.entrySet()) {
+            vertex.setProperty(entry.getKey(), entry.getValue());
+        }
+        return vertex;
+    }
+
+    /**
+     * Add a vertex to the graph for every spec, in one step if the graph is a BulkWriteGraph.
+     *
+     * @param graph    the graph to create the vertices in
+     * @param vertices the ids and properties of the vertices to add
+     * @return the vertices created in the order of the specs
+     */
+    public static List<Vertex> addVertices(final Graph graph, final List<BulkWriteGraph.VertexSpec> vertices) {
+        if (graph instanceof BulkWriteGraph)
+            return ((BulkWriteGraph) graph).addVertices(vertices);
+        final List<Vertex> added = new ArrayList<Vertex>(vertices.size());
+        for (final BulkWriteGraph.VertexSpec spec : vertices) {
+            added.add(addVertex(graph, spec.getId(), spec.getProperties()));
+        }
+        return added;
+    }
+
     /**
      * Add an edge to the graph with specified id and provided properties.
      *
@@ -42,6 +87,8 @@ public class GraphHelper {
     public static Edge addEdge(final Graph graph, final Object id, final Vertex outVertex, final Vertex inVertex, final String label, final Object... properties) {
         if ((properties.length % 2) != 0)
             throw new RuntimeException("There must be an equal number of keys and values");
+        if (graph instanceof BulkWriteGraph)
+            return ((BulkWriteGraph) graph).addEdge(id, outVertex, inVertex, label, toMap(properties));
         final Edge edge = graph.addEdge(id, outVertex, inVertex, label);
         for (int i = 0; i < properties.length; i = i + 2) {
             edge.setProperty((String) properties[i], properties[i + 1]);
@@ -49,10 +96,91 @@ public class GraphHelper {
         return edge;
     }
 
+    /**
+     * Add an edge to the graph with specified id and provided properties, in one step if the graph is a BulkWriteGraph.
+     *
+     * @param graph      the graph to create the edge in
+     * @param id         the id of the edge to create
+     * @param outVertex  the outgoing/tail vertex of the edge
+     * @param inVertex   the incoming/head vertex of the edge
+     * @param label      the label of the edge
+     * @param properties the properties of the edge to add
+     * @return the edge created in the graph with the provided properties set
+     */
+    public static Edge addEdge(final Graph graph, final Object id, final Vertex outVertex, final Vertex inVertex, final String label, final Map<String, ?> properties) {
+        if (graph instanceof BulkWriteGraph)
+            return ((BulkWriteGraph) graph).addEdge(id, outVertex, inVertex, label, properties);
+        final Edge edge = graph.addEdge(id, outVertex, inVertex, label);
+        for (final Map.Entry<String, ?> entry : properties.entrySet()) {
+            edge.setProperty(entry.getKey(), entry.getValue());
+        }
+        return edge;
+    }
+
+    /**
+     * Add an edge to the graph for every spec, in one step if the graph is a BulkWriteGraph.
+     *
+     * @param graph the graph to create the edges in
+     * @param edges the ids, vertices, labels and properties of the edges to add
+     * @return the edges created in the order of the specs
+     */
+    public static List<Edge> addEdges(final Graph graph, final List<BulkWriteGraph.EdgeSpec> edges) {
+        if (graph instanceof BulkWriteGraph)
+            return ((BulkWriteGraph) graph).addEdges(edges);
+        final List<Edge> added = new ArrayList<Edge>(edges.size());
+        for (final BulkWriteGraph.EdgeSpec spec : edges) {
+            added.add(addEdge(graph, spec.getId(), spec.getOutVertex(), spec.getInVertex(), spec.getLabel(), spec.getProperties()));
+        }
+        return added;
+    }
+
+    private static Map<String, Object> toMap(final Object... properties) {
+        final Map<String, Object> map = new LinkedHashMap<String, Object>();
+        for (int i = 0; i < properties.length; i = i + 2) {
+            map.put((String) properties[i], properties[i + 1]);
+        }
+        return map;
+    }
+
+    /**
+     * Retrieve the vertices referenced by the provided ids, in one call if the graph is a BulkReadGraph.
+     *
+     * @param graph the graph to retrieve the vertices from
+     * @param ids   the ids of the vertices
+     * @return the vertices in the order of the ids, with null for every id that does not reference a vertex
+     */
+    public static List<Vertex> getVertices(final Graph graph, final Collection<?> ids) {
+        if (graph instanceof BulkReadGraph)
+            return ((BulkReadGraph) graph).getVertices(ids);
+        final List<Vertex> vertices = new ArrayList<Vertex>(ids.size());
+        for (final Object id : ids) {
+            vertices.add(graph.getVertex(id));
+        }
+        return vertices;
+    }
+
+    /**
+     * Retrieve the edges referenced by the provided ids, in one call if the graph is a BulkReadGraph.
+     *
+     * @param graph the graph to retrieve the edges from
+     * @param ids   the ids of the edges
+     * @return the edges in the order of the ids, with null for every id that does not reference an edge
+     */
+    public static List<Edge> getEdges(final Graph graph, final Collection<?> ids) {
+        if (graph instanceof BulkReadGraph)
+            return ((BulkReadGraph) graph).getEdges(ids);
+        final List<Edge> edges = new ArrayList<Edge>(ids.size());
+        for (final Object id : ids) {
+            edges.add(graph.getEdge(id));
+        }
+        return edges;
+    }
+
     /**
      * Copy the vertex/edges of one graph over to another graph.
      * The id of the elements in the from graph are attempted to be used in the to graph.
      * This method only works for graphs where the user can control the element ids.
+     * Large graphs are copied faster by {@link com.tinkerpop.blueprints.util.wrappers.batch.GraphCopier}.
      *
      * @param from the graph to copy from
      * @param to   the graph to copy to
@@ -0,0 +1,382 @@
+package com.tinkerpop.blueprints.util;
+
+import com.tinkerpop.blueprints.TransactionalGraph;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Executes TransactionWork submitted by many threads in batches with one commit per batch, so that many small,
+ * independent mutations share the cost of a commit.
+ *
+ * Each writer thread takes up to maxBatchSize units from the queue, executes them one after the other in one
+ * transaction and commits. The future of each unit completes with its result once the batch is committed. If a unit
+ * throws an exception or the commit fails, the batch is rolled back and every unit of the batch is executed in a
+ * transaction of its own with the TransactionRetryStrategy of the executor, so that a failing unit does not fail the
+ * units it was batched with. Hence, units must not depend on being executed only once and should not commit or roll
+ * back themselves. An Error raised by a unit or the commit is not retried: the batch is rolled back and every unit of
+ * it fails with the Error.
+ *
+ * With more than one writer thread, the graph must isolate the transactions of threads from each other.
+ */
+public class GroupCommitExecutor {
+
+    private final TransactionalGraph graph;
+    private final int maxBatchSize;
+    private final long maxDelay;
+    private final TransactionRetryStrategy<Object> retryStrategy;
+    private final BlockingQueue<GroupCommitFuture<?>> queue;
+    private final Thread[] writers;
+
+    // submissions hold the read lock so that shutdown does not miss units which are being queued
+    private final ReadWriteLock shutdownLock = new ReentrantReadWriteLock();
+    private volatile boolean shutdown = false;
+    private final CountDownLatch terminated;
+
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong committedUnits = new AtomicLong();
+    private final AtomicLong failedBatches = new AtomicLong();
+    private final AtomicLong failedUnits = new AtomicLong();
+
+    private GroupCommitExecutor(final Builder builder) {
+        this.graph = builder.graph;
+        this.maxBatchSize = builder.maxBatchSize;
+        this.maxDelay = builder.maxDelay;
+        this.retryStrategy = builder.retryStrategy;
+        this.queue = new LinkedBlockingQueue<GroupCommitFuture<?>>(builder.queueCapacity);
+        this.writers = new Thread[builder.writerThreads];
+        this.terminated = new CountDownLatch(this.writers.length);
+        for (int i = 0; i < this.writers.length; i++) {
+            this.writers[i] = new Thread(new Runnable() {
+                public void run() {
+                    try {
+                        write();
+                    } finally {
+                        terminated.countDown();
+                    }
+                }
+            }, "group-commit-writer-" + i);
+            this.writers[i].setDaemon(true);
+            this.writers[i].start();
+        }
+    }
+
+    /**
+     * Queues the work, blocking while the queue is full.
+     *
+     * @return a future completing with the result of the work once it is committed
+     * @throws IllegalStateException if the executor is shut down
+     */
+    public <T> Future<T> submit(final TransactionWork<T> work) {
+        if (null == work) throw new IllegalArgumentException("Work may not be null");
+        final GroupCommitFuture<T> future = new GroupCommitFuture<T>(work);
+        this.shutdownLock.readLock().lock();
+        try {
+            if (this.shutdown) throw new IllegalStateException("The executor is shut down");
+            this.queue.put(future);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e.getMessage(), e);
+        } finally {
+            this.shutdownLock.readLock().unlock();
+        }
+        return future;
+    }
+
+    /**
+     * Stops accepting work. The work queued before is still executed.
+     */
+    public void shutdown() {
+        this.shutdownLock.writeLock().lock();
+        try {
+            this.shutdown = true;
+        } finally {
+            this.shutdownLock.writeLock().unlock();
+        }
+    }
+
+    public boolean isShutdown() {
+        return this.shutdown;
+    }
+
+    /**
+     * @return whether all writer threads finished within the timeout after a shutdown
+     */
+    public boolean awaitTermination(final long timeout, final TimeUnit unit) throws InterruptedException {
+        return this.terminated.await(timeout, unit);
+    }
+
+    /**
+     * @return the number of units waiting to be executed
+     */
+    public int getQueueSize() {
+        return this.queue.size();
+    }
+
+    /**
+     * @return the number of batches committed at once
+     */
+    public long getBatchCount() {
+        return this.batches.get();
+    }
+
+    /**
+     * @return the number of units committed, in a batch or on their own
+     */
+    public long getCommittedCount() {
+        return this.committedUnits.get();
+    }
+
+    /**
+     * @return the number of batches which failed and fell back to executing their units one by one
+     */
+    public long getFailedBatchCount() {
+        return this.failedBatches.get();
+    }
+
+    /**
+     * @return the number of units which failed on their own
+     */
+    public long getFailedCount() {
+        return this.failedUnits.get();
+    }
+
+    private void write() {
+        final List<GroupCommitFuture<?>> batch = new ArrayList<GroupCommitFuture<?>>(this.maxBatchSize);
+        while (!(this.shutdown && this.queue.isEmpty())) {
+            try {
+                final GroupCommitFuture<?> first = this.queue.poll(100, TimeUnit.MILLISECONDS);
+                if (null == first) continue;
+                batch.add(first);
+                this.queue.drainTo(batch, this.maxBatchSize - 1);
+                if (this.maxDelay > 0) {
+                    // wait a little for more units to share the commit with
+                    final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(this.maxDelay);
+                    while (batch.size() < this.maxBatchSize) {
+                        final GroupCommitFuture<?> next = this.queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                        if (null == next) break;
+                        batch.add(next);
+                        this.queue.drainTo(batch, this.maxBatchSize - batch.size());
+                    }
+                }
+            } catch (InterruptedException e) {
+                if (batch.isEmpty()) continue;
+            }
+            this.execute(batch);
+            batch.clear();
+        }
+    }
+
+    private void execute(final List<GroupCommitFuture<?>> batch) {
+        final List<GroupCommitFuture<?>> started = new ArrayList<GroupCommitFuture<?>>(batch.size());
+        for (final GroupCommitFuture<?> future : batch) {
+            if (future.start()) started.add(future);
+        }
+        if (started.isEmpty()) return;
+
+        final Object[] results = new Object[started.size()];
+        try {
+            for (int i = 0; i < results.length; i++) {
+                results[i] = started.get(i).work.execute(this.graph);
+            }
+            this.graph.commit();
+        } catch (Exception e) {
+            this.rollback();
+            this.failedBatches.incrementAndGet();
+            for (final GroupCommitFuture<?> future : started) {
+                this.executeAlone(future);
+            }
+            return;
+        } catch (Throwable t) {
+            this.rollback();
+            this.failedBatches.incrementAndGet();
+            this.failedUnits.addAndGet(started.size());
+            for (final GroupCommitFuture<?> future : started) {
+                future.complete(null, t);
+            }
+            return;
+        }
+
+        this.batches.incrementAndGet();
+        this.committedUnits.addAndGet(results.length);
+        for (int i = 0; i < results.length; i++) {
+            started.get(i).complete(results[i], null);
+        }
+    }
+
+    private void executeAlone(final GroupCommitFuture<?> future) {
+        try {
+            final Object result = this.retryStrategy.execute(this.graph, (TransactionWork<Object>) future.work);
+            this.committedUnits.incrementAndGet();
+            future.complete(result, null);
+        } catch (TransactionRetryStrategy.TransactionFailedException e) {
+            this.failedUnits.incrementAndGet();
+            future.complete(null, null != e.getCause() ? e.getCause() : e);
+        } catch (Throwable t) {
+            // the strategies only roll back on exceptions
+            if (t instanceof Error) this.rollback();
+            this.failedUnits.incrementAndGet();
+            future.complete(null, t);
+        }
+    }
+
+    private void rollback() {
+        try {
+            this.graph.rollback();
+        } catch (RuntimeException e) {
+            // the units are executed again in transactions of their own
+        }
+    }
+
+    public String toString() {
+        return "groupcommitexecutor[writers:" + this.writers.length + " batches:" + this.batches.get()
+                + " committed:" + this.committedUnits.get() + " failed batches:" + this.failedBatches.get() + "]";
+    }
+
+    private static class GroupCommitFuture<T> implements Future<T> {
+
+        private static final int PENDING = 0;
+        private static final int RUNNING = 1;
+        private static final int DONE = 2;
+        private static final int CANCELLED = 3;
+
+        private final TransactionWork<T> work;
+        private final AtomicInteger state = new AtomicInteger(PENDING);
+        private final CountDownLatch done = new CountDownLatch(1);
+        private volatile T result;
+        private volatile Throwable failure;
+
+        private GroupCommitFuture(final TransactionWork<T> work) {
+            this.work = work;
+        }
+
+        private boolean start() {
+            return this.state.compareAndSet(PENDING, RUNNING);
+        }
+
+        private void complete(final Object result, final Throwable failure) {
+            this.result = (T) result;
+            this.failure = failure;
+            this.state.set(DONE);
+            this.done.countDown();
+        }
+
+        /**
+         * Work can only be cancelled before a writer took it from the queue.
+         */
+        public boolean cancel(final boolean mayInterruptIfRunning) {
+            if (!this.state.compareAndSet(PENDING, CANCELLED)) return false;
+            this.done.countDown();
+            return true;
+        }
+
+        public boolean isCancelled() {
+            return this.state.get() == CANCELLED;
+        }
+
+        public boolean isDone() {
+            return this.done.getCount() == 0;
+        }
+
+        public T get() throws InterruptedException, ExecutionException {
+            this.done.await();
+            return this.getResult();
+        }
+
+        public T get(final long timeout, final TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+            if (!this.done.await(timeout, unit)) throw new TimeoutException();
+            return this.getResult();
+        }
+
+        private T getResult() throws ExecutionException {
+            if (this.state.get() == CANCELLED) throw new CancellationException();
+            if (null != this.failure) throw new ExecutionException(this.failure);
+            return this.result;
+        }
+    }
+
+    /**
+     * Constructs a GroupCommitExecutor.
+     */
+    public static class Builder {
+
+        public static final int DEFAULT_MAX_BATCH_SIZE = 100;
+        public static final int DEFAULT_QUEUE_CAPACITY = 10000;
+
+        private final TransactionalGraph graph;
+        private int writerThreads = 1;
+        private int maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+        private long maxDelay = 0;
+        private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+        private TransactionRetryStrategy<Object> retryStrategy = new TransactionRetryStrategy.OneAndDone<Object>();
+
+        public Builder(final TransactionalGraph graph) {
+            if (null == graph) throw new IllegalArgumentException("Graph may not be null");
+            this.graph = graph;
+        }
+
+        /**
+         * The number of threads committing batches, by default 1.
+         */
+        public Builder writerThreads(final int writerThreads) {
+            if (writerThreads <= 0) throw new IllegalArgumentException("The number of writer threads must be positive");
+            this.writerThreads = writerThreads;
+            return this;
+        }
+
+        /**
+         * The maximum number of units committed at once.
+         */
+        public Builder maxBatchSize(final int maxBatchSize) {
+            if (maxBatchSize <= 0) throw new IllegalArgumentException("Batch size must be positive");
+            this.maxBatchSize = maxBatchSize;
+            return this;
+        }
+
+        /**
+         * The time in milliseconds a writer waits for more units before it commits a batch which is not full, by
+         * default 0, i.e. a writer commits the units queued when it takes the batch.
+         */
+        public Builder maxDelay(final long maxDelay) {
+            if (maxDelay < 0) throw new IllegalArgumentException("Delay can not be negative");
+            this.maxDelay = maxDelay;
+            return this;
+        }
+
+        /**
+         * The maximum number of units waiting to be executed, before submit() blocks.
+         */
+        public Builder queueCapacity(final int queueCapacity) {
+            if (queueCapacity <= 0) throw new IllegalArgumentException("Capacity must be positive");
+            this.queueCapacity = queueCapacity;
+            return this;
+        }
+
+        /**
+         * The strategy to execute the units of a failed batch with, by default OneAndDone.
+         */
+        public Builder retryStrategy(final TransactionRetryStrategy<Object> retryStrategy) {
+            if (null == retryStrategy) throw new IllegalArgumentException("Strategy may not be null");
+            this.retryStrategy = retryStrategy;
+            return this;
+        }
+
+        public GroupCommitExecutor build() {
+            if (this.writerThreads > 1 && !this.graph.getFeatures().supportsThreadIsolatedTransactions)
+                throw new IllegalArgumentException("More than one writer thread requires thread isolated transactions");
+            return new GroupCommitExecutor(this);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.tinkerpop.blueprints.util;
+
+import com.tinkerpop.blueprints.Element;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The progress of a key index which is built in the background while the graph stays available.
+ *
+ * Reads of the key keep filtering all elements until the build completes, only then they are answered by the index.
+ * The future completes with the number of element properties which were indexed.
+ */
+public abstract class KeyIndexBuild implements Future<Long> {
+
+    private static final int RUNNING = 0;
+    private static final int DONE = 1;
+    private static final int FAILED = 2;
+    private static final int CANCELLED = 3;
+
+    private final String key;
+    private final Class<? extends Element> elementClass;
+    private final long elementCount;
+
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong indexed = new AtomicLong();
+    private final AtomicInteger state = new AtomicInteger(RUNNING);
+    private final CountDownLatch done = new CountDownLatch(1);
+    private volatile Throwable failure;
+
+    protected KeyIndexBuild(final String key, final Class<? extends Element> elementClass, final long elementCount) {
+        this.key = key;
+        this.elementClass = elementClass;
+        this.elementCount = elementCount;
+    }
+
+    public String getKey() {
+        return this.key;
+    }
+
+    public Class<? extends Element> getElementClass() {
+        return this.elementClass;
+    }
+
+    /**
+     * @return the number of elements which existed when the build started
+     */
+    public long getElementCount() {
+        return this.elementCount;
+    }
+
+    /**
+     * @return the number of elements the build went through so far
+     */
+    public long getProcessedCount() {
+        return this.processed.get();
+    }
+
+    /**
+     * @return the number of element properties the build indexed so far
+     */
+    public long getIndexedCount() {
+        return this.indexed.get();
+    }
+
+    /**
+     * @return the share of the elements the build went through, between 0 and 1
+     */
+    public double getProgress() {
+        if (0 == this.elementCount) return this.isDone() ? 1.0d : 0.0d;
+        return (double) this.processed.get() / this.elementCount;
+    }
+
+    /**
+     * @return the exception the build failed with or null
+     */
+    public Throwable getFailure() {
+        return this.failure;
+    }
+
+    protected void processed(final long elements, final long properties) {
+        this.processed.addAndGet(elements);
+        this.indexed.addAndGet(properties);
+    }
+
+    /**
+     * Completes the build, successfully if the failure is null.
+     *
+     * @return false if the build was completed before
+     */
+    protected boolean finish(final Throwable failure) {
+        if (!this.state.compareAndSet(RUNNING, null == failure ? DONE : FAILED)) return false;
+        this.failure = failure;
+        this.done.countDown();
+        return true;
+    }
+
+    /**
+     * Stops the build and discards what was indexed so far. A build which completed can not be cancelled.
+     */
+    public boolean cancel(final boolean mayInterruptIfRunning) {
+        if (!this.state.compareAndSet(RUNNING, CANCELLED)) return false;
+        this.done.countDown();
+        return true;
+    }
+
+    public boolean isCancelled() {
+        return this.state.get() == CANCELLED;
+    }
+
+    public boolean isDone() {
+        return this.state.get() != RUNNING;
+    }
+
+    public Long get() throws InterruptedException, ExecutionException {
+        this.done.await();
+        return this.getResult();
+    }
+
+    public Long get(final long timeout, final TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+        if (!this.done.await(timeout, unit)) throw new TimeoutException();
+        return this.getResult();
+    }
+
+    private Long getResult() throws ExecutionException {
+        if (this.state.get() == CANCELLED) throw new CancellationException();
+        if (null != this.failure) throw new ExecutionException(this.failure);
+        return this.indexed.get();
+    }
+
+    public String toString() {
+        return "keyindexbuild[" + this.key + ":" + this.elementClass.getSimpleName().toLowerCase()
+                + " processed:" + this.processed.get() + "/" + this.elementCount + "]";
+    }
+}
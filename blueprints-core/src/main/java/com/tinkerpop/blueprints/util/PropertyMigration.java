@@ -0,0 +1,514 @@
+package com.tinkerpop.blueprints.util;
+
+import com.tinkerpop.blueprints.Element;
+import com.tinkerpop.blueprints.Graph;
+import com.tinkerpop.blueprints.IdOrderedGraph;
+import com.tinkerpop.blueprints.TransactionalGraph;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Applies a Mutation to every element of a stream for schema migrations, such as renaming or typecasting a property.
+ *
+ * The stream is read on the calling thread and cut into batches, which a pool of worker threads mutates and commits
+ * one batch per transaction. After each commit the Checkpoint records how far the stream is done without gaps, so that
+ * a migration which was interrupted or failed resumes there when it is run again with the same checkpoint. Batches
+ * committed after a gap are mutated again on resume, hence mutations must be idempotent, as the ones provided here are.
+ * A resumed migration must read the elements in the same order: the vertices and edges of an IdOrderedGraph resume
+ * directly after the id of the checkpoint, other streams skip the elements done before.
+ *
+ * With more than one thread, a transactional graph must isolate the transactions of threads from each other and a
+ * non-transactional graph must allow distinct elements to be mutated concurrently.
+ */
+public class PropertyMigration {
+
+    /**
+     * Changes one element.
+     */
+    public static interface Mutation {
+
+        /**
+         * @return whether the element was changed
+         */
+        public boolean apply(Element element);
+    }
+
+    /**
+     * Records how far a migration is done.
+     */
+    public static interface Checkpoint {
+
+        /**
+         * @return the number of elements of the stream done by earlier runs
+         */
+        public long getPosition();
+
+        /**
+         * @return the id of the last element done by earlier runs or null
+         */
+        public Object getLastId();
+
+        public void save(long position, Object lastId);
+    }
+
+    /**
+     * Reports the progress of a migration.
+     */
+    public static interface Listener {
+
+        /**
+         * Called by the worker thread which committed a batch.
+         */
+        public void committed(PropertyMigration migration);
+    }
+
+    private final Graph graph;
+    private final Mutation mutation;
+    private final int threads;
+    private final int batchSize;
+    private final Checkpoint checkpoint;
+    private final Listener listener;
+
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong changed = new AtomicLong();
+    private final AtomicLong commits = new AtomicLong();
+    private volatile long startTime = 0;
+    private volatile long stopTime = 0;
+
+    // the committed batches which follow a batch still in progress, by sequence number
+    private final TreeMap<Long, Batch> committedBatches = new TreeMap<Long, Batch>();
+    private long nextSequence = 0;
+    private long position = 0;
+    private Object lastId = null;
+    private volatile Throwable failure = null;
+
+    private PropertyMigration(final Builder builder) {
+        this.graph = builder.graph;
+        this.mutation = builder.mutation;
+        this.threads = builder.threads;
+        this.batchSize = builder.batchSize;
+        this.checkpoint = builder.checkpoint;
+        this.listener = builder.listener;
+    }
+
+    /**
+     * Migrates the vertices of the graph.
+     *
+     * @return the number of elements mutated by this run
+     */
+    public long migrateVertices() {
+        if (this.graph instanceof IdOrderedGraph)
+            return this.migrate(((IdOrderedGraph) this.graph).getVerticesAfter(this.checkpoint.getLastId()), false);
+        else
+            return this.migrate(this.graph.getVertices(), true);
+    }
+
+    /**
+     * Migrates the edges of the graph.
+     *
+     * @return the number of elements mutated by this run
+     */
+    public long migrateEdges() {
+        if (this.graph instanceof IdOrderedGraph)
+            return this.migrate(((IdOrderedGraph) this.graph).getEdgesAfter(this.checkpoint.getLastId()), false);
+        else
+            return this.migrate(this.graph.getEdges(), true);
+    }
+
+    /**
+     * Migrates the elements, skipping the ones done by earlier runs with the checkpoint.
+     *
+     * @return the number of elements mutated by this run
+     */
+    public long migrate(final Iterable<? extends Element> elements) {
+        return this.migrate(elements, true);
+    }
+
+    private synchronized long migrate(final Iterable<? extends Element> elements, final boolean skip) {
+        this.processed.set(0);
+        this.changed.set(0);
+        this.commits.set(0);
+        this.committedBatches.clear();
+        this.nextSequence = 0;
+        this.position = this.checkpoint.getPosition();
+        this.lastId = this.checkpoint.getLastId();
+        this.failure = null;
+        this.startTime = System.currentTimeMillis();
+        this.stopTime = 0;
+
+        final ExecutorService workers = Executors.newFixedThreadPool(this.threads);
+        // bounds the batches read ahead of the workers
+        final Semaphore permits = new Semaphore(this.threads * 2);
+        try {
+            final Iterator<? extends Element> iterator = elements.iterator();
+            if (skip) {
+                for (long i = 0; i < this.position && iterator.hasNext(); i++) {
+                    iterator.next();
+                }
+            }
+            long sequence = 0;
+            while (null == this.failure && iterator.hasNext()) {
+                final List<Element> elementBatch = new ArrayList<Element>(this.batchSize);
+                while (elementBatch.size() < this.batchSize && iterator.hasNext()) {
+                    elementBatch.add(iterator.next());
+                }
+                final Batch batch = new Batch(sequence++, elementBatch);
+                permits.acquire();
+                workers.execute(new Runnable() {
+                    public void run() {
+                        try {
+                            execute(batch);
+                        } finally {
+                            permits.release();
+                        }
+                    }
+                });
+            }
+            workers.shutdown();
+            while (!workers.awaitTermination(1, TimeUnit.SECONDS)) {
+                // the last batches are still being committed
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            this.stop(workers);
+            throw new RuntimeException("The migration was interrupted at position " + this.getPosition(), e);
+        } catch (RuntimeException e) {
+            this.stop(workers);
+            throw e;
+        } finally {
+            this.stopTime = System.currentTimeMillis();
+        }
+
+        if (null != this.failure)
+            throw new RuntimeException("The migration failed at position " + this.getPosition() + ": " + this.failure.getMessage(), this.failure);
+        return this.processed.get();
+    }
+
+    private void stop(final ExecutorService workers) {
+        workers.shutdownNow();
+        try {
+            workers.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void execute(final Batch batch) {
+        if (null != this.failure)
+            return;
+        long changedElements = 0;
+        try {
+            for (final Element element : batch.elements) {
+                if (this.mutation.apply(element))
+                    changedElements++;
+            }
+            if (this.graph instanceof TransactionalGraph)
+                ((TransactionalGraph) this.graph).commit();
+        } catch (Throwable t) {
+            if (this.graph instanceof TransactionalGraph) {
+                try {
+                    ((TransactionalGraph) this.graph).rollback();
+                } catch (RuntimeException e) {
+                    // the batch is mutated again when the migration resumes
+                }
+            }
+            this.failure = t;
+            return;
+        }
+
+        this.processed.addAndGet(batch.elements.size());
+        this.changed.addAndGet(changedElements);
+        this.commits.incrementAndGet();
+        this.committed(batch);
+        if (null != this.listener)
+            this.listener.committed(this);
+    }
+
+    private void committed(final Batch batch) {
+        synchronized (this.committedBatches) {
+            this.committedBatches.put(batch.sequence, batch);
+            // the checkpoint only moves over batches which are committed without a gap
+            Batch next = this.committedBatches.remove(this.nextSequence);
+            if (null == next)
+                return;
+            while (null != next) {
+                this.position = this.position + next.elements.size();
+                this.lastId = next.elements.get(next.elements.size() - 1).getId();
+                this.nextSequence++;
+                next = this.committedBatches.remove(this.nextSequence);
+            }
+            this.checkpoint.save(this.position, this.lastId);
+        }
+    }
+
+    /**
+     * @return the number of elements of the stream done without a gap, including earlier runs
+     */
+    public long getPosition() {
+        synchronized (this.committedBatches) {
+            return this.position;
+        }
+    }
+
+    /**
+     * @return the number of elements mutated and committed by this run
+     */
+    public long getProcessedCount() {
+        return this.processed.get();
+    }
+
+    /**
+     * @return the number of elements the mutation changed in this run
+     */
+    public long getChangedCount() {
+        return this.changed.get();
+    }
+
+    public long getCommitCount() {
+        return this.commits.get();
+    }
+
+    public long getElapsedTime() {
+        if (0 == this.startTime)
+            return 0;
+        return (0 == this.stopTime ? System.currentTimeMillis() : this.stopTime) - this.startTime;
+    }
+
+    /**
+     * @return the number of elements committed per second in this run
+     */
+    public double getThroughput() {
+        final long elapsed = this.getElapsedTime();
+        return 0 == elapsed ? 0.0d : this.processed.get() * 1000.0d / elapsed;
+    }
+
+    public String toString() {
+        return "propertymigration[position:" + this.getPosition() + " processed:" + this.processed.get()
+                + " changed:" + this.changed.get() + " elements/s:" + (long) this.getThroughput() + "]";
+    }
+
+    private static class Batch {
+        private final long sequence;
+        private final List<Element> elements;
+
+        private Batch(final long sequence, final List<Element> elements) {
+            this.sequence = sequence;
+            this.elements = elements;
+        }
+    }
+
+    /**
+     * Moves the value of oldKey to newKey.
+     */
+    public static Mutation renameProperty(final String oldKey, final String newKey) {
+        return new Mutation() {
+            public boolean apply(final Element element) {
+                final Object value = element.removeProperty(oldKey);
+                if (null == value)
+                    return false;
+                element.setProperty(newKey, value);
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Replaces the value of the key by an instance of classCast created from the string of the value.
+     */
+    public static Mutation typecastProperty(final String key, final Class classCast) {
+        return new Mutation() {
+            public boolean apply(final Element element) {
+                final Object value = element.getProperty(key);
+                if (null == value || classCast.isInstance(value))
+                    return false;
+                try {
+                    element.setProperty(key, classCast.getConstructor(String.class).newInstance(value.toString()));
+                } catch (Exception e) {
+                    throw new RuntimeException(e.getMessage(), e);
+                }
+                return true;
+            }
+        };
+    }
+
+    public static Mutation removeProperty(final String key) {
+        return new Mutation() {
+            public boolean apply(final Element element) {
+                return null != element.removeProperty(key);
+            }
+        };
+    }
+
+    public static Mutation removeProperties() {
+        return new Mutation() {
+            public boolean apply(final Element element) {
+                final List<String> keys = new ArrayList<String>(element.getPropertyKeys());
+                for (final String key : keys) {
+                    element.removeProperty(key);
+                }
+                return !keys.isEmpty();
+            }
+        };
+    }
+
+    /**
+     * A checkpoint kept in memory, to resume a migration in the same process.
+     */
+    public static class MemoryCheckpoint implements Checkpoint {
+
+        private long position = 0;
+        private Object lastId = null;
+
+        public synchronized long getPosition() {
+            return this.position;
+        }
+
+        public synchronized Object getLastId() {
+            return this.lastId;
+        }
+
+        public synchronized void save(final long position, final Object lastId) {
+            this.position = position;
+            this.lastId = lastId;
+        }
+    }
+
+    /**
+     * A checkpoint kept in a properties file, which is replaced on every save. The id is kept as its string, which
+     * suffices to resume on graphs which accept the string of an id, such as TinkerGraph.
+     */
+    public static class FileCheckpoint implements Checkpoint {
+
+        private static final String POSITION = "position";
+        private static final String LAST_ID = "lastId";
+
+        private final File file;
+        private long position = 0;
+        private Object lastId = null;
+
+        public FileCheckpoint(final File file) {
+            this.file = file;
+            if (file.exists()) {
+                final Properties properties = new Properties();
+                try {
+                    final InputStream in = new FileInputStream(file);
+                    try {
+                        properties.load(in);
+                    } finally {
+                        in.close();
+                    }
+                } catch (IOException e) {
+                    throw new RuntimeException(e.getMessage(), e);
+                }
+                this.position = Long.parseLong(properties.getProperty(POSITION, "0"));
+                this.lastId = properties.getProperty(LAST_ID);
+            }
+        }
+
+        public synchronized long getPosition() {
+            return this.position;
+        }
+
+        public synchronized Object getLastId() {
+            return this.lastId;
+        }
+
+        public synchronized void save(final long position, final Object lastId) {
+            final Properties properties = new Properties();
+            properties.setProperty(POSITION, String.valueOf(position));
+            if (null != lastId)
+                properties.setProperty(LAST_ID, lastId.toString());
+            final File temp = new File(this.file.getPath() + ".tmp");
+            try {
+                final OutputStream out = new FileOutputStream(temp);
+                try {
+                    properties.store(out, null);
+                } finally {
+                    out.close();
+                }
+            } catch (IOException e) {
+                throw new RuntimeException(e.getMessage(), e);
+            }
+            if (!temp.renameTo(this.file) && !(this.file.delete() && temp.renameTo(this.file)))
+                throw new RuntimeException("Could not replace the checkpoint " + this.file);
+            this.position = position;
+            this.lastId = null == lastId ? null : lastId.toString();
+        }
+    }
+
+    /**
+     * Constructs a PropertyMigration.
+     */
+    public static class Builder {
+
+        public static final int DEFAULT_BATCH_SIZE = 1000;
+
+        private final Graph graph;
+        private final Mutation mutation;
+        private int threads = 1;
+        private int batchSize = DEFAULT_BATCH_SIZE;
+        private Checkpoint checkpoint = new MemoryCheckpoint();
+        private Listener listener = null;
+
+        public Builder(final Graph graph, final Mutation mutation) {
+            if (null == graph) throw new IllegalArgumentException("Graph may not be null");
+            if (null == mutation) throw new IllegalArgumentException("Mutation may not be null");
+            this.graph = graph;
+            this.mutation = mutation;
+        }
+
+        /**
+         * The number of threads mutating batches, by default 1.
+         */
+        public Builder threads(final int threads) {
+            if (threads <= 0) throw new IllegalArgumentException("The number of threads must be positive");
+            this.threads = threads;
+            return this;
+        }
+
+        /**
+         * The number of elements committed at once.
+         */
+        public Builder batchSize(final int batchSize) {
+            if (batchSize <= 0) throw new IllegalArgumentException("Batch size must be positive");
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        /**
+         * The checkpoint to resume from and record progress in, by default a new MemoryCheckpoint.
+         */
+        public Builder checkpoint(final Checkpoint checkpoint) {
+            if (null == checkpoint) throw new IllegalArgumentException("Checkpoint may not be null");
+            this.checkpoint = checkpoint;
+            return this;
+        }
+
+        public Builder listener(final Listener listener) {
+            this.listener = listener;
+            return this;
+        }
+
+        public PropertyMigration build() {
+            if (this.threads > 1 && this.graph instanceof TransactionalGraph
+                    && !Boolean.TRUE.equals(this.graph.getFeatures().supportsThreadIsolatedTransactions))
+                throw new IllegalArgumentException("More than one thread requires thread isolated transactions");
+            return new PropertyMigration(this);
+        }
+    }
+}
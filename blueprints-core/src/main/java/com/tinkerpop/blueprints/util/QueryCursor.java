@@ -0,0 +1,75 @@
+package com.tinkerpop.blueprints.util;
+
+/**
+ * QueryCursor encodes and decodes the continuation tokens handed out by DefaultGraphQuery.
+ * A token either records the id of the last element returned from an IdOrderedGraph or the number of elements
+ * consumed from the underlying source when the graph provides no ordered access.
+ * Tokens are opaque to users and are only meaningful to the query that produced them.
+ */
+public final class QueryCursor {
+
+    private static final String ID_PREFIX = "i:";
+    private static final String POSITION_PREFIX = "p:";
+
+    private final Object id;
+    private final long position;
+
+    private QueryCursor(final Object id, final long position) {
+        this.id = id;
+        this.position = position;
+    }
+
+    public static String encodeId(final Object id) {
+        if (null == id)
+            throw new IllegalArgumentException("A cursor id can not be null");
+        return ID_PREFIX + id.toString();
+    }
+
+    public static String encodePosition(final long position) {
+        if (position < 0)
+            throw new IllegalArgumentException("A cursor position must be positive: " + position);
+        return POSITION_PREFIX + position;
+    }
+
+    /**
+     * Decode the provided continuation token.
+     *
+     * @param cursor the token to decode
+     * @return the decoded cursor (null if the token is null)
+     * @throws IllegalArgumentException if the token was not produced by a QueryCursor
+     */
+    public static QueryCursor decode(final String cursor) {
+        if (null == cursor)
+            return null;
+        if (cursor.startsWith(ID_PREFIX))
+            return new QueryCursor(cursor.substring(ID_PREFIX.length()), -1l);
+        if (cursor.startsWith(POSITION_PREFIX)) {
+            try {
+                final long position = Long.parseLong(cursor.substring(POSITION_PREFIX.length()));
+                if (position >= 0)
+                    return new QueryCursor(null, position);
+            } catch (NumberFormatException e) {
+                // fall through to the invalid cursor exception
+            }
+        }
+        throw new IllegalArgumentException("The provided cursor is not a valid query cursor: " + cursor);
+    }
+
+    public boolean isIdCursor() {
+        return null != this.id;
+    }
+
+    /**
+     * @return the string form of the id of the last returned element
+     */
+    public Object getId() {
+        return this.id;
+    }
+
+    /**
+     * @return the number of source elements consumed before this cursor
+     */
+    public long getPosition() {
+        return this.position;
+    }
+}
@@ -0,0 +1,121 @@
+package com.tinkerpop.blueprints.util;
+
+import com.tinkerpop.blueprints.Direction;
+import com.tinkerpop.blueprints.Element;
+import com.tinkerpop.blueprints.Vertex;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * QueryPlan explains how DefaultGraphQuery or DefaultVertexQuery evaluates a query: the source of the elements, i.e.
+ * the access path, and the filters every element of the source is checked against, in the order of evaluation.
+ * Filters are evaluated until the first one rejects the element.
+ */
+public class QueryPlan {
+
+    public enum AccessPath {
+        /**
+         * The elements having the value for an indexed key, see KeyIndexableGraph
+         */
+        KEY_INDEX,
+        /**
+         * The elements of an IdOrderedGraph from a cursor or the beginning
+         */
+        ID_ORDERED,
+        /**
+         * All elements of the graph
+         */
+        SCAN,
+        /**
+         * The edges of a vertex
+         */
+        ADJACENCY
+    }
+
+    private final Class<? extends Element> elementClass;
+    private final AccessPath accessPath;
+    private final String indexKey;
+    private final Object indexValue;
+    private final Direction direction;
+    private final String[] labels;
+    private final List<String> filters;
+    private final int skip;
+    private final int limit;
+
+    QueryPlan(final Class<? extends Element> elementClass, final AccessPath accessPath, final String indexKey, final Object indexValue,
+              final Direction direction, final String[] labels, final List<String> filters, final int skip, final int limit) {
+        this.elementClass = elementClass;
+        this.accessPath = accessPath;
+        this.indexKey = indexKey;
+        this.indexValue = indexValue;
+        this.direction = direction;
+        this.labels = labels;
+        this.filters = Collections.unmodifiableList(filters);
+        this.skip = skip;
+        this.limit = limit;
+    }
+
+    public Class<? extends Element> getElementClass() {
+        return this.elementClass;
+    }
+
+    public AccessPath getAccessPath() {
+        return this.accessPath;
+    }
+
+    /**
+     * @return the key looked up in the key index or null if the access path is not KEY_INDEX
+     */
+    public String getIndexKey() {
+        return this.indexKey;
+    }
+
+    public Object getIndexValue() {
+        return this.indexValue;
+    }
+
+    /**
+     * @return the direction of the edges of the vertex or null if the access path is not ADJACENCY
+     */
+    public Direction getDirection() {
+        return this.direction;
+    }
+
+    /**
+     * @return the labels of the edges of the vertex or null if the access path is not ADJACENCY
+     */
+    public String[] getLabels() {
+        return null == this.labels ? null : this.labels.clone();
+    }
+
+    /**
+     * @return the filters in the order they are evaluated, e.g. "age GREATER_THAN 30"
+     */
+    public List<String> getFilters() {
+        return this.filters;
+    }
+
+    public int getSkip() {
+        return this.skip;
+    }
+
+    public int getLimit() {
+        return this.limit;
+    }
+
+    public String toString() {
+        final StringBuilder builder = new StringBuilder("queryplan[");
+        builder.append(Vertex.class.isAssignableFrom(this.elementClass) ? "vertices" : "edges");
+        builder.append(" by ").append(this.accessPath);
+        if (this.accessPath == AccessPath.KEY_INDEX)
+            builder.append(" on ").append(this.indexKey).append("=").append(this.indexValue);
+        else if (this.accessPath == AccessPath.ADJACENCY)
+            builder.append(" ").append(this.direction).append(" ").append(Arrays.asList(this.labels));
+        builder.append(" filters:").append(this.filters);
+        if (this.skip > 0) builder.append(" skip:").append(this.skip);
+        if (this.limit != Integer.MAX_VALUE) builder.append(" limit:").append(this.limit);
+        return builder.append("]").toString();
+    }
+}
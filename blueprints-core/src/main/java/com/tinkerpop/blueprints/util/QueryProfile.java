@@ -0,0 +1,153 @@
+package com.tinkerpop.blueprints.util;
+
+/**
+ * QueryProfile reports how many elements a query took from its source, how many each filter rejected and how many
+ * it returned, and the time spent in each stage: obtaining the source, reading elements from it and evaluating the
+ * filters. The time the caller spends between reading results is not included.
+ *
+ * A profile is complete once the query is exhausted or reached its limit, see DefaultGraphQuery.profile(Class).
+ */
+public class QueryProfile {
+
+    private final QueryPlan plan;
+    private final long[] rejected;
+    private long scanned = 0;
+    private long skipped = 0;
+    private long returned = 0;
+    private long sourceNanos = 0;
+    private long scanNanos = 0;
+    private long filterNanos = 0;
+    private boolean finished = false;
+
+    QueryProfile(final QueryPlan plan) {
+        this.plan = plan;
+        this.rejected = new long[plan.getFilters().size()];
+    }
+
+    public QueryPlan getPlan() {
+        return this.plan;
+    }
+
+    /**
+     * @return the number of elements read from the source
+     */
+    public long getScannedCount() {
+        return this.scanned;
+    }
+
+    /**
+     * @return the number of elements rejected by the filter at the position in the plan
+     */
+    public long getRejectedCount(final int filter) {
+        return this.rejected[filter];
+    }
+
+    /**
+     * @return the number of elements rejected by any filter
+     */
+    public long getRejectedCount() {
+        long count = 0;
+        for (final long filter : this.rejected) {
+            count += filter;
+        }
+        return count;
+    }
+
+    /**
+     * @return the number of elements passing the filters which were skipped
+     */
+    public long getSkippedCount() {
+        return this.skipped;
+    }
+
+    public long getReturnedCount() {
+        return this.returned;
+    }
+
+    /**
+     * @return the time in nanoseconds spent obtaining the source, e.g. looking up the key index
+     */
+    public long getSourceTime() {
+        return this.sourceNanos;
+    }
+
+    /**
+     * @return the time in nanoseconds spent reading elements from the source
+     */
+    public long getScanTime() {
+        return this.scanNanos;
+    }
+
+    /**
+     * @return the time in nanoseconds spent evaluating filters
+     */
+    public long getFilterTime() {
+        return this.filterNanos;
+    }
+
+    /**
+     * @return the time in nanoseconds spent in all stages
+     */
+    public long getTotalTime() {
+        return this.sourceNanos + this.scanNanos + this.filterNanos;
+    }
+
+    public boolean isFinished() {
+        return this.finished;
+    }
+
+    void addSourceTime(final long nanos) {
+        this.sourceNanos += nanos;
+    }
+
+    void scanned(final long nanos) {
+        this.scanned++;
+        this.scanNanos += nanos;
+    }
+
+    void addScanTime(final long nanos) {
+        this.scanNanos += nanos;
+    }
+
+    void addFilterTime(final long nanos) {
+        this.filterNanos += nanos;
+    }
+
+    void rejected(final int filter) {
+        this.rejected[filter]++;
+    }
+
+    void skipped() {
+        this.skipped++;
+    }
+
+    void returned() {
+        this.returned++;
+    }
+
+    /**
+     * @return whether the profile was not finished before
+     */
+    boolean finish() {
+        if (this.finished) return false;
+        this.finished = true;
+        return true;
+    }
+
+    public String toString() {
+        final StringBuilder builder = new StringBuilder("queryprofile[");
+        builder.append(this.plan);
+        builder.append(" scanned:").append(this.scanned);
+        builder.append(" rejected:[");
+        for (int i = 0; i < this.rejected.length; i++) {
+            if (i > 0) builder.append(", ");
+            builder.append(this.plan.getFilters().get(i)).append(":").append(this.rejected[i]);
+        }
+        builder.append("] skipped:").append(this.skipped);
+        builder.append(" returned:").append(this.returned);
+        builder.append(" source ms:").append(this.sourceNanos / 1e6d);
+        builder.append(" scan ms:").append(this.scanNanos / 1e6d);
+        builder.append(" filter ms:").append(this.filterNanos / 1e6d);
+        return builder.append("]").toString();
+    }
+}
@@ -0,0 +1,101 @@
+package com.tinkerpop.blueprints.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the attempts to execute one type of TransactionWork, see {@link ContentionTracker#getMetrics(Class)}.
+ */
+public class RetryMetrics {
+
+    private final AtomicLong executions = new AtomicLong();
+    private final AtomicLong attempts = new AtomicLong();
+    private final AtomicLong conflicts = new AtomicLong();
+    private final AtomicLong successes = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong budgetExhausted = new AtomicLong();
+    private final AtomicLong delay = new AtomicLong();
+
+    void executed() {
+        this.executions.incrementAndGet();
+    }
+
+    void attempted() {
+        this.attempts.incrementAndGet();
+    }
+
+    void conflicted() {
+        this.conflicts.incrementAndGet();
+    }
+
+    void succeeded() {
+        this.successes.incrementAndGet();
+    }
+
+    void failed() {
+        this.failures.incrementAndGet();
+    }
+
+    void budgetExhausted() {
+        this.budgetExhausted.incrementAndGet();
+    }
+
+    void delayed(final long millis) {
+        this.delay.addAndGet(millis);
+    }
+
+    /**
+     * @return the number of times the work was executed, each with one or more attempts
+     */
+    public long getExecutionCount() {
+        return this.executions.get();
+    }
+
+    public long getAttemptCount() {
+        return this.attempts.get();
+    }
+
+    /**
+     * @return the number of attempts after the first
+     */
+    public long getRetryCount() {
+        return this.attempts.get() - this.executions.get();
+    }
+
+    /**
+     * @return the number of attempts which failed with an exception to retry on
+     */
+    public long getConflictCount() {
+        return this.conflicts.get();
+    }
+
+    public long getSuccessCount() {
+        return this.successes.get();
+    }
+
+    /**
+     * @return the number of executions which failed after all attempts
+     */
+    public long getFailureCount() {
+        return this.failures.get();
+    }
+
+    /**
+     * @return the number of executions which failed since the retry budget was exhausted
+     */
+    public long getBudgetExhaustedCount() {
+        return this.budgetExhausted.get();
+    }
+
+    /**
+     * @return the total time in milliseconds waited between attempts
+     */
+    public long getTotalDelay() {
+        return this.delay.get();
+    }
+
+    public String toString() {
+        return "retrymetrics[executions:" + this.getExecutionCount() + " retries:" + this.getRetryCount()
+                + " conflicts:" + this.getConflictCount() + " failures:" + this.getFailureCount()
+                + " budget exhausted:" + this.getBudgetExhaustedCount() + "]";
+    }
+}
@@ -0,0 +1,14 @@
+package com.tinkerpop.blueprints.util;
+
+/**
+ * A SlowQueryListener is notified of the queries evaluated by DefaultGraphQuery and DefaultVertexQuery which took
+ * at least the threshold set with {@link DefaultQuery#setSlowQueryListener(SlowQueryListener, long)} or, for all
+ * queries of a graph, with {@link com.tinkerpop.blueprints.impls.tg.TinkerGraph#setSlowQueryListener(SlowQueryListener, long)}.
+ *
+ * The listener is called by the thread iterating the query once it is exhausted or reached its limit, so it should
+ * return quickly, e.g. by logging the profile.
+ */
+public interface SlowQueryListener {
+
+    public void slowQuery(QueryProfile profile);
+}
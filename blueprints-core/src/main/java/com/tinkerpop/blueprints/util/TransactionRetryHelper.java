@@ -3,6 +3,8 @@ package com.tinkerpop.blueprints.util;
 import com.tinkerpop.blueprints.TransactionalGraph;
 
 import java.util.Set;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
 
 /**
  * Creates a TransactionGraph "holder" which allows execution of a TransactionWork instance inside of a
@@ -108,6 +110,31 @@ public class TransactionRetryHelper<T> {
                 retries, initialDelay, exceptionsToRetryOn));
     }
 
+    /**
+     * Executes the work with a default number of retries with random delays between each retry, which are widened
+     * under contention recorded by the ContentionTracker of the graph, see TransactionRetryStrategy.DecorrelatedJitter.
+     */
+    public T decorrelatedJitter() {
+        return use(new TransactionRetryStrategy.DecorrelatedJitter<T>());
+    }
+
+    /**
+     * Executes the work with a specified number of retries with random delays between each retry, which are widened
+     * while the tracker records a high conflict rate.
+     *
+     * @param tracker The tracker shared by all threads writing to the graph.
+     */
+    public T decorrelatedJitter(final int retries, final long baseDelay, final long maxDelay, final ContentionTracker tracker) {
+        return use(new TransactionRetryStrategy.DecorrelatedJitter<T>(retries, baseDelay, maxDelay, tracker));
+    }
+
+    /**
+     * Executes the work with a DecorrelatedJitter strategy on the scheduler without blocking the calling thread.
+     */
+    public Future<T> useAsync(final TransactionRetryStrategy.DecorrelatedJitter<T> strategy, final ScheduledExecutorService scheduler) {
+        return strategy.executeAsync(this.graph, this.work, scheduler);
+    }
+
     /**
      * Executes the work with a specified TransactionRetryStrategy.
      */
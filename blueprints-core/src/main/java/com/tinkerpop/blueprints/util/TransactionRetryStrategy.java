@@ -3,7 +3,13 @@ package com.tinkerpop.blueprints.util;
 import com.tinkerpop.blueprints.TransactionalGraph;
 
 import java.util.HashSet;
+import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * The strategy for executing a transaction.
@@ -21,6 +27,15 @@ public interface TransactionRetryStrategy<T> {
      */
     public T execute(TransactionalGraph graph, TransactionWork<T> work);
 
+    /**
+     * The exception the strategies throw when the work failed for good, with the exception of the last try as cause.
+     */
+    public static class TransactionFailedException extends RuntimeException {
+        public TransactionFailedException(final Throwable cause) {
+            super(cause);
+        }
+    }
+
     /**
      * Executes the work committing if possible and rolling back on failure.  On failure, an exception is reported.
      */
@@ -32,7 +47,7 @@ public interface TransactionRetryStrategy<T> {
                 graph.commit();
             } catch (Exception e) {
                 graph.rollback();
-                throw new RuntimeException(e);
+                throw new TransactionFailedException(e);
             }
 
             return returnValue;
@@ -152,20 +167,8 @@ public interface TransactionRetryStrategy<T> {
                     graph.rollback();
 
                     // retry if this is an allowed exception otherwise, just throw and go
-                    boolean retry = false;
-                    if (this.exceptionsToRetryOn.size() == 0)
-                        retry = true;
-                    else {
-                        for (Class exceptionToRetryOn : this.exceptionsToRetryOn) {
-                            if (ex.getClass().equals(exceptionToRetryOn)) {
-                                retry = true;
-                                break;
-                            }
-                        }
-                    }
-
-                    if (!retry) {
-                        throw new RuntimeException(ex);
+                    if (!isRetryable(this.exceptionsToRetryOn, ex)) {
+                        throw new TransactionFailedException(ex);
                     }
 
                     previousException = ex;
@@ -173,7 +176,194 @@ public interface TransactionRetryStrategy<T> {
             }
 
             // the exception just won't go away after all the retries
-            throw new RuntimeException(previousException);
+            throw new TransactionFailedException(previousException);
+        }
+
+        static boolean isRetryable(final Set<Class> exceptionsToRetryOn, final Exception ex) {
+            if (exceptionsToRetryOn.size() == 0)
+                return true;
+            for (Class exceptionToRetryOn : exceptionsToRetryOn) {
+                if (ex.getClass().equals(exceptionToRetryOn))
+                    return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Executes the work with a number of retries and with a random delay between each try, drawn between the base
+     * delay and three times the previous delay (decorrelated jitter), so that threads which failed on the same
+     * elements do not retry at the same time again.  The delays are widened while the conflict rate recorded by the
+     * ContentionTracker is high and retries stop when its retry budget is exhausted.  Without a tracker of its own,
+     * the strategy uses the tracker of the graph, which all such strategies writing to that graph share.
+     *
+     * The work may also be executed with executeAsync(), which schedules the tries on a ScheduledExecutorService
+     * instead of sleeping in the calling thread.
+     */
+    public static class DecorrelatedJitter<T> implements TransactionRetryStrategy<T> {
+        public static final long DEFAULT_BASE_DELAY_MS = 10;
+        public static final long DEFAULT_MAX_DELAY_MS = 1000;
+
+        private final int tries;
+        private final long baseDelay;
+        private final long maxDelay;
+        private final Set<Class> exceptionsToRetryOn;
+        private final ContentionTracker tracker;
+        private final Random random = new Random();
+
+        public DecorrelatedJitter() {
+            this(AbstractRetryStrategy.DEFAULT_TRIES, DEFAULT_BASE_DELAY_MS, DEFAULT_MAX_DELAY_MS);
+        }
+
+        public DecorrelatedJitter(final int tries, final long baseDelay, final long maxDelay) {
+            this(tries, baseDelay, maxDelay, null);
+        }
+
+        /**
+         * @param tracker the tracker shared with other strategies or null to use ContentionTracker.forGraph()
+         */
+        public DecorrelatedJitter(final int tries, final long baseDelay, final long maxDelay, final ContentionTracker tracker) {
+            this(tries, baseDelay, maxDelay, new HashSet<Class>(), tracker);
+        }
+
+        public DecorrelatedJitter(final int tries, final long baseDelay, final long maxDelay,
+                                  final Set<Class> exceptionsToRetryOn, final ContentionTracker tracker) {
+            if (tries <= 0) throw new IllegalArgumentException("Tries must be positive");
+            if (baseDelay <= 0 || maxDelay < baseDelay)
+                throw new IllegalArgumentException("Delays must be positive with the base delay not exceeding the maximum delay");
+            this.tries = tries;
+            this.baseDelay = baseDelay;
+            this.maxDelay = maxDelay;
+            this.exceptionsToRetryOn = exceptionsToRetryOn;
+            this.tracker = tracker;
+        }
+
+        /**
+         * @return the tracker given to this strategy or null if it uses the tracker of each graph
+         */
+        public ContentionTracker getTracker() {
+            return this.tracker;
+        }
+
+        public T execute(final TransactionalGraph graph, final TransactionWork<T> work) {
+            final Execution execution = new Execution(graph, work);
+            long delay;
+            while ((delay = execution.attempt()) >= 0) {
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    throw new TransactionFailedException(execution.failure);
+                }
+            }
+            return execution.getResult();
+        }
+
+        /**
+         * Executes the work on the scheduler, scheduling each retry after its delay instead of sleeping.
+         *
+         * @return a future completing with the return value of the work or the exception raised after all tries,
+         *         cancelling it stops further tries
+         */
+        public Future<T> executeAsync(final TransactionalGraph graph, final TransactionWork<T> work, final ScheduledExecutorService scheduler) {
+            final Execution execution = new Execution(graph, work);
+            final FutureTask<T> future = new FutureTask<T>(new Callable<T>() {
+                public T call() {
+                    return execution.getResult();
+                }
+            });
+            scheduler.execute(new Runnable() {
+                public void run() {
+                    if (future.isCancelled()) return;
+                    try {
+                        final long delay = execution.attempt();
+                        if (delay >= 0) {
+                            scheduler.schedule(this, delay, TimeUnit.MILLISECONDS);
+                            return;
+                        }
+                    } catch (Throwable t) {
+                        // e.g. a failing rollback or a scheduler which was shut down, the future fails with it
+                        execution.failure = t;
+                    }
+                    future.run();
+                }
+            });
+            return future;
+        }
+
+        private class Execution {
+            private final TransactionalGraph graph;
+            private final TransactionWork<T> work;
+            private final ContentionTracker tracker;
+            private final RetryMetrics metrics;
+            private int attempts = 0;
+            private long previousDelay = baseDelay;
+            private T result = null;
+            private Throwable failure = null;
+
+            private Execution(final TransactionalGraph graph, final TransactionWork<T> work) {
+                this.graph = graph;
+                this.work = work;
+                this.tracker = null == DecorrelatedJitter.this.tracker ? ContentionTracker.forGraph(graph) : DecorrelatedJitter.this.tracker;
+                this.metrics = this.tracker.getMetrics(work.getClass());
+            }
+
+            /**
+             * @return the delay in milliseconds before the next try or -1 if the work succeeded or failed for good
+             */
+            private long attempt() {
+                final boolean first = this.attempts == 0;
+                if (first) this.metrics.executed();
+                this.attempts++;
+                this.metrics.attempted();
+                try {
+                    this.result = this.work.execute(this.graph);
+                    this.graph.commit();
+                    this.failure = null;
+                    this.tracker.recordAttempt(first, false);
+                    this.metrics.succeeded();
+                    return -1;
+                } catch (Error e) {
+                    // errors are not retried, but must still end the execution
+                    this.failure = e;
+                    this.tracker.recordAttempt(first, false);
+                    this.metrics.failed();
+                    this.graph.rollback();
+                    return -1;
+                } catch (Exception ex) {
+                    this.graph.rollback();
+                    this.failure = ex;
+                    final boolean retryable = AbstractRetryStrategy.isRetryable(exceptionsToRetryOn, ex);
+                    this.tracker.recordAttempt(first, retryable);
+                    if (retryable) this.metrics.conflicted();
+                    if (!retryable || this.attempts >= tries) {
+                        this.metrics.failed();
+                        return -1;
+                    }
+                    if (!this.tracker.tryAcquireRetry()) {
+                        this.metrics.budgetExhausted();
+                        this.metrics.failed();
+                        return -1;
+                    }
+                    final long delay = this.nextDelay();
+                    this.metrics.delayed(delay);
+                    return delay;
+                }
+            }
+
+            private long nextDelay() {
+                final long upper = Math.max(baseDelay, Math.min(maxDelay, this.previousDelay * 3));
+                final long jittered = baseDelay + (long) (random.nextDouble() * (upper - baseDelay));
+                this.previousDelay = jittered;
+                // the widening may stretch a delay up to the maximum delay, but never beyond
+                return Math.min(maxDelay, (long) (jittered * this.tracker.getBackoffFactor()));
+            }
+
+            private T getResult() {
+                if (this.failure instanceof Error) throw (Error) this.failure;
+                if (null != this.failure) throw new TransactionFailedException(this.failure);
+                return this.result;
+            }
         }
     }
 }
@@ -184,6 +184,7 @@ public class GMLReader {
      *
      * @param inputGraph       to receive the data
      * @param inputStream      GML file
+     * @param bufferSize       the amount of elements to hold in memory before committing a transactions (only valid for TransactionalGraphs). To adapt it to the throughput instead, pass a graph wrapped with BatchGraph.wrapAdaptive(), whose buffer is kept.
      * @param defaultEdgeLabel default edge label to be used if not defined in the data
      * @param vertexIdKey      if the id of a vertex is a &lt;data/&gt; property, fetch it from the data property.
      * @param edgeIdKey        if the id of an edge is a &lt;data/&gt; property, fetch it from the data property.
@@ -152,7 +152,7 @@ public class GraphMLReader {
      *
      * @param inputGraph         the graph to populate with the GraphML data
      * @param graphMLInputStream an InputStream of GraphML data
-     * @param bufferSize         the amount of elements to hold in memory before committing a transactions (only valid for TransactionalGraphs)
+     * @param bufferSize         the amount of elements to hold in memory before committing a transactions (only valid for TransactionalGraphs). To adapt it to the throughput instead, pass a graph wrapped with BatchGraph.wrapAdaptive(), whose buffer is kept.
      * @param vertexIdKey        if the id of a vertex is a &lt;data/&gt; property, fetch it from the data property.
      * @param edgeIdKey          if the id of an edge is a &lt;data/&gt; property, fetch it from the data property.
      * @param edgeLabelKey       if the label of an edge is a &lt;data/&gt; property, fetch it from the data property.
@@ -6,14 +6,21 @@ import javax.xml.stream.XMLStreamException;
 import java.io.IOException;
 import java.io.PipedInputStream;
 import java.io.PipedOutputStream;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * GraphMigrator takes the data in one graph and pipes it to another graph.
  *
+ * The data passes through GraphML, so property values arrive as the GraphML types they are written as. To copy the
+ * elements with their values unchanged and in parallel, use
+ * {@link com.tinkerpop.blueprints.util.wrappers.batch.GraphCopier}.
+ *
  * @author Alex Averbuch (alex.averbuch@gmail.com)
  */
 public class GraphMigrator {
 
+    private static final int PIPE_SIZE = 64 * 1024;
+
     /**
      * Pipe the data from one graph to another graph.
      *
@@ -24,36 +31,44 @@ public class GraphMigrator {
      */
     public static void migrateGraph(final Graph fromGraph, final Graph toGraph) throws XMLStreamException, IOException {
 
-        final PipedInputStream inPipe = new PipedInputStream() {
-            // Default is 1024
-            protected static final int PIPE_SIZE = 1024;
-        };
+        final PipedInputStream inPipe = new PipedInputStream(PIPE_SIZE);
+        final PipedOutputStream outPipe = new PipedOutputStream(inPipe);
+        final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
 
-        final PipedOutputStream outPipe = new PipedOutputStream(inPipe) {
-            public void close() throws IOException {
-                while (inPipe.available() > 0) {
+        final Thread writer = new Thread(new Runnable() {
+            public void run() {
+                try {
+                    GraphMLWriter.outputGraph(fromGraph, outPipe);
+                } catch (Throwable t) {
+                    failure.set(t);
+                } finally {
+                    // the reader sees the end of the stream once it read what is buffered
                     try {
-                        Thread.sleep(500);
-                    } catch (InterruptedException e) {
-                        e.printStackTrace();
+                        outPipe.close();
+                    } catch (IOException e) {
+                        failure.compareAndSet(null, e);
                     }
                 }
-                super.close();
             }
-        };
+        }, "graph-migrator-writer");
+        writer.start();
 
-        new Thread(new Runnable() {
-            public void run() {
-                try {
-                    GraphMLWriter.outputGraph(fromGraph, outPipe);
-                    outPipe.flush();
-                    outPipe.close();
-                } catch (IOException e) {
-                    e.printStackTrace();
-                }
+        try {
+            GraphMLReader.inputGraph(toGraph, inPipe);
+        } finally {
+            // a writer blocked on a full pipe fails once the reader is gone
+            inPipe.close();
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
             }
-        }).start();
+        }
 
-        GraphMLReader.inputGraph(toGraph, inPipe);
+        final Throwable t = failure.get();
+        if (t instanceof IOException)
+            throw (IOException) t;
+        else if (null != t)
+            throw new RuntimeException(t.getMessage(), t);
     }
-}
\ No newline at end of file
+}
@@ -130,7 +130,7 @@ public class GraphSONReader {
      *
      * @param inputGraph      the graph to populate with the JSON data
      * @param jsonInputStream an InputStream of JSON data
-     * @param bufferSize      the amount of elements to hold in memory before committing a transactions (only valid for TransactionalGraphs)
+     * @param bufferSize      the amount of elements to hold in memory before committing a transactions (only valid for TransactionalGraphs). To adapt it to the throughput instead, pass a graph wrapped with BatchGraph.wrapAdaptive(), whose buffer is kept.
      * @throws IOException thrown when the JSON data is not correctly formatted
      */
     public static void inputGraph(final Graph inputGraph, final InputStream jsonInputStream, int bufferSize,
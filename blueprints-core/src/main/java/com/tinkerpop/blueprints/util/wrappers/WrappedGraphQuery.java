@@ -1,10 +1,14 @@
 package com.tinkerpop.blueprints.util.wrappers;
 
+import com.tinkerpop.blueprints.CloseableIterable;
+import com.tinkerpop.blueprints.CursorIterable;
 import com.tinkerpop.blueprints.Predicate;
 import com.tinkerpop.blueprints.Edge;
 import com.tinkerpop.blueprints.GraphQuery;
 import com.tinkerpop.blueprints.Vertex;
 
+import java.util.Iterator;
+
 /**
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  */
@@ -55,6 +59,54 @@ public abstract class WrappedGraphQuery implements GraphQuery {
         return this;
     }
 
+    public GraphQuery skip(final int skip) {
+        this.query = this.query.skip(skip);
+        return this;
+    }
+
+    public GraphQuery cursor(final String cursor) {
+        this.query = this.query.cursor(cursor);
+        return this;
+    }
+
+    /**
+     * Lets the wrapped elements report the cursor of the base query, so that a paged query can be resumed through the
+     * wrapper. The wrapped iterable has to read the base results lazily and one by one.
+     *
+     * @param baseResults the results of the base query
+     * @param wrapped     the wrapped elements of these results
+     * @return the wrapped elements, as a CursorIterable if the base results are one
+     */
+    protected <T> Iterable<T> withCursor(final Iterable<?> baseResults, final Iterable<T> wrapped) {
+        if (!(baseResults instanceof CursorIterable))
+            return wrapped;
+        return new WrappedCursorIterable<T>((CursorIterable) baseResults, wrapped);
+    }
+
+    private static class WrappedCursorIterable<T> implements CursorIterable<T>, CloseableIterable<T> {
+
+        private final CursorIterable baseResults;
+        private final Iterable<T> wrapped;
+
+        private WrappedCursorIterable(final CursorIterable baseResults, final Iterable<T> wrapped) {
+            this.baseResults = baseResults;
+            this.wrapped = wrapped;
+        }
+
+        public String getCursor() {
+            return this.baseResults.getCursor();
+        }
+
+        public Iterator<T> iterator() {
+            return this.wrapped.iterator();
+        }
+
+        public void close() {
+            if (this.wrapped instanceof CloseableIterable)
+                ((CloseableIterable) this.wrapped).close();
+        }
+    }
+
     public abstract Iterable<Edge> edges();
 
     public abstract Iterable<Vertex> vertices();
@@ -0,0 +1,323 @@
+package com.tinkerpop.blueprints.util.wrappers.async;
+
+import com.tinkerpop.blueprints.Direction;
+import com.tinkerpop.blueprints.Edge;
+import com.tinkerpop.blueprints.Element;
+import com.tinkerpop.blueprints.Graph;
+import com.tinkerpop.blueprints.TransactionalGraph;
+import com.tinkerpop.blueprints.Vertex;
+import com.tinkerpop.blueprints.util.TransactionWork;
+
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * AsyncGraph runs the operations on a graph and its elements on an executor and returns their results as futures,
+ * so that a caller can have many operations in flight without holding a thread for each of them.
+ *
+ * Graphs like Neo4j2Graph and SailGraph bind a transaction to the thread it was opened on. To keep that binding, an
+ * operation on a TransactionalGraph is run as a transaction of its own: it is committed on the thread that ran it, or
+ * rolled back if it failed. A unit of work which spans several operations is passed to execute() or submit() and runs
+ * on one thread from its first operation to the commit. The iterables of the graph are read on one thread as well and
+ * handed out as an AsyncStream.
+ *
+ * Without an executor of its own, AsyncGraph runs on virtual threads where the JVM provides them and on a cached pool
+ * of daemon threads otherwise.
+ */
+public class AsyncGraph<T extends Graph> {
+
+    public static final int DEFAULT_STREAM_CAPACITY = 1000;
+
+    private static final Logger LOGGER = Logger.getLogger(AsyncGraph.class.getName());
+
+    private final T graph;
+    private final ExecutorService executor;
+    private final boolean ownsExecutor;
+    private final int streamCapacity;
+
+    public AsyncGraph(final T graph) {
+        this(graph, newDefaultExecutor(), true, DEFAULT_STREAM_CAPACITY);
+    }
+
+    public AsyncGraph(final T graph, final ExecutorService executor) {
+        this(graph, executor, DEFAULT_STREAM_CAPACITY);
+    }
+
+    /**
+     * @param streamCapacity the number of elements a stream reads ahead of its consumer
+     */
+    public AsyncGraph(final T graph, final ExecutorService executor, final int streamCapacity) {
+        this(graph, executor, false, streamCapacity);
+    }
+
+    private AsyncGraph(final T graph, final ExecutorService executor, final boolean ownsExecutor, final int streamCapacity) {
+        if (null == graph) throw new IllegalArgumentException("Graph can not be null");
+        if (null == executor) throw new IllegalArgumentException("Executor can not be null");
+        if (streamCapacity <= 0) throw new IllegalArgumentException("Stream capacity must be positive");
+        this.graph = graph;
+        this.executor = executor;
+        this.ownsExecutor = ownsExecutor;
+        this.streamCapacity = streamCapacity;
+    }
+
+    /**
+     * @return an executor starting a virtual thread per task where the JVM supports it, a cached thread pool otherwise
+     */
+    public static ExecutorService newDefaultExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (Exception e) {
+            final AtomicInteger count = new AtomicInteger();
+            return Executors.newCachedThreadPool(new ThreadFactory() {
+                public Thread newThread(final Runnable runnable) {
+                    final Thread thread = new Thread(runnable, "async-graph-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+    }
+
+    public T getGraph() {
+        return this.graph;
+    }
+
+    public ExecutorService getExecutor() {
+        return this.executor;
+    }
+
+    /**
+     * Runs the callable on one thread of the executor and commits a TransactionalGraph on that thread afterwards.
+     */
+    public <R> Future<R> submit(final Callable<R> callable) {
+        return this.executor.submit(new Callable<R>() {
+            public R call() throws Exception {
+                return inTransaction(callable);
+            }
+        });
+    }
+
+    /**
+     * Runs the work on one thread of the executor and commits the graph on that thread afterwards.
+     *
+     * @throws IllegalStateException if the graph is not a TransactionalGraph
+     */
+    public <R> Future<R> execute(final TransactionWork<R> work) {
+        if (!(this.graph instanceof TransactionalGraph))
+            throw new IllegalStateException("The graph is not a TransactionalGraph: " + this.graph);
+        return this.submit(new Callable<R>() {
+            public R call() throws Exception {
+                return work.execute((TransactionalGraph) graph);
+            }
+        });
+    }
+
+    private <R> R inTransaction(final Callable<R> callable) throws Exception {
+        final R result;
+        try {
+            result = callable.call();
+        } catch (Exception e) {
+            this.rollback(e);
+            throw e;
+        } catch (Error e) {
+            this.rollback(e);
+            throw e;
+        }
+        if (this.graph instanceof TransactionalGraph)
+            ((TransactionalGraph) this.graph).commit();
+        return result;
+    }
+
+    /**
+     * Rolls back after the failure, which is what the caller sees even if the rollback fails as well.
+     */
+    private void rollback(final Throwable failure) {
+        if (!(this.graph instanceof TransactionalGraph)) return;
+        try {
+            ((TransactionalGraph) this.graph).rollback();
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "rollback after '" + failure + "' failed", e);
+        }
+    }
+
+    /**
+     * Reads the iterable returned by the source on one thread of the executor into a stream. A TransactionalGraph is
+     * committed on that thread once the iterable is read to its end or the stream is closed.
+     */
+    public <E> AsyncStream<E> stream(final Callable<? extends Iterable<E>> source) {
+        final AsyncStream<E> stream = new AsyncStream<E>(this.streamCapacity);
+        this.executor.execute(new Runnable() {
+            public void run() {
+                try {
+                    inTransaction(new Callable<Object>() {
+                        public Object call() throws Exception {
+                            stream.produce(source.call());
+                            return null;
+                        }
+                    });
+                } catch (Throwable t) {
+                    stream.fail(t);
+                }
+            }
+        });
+        return stream;
+    }
+
+    public Future<Vertex> addVertex(final Object id) {
+        return this.submit(new Callable<Vertex>() {
+            public Vertex call() {
+                return graph.addVertex(id);
+            }
+        });
+    }
+
+    public Future<Vertex> getVertex(final Object id) {
+        return this.submit(new Callable<Vertex>() {
+            public Vertex call() {
+                return graph.getVertex(id);
+            }
+        });
+    }
+
+    public Future<Void> removeVertex(final Vertex vertex) {
+        return this.submit(new Callable<Void>() {
+            public Void call() {
+                graph.removeVertex(vertex);
+                return null;
+            }
+        });
+    }
+
+    public AsyncStream<Vertex> getVertices() {
+        return this.stream(new Callable<Iterable<Vertex>>() {
+            public Iterable<Vertex> call() {
+                return graph.getVertices();
+            }
+        });
+    }
+
+    public AsyncStream<Vertex> getVertices(final String key, final Object value) {
+        return this.stream(new Callable<Iterable<Vertex>>() {
+            public Iterable<Vertex> call() {
+                return graph.getVertices(key, value);
+            }
+        });
+    }
+
+    public Future<Edge> addEdge(final Object id, final Vertex outVertex, final Vertex inVertex, final String label) {
+        return this.submit(new Callable<Edge>() {
+            public Edge call() {
+                return graph.addEdge(id, outVertex, inVertex, label);
+            }
+        });
+    }
+
+    public Future<Edge> getEdge(final Object id) {
+        return this.submit(new Callable<Edge>() {
+            public Edge call() {
+                return graph.getEdge(id);
+            }
+        });
+    }
+
+    public Future<Void> removeEdge(final Edge edge) {
+        return this.submit(new Callable<Void>() {
+            public Void call() {
+                graph.removeEdge(edge);
+                return null;
+            }
+        });
+    }
+
+    public AsyncStream<Edge> getEdges() {
+        return this.stream(new Callable<Iterable<Edge>>() {
+            public Iterable<Edge> call() {
+                return graph.getEdges();
+            }
+        });
+    }
+
+    public AsyncStream<Edge> getEdges(final String key, final Object value) {
+        return this.stream(new Callable<Iterable<Edge>>() {
+            public Iterable<Edge> call() {
+                return graph.getEdges(key, value);
+            }
+        });
+    }
+
+    public <V> Future<V> getProperty(final Element element, final String key) {
+        return this.submit(new Callable<V>() {
+            public V call() {
+                return element.getProperty(key);
+            }
+        });
+    }
+
+    public Future<Set<String>> getPropertyKeys(final Element element) {
+        return this.submit(new Callable<Set<String>>() {
+            public Set<String> call() {
+                return element.getPropertyKeys();
+            }
+        });
+    }
+
+    public Future<Void> setProperty(final Element element, final String key, final Object value) {
+        return this.submit(new Callable<Void>() {
+            public Void call() {
+                element.setProperty(key, value);
+                return null;
+            }
+        });
+    }
+
+    public <V> Future<V> removeProperty(final Element element, final String key) {
+        return this.submit(new Callable<V>() {
+            public V call() {
+                return element.removeProperty(key);
+            }
+        });
+    }
+
+    public AsyncStream<Edge> getEdges(final Vertex vertex, final Direction direction, final String... labels) {
+        return this.stream(new Callable<Iterable<Edge>>() {
+            public Iterable<Edge> call() {
+                return vertex.getEdges(direction, labels);
+            }
+        });
+    }
+
+    public AsyncStream<Vertex> getVertices(final Vertex vertex, final Direction direction, final String... labels) {
+        return this.stream(new Callable<Iterable<Vertex>>() {
+            public Iterable<Vertex> call() {
+                return vertex.getVertices(direction, labels);
+            }
+        });
+    }
+
+    public Future<Vertex> getVertex(final Edge edge, final Direction direction) {
+        return this.submit(new Callable<Vertex>() {
+            public Vertex call() {
+                return edge.getVertex(direction);
+            }
+        });
+    }
+
+    /**
+     * Shuts the executor down if AsyncGraph created it. The graph is left open.
+     */
+    public void shutdown() {
+        if (this.ownsExecutor)
+            this.executor.shutdown();
+    }
+
+    public String toString() {
+        return "async[" + this.graph + "]";
+    }
+}
@@ -0,0 +1,170 @@
+package com.tinkerpop.blueprints.util.wrappers.async;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The elements of an Iterable which is read on a thread of an AsyncGraph while the caller takes them.
+ *
+ * The reading thread stops as soon as capacity elements wait to be taken, so that a slow consumer holds back the
+ * source instead of filling the memory. The source is read on one thread from the first element to the last, which
+ * keeps it in the transaction it was opened in on graphs with thread bound transactions.
+ *
+ * A failure of the source is rethrown to the consumer once it took the elements read before. A stream which is not
+ * read to its end must be closed to release its thread.
+ */
+public class AsyncStream<E> implements Iterable<E> {
+
+    private static final Object END = new Object();
+    private static final long OFFER_MILLIS = 100;
+
+    private final BlockingQueue<Object> queue;
+    private volatile boolean closed = false;
+    private volatile boolean exhausted = false;
+    private volatile Throwable failure = null;
+    private volatile long readCount = 0;
+
+    AsyncStream(final int capacity) {
+        if (capacity <= 0) throw new IllegalArgumentException("Capacity must be positive");
+        this.queue = new ArrayBlockingQueue<Object>(capacity);
+    }
+
+    /**
+     * Reads the source on the calling thread until its end or until the stream is closed. A failure of the source is
+     * thrown to the caller, which ends the stream with {@link #fail(Throwable)}.
+     */
+    void produce(final Iterable<E> source) {
+        for (final E element : source) {
+            if (!this.offer(element)) return;
+            this.readCount++;
+        }
+        this.offer(END);
+    }
+
+    void fail(final Throwable failure) {
+        this.failure = failure;
+        this.offer(END);
+    }
+
+    private boolean offer(final Object element) {
+        try {
+            while (!this.closed) {
+                if (this.queue.offer(element, OFFER_MILLIS, TimeUnit.MILLISECONDS)) return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return false;
+    }
+
+    /**
+     * @return up to max elements which are read already, without waiting
+     */
+    public List<E> poll(final int max) {
+        final List<Object> drained = new ArrayList<Object>();
+        if (!this.exhausted)
+            this.queue.drainTo(drained, max);
+        return this.toElements(drained);
+    }
+
+    /**
+     * Waits until at least one element is read, the source is exhausted or the timeout elapsed.
+     *
+     * @return up to max elements, which is empty once the stream is exhausted or if the timeout elapsed
+     */
+    public List<E> take(final int max, final long timeout, final TimeUnit unit) throws InterruptedException {
+        final List<Object> drained = new ArrayList<Object>();
+        if (!this.exhausted) {
+            final Object first = this.queue.poll(timeout, unit);
+            if (null != first) {
+                drained.add(first);
+                if (first != END)
+                    this.queue.drainTo(drained, max - 1);
+            }
+        }
+        return this.toElements(drained);
+    }
+
+    private List<E> toElements(final List<Object> drained) {
+        final List<E> elements = new ArrayList<E>(drained.size());
+        for (final Object element : drained) {
+            if (element == END) {
+                this.exhausted = true;
+                if (null != this.failure && elements.isEmpty())
+                    throw new RuntimeException(this.failure.getMessage(), this.failure);
+                else if (null != this.failure)
+                    // the elements read before are handed out first
+                    this.requeueEnd();
+                break;
+            }
+            elements.add((E) element);
+        }
+        return elements;
+    }
+
+    private void requeueEnd() {
+        this.exhausted = false;
+        this.queue.offer(END);
+    }
+
+    /**
+     * @return whether all elements of the source were taken
+     */
+    public boolean isExhausted() {
+        return this.exhausted;
+    }
+
+    /**
+     * @return the number of elements read from the source so far
+     */
+    public long getReadCount() {
+        return this.readCount;
+    }
+
+    /**
+     * Stops reading the source and discards the elements read but not taken.
+     */
+    public void close() {
+        this.closed = true;
+        this.exhausted = true;
+        this.queue.clear();
+    }
+
+    /**
+     * @return an iterator blocking until the next element is read
+     */
+    public Iterator<E> iterator() {
+        return new Iterator<E>() {
+            private List<E> batch = new ArrayList<E>();
+            private int index = 0;
+
+            public boolean hasNext() {
+                while (this.index == this.batch.size()) {
+                    if (isExhausted()) return false;
+                    try {
+                        this.batch = take(Integer.MAX_VALUE, OFFER_MILLIS, TimeUnit.MILLISECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new RuntimeException(e.getMessage(), e);
+                    }
+                    this.index = 0;
+                }
+                return true;
+            }
+
+            public E next() {
+                if (!this.hasNext()) throw new NoSuchElementException();
+                return this.batch.get(this.index++);
+            }
+
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+}
@@ -0,0 +1,82 @@
+package com.tinkerpop.blueprints.util.wrappers.batch;
+
+/**
+ * Adapts the buffer size of a {@link BatchGraph} to the measured throughput of the completed batches.
+ *
+ * The buffer size is changed by a factor after every batch. As long as the throughput, including the time of the
+ * commit, does not drop the buffer size keeps moving into the same direction. Otherwise the direction is reversed and
+ * the factor is reduced, so that the buffer size settles around the size with the best throughput for the wrapped graph
+ * and the width of the loaded elements. Whenever the used heap exceeds the configured fraction of the maximum heap, the
+ * buffer size is halved instead, since the transactional state of a batch grows with its size.
+ */
+class AdaptiveBufferSize {
+
+    private static final double INITIAL_FACTOR = 2.0d;
+    private static final double MIN_FACTOR = 1.1d;
+    private static final double TOLERANCE = 0.05d;
+
+    private final long minBufferSize;
+    private final long maxBufferSize;
+    private final double maxHeapUsage;
+
+    private double factor = INITIAL_FACTOR;
+    private boolean growing = true;
+    private double previousThroughput = 0.0d;
+
+    AdaptiveBufferSize(final long minBufferSize, final long maxBufferSize, final double maxHeapUsage) {
+        if (minBufferSize <= 0 || maxBufferSize < minBufferSize)
+            throw new IllegalArgumentException("Invalid buffer size bounds: " + minBufferSize + ", " + maxBufferSize);
+        if (maxHeapUsage <= 0.0d || maxHeapUsage > 1.0d)
+            throw new IllegalArgumentException("Heap usage must be in (0, 1]");
+        this.minBufferSize = minBufferSize;
+        this.maxBufferSize = maxBufferSize;
+        this.maxHeapUsage = maxHeapUsage;
+    }
+
+    long getMinBufferSize() {
+        return minBufferSize;
+    }
+
+    long getMaxBufferSize() {
+        return maxBufferSize;
+    }
+
+    long clamp(final long bufferSize) {
+        return Math.max(minBufferSize, Math.min(maxBufferSize, bufferSize));
+    }
+
+    /**
+     * @param bufferSize the buffer size of the completed batch
+     * @param elements   the number of elements in the completed batch
+     * @param nanos      the time it took to load and commit the batch
+     * @return the buffer size of the next batch
+     */
+    long next(final long bufferSize, final long elements, final long nanos) {
+        if (getHeapUsage() > maxHeapUsage) {
+            growing = false;
+            previousThroughput = 0.0d;
+            return clamp(bufferSize / 2);
+        }
+        if (elements <= 0 || nanos <= 0) return bufferSize;
+
+        final double throughput = elements * 1e9d / nanos;
+        if (previousThroughput > 0.0d && throughput < previousThroughput * (1.0d - TOLERANCE)) {
+            growing = !growing;
+            factor = Math.max(MIN_FACTOR, Math.sqrt(factor));
+        }
+        previousThroughput = throughput;
+
+        long next = growing ? (long) Math.ceil(bufferSize * factor) : (long) (bufferSize / factor);
+        next = clamp(next);
+        if (next == bufferSize) {
+            // bounced off a bound, so explore the other direction next time
+            growing = !growing;
+        }
+        return next;
+    }
+
+    private static double getHeapUsage() {
+        final Runtime runtime = Runtime.getRuntime();
+        return (double) (runtime.totalMemory() - runtime.freeMemory()) / runtime.maxMemory();
+    }
+}
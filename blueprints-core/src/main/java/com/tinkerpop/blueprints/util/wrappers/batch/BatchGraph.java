@@ -1,5 +1,6 @@
 package com.tinkerpop.blueprints.util.wrappers.batch;
 
+import com.tinkerpop.blueprints.BulkWriteGraph;
 import com.tinkerpop.blueprints.Direction;
 import com.tinkerpop.blueprints.Edge;
 import com.tinkerpop.blueprints.Element;
@@ -10,12 +11,20 @@ import com.tinkerpop.blueprints.TransactionalGraph;
 import com.tinkerpop.blueprints.Vertex;
 import com.tinkerpop.blueprints.VertexQuery;
 import com.tinkerpop.blueprints.util.ExceptionFactory;
+import com.tinkerpop.blueprints.util.GraphHelper;
 import com.tinkerpop.blueprints.util.StringFactory;
 import com.tinkerpop.blueprints.util.wrappers.WrapperGraph;
+import com.tinkerpop.blueprints.util.wrappers.batch.cache.MappedVertexCache;
 import com.tinkerpop.blueprints.util.wrappers.batch.cache.VertexCache;
 import com.tinkerpop.blueprints.util.wrappers.id.IdGraph;
 
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -42,16 +51,36 @@ import java.util.Set;
  * {@link #setVertexIdKey(String)} and {@link #setEdgeIdKey(String)} to set the keys for the vertex and edge properties
  * respectively. This allows to make the loaded baseGraph compatible for later wrapping with {@link IdGraph}.
  *
+ * Elements added with their properties, e.g. through {@link #addVertex(Object, java.util.Map)}, are created with all
+ * their properties in one step of the wrapped graph if it is a {@link BulkWriteGraph}.
+ *
+ * When loading incrementally, a {@link BloomFilter} of the ids of the existing vertices avoids querying the wrapped
+ * graph for vertices which are new, see {@link #setExistingVertexFilter(BloomFilter)}.
+ *
+ * Instead of committing after a fixed number of elements, BatchGraph can adapt the buffer size to the measured
+ * throughput of the wrapped graph, see {@link #setAdaptiveBufferSize(long, long)}. The progress of a load can be
+ * monitored through {@link #getStatistics()}.
+ *
  * @author Matthias Broecheler (http://www.matthiasb.com)
  */
 
-public class BatchGraph<T extends TransactionalGraph> implements TransactionalGraph, WrapperGraph<T> {
+public class BatchGraph<T extends TransactionalGraph> implements TransactionalGraph, WrapperGraph<T>, BulkWriteGraph {
 
     /**
      * Default buffer size
      */
     public static final long DEFAULT_BUFFER_SIZE = 100000;
 
+    /**
+     * Lower bound of the buffer size when adapting it with {@link #wrapAdaptive(com.tinkerpop.blueprints.Graph)}
+     */
+    public static final long MIN_ADAPTIVE_BUFFER_SIZE = 1000;
+
+    /**
+     * Fraction of the maximum heap above which an adaptive buffer size is reduced
+     */
+    public static final double DEFAULT_MAX_HEAP_USAGE = 0.8d;
+
 
     private final T baseGraph;
 
@@ -60,15 +89,22 @@ public class BatchGraph<T extends TransactionalGraph> implements TransactionalGr
     private boolean loadingFromScratch = true;
 
     private final VertexCache cache;
+    private final VertexIDType vertexIdType;
 
     private long bufferSize = DEFAULT_BUFFER_SIZE;
     private long remainingBufferSize;
+    private AdaptiveBufferSize adaptiveBufferSize = null;
+    private long batchStart = 0;
+    private long batchElements = 0;
+    private final LoadStatistics statistics;
 
     private BatchEdge currentEdge = null;
     private Edge currentEdgeCached = null;
 
     private Object previousOutVertexId = null;
 
+    private BloomFilter existingVertexFilter = null;
+
     /**
      * Constructs a BatchGraph wrapping the provided baseGraph, using the specified buffer size and expecting vertex ids of
      * the specified IdType. Supplying vertex ids which do not match this type will throw exceptions.
@@ -78,8 +114,27 @@ public class BatchGraph<T extends TransactionalGraph> implements TransactionalGr
      * @param bufferSize Defines the number of vertices and edges loaded before starting a new transaction. The larger this value, the more memory is required but the faster the loading process.
      */
     public BatchGraph(final T graph, final VertexIDType type, final long bufferSize) {
+        this(graph, createVertexCache(type), type, bufferSize);
+    }
+
+    /**
+     * Constructs a BatchGraph wrapping the provided baseGraph, using the specified buffer size and vertex cache.
+     * Use this constructor to configure a cache, e.g. the directory and hot set size of a {@link MappedVertexCache}.
+     * A cache which implements {@link Closeable} is closed on {@link #shutdown()}. The filter built by
+     * {@link #loadExistingVertices(long, double, boolean)} compares ids like a cache of {@link VertexIDType#OBJECT};
+     * set a filter of the id type of another cache with {@link #setExistingVertexFilter(BloomFilter)}.
+     *
+     * @param graph      Graph to be wrapped
+     * @param cache      Cache mapping the supplied vertex ids to those of the wrapped graph
+     * @param bufferSize Defines the number of vertices and edges loaded before starting a new transaction. The larger this value, the more memory is required but the faster the loading process.
+     */
+    public BatchGraph(final T graph, final VertexCache cache, final long bufferSize) {
+        this(graph, cache, null, bufferSize);
+    }
+
+    private BatchGraph(final T graph, final VertexCache cache, final VertexIDType type, final long bufferSize) {
         if (graph == null) throw new IllegalArgumentException("Graph may not be null");
-        if (type == null) throw new IllegalArgumentException("Type may not be null");
+        if (cache == null) throw new IllegalArgumentException("Cache may not be null");
         if (bufferSize <= 0) throw new IllegalArgumentException("BufferSize must be positive");
         this.baseGraph = graph;
         this.bufferSize = bufferSize;
@@ -87,11 +142,18 @@ public class BatchGraph<T extends TransactionalGraph> implements TransactionalGr
         vertexIdKey = null;
         edgeIdKey = null;
 
-        cache = type.getVertexCache();
+        this.cache = cache;
+        this.vertexIdType = type;
 
         remainingBufferSize = this.bufferSize;
+        statistics = new LoadStatistics(bufferSize);
     }
     
+    private static VertexCache createVertexCache(final VertexIDType type) {
+        if (type == null) throw new IllegalArgumentException("Type may not be null");
+        return type.getVertexCache();
+    }
+
     /**
      * Constructs a BatchGraph wrapping the provided baseGraph.
      *
@@ -137,6 +199,70 @@ public class BatchGraph<T extends TransactionalGraph> implements TransactionalGr
         else return new BatchGraph(new WritethroughGraph(graph), VertexIDType.OBJECT, buffer);
     }
 
+    /**
+     * Constructs a BatchGraph like {@link #wrap(com.tinkerpop.blueprints.Graph, long)} which adapts its buffer size
+     * between {@link #MIN_ADAPTIVE_BUFFER_SIZE} and {@link #DEFAULT_BUFFER_SIZE}. The graph readers keep the buffer
+     * size of a BatchGraph they are given, so passing them the returned graph lets them load with an adaptive buffer.
+     *
+     * @param graph Graph to be wrapped
+     */
+    public static BatchGraph wrapAdaptive(final Graph graph) {
+        if (graph instanceof BatchGraph) return (BatchGraph) graph;
+        final BatchGraph batchGraph = wrap(graph, MIN_ADAPTIVE_BUFFER_SIZE);
+        batchGraph.setAdaptiveBufferSize(MIN_ADAPTIVE_BUFFER_SIZE, DEFAULT_BUFFER_SIZE);
+        return batchGraph;
+    }
+
+    /**
+     * Adapts the buffer size after every commit to the measured throughput, starting from the current buffer size.
+     * The buffer size keeps moving towards the size with the best throughput within the given bounds and is reduced
+     * whenever the used heap exceeds {@link #DEFAULT_MAX_HEAP_USAGE} of the maximum heap.
+     *
+     * @param minBufferSize the smallest buffer size
+     * @param maxBufferSize the largest buffer size
+     */
+    public void setAdaptiveBufferSize(final long minBufferSize, final long maxBufferSize) {
+        setAdaptiveBufferSize(minBufferSize, maxBufferSize, DEFAULT_MAX_HEAP_USAGE);
+    }
+
+    /**
+     * Adapts the buffer size after every commit to the measured throughput, see {@link #setAdaptiveBufferSize(long, long)}.
+     *
+     * @param minBufferSize the smallest buffer size
+     * @param maxBufferSize the largest buffer size
+     * @param maxHeapUsage  the fraction of the maximum heap above which the buffer size is reduced
+     */
+    public void setAdaptiveBufferSize(final long minBufferSize, final long maxBufferSize, final double maxHeapUsage) {
+        adaptiveBufferSize = new AdaptiveBufferSize(minBufferSize, maxBufferSize, maxHeapUsage);
+        final long clamped = adaptiveBufferSize.clamp(bufferSize);
+        remainingBufferSize += clamped - bufferSize;
+        bufferSize = clamped;
+        statistics.batchCompleted(0, 0, bufferSize);
+    }
+
+    /**
+     * @return whether the buffer size is adapted to the measured throughput
+     */
+    public boolean isAdaptiveBufferSize() {
+        return adaptiveBufferSize != null;
+    }
+
+    /**
+     * @return the number of vertices and edges loaded before starting a new transaction
+     */
+    public long getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * Returns the live statistics of this load which may be read from any thread.
+     *
+     * @return the statistics of this load
+     */
+    public LoadStatistics getStatistics() {
+        return statistics;
+    }
+
     /**
      * Sets the key to be used when setting the vertex id as a property on the respective vertex.
      * If the key is null, then no property will be set.
@@ -218,15 +344,95 @@ public class BatchGraph<T extends TransactionalGraph> implements TransactionalGr
         return loadingFromScratch;
     }
 
+    /**
+     * Sets the filter of the ids of the vertices which already exist in the wrapped graph. When loading incrementally,
+     * a vertex which is neither in the vertex cache nor in the filter is known not to exist and the wrapped graph is
+     * not queried for it. The filter must contain all ids of the wrapped graph, e.g. one built by
+     * {@link #loadExistingVertices(long, double, boolean)} or one saved after the previous load, and must be of the
+     * vertex id type of this BatchGraph. Vertices added through this BatchGraph are added to the filter.
+     *
+     * @param filter the filter or null to always query the wrapped graph
+     */
+    public void setExistingVertexFilter(final BloomFilter filter) {
+        if (filter != null && vertexIdType != null && !filter.isCompatible(vertexIdType))
+            throw new IllegalArgumentException("Filter of id type " + filter.getIdType() + " does not match the vertex id type " + vertexIdType);
+        this.existingVertexFilter = filter;
+    }
+
+    /**
+     * Returns the filter of the ids of the vertices in the wrapped graph or null if such has not been set.
+     *
+     * @return the filter of the ids of the vertices in the wrapped graph
+     */
+    public BloomFilter getExistingVertexFilter() {
+        return existingVertexFilter;
+    }
+
+    /**
+     * Builds the filter of the ids of the vertices which already exist in the wrapped graph by scanning it, see
+     * {@link #loadExistingVertices(Iterable, boolean)}. If a vertex id key is set, only the vertices with that key are
+     * read.
+     *
+     * @param expectedVertices         the number of vertices the filter is sized for, including those yet to be loaded
+     * @param falsePositiveProbability the probability that a new vertex is looked up in the wrapped graph
+     * @param cacheIds                 whether to also put the ids of the existing vertices into the vertex cache
+     * @return the number of existing vertices
+     */
+    public long loadExistingVertices(final long expectedVertices, final double falsePositiveProbability, final boolean cacheIds) {
+        existingVertexFilter = new BloomFilter(expectedVertices, falsePositiveProbability, vertexIdType == null ? VertexIDType.OBJECT : vertexIdType);
+        final Iterable<Vertex> vertices = (vertexIdKey == null) ? baseGraph.getVertices() : baseGraph.query().has(vertexIdKey).vertices();
+        return loadExistingVertices(vertices, cacheIds);
+    }
+
+    /**
+     * Adds the ids of the given vertices of the wrapped graph to the filter of existing vertices and, if cacheIds is
+     * true, puts them into the vertex cache so that they are resolved without querying the wrapped graph during the
+     * load. The external id of a vertex is its vertex id key property if such has been set or its id otherwise.
+     *
+     * @param vertices vertices of the wrapped graph, e.g. the result of an index query
+     * @param cacheIds whether to also put the ids into the vertex cache
+     * @return the number of vertices added
+     */
+    public long loadExistingVertices(final Iterable<Vertex> vertices, final boolean cacheIds) {
+        if (existingVertexFilter == null)
+            throw new IllegalStateException("An existing vertex filter must be set first");
+        if (vertexIdKey == null && baseGraph.getFeatures().ignoresSuppliedIds)
+            throw new IllegalStateException("Vertex id key is required to read the ids of existing vertices in wrapped graph.");
+        long count = 0;
+        for (final Vertex vertex : vertices) {
+            final Object externalId = (vertexIdKey == null) ? vertex.getId() : vertex.getProperty(vertexIdKey);
+            if (externalId == null) continue;
+            existingVertexFilter.put(externalId);
+            count++;
+            if (cacheIds) {
+                cache.setId(vertex.getId(), externalId);
+                if (count % bufferSize == 0) cache.newTransaction();
+            }
+        }
+        if (cacheIds) cache.newTransaction();
+        return count;
+    }
+
     private void nextElement() {
         currentEdge = null;
         currentEdgeCached = null;
+        if (batchStart == 0) batchStart = System.nanoTime();
         if (remainingBufferSize <= 0) {
+            final long elements = batchElements;
+            final long commitStart = System.nanoTime();
             baseGraph.commit();
+            final long now = System.nanoTime();
+            statistics.committed(now - commitStart);
             cache.newTransaction();
+            if (adaptiveBufferSize != null && elements > 0)
+                bufferSize = adaptiveBufferSize.next(bufferSize, elements, now - batchStart);
+            statistics.batchCompleted(elements, now - batchStart, bufferSize);
+            batchStart = now;
+            batchElements = 0;
             remainingBufferSize = bufferSize;
         }
         remainingBufferSize--;
+        batchElements++;
     }
 
 
@@ -251,8 +457,13 @@ public class BatchGraph<T extends TransactionalGraph> implements TransactionalGr
     public void commit() {
         currentEdge = null;
         currentEdgeCached = null;
-        remainingBufferSize = 0;
+        final long commitStart = System.nanoTime();
         baseGraph.commit();
+        statistics.committed(System.nanoTime() - commitStart);
+        // the next element starts a new transaction without counting the partial batch
+        remainingBufferSize = 0;
+        batchStart = 0;
+        batchElements = 0;
     }
 
     /**
@@ -269,6 +480,13 @@ public class BatchGraph<T extends TransactionalGraph> implements TransactionalGr
         baseGraph.shutdown();
         currentEdge = null;
         currentEdgeCached = null;
+        if (cache instanceof Closeable) {
+            try {
+                ((Closeable) cache).close();
+            } catch (IOException e) {
+                throw new RuntimeException(e.getMessage(), e);
+            }
+        }
     }
 
     @Override
@@ -298,6 +516,19 @@ public class BatchGraph<T extends TransactionalGraph> implements TransactionalGr
         } else return null;
     }
 
+    /**
+     * Returns the id in the wrapped graph of the vertex with the given external id or null if there is no such vertex.
+     * Unlike {@link #getVertex(Object)}, cached ids are returned without retrieving the vertex from the wrapped graph.
+     */
+    Object getInternalVertexId(final Object externalID) {
+        Object internal = cache.getEntry(externalID);
+        if (internal == null) {
+            if (getVertex(externalID) == null) return null;
+            internal = cache.getEntry(externalID);
+        } else statistics.cacheHit();
+        return internal instanceof Vertex ? ((Vertex) internal).getId() : internal;
+    }
+
     private Vertex getCachedVertex(final Object externalID) {
         Vertex v = retrieveFromCache(externalID);
         if (v == null) throw new IllegalArgumentException("Vertex for given ID cannot be found: " + externalID);
@@ -310,6 +541,8 @@ public class BatchGraph<T extends TransactionalGraph> implements TransactionalGr
      * In this case, bypass cache and instead immediately return a new vertex using the known id.
      * This gives a modest performance boost, especially when the cache is large or there are
      * on average many edges per vertex.
+     *
+     * The lookups of the cache made here, i.e. those resolving the vertices of edges, are counted in the statistics.
      */
     @Override
     public Vertex getVertex(final Object id) {
@@ -319,8 +552,11 @@ public class BatchGraph<T extends TransactionalGraph> implements TransactionalGr
         } else {
 
             Vertex v = retrieveFromCache(id);
-            if (v == null) {
+            if (v != null) statistics.cacheHit();
+            else {
+                statistics.cacheMiss();
                 if (loadingFromScratch) return null;
+                else if (existingVertexFilter != null && !existingVertexFilter.mightContain(id)) return null;
                 else {
                     if (baseGraph.getFeatures().ignoresSuppliedIds) {
                         assert vertexIdKey != null;
@@ -346,20 +582,34 @@ public class BatchGraph<T extends TransactionalGraph> implements TransactionalGr
     }
 
     public Vertex addVertex(final Object id, final Object... properties) {
+        return addVertex(id, toPropertyMap(properties));
+    }
+
+    public Vertex addVertex(final Object id, final Map<String, ?> properties) {
         if (id == null) throw ExceptionFactory.vertexIdCanNotBeNull();
         if (retrieveFromCache(id) != null) throw ExceptionFactory.vertexWithIdAlreadyExists(id);
         nextElement();
 
-        Vertex v = baseGraph.addVertex(id);
+        final Vertex v;
         if (vertexIdKey != null) {
-            v.setProperty(vertexIdKey, id);
-        }
+            final Map<String, Object> withId = new LinkedHashMap<String, Object>();
+            withId.put(vertexIdKey, id);
+            withId.putAll(properties);
+            v = GraphHelper.addVertex(baseGraph, id, withId);
+        } else
+            v = GraphHelper.addVertex(baseGraph, id, properties);
         cache.set(v, id);
-        final BatchVertex newVertex = new BatchVertex(id);
-
-        setProperties(newVertex, properties);
+        if (existingVertexFilter != null) existingVertexFilter.put(id);
+        statistics.vertexAdded();
+        return new BatchVertex(id);
+    }
 
-        return newVertex;
+    public List<Vertex> addVertices(final List<VertexSpec> vertices) {
+        final List<Vertex> added = new ArrayList<Vertex>(vertices.size());
+        for (final VertexSpec spec : vertices) {
+            added.add(addVertex(spec.getId(), spec.getProperties()));
+        }
+        return added;
     }
 
     @Override
@@ -368,6 +618,10 @@ public class BatchGraph<T extends TransactionalGraph> implements TransactionalGr
     }
 
     public Edge addEdge(final Object id, final Vertex outVertex, final Vertex inVertex, final String label, final Object... properties) {
+        return addEdge(id, outVertex, inVertex, label, toPropertyMap(properties));
+    }
+
+    public Edge addEdge(final Object id, final Vertex outVertex, final Vertex inVertex, final String label, final Map<String, ?> properties) {
         if (!BatchVertex.class.isInstance(outVertex) || !BatchVertex.class.isInstance(inVertex))
             throw new IllegalArgumentException("Given element was not created in this baseGraph");
         nextElement();
@@ -377,36 +631,59 @@ public class BatchGraph<T extends TransactionalGraph> implements TransactionalGr
 
         previousOutVertexId = outVertex.getId();  //keep track of the previous out vertex id
 
-        currentEdgeCached = baseGraph.addEdge(id, ov, iv, label);
         if (edgeIdKey != null && id != null) {
-            currentEdgeCached.setProperty(edgeIdKey, id);
-        }
+            final Map<String, Object> withId = new LinkedHashMap<String, Object>();
+            withId.put(edgeIdKey, id);
+            withId.putAll(properties);
+            currentEdgeCached = GraphHelper.addEdge(baseGraph, id, ov, iv, label, withId);
+        } else
+            currentEdgeCached = GraphHelper.addEdge(baseGraph, id, ov, iv, label, properties);
+        statistics.edgeAdded();
 
         currentEdge = new BatchEdge();
-
-        setProperties(currentEdge, properties);
-
         return currentEdge;
     }
 
-    protected <E extends Element> E setProperties(final E element, final Object... properties) {
-        if (properties != null && properties.length > 0) {
-            if (properties.length == 1) {
-                final Object f = properties[0];
-                if (f instanceof Map<?, ?>) {
-                    for (Map.Entry<?, ?> entry : ((Map<?, ?>) f).entrySet())
-                        element.setProperty(entry.getKey().toString(), entry.getValue());
-                } else
-                    throw new IllegalArgumentException(
-                            "Invalid properties: expecting a pairs of fields as String,Object or a single Map<String,Object>, but found: " + f);
+    public List<Edge> addEdges(final List<EdgeSpec> edges) {
+        final List<Edge> added = new ArrayList<Edge>(edges.size());
+        for (final EdgeSpec spec : edges) {
+            added.add(addEdge(spec.getId(), spec.getOutVertex(), spec.getInVertex(), spec.getLabel(), spec.getProperties()));
+        }
+        return added;
+    }
+
+    private static Map<String, ?> toPropertyMap(final Object... properties) {
+        if (properties == null || properties.length == 0)
+            return Collections.emptyMap();
+        if (properties.length == 1) {
+            final Object f = properties[0];
+            if (f instanceof Map<?, ?>) {
+                final Map<String, Object> map = new LinkedHashMap<String, Object>();
+                for (Map.Entry<?, ?> entry : ((Map<?, ?>) f).entrySet())
+                    map.put(entry.getKey().toString(), entry.getValue());
+                return map;
             } else
-                // SET PROPERTIES ONE BY ONE
-                for (int i = 0; i < properties.length; i += 2)
-                    element.setProperty(properties[i].toString(), properties[i + 1]);
+                throw new IllegalArgumentException(
+                        "Invalid properties: expecting a pairs of fields as String,Object or a single Map<String,Object>, but found: " + f);
         }
-        return element;
+        if (properties.length % 2 != 0)
+            throw new IllegalArgumentException("There must be an equal number of keys and values");
+        final Map<String, Object> map = new LinkedHashMap<String, Object>();
+        for (int i = 0; i < properties.length; i += 2)
+            map.put(properties[i].toString(), properties[i + 1]);
+        return map;
     }
 
+    /**
+     * Sets the properties, given as pairs of keys and values or as a single map, on the element one by one.
+     * addVertex and addEdge no longer call this method, as they create each element together with its properties.
+     */
+    @Deprecated
+    protected <E extends Element> E setProperties(final E element, final Object... properties) {
+        for (final Map.Entry<String, ?> entry : toPropertyMap(properties).entrySet())
+            element.setProperty(entry.getKey(), entry.getValue());
+        return element;
+    }
 
     protected Edge addEdgeSupport(final Vertex outVertex, final Vertex inVertex, final String label) {
         return this.addEdge(null, outVertex, inVertex, label);
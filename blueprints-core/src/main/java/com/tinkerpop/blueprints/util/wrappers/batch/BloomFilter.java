@@ -0,0 +1,200 @@
+package com.tinkerpop.blueprints.util.wrappers.batch;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * A Bloom filter over vertex ids which {@link BatchGraph} consults before looking up a vertex in the wrapped graph
+ * when loading incrementally. A negative answer is definite, a positive answer is wrong with the configured
+ * false positive probability.
+ *
+ * Ids are normalized like the vertex cache of the filter's {@link VertexIDType} does before they are hashed, so that
+ * ids which the cache considers equal are never missed: NUMBER ids by their long value (5, 5L and 5.5 are equal),
+ * STRING and URL ids by their string (5 and "5" are equal) and OBJECT ids by their equality, where strings and the
+ * long value of numbers are hashed by their characters and other ids by their hashCode().
+ *
+ * A filter can be saved with {@link #write(java.io.OutputStream)} after a load and read back with
+ * {@link #read(java.io.InputStream)} for the next incremental load instead of scanning the graph again.
+ */
+public class BloomFilter {
+
+    private static final int VERSION = 2;
+
+    private final VertexIDType idType;
+    private final long[] bits;
+    private final long numberOfBits;
+    private final int numberOfHashes;
+    private long size = 0;
+
+    /**
+     * Creates a filter for ids of {@link VertexIDType#OBJECT}.
+     *
+     * @param expectedIds              the number of ids the filter is sized for
+     * @param falsePositiveProbability the probability of a false positive once expectedIds have been added
+     */
+    public BloomFilter(final long expectedIds, final double falsePositiveProbability) {
+        this(expectedIds, falsePositiveProbability, VertexIDType.OBJECT);
+    }
+
+    /**
+     * @param expectedIds              the number of ids the filter is sized for
+     * @param falsePositiveProbability the probability of a false positive once expectedIds have been added
+     * @param idType                   the type of the ids, which must be the one of the vertex cache
+     */
+    public BloomFilter(final long expectedIds, final double falsePositiveProbability, final VertexIDType idType) {
+        if (idType == null) throw new IllegalArgumentException("Id type may not be null");
+        if (expectedIds <= 0) throw new IllegalArgumentException("Expected number of ids must be positive");
+        if (falsePositiveProbability <= 0.0d || falsePositiveProbability >= 1.0d)
+            throw new IllegalArgumentException("False positive probability must be in (0, 1)");
+        final long numberOfBits = Math.max(64, (long) Math.ceil(-expectedIds * Math.log(falsePositiveProbability) / (Math.log(2) * Math.log(2))));
+        if (numberOfBits > (long) Integer.MAX_VALUE * 64)
+            throw new IllegalArgumentException("Bloom filter would be too large");
+        this.idType = idType;
+        this.bits = new long[(int) ((numberOfBits + 63) / 64)];
+        this.numberOfBits = (long) this.bits.length * 64;
+        this.numberOfHashes = Math.max(1, (int) Math.round((double) this.numberOfBits / expectedIds * Math.log(2)));
+    }
+
+    private BloomFilter(final VertexIDType idType, final long[] bits, final int numberOfHashes, final long size) {
+        this.idType = idType;
+        this.bits = bits;
+        this.numberOfBits = (long) bits.length * 64;
+        this.numberOfHashes = numberOfHashes;
+        this.size = size;
+    }
+
+    public void put(final Object id) {
+        final long hash = hash(id);
+        final long h1 = hash;
+        final long h2 = mix(hash ^ 0x9e3779b97f4a7c15L) | 1;
+        for (int i = 0; i < numberOfHashes; i++) {
+            final long bit = ((h1 + i * h2) & Long.MAX_VALUE) % numberOfBits;
+            bits[(int) (bit >>> 6)] |= 1L << bit;
+        }
+        size++;
+    }
+
+    public boolean mightContain(final Object id) {
+        final long hash = hash(id);
+        final long h1 = hash;
+        final long h2 = mix(hash ^ 0x9e3779b97f4a7c15L) | 1;
+        for (int i = 0; i < numberOfHashes; i++) {
+            final long bit = ((h1 + i * h2) & Long.MAX_VALUE) % numberOfBits;
+            if ((bits[(int) (bit >>> 6)] & (1L << bit)) == 0) return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return the number of ids added to the filter (counting ids added more than once)
+     */
+    public long size() {
+        return size;
+    }
+
+    public long getNumberOfBits() {
+        return numberOfBits;
+    }
+
+    public int getNumberOfHashes() {
+        return numberOfHashes;
+    }
+
+    public VertexIDType getIdType() {
+        return idType;
+    }
+
+    /**
+     * @return whether the vertex cache of the given type considers the same ids equal as this filter
+     */
+    public boolean isCompatible(final VertexIDType type) {
+        return normalization(idType) == normalization(type);
+    }
+
+    private static VertexIDType normalization(final VertexIDType type) {
+        switch (type) {
+            case NUMBER:
+            case NUMBER_ON_DISK:
+                return VertexIDType.NUMBER;
+            case STRING:
+            case STRING_ON_DISK:
+            case URL:
+                return VertexIDType.STRING;
+            default:
+                return VertexIDType.OBJECT;
+        }
+    }
+
+    public void write(final OutputStream outputStream) throws IOException {
+        final DataOutputStream out = new DataOutputStream(outputStream);
+        out.writeInt(VERSION);
+        out.writeUTF(idType.name());
+        out.writeInt(numberOfHashes);
+        out.writeLong(size);
+        out.writeInt(bits.length);
+        for (final long word : bits) {
+            out.writeLong(word);
+        }
+        out.flush();
+    }
+
+    public static BloomFilter read(final InputStream inputStream) throws IOException {
+        final DataInputStream in = new DataInputStream(inputStream);
+        final int version = in.readInt();
+        if (version != VERSION) throw new IOException("Unsupported bloom filter version: " + version);
+        final String idTypeName = in.readUTF();
+        final VertexIDType idType;
+        try {
+            idType = VertexIDType.valueOf(idTypeName);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Unknown vertex id type: " + idTypeName);
+        }
+        final int numberOfHashes = in.readInt();
+        final long size = in.readLong();
+        final long[] bits = new long[in.readInt()];
+        for (int i = 0; i < bits.length; i++) {
+            bits[i] = in.readLong();
+        }
+        return new BloomFilter(idType, bits, numberOfHashes, size);
+    }
+
+    private long hash(final Object id) {
+        if (id == null) throw new IllegalArgumentException("Id may not be null");
+        final String string;
+        switch (normalization(idType)) {
+            case NUMBER:
+                if (!(id instanceof Number)) throw new IllegalArgumentException("Number expected.");
+                string = Long.toString(((Number) id).longValue());
+                break;
+            case STRING:
+                string = id.toString();
+                break;
+            default:
+                if (id instanceof Number) string = Long.toString(((Number) id).longValue());
+                else if (id instanceof CharSequence) string = id.toString();
+                else string = null;
+        }
+        if (string != null) {
+            long h = 0xcbf29ce484222325L;
+            for (int i = 0; i < string.length(); i++) {
+                h ^= string.charAt(i);
+                h *= 0x100000001b3L;
+            }
+            return mix(h);
+        } else {
+            return mix(id.hashCode());
+        }
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,449 @@
+package com.tinkerpop.blueprints.util.wrappers.batch;
+
+import com.tinkerpop.blueprints.Edge;
+import com.tinkerpop.blueprints.Graph;
+import com.tinkerpop.blueprints.Vertex;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * ExternalEdgeSorter is an optional stage in front of {@link BatchGraph} (or any other graph) which orders the edges
+ * of an unordered input by their out vertex before they are added. Consecutive edges then share their out vertex, which
+ * BatchGraph resolves without a cache lookup, and the wrapped graph accesses vertex records mostly sequentially.
+ *
+ * Edges are collected with {@link #addEdge(Object, Object, Object, String, java.util.Map)}. Whenever maxEdgesInMemory
+ * edges have been collected, they are sorted and written to a run file in the given directory. {@link #load(Graph)}
+ * merges the runs and adds the edges in order. Hence, memory is bounded by maxEdgesInMemory edges independent of the
+ * size of the input.
+ *
+ * By default, edges are ordered by the id of their out vertex in the input. When constructed with a BatchGraph into
+ * which all vertices have already been loaded, edges are ordered by the id of their out vertex in the wrapped graph
+ * instead, which for graphs like Neo4j is the order of the vertex records on disk.
+ *
+ * Property values and ids which are not strings, numbers or booleans must be Serializable.
+ */
+public class ExternalEdgeSorter implements Closeable {
+
+    /**
+     * Default number of edges sorted in memory
+     */
+    public static final int DEFAULT_MAX_EDGES_IN_MEMORY = 1000000;
+
+    /**
+     * Maximum number of runs merged at once. More runs are merged in several passes.
+     */
+    static final int MAX_MERGE_WIDTH = 128;
+
+    private static final byte NULL = 0;
+    private static final byte LONG = 1;
+    private static final byte INTEGER = 2;
+    private static final byte STRING = 3;
+    private static final byte DOUBLE = 4;
+    private static final byte FLOAT = 5;
+    private static final byte BOOLEAN = 6;
+    private static final byte SERIALIZED = 7;
+
+    private final BatchGraph batchGraph;
+    private final File directory;
+    private final int maxEdgesInMemory;
+
+    private final List<EdgeRecord> buffer = new ArrayList<EdgeRecord>();
+    private final List<File> runs = new ArrayList<File>();
+    private long sequence = 0;
+    private long count = 0;
+
+    /**
+     * Constructs a sorter ordering the edges by the id of their out vertex in the input.
+     *
+     * @param directory        Directory for the run files
+     * @param maxEdgesInMemory Number of edges sorted in memory before they are written to a run file
+     */
+    public ExternalEdgeSorter(final File directory, final int maxEdgesInMemory) {
+        this(null, directory, maxEdgesInMemory);
+    }
+
+    /**
+     * Constructs a sorter ordering the edges by the id of their out vertex in the graph wrapped by the given
+     * BatchGraph. All vertices must have been added to the BatchGraph before the first edge is added to the sorter.
+     *
+     * @param graph            BatchGraph the edges are going to be loaded into
+     * @param directory        Directory for the run files
+     * @param maxEdgesInMemory Number of edges sorted in memory before they are written to a run file
+     */
+    public ExternalEdgeSorter(final BatchGraph graph, final File directory, final int maxEdgesInMemory) {
+        if (directory == null || !directory.isDirectory())
+            throw new IllegalArgumentException("Directory expected: " + directory);
+        if (maxEdgesInMemory <= 0) throw new IllegalArgumentException("Number of edges in memory must be positive");
+        this.batchGraph = graph;
+        this.directory = directory;
+        this.maxEdgesInMemory = maxEdgesInMemory;
+    }
+
+    /**
+     * @return the number of edges added to the sorter
+     */
+    public long getEdgeCount() {
+        return count;
+    }
+
+    /**
+     * @return the number of runs written to disk so far
+     */
+    public int getNumberOfRuns() {
+        return runs.size();
+    }
+
+    public void addEdge(final Object id, final Object outVertexId, final Object inVertexId, final String label) {
+        addEdge(id, outVertexId, inVertexId, label, null);
+    }
+
+    /**
+     * @param id          the id of the edge, may be null
+     * @param outVertexId the id of the out vertex in the input
+     * @param inVertexId  the id of the in vertex in the input
+     * @param label       the label of the edge
+     * @param properties  the properties of the edge, may be null
+     */
+    public void addEdge(final Object id, final Object outVertexId, final Object inVertexId, final String label, final Map<String, ?> properties) {
+        if (outVertexId == null || inVertexId == null) throw new IllegalArgumentException("Vertex ids may not be null");
+        if (label == null) throw new IllegalArgumentException("Label may not be null");
+        Object key = outVertexId;
+        if (batchGraph != null) {
+            final Object internalId = batchGraph.getInternalVertexId(outVertexId);
+            if (internalId == null)
+                throw new IllegalArgumentException("Vertex for given ID cannot be found: " + outVertexId);
+            key = internalId;
+        }
+        buffer.add(new EdgeRecord(key, sequence++, id, outVertexId, inVertexId, label, properties));
+        count++;
+        if (buffer.size() >= maxEdgesInMemory) spill();
+    }
+
+    /**
+     * Adds all edges to the given graph in order. The out and in vertices are retrieved with getVertex() of the graph.
+     *
+     * @param graph the graph to add the edges to
+     * @return the number of edges added
+     */
+    public long load(final Graph graph) {
+        try {
+            Collections.sort(buffer, RECORD_ORDER);
+            if (runs.isEmpty()) {
+                for (final EdgeRecord record : buffer) {
+                    add(graph, record);
+                }
+                final long loaded = buffer.size();
+                buffer.clear();
+                return loaded;
+            }
+
+            if (!buffer.isEmpty()) spill();
+            while (runs.size() > MAX_MERGE_WIDTH) {
+                final List<File> merged = new ArrayList<File>();
+                for (int i = 0; i < runs.size(); i += MAX_MERGE_WIDTH) {
+                    final List<File> group = runs.subList(i, Math.min(runs.size(), i + MAX_MERGE_WIDTH));
+                    merged.add(mergeToRun(group));
+                }
+                runs.clear();
+                runs.addAll(merged);
+            }
+            return merge(runs, graph, null);
+        } catch (IOException e) {
+            throw new RuntimeException(e.getMessage(), e);
+        } finally {
+            close();
+        }
+    }
+
+    /**
+     * Deletes the run files.
+     */
+    @Override
+    public void close() {
+        for (final File run : runs) {
+            run.delete();
+        }
+        runs.clear();
+        buffer.clear();
+    }
+
+    private static void add(final Graph graph, final EdgeRecord record) {
+        final Vertex out = graph.getVertex(record.outVertexId);
+        if (out == null) throw new IllegalArgumentException("Vertex for given ID cannot be found: " + record.outVertexId);
+        final Vertex in = graph.getVertex(record.inVertexId);
+        if (in == null) throw new IllegalArgumentException("Vertex for given ID cannot be found: " + record.inVertexId);
+        final Edge edge = graph.addEdge(record.id, out, in, record.label);
+        if (record.properties != null) {
+            for (final Map.Entry<String, ?> entry : record.properties.entrySet()) {
+                edge.setProperty(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    private void spill() {
+        Collections.sort(buffer, RECORD_ORDER);
+        try {
+            final File run = File.createTempFile("edges", ".run", directory);
+            run.deleteOnExit();
+            final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(run), 1 << 16));
+            try {
+                for (final EdgeRecord record : buffer) {
+                    record.write(out);
+                }
+            } finally {
+                out.close();
+            }
+            runs.add(run);
+        } catch (IOException e) {
+            throw new RuntimeException(e.getMessage(), e);
+        }
+        buffer.clear();
+    }
+
+    private File mergeToRun(final List<File> group) throws IOException {
+        final File run = File.createTempFile("edges", ".run", directory);
+        run.deleteOnExit();
+        final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(run), 1 << 16));
+        try {
+            merge(group, null, out);
+        } finally {
+            out.close();
+        }
+        for (final File merged : group) {
+            merged.delete();
+        }
+        return run;
+    }
+
+    /**
+     * Merges the given runs and adds the edges to the graph or writes them to the output.
+     */
+    private static long merge(final List<File> runs, final Graph graph, final DataOutputStream out) throws IOException {
+        final PriorityQueue<RunReader> queue = new PriorityQueue<RunReader>(runs.size(), new Comparator<RunReader>() {
+            public int compare(final RunReader a, final RunReader b) {
+                return RECORD_ORDER.compare(a.current, b.current);
+            }
+        });
+        final List<RunReader> readers = new ArrayList<RunReader>();
+        try {
+            for (final File run : runs) {
+                final RunReader reader = new RunReader(run);
+                readers.add(reader);
+                if (reader.next()) queue.add(reader);
+            }
+            long merged = 0;
+            while (!queue.isEmpty()) {
+                final RunReader reader = queue.poll();
+                if (graph != null) add(graph, reader.current);
+                else reader.current.write(out);
+                merged++;
+                if (reader.next()) queue.add(reader);
+            }
+            return merged;
+        } finally {
+            for (final RunReader reader : readers) {
+                reader.close();
+            }
+        }
+    }
+
+    /**
+     * Orders records by key and, for equal keys, in the order they were added. Keys of different types are ordered by
+     * the name of their class, numbers by their long value and keys which are not Comparable by their string form.
+     */
+    private static final Comparator<EdgeRecord> RECORD_ORDER = new Comparator<EdgeRecord>() {
+        public int compare(final EdgeRecord a, final EdgeRecord b) {
+            final int c = compareKeys(a.key, b.key);
+            if (c != 0) return c;
+            return a.sequence < b.sequence ? -1 : (a.sequence == b.sequence ? 0 : 1);
+        }
+    };
+
+    @SuppressWarnings("unchecked")
+    private static int compareKeys(final Object a, final Object b) {
+        if (a instanceof Number && b instanceof Number && !(a instanceof Double || a instanceof Float || b instanceof Double || b instanceof Float)) {
+            final long x = ((Number) a).longValue();
+            final long y = ((Number) b).longValue();
+            return x < y ? -1 : (x == y ? 0 : 1);
+        }
+        if (a.getClass() != b.getClass()) return a.getClass().getName().compareTo(b.getClass().getName());
+        if (a instanceof Comparable) return ((Comparable<Object>) a).compareTo(b);
+        return a.toString().compareTo(b.toString());
+    }
+
+    private static class RunReader {
+
+        private final DataInputStream in;
+        private EdgeRecord current;
+
+        private RunReader(final File run) throws IOException {
+            this.in = new DataInputStream(new BufferedInputStream(new FileInputStream(run), 1 << 16));
+        }
+
+        private boolean next() throws IOException {
+            try {
+                current = EdgeRecord.read(in);
+                return true;
+            } catch (EOFException e) {
+                current = null;
+                return false;
+            }
+        }
+
+        private void close() throws IOException {
+            in.close();
+        }
+    }
+
+    private static class EdgeRecord {
+
+        private final Object key;
+        private final long sequence;
+        private final Object id;
+        private final Object outVertexId;
+        private final Object inVertexId;
+        private final String label;
+        private final Map<String, ?> properties;
+
+        private EdgeRecord(final Object key, final long sequence, final Object id, final Object outVertexId, final Object inVertexId,
+                           final String label, final Map<String, ?> properties) {
+            this.key = key;
+            this.sequence = sequence;
+            this.id = id;
+            this.outVertexId = outVertexId;
+            this.inVertexId = inVertexId;
+            this.label = label;
+            this.properties = properties;
+        }
+
+        private void write(final DataOutputStream out) throws IOException {
+            writeObject(out, key);
+            out.writeLong(sequence);
+            writeObject(out, id);
+            writeObject(out, outVertexId);
+            writeObject(out, inVertexId);
+            writeObject(out, label);
+            if (properties == null) {
+                out.writeInt(-1);
+            } else {
+                out.writeInt(properties.size());
+                for (final Map.Entry<String, ?> entry : properties.entrySet()) {
+                    writeObject(out, entry.getKey());
+                    writeObject(out, entry.getValue());
+                }
+            }
+        }
+
+        private static EdgeRecord read(final DataInputStream in) throws IOException {
+            final Object key = readObject(in);
+            final long sequence = in.readLong();
+            final Object id = readObject(in);
+            final Object outVertexId = readObject(in);
+            final Object inVertexId = readObject(in);
+            final String label = (String) readObject(in);
+            final int size = in.readInt();
+            Map<String, Object> properties = null;
+            if (size >= 0) {
+                properties = new HashMap<String, Object>(size * 2);
+                for (int i = 0; i < size; i++) {
+                    properties.put((String) readObject(in), readObject(in));
+                }
+            }
+            return new EdgeRecord(key, sequence, id, outVertexId, inVertexId, label, properties);
+        }
+    }
+
+    private static void writeObject(final DataOutputStream out, final Object object) throws IOException {
+        if (object == null) {
+            out.writeByte(NULL);
+        } else if (object instanceof Long) {
+            out.writeByte(LONG);
+            out.writeLong((Long) object);
+        } else if (object instanceof Integer) {
+            out.writeByte(INTEGER);
+            out.writeInt((Integer) object);
+        } else if (object instanceof String) {
+            final byte[] bytes = ((String) object).getBytes("UTF-8");
+            out.writeByte(STRING);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        } else if (object instanceof Double) {
+            out.writeByte(DOUBLE);
+            out.writeDouble((Double) object);
+        } else if (object instanceof Float) {
+            out.writeByte(FLOAT);
+            out.writeFloat((Float) object);
+        } else if (object instanceof Boolean) {
+            out.writeByte(BOOLEAN);
+            out.writeBoolean((Boolean) object);
+        } else if (object instanceof Serializable) {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            final ObjectOutputStream stream = new ObjectOutputStream(bytes);
+            stream.writeObject(object);
+            stream.close();
+            out.writeByte(SERIALIZED);
+            out.writeInt(bytes.size());
+            bytes.writeTo(out);
+        } else {
+            throw new IllegalArgumentException("Value can not be written to disk: " + object.getClass());
+        }
+    }
+
+    private static Object readObject(final DataInputStream in) throws IOException {
+        final byte type = in.readByte();
+        switch (type) {
+            case NULL:
+                return null;
+            case LONG:
+                return in.readLong();
+            case INTEGER:
+                return in.readInt();
+            case STRING: {
+                final byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                return new String(bytes, "UTF-8");
+            }
+            case DOUBLE:
+                return in.readDouble();
+            case FLOAT:
+                return in.readFloat();
+            case BOOLEAN:
+                return in.readBoolean();
+            case SERIALIZED: {
+                final byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                final ObjectInputStream stream = new ObjectInputStream(new ByteArrayInputStream(bytes));
+                try {
+                    return stream.readObject();
+                } catch (ClassNotFoundException e) {
+                    throw new IOException(e.getMessage());
+                } finally {
+                    stream.close();
+                }
+            }
+            default:
+                throw new IOException("Unknown type in edge run: " + type);
+        }
+    }
+}
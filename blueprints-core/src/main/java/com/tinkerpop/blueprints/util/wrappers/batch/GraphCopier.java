@@ -0,0 +1,220 @@
+package com.tinkerpop.blueprints.util.wrappers.batch;
+
+import com.tinkerpop.blueprints.Direction;
+import com.tinkerpop.blueprints.Edge;
+import com.tinkerpop.blueprints.Graph;
+import com.tinkerpop.blueprints.Vertex;
+import com.tinkerpop.blueprints.util.ElementHelper;
+
+/**
+ * GraphCopier streams the elements of one graph into another graph through a {@link PipelinedBatchLoader}, without
+ * serializing them in between.
+ *
+ * The vertices and edges of the source graph are read on the calling thread and handed to the worker threads of the
+ * loader, which create them in the target graph and commit every bufferSize elements. The ids of the target vertices
+ * are kept in the partitioned vertex cache of the loader, so that the endpoints of an edge are not looked up in the
+ * target graph. Edges are copied once all vertices are committed, in parallel when the target graph supports thread
+ * isolated transactions.
+ *
+ * The ids of the source elements are supplied to the target graph, or set as the properties given by the vertex and
+ * edge id keys. Unlike {@link com.tinkerpop.blueprints.util.io.graphml.GraphMigrator}, property values are copied
+ * as they are instead of passing through GraphML.
+ */
+public class GraphCopier {
+
+    /**
+     * Reports the progress of a copy.
+     */
+    public static interface Listener {
+
+        /**
+         * Called by the copying thread every reportInterval elements read and once the copy is done.
+         */
+        public void progress(GraphCopier copier);
+    }
+
+    private final Builder builder;
+    private final Listener listener;
+    private final long reportInterval;
+
+    private volatile PipelinedBatchLoader loader = null;
+    private volatile long vertexCount = 0;
+    private volatile long edgeCount = 0;
+    private volatile boolean done = false;
+    private volatile long startTime = 0;
+    private volatile long stopTime = 0;
+
+    private GraphCopier(final Builder builder) {
+        this.builder = builder;
+        this.listener = builder.listener;
+        this.reportInterval = builder.reportInterval;
+    }
+
+    /**
+     * Copies all vertices and then all edges and waits until they are committed. A copy can only run once.
+     *
+     * @throws RuntimeException if the target graph failed, elements committed before remain in the target graph
+     */
+    public synchronized void copy() {
+        if (0 != this.startTime) throw new IllegalStateException("The graph has already been copied");
+        this.startTime = System.currentTimeMillis();
+        this.loader = PipelinedBatchLoader.wrap(this.builder.to, this.builder.type, this.builder.bufferSize, this.builder.threads);
+        this.loader.setVertexIdKey(this.builder.vertexIdKey);
+        this.loader.setEdgeIdKey(this.builder.edgeIdKey);
+        try {
+            for (final Vertex vertex : this.builder.from.getVertices()) {
+                this.loader.addVertex(vertex.getId(), ElementHelper.getProperties(vertex));
+                this.vertexCount++;
+                this.report(this.vertexCount);
+            }
+            for (final Edge edge : this.builder.from.getEdges()) {
+                this.loader.addEdge(edge.getId(), edge.getVertex(Direction.OUT).getId(), edge.getVertex(Direction.IN).getId(),
+                        edge.getLabel(), ElementHelper.getProperties(edge));
+                this.edgeCount++;
+                this.report(this.vertexCount + this.edgeCount);
+            }
+        } finally {
+            // stops the workers also when reading the source failed
+            this.loader.finish();
+            this.stopTime = System.currentTimeMillis();
+        }
+        this.done = true;
+        if (null != this.listener)
+            this.listener.progress(this);
+    }
+
+    private void report(final long elements) {
+        if (null != this.listener && elements % this.reportInterval == 0)
+            this.listener.progress(this);
+    }
+
+    /**
+     * @return the number of vertices read from the source graph
+     */
+    public long getReadVertexCount() {
+        return this.vertexCount;
+    }
+
+    /**
+     * @return the number of edges read from the source graph
+     */
+    public long getReadEdgeCount() {
+        return this.edgeCount;
+    }
+
+    /**
+     * @return the number of vertices committed to the target graph
+     */
+    public long getVertexCount() {
+        return null == this.loader ? 0 : this.loader.getVertexCount();
+    }
+
+    /**
+     * @return the number of edges committed to the target graph
+     */
+    public long getEdgeCount() {
+        return null == this.loader ? 0 : this.loader.getEdgeCount();
+    }
+
+    public boolean isDone() {
+        return this.done;
+    }
+
+    public long getElapsedTime() {
+        if (0 == this.startTime)
+            return 0;
+        return (0 == this.stopTime ? System.currentTimeMillis() : this.stopTime) - this.startTime;
+    }
+
+    /**
+     * @return the number of elements committed per second
+     */
+    public double getThroughput() {
+        final long elapsed = this.getElapsedTime();
+        return 0 == elapsed ? 0.0d : (this.getVertexCount() + this.getEdgeCount()) * 1000.0d / elapsed;
+    }
+
+    public String toString() {
+        return "graphcopier[vertices:" + this.getVertexCount() + "/" + this.vertexCount
+                + " edges:" + this.getEdgeCount() + "/" + this.edgeCount + " elements/s:" + (long) this.getThroughput() + "]";
+    }
+
+    /**
+     * Constructs a GraphCopier.
+     */
+    public static class Builder {
+
+        public static final long DEFAULT_BUFFER_SIZE = 10000;
+        public static final long DEFAULT_REPORT_INTERVAL = 100000;
+
+        private final Graph from;
+        private final Graph to;
+        private VertexIDType type = VertexIDType.OBJECT;
+        private int threads = Runtime.getRuntime().availableProcessors();
+        private long bufferSize = DEFAULT_BUFFER_SIZE;
+        private String vertexIdKey = null;
+        private String edgeIdKey = null;
+        private Listener listener = null;
+        private long reportInterval = DEFAULT_REPORT_INTERVAL;
+
+        public Builder(final Graph from, final Graph to) {
+            if (null == from || null == to) throw new IllegalArgumentException("Graphs may not be null");
+            this.from = from;
+            this.to = to;
+        }
+
+        /**
+         * The type of the ids of the source vertices, by default OBJECT.
+         */
+        public Builder type(final VertexIDType type) {
+            if (null == type) throw new IllegalArgumentException("Type may not be null");
+            this.type = type;
+            return this;
+        }
+
+        /**
+         * The number of threads writing to the target graph, by default one per available processor.
+         */
+        public Builder threads(final int threads) {
+            if (threads <= 0) throw new IllegalArgumentException("Number of threads must be positive");
+            this.threads = threads;
+            return this;
+        }
+
+        /**
+         * The number of elements each thread commits at once.
+         */
+        public Builder bufferSize(final long bufferSize) {
+            if (bufferSize <= 0) throw new IllegalArgumentException("BufferSize must be positive");
+            this.bufferSize = bufferSize;
+            return this;
+        }
+
+        /**
+         * @see PipelinedBatchLoader#setVertexIdKey(String)
+         */
+        public Builder vertexIdKey(final String vertexIdKey) {
+            this.vertexIdKey = vertexIdKey;
+            return this;
+        }
+
+        /**
+         * @see PipelinedBatchLoader#setEdgeIdKey(String)
+         */
+        public Builder edgeIdKey(final String edgeIdKey) {
+            this.edgeIdKey = edgeIdKey;
+            return this;
+        }
+
+        public Builder listener(final Listener listener, final long reportInterval) {
+            if (reportInterval <= 0) throw new IllegalArgumentException("Report interval must be positive");
+            this.listener = listener;
+            this.reportInterval = reportInterval;
+            return this;
+        }
+
+        public GraphCopier build() {
+            return new GraphCopier(this);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.tinkerpop.blueprints.util.wrappers.batch;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Live statistics of a load through {@link BatchGraph}, see {@link BatchGraph#getStatistics()}.
+ *
+ * The statistics are updated by the loading thread and may be read concurrently by any other thread, e.g. to report
+ * the progress of a long running load.
+ *
+ * Commit latencies are counted in a histogram of power of two buckets: bucket 0 counts commits faster than 1ms and
+ * bucket i counts commits which took at least 2^(i-1)ms and less than 2^i ms.
+ */
+public class LoadStatistics {
+
+    /**
+     * Number of buckets of the commit latency histogram
+     */
+    public static final int NUMBER_OF_BUCKETS = 24;
+
+    private volatile long vertices = 0;
+    private volatile long edges = 0;
+    private volatile long cacheHits = 0;
+    private volatile long cacheMisses = 0;
+    private volatile long commits = 0;
+    private volatile long commitNanos = 0;
+    private volatile long bufferSize;
+    private volatile long startNanos = 0;
+    private volatile long lastBatchElements = 0;
+    private volatile long lastBatchNanos = 0;
+    private final AtomicLongArray commitLatencies = new AtomicLongArray(NUMBER_OF_BUCKETS);
+
+    LoadStatistics(final long bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    void vertexAdded() {
+        if (startNanos == 0) startNanos = System.nanoTime();
+        vertices++;
+    }
+
+    void edgeAdded() {
+        if (startNanos == 0) startNanos = System.nanoTime();
+        edges++;
+    }
+
+    void cacheHit() {
+        cacheHits++;
+    }
+
+    void cacheMiss() {
+        cacheMisses++;
+    }
+
+    void committed(final long nanos) {
+        commits++;
+        commitNanos += nanos;
+        commitLatencies.incrementAndGet(getBucket(nanos / 1000000));
+    }
+
+    void batchCompleted(final long elements, final long nanos, final long nextBufferSize) {
+        lastBatchElements = elements;
+        lastBatchNanos = nanos;
+        bufferSize = nextBufferSize;
+    }
+
+    private static int getBucket(final long millis) {
+        final int bucket = 64 - Long.numberOfLeadingZeros(millis);
+        return Math.min(bucket, NUMBER_OF_BUCKETS - 1);
+    }
+
+    public long getVertexCount() {
+        return vertices;
+    }
+
+    public long getEdgeCount() {
+        return edges;
+    }
+
+    public long getElementCount() {
+        return vertices + edges;
+    }
+
+    /**
+     * @return the number of elements added per second since the first element was added
+     */
+    public double getElementsPerSecond() {
+        final long start = startNanos;
+        if (start == 0) return 0.0d;
+        final long nanos = System.nanoTime() - start;
+        return nanos <= 0 ? 0.0d : getElementCount() * 1e9d / nanos;
+    }
+
+    /**
+     * @return the number of elements added per second in the last completed batch, including its commit
+     */
+    public double getRecentElementsPerSecond() {
+        final long nanos = lastBatchNanos;
+        return nanos <= 0 ? 0.0d : lastBatchElements * 1e9d / nanos;
+    }
+
+    /**
+     * @return the number of lookups of edge vertices answered by the vertex cache
+     */
+    public long getCacheHits() {
+        return cacheHits;
+    }
+
+    /**
+     * @return the number of lookups of edge vertices not answered by the vertex cache
+     */
+    public long getCacheMisses() {
+        return cacheMisses;
+    }
+
+    public double getCacheHitRate() {
+        final long hits = cacheHits;
+        final long lookups = hits + cacheMisses;
+        return lookups == 0 ? 0.0d : (double) hits / lookups;
+    }
+
+    public long getCommitCount() {
+        return commits;
+    }
+
+    /**
+     * @return the mean latency of commits in milliseconds
+     */
+    public double getMeanCommitLatency() {
+        final long count = commits;
+        return count == 0 ? 0.0d : commitNanos / 1e6d / count;
+    }
+
+    /**
+     * @return a copy of the commit latency histogram
+     */
+    public long[] getCommitLatencyHistogram() {
+        final long[] histogram = new long[NUMBER_OF_BUCKETS];
+        for (int i = 0; i < histogram.length; i++) {
+            histogram[i] = commitLatencies.get(i);
+        }
+        return histogram;
+    }
+
+    /**
+     * @return the number of elements loaded before the next commit
+     */
+    public long getBufferSize() {
+        return bufferSize;
+    }
+
+    public String toString() {
+        return "LoadStatistics[vertices:" + vertices + ", edges:" + edges + ", elements/s:" + Math.round(getElementsPerSecond())
+                + ", commits:" + commits + ", mean commit ms:" + getMeanCommitLatency() + ", buffer size:" + bufferSize
+                + ", cache hits:" + cacheHits + ", cache misses:" + cacheMisses + "]";
+    }
+}
@@ -0,0 +1,686 @@
+package com.tinkerpop.blueprints.util.wrappers.batch;
+
+import com.tinkerpop.blueprints.Edge;
+import com.tinkerpop.blueprints.Element;
+import com.tinkerpop.blueprints.Graph;
+import com.tinkerpop.blueprints.TransactionalGraph;
+import com.tinkerpop.blueprints.Vertex;
+import com.tinkerpop.blueprints.util.ExceptionFactory;
+import com.tinkerpop.blueprints.util.wrappers.batch.cache.PartitionedVertexCache;
+import com.tinkerpop.blueprints.util.wrappers.batch.cache.VertexCache;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * PipelinedBatchLoader is the multi-threaded counterpart of {@link BatchGraph}. Instead of writing each element on
+ * the caller's thread, {@link #addVertex(Object, java.util.Map)} and
+ * {@link #addEdge(Object, Object, Object, String, java.util.Map)} hand the element to one of a number of worker
+ * threads through a bounded queue and return immediately, so that parsing the input, creating elements and
+ * committing transactions overlap. Submitting is thread safe, so the input may also be parsed by several threads.
+ *
+ * Vertices are hash partitioned over the workers by their id and every worker commits its own transaction after
+ * bufferSize elements while the other workers and the parsing threads continue. The mapping of external vertex ids
+ * to the ids in the wrapped graph is kept in a {@link PartitionedVertexCache} whose partitions coincide with the
+ * workers.
+ *
+ * Loading happens in two phases. Edges are only loaded once all vertices exist: the first call to addEdge waits until
+ * all submitted vertices have been committed, after which no more vertices may be added. Edges are partitioned by
+ * their out vertex so that the edges of one vertex are created by the same worker.
+ *
+ * If the wrapped graph supports thread isolated transactions (e.g. Neo4j2Graph), workers write to it concurrently, each
+ * in its own transaction. A transaction that fails, typically on a lock conflict when concurrently created edges share
+ * a vertex, is rolled back and replayed up to {@link #setMaxRetries(int)} times while the other workers wait, and
+ * a worker which runs out of input commits its open transaction. Otherwise, writes to the wrapped graph are serialized
+ * and only the parsing of the input and the id cache lookups are overlapped.
+ *
+ * With the ON_DISK {@link VertexIDType}s every partition keeps its ids in its own files, which are deleted by finish().
+ *
+ * The first error of a worker stops the load and is rethrown on the next call to the loader. As with BatchGraph,
+ * data committed before the error remains in the wrapped graph. {@link #finish()} must be called once all elements have
+ * been submitted.
+ */
+public class PipelinedBatchLoader<T extends TransactionalGraph> {
+
+    /**
+     * Default number of elements waiting to be written per worker
+     */
+    public static final int DEFAULT_QUEUE_CAPACITY = 10000;
+
+    /**
+     * Default number of times a failed transaction is replayed
+     */
+    public static final int DEFAULT_MAX_RETRIES = 3;
+
+    private static final Object STOP = new Object();
+    private static final long IDLE_COMMIT_MILLIS = 100;
+
+    private enum Phase {VERTICES, EDGES, FINISHED}
+
+    private final T baseGraph;
+    private final VertexIDType type;
+    private final long bufferSize;
+    private final PartitionedVertexCache cache;
+    private final boolean concurrentWrites;
+    private final Object writeLock = new Object();
+    private final ReadWriteLock transactionsLock = new ReentrantReadWriteLock();
+
+    private final List<Worker> workers;
+    private final ReadWriteLock phaseLock = new ReentrantReadWriteLock();
+    private volatile Phase phase = Phase.VERTICES;
+    private volatile boolean started = false;
+
+    private final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+    private final AtomicLong vertexCount = new AtomicLong(0);
+    private final AtomicLong edgeCount = new AtomicLong(0);
+
+    private String vertexIdKey = null;
+    private String edgeIdKey = null;
+    private boolean loadingFromScratch = true;
+    private int maxRetries = DEFAULT_MAX_RETRIES;
+
+    /**
+     * Constructs a PipelinedBatchLoader for the provided graph and starts its worker threads.
+     *
+     * @param graph         Graph to be loaded
+     * @param type          Type of vertex id expected. This information is used to optimize the vertex cache memory footprint.
+     * @param bufferSize    Number of elements each worker loads before committing its transaction.
+     * @param threads       Number of worker threads
+     * @param queueCapacity Number of elements which may wait for each worker before submitting threads block.
+     */
+    public PipelinedBatchLoader(final T graph, final VertexIDType type, final long bufferSize, final int threads, final int queueCapacity) {
+        if (graph == null) throw new IllegalArgumentException("Graph may not be null");
+        if (type == null) throw new IllegalArgumentException("Type may not be null");
+        if (bufferSize <= 0) throw new IllegalArgumentException("BufferSize must be positive");
+        if (threads <= 0) throw new IllegalArgumentException("Number of threads must be positive");
+        if (queueCapacity <= 0) throw new IllegalArgumentException("Queue capacity must be positive");
+        this.baseGraph = graph;
+        this.type = type;
+        this.bufferSize = bufferSize;
+        this.cache = new PartitionedVertexCache(type, threads);
+        this.concurrentWrites = Boolean.TRUE.equals(graph.getFeatures().supportsThreadIsolatedTransactions);
+
+        this.workers = new ArrayList<Worker>(threads);
+        for (int i = 0; i < threads; i++) {
+            this.workers.add(new Worker(i, queueCapacity));
+        }
+        for (final Worker worker : this.workers) {
+            worker.start();
+        }
+    }
+
+    /**
+     * Constructs a PipelinedBatchLoader with one worker thread per available processor.
+     *
+     * @param graph      Graph to be loaded
+     * @param type       Type of vertex id expected.
+     * @param bufferSize Number of elements each worker loads before committing its transaction.
+     */
+    public PipelinedBatchLoader(final T graph, final VertexIDType type, final long bufferSize) {
+        this(graph, type, bufferSize, Runtime.getRuntime().availableProcessors(), DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * Constructs a PipelinedBatchLoader for the provided graph and wraps non-transactional graphs in an additional
+     * {@link WritethroughGraph}.
+     *
+     * @param graph      Graph to be loaded
+     * @param type       Type of vertex id expected.
+     * @param bufferSize Number of elements each worker loads before committing its transaction.
+     * @param threads    Number of worker threads
+     */
+    public static PipelinedBatchLoader wrap(final Graph graph, final VertexIDType type, final long bufferSize, final int threads) {
+        if (graph instanceof TransactionalGraph)
+            return new PipelinedBatchLoader<TransactionalGraph>((TransactionalGraph) graph, type, bufferSize, threads, DEFAULT_QUEUE_CAPACITY);
+        else
+            return new PipelinedBatchLoader<TransactionalGraph>(new WritethroughGraph<Graph>(graph), type, bufferSize, threads, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * Sets the key to be used when setting the vertex id as a property on the respective vertex.
+     * Must be called before the first element is submitted.
+     *
+     * @param key Key to be used.
+     * @see BatchGraph#setVertexIdKey(String)
+     */
+    public void setVertexIdKey(final String key) {
+        checkNotStarted();
+        if (!loadingFromScratch && key == null && baseGraph.getFeatures().ignoresSuppliedIds)
+            throw new IllegalStateException("Cannot set vertex id key to null when not loading from scratch while ids are ignored.");
+        this.vertexIdKey = key;
+    }
+
+    public String getVertexIdKey() {
+        return vertexIdKey;
+    }
+
+    /**
+     * Sets the key to be used when setting the edge id as a property on the respective edge.
+     * Must be called before the first element is submitted.
+     *
+     * @param key Key to be used.
+     * @see BatchGraph#setEdgeIdKey(String)
+     */
+    public void setEdgeIdKey(final String key) {
+        checkNotStarted();
+        this.edgeIdKey = key;
+    }
+
+    public String getEdgeIdKey() {
+        return edgeIdKey;
+    }
+
+    /**
+     * Sets whether the wrapped graph is initially empty. When loading incrementally, an added vertex which already
+     * exists in the wrapped graph is reused and the given properties are set on it, and edges may refer to
+     * vertices which were not added through this loader.
+     * Must be called before the first element is submitted.
+     *
+     * @param fromScratch whether the wrapped graph is initially empty
+     * @see BatchGraph#setLoadingFromScratch(boolean)
+     */
+    public void setLoadingFromScratch(final boolean fromScratch) {
+        checkNotStarted();
+        if (!fromScratch && vertexIdKey == null && baseGraph.getFeatures().ignoresSuppliedIds)
+            throw new IllegalStateException("Vertex id key is required to query existing vertices in wrapped graph.");
+        this.loadingFromScratch = fromScratch;
+    }
+
+    public boolean isLoadingFromScratch() {
+        return loadingFromScratch;
+    }
+
+    /**
+     * Sets how many times a failed transaction is rolled back and replayed. Only applies to wrapped graphs which
+     * support thread isolated transactions.
+     *
+     * @param maxRetries the number of retries, 0 to fail on the first error
+     */
+    public void setMaxRetries(final int maxRetries) {
+        if (maxRetries < 0) throw new IllegalArgumentException("Number of retries may not be negative");
+        this.maxRetries = maxRetries;
+    }
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    public int getNumberOfThreads() {
+        return workers.size();
+    }
+
+    /**
+     * @return the number of vertices committed so far
+     */
+    public long getVertexCount() {
+        return vertexCount.get();
+    }
+
+    /**
+     * @return the number of edges committed so far
+     */
+    public long getEdgeCount() {
+        return edgeCount.get();
+    }
+
+    public T getBaseGraph() {
+        return baseGraph;
+    }
+
+    /**
+     * Submits a vertex. Blocks if the queue of the responsible worker is full.
+     *
+     * @param id         the external id of the vertex
+     * @param properties the properties of the vertex, may be null
+     * @throws IllegalStateException if edges have already been submitted
+     */
+    public void addVertex(final Object id, final Map<String, ?> properties) {
+        if (id == null) throw ExceptionFactory.vertexIdCanNotBeNull();
+        phaseLock.readLock().lock();
+        try {
+            checkFailure();
+            if (phase != Phase.VERTICES)
+                throw new IllegalStateException("Vertices must be added before edges");
+            started = true;
+            submit(cache.getPartition(id), new VertexTask(id, properties));
+        } finally {
+            phaseLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Submits an edge. The first edge waits until all vertices submitted before have been committed.
+     *
+     * @param id          the id of the edge, may be null
+     * @param outVertexId the external id of the out vertex
+     * @param inVertexId  the external id of the in vertex
+     * @param label       the label of the edge
+     * @param properties  the properties of the edge, may be null
+     */
+    public void addEdge(final Object id, final Object outVertexId, final Object inVertexId, final String label, final Map<String, ?> properties) {
+        if (outVertexId == null || inVertexId == null) throw ExceptionFactory.vertexIdCanNotBeNull();
+        if (label == null) throw ExceptionFactory.edgeLabelCanNotBeNull();
+        if (phase == Phase.VERTICES) startEdgePhase();
+        phaseLock.readLock().lock();
+        try {
+            checkFailure();
+            if (phase != Phase.EDGES)
+                throw new IllegalStateException("Loading has already finished");
+            submit(cache.getPartition(outVertexId), new EdgeTask(id, outVertexId, inVertexId, label, properties));
+        } finally {
+            phaseLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Waits until all submitted elements have been committed and stops the worker threads.
+     *
+     * @throws RuntimeException if loading failed
+     */
+    public void finish() {
+        phaseLock.writeLock().lock();
+        try {
+            if (phase == Phase.FINISHED) {
+                checkFailure();
+                return;
+            }
+            phase = Phase.FINISHED;
+            for (final Worker worker : workers) {
+                send(worker, STOP);
+            }
+            for (final Worker worker : workers) {
+                try {
+                    worker.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException(e.getMessage(), e);
+                }
+            }
+            try {
+                cache.close();
+            } catch (IOException e) {
+                throw new RuntimeException(e.getMessage(), e);
+            }
+            checkFailure();
+        } finally {
+            phaseLock.writeLock().unlock();
+        }
+    }
+
+    private void startEdgePhase() {
+        phaseLock.writeLock().lock();
+        try {
+            if (phase != Phase.VERTICES) return;
+            started = true;
+            final Barrier barrier = new Barrier(workers.size());
+            for (final Worker worker : workers) {
+                // a worker which stopped, e.g. on an error, can no longer take its barrier, which is passed for it
+                if (!send(worker, barrier) || worker.exited)
+                    barrier.arrive(worker.partition);
+            }
+            barrier.await();
+            phase = Phase.EDGES;
+        } finally {
+            phaseLock.writeLock().unlock();
+        }
+    }
+
+    private void submit(final int partition, final Object task) {
+        if (!send(workers.get(partition), task)) {
+            checkFailure();
+            throw new IllegalStateException("The worker of partition " + partition + " has stopped");
+        }
+    }
+
+    /**
+     * Blocks while the queue of the worker is full.
+     *
+     * @return false if the worker stopped before it could take the task
+     */
+    private boolean send(final Worker worker, final Object task) {
+        try {
+            while (!worker.exited) {
+                if (worker.queue.offer(task, IDLE_COMMIT_MILLIS, TimeUnit.MILLISECONDS)) return true;
+            }
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e.getMessage(), e);
+        }
+    }
+
+    private void checkNotStarted() {
+        if (started) throw new IllegalStateException("Loading has already started");
+    }
+
+    private void checkFailure() {
+        final Throwable t = failure.get();
+        if (t instanceof RuntimeException) throw (RuntimeException) t;
+        else if (t instanceof Error) throw (Error) t;
+        else if (t != null) throw new RuntimeException(t.getMessage(), t);
+    }
+
+    private static boolean isRetryable(final RuntimeException e) {
+        return !(e instanceof IllegalArgumentException) && !(e instanceof IllegalStateException) && !(e instanceof UnsupportedOperationException);
+    }
+
+    private Vertex findExisting(final Object externalId) {
+        if (baseGraph.getFeatures().ignoresSuppliedIds) {
+            final Iterator<Vertex> iter = baseGraph.getVertices(vertexIdKey, externalId).iterator();
+            if (!iter.hasNext()) return null;
+            final Vertex vertex = iter.next();
+            if (iter.hasNext())
+                throw new IllegalArgumentException("There are multiple vertices with the provided id in the database: " + externalId);
+            return vertex;
+        } else {
+            return baseGraph.getVertex(externalId);
+        }
+    }
+
+    private static void setProperties(final Element element, final Map<String, ?> properties) {
+        if (properties != null) {
+            for (final Map.Entry<String, ?> entry : properties.entrySet()) {
+                element.setProperty(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    private class Worker extends Thread {
+
+        private final int partition;
+        private final BlockingQueue<Object> queue;
+
+        private final List<Object> transaction = new ArrayList<Object>();
+        private final List<Object[]> created = new ArrayList<Object[]>();
+        private VertexCache pending = type.getHeapVertexCache();
+        private Lock transactionLock = null;
+        private int retries = 0;
+        private volatile boolean exited = false;
+
+        private Worker(final int partition, final int queueCapacity) {
+            super("batch-loader-" + partition);
+            this.partition = partition;
+            this.queue = new ArrayBlockingQueue<Object>(queueCapacity);
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            try {
+                work();
+            } catch (Throwable t) {
+                fail(t);
+            } finally {
+                exit();
+            }
+        }
+
+        /**
+         * Releases the lock of an open transaction and passes the barriers still queued, so that neither the other
+         * workers nor the edge phase wait for a worker which stopped on an error.
+         */
+        private void exit() {
+            exited = true;
+            unlock();
+            final List<Object> remaining = new ArrayList<Object>();
+            queue.drainTo(remaining);
+            for (final Object task : remaining) {
+                if (task instanceof Barrier) ((Barrier) task).arrive(partition);
+            }
+        }
+
+        private void work() {
+            while (true) {
+                Object task;
+                try {
+                    task = queue.poll(IDLE_COMMIT_MILLIS, TimeUnit.MILLISECONDS);
+                    if (task == null) {
+                        // commit while waiting so that an open transaction does not hold up a replay
+                        commit();
+                        task = queue.take();
+                    }
+                } catch (InterruptedException e) {
+                    fail(e);
+                    return;
+                }
+
+                if (task == STOP) {
+                    commit();
+                    return;
+                } else if (task instanceof Barrier) {
+                    commit();
+                    ((Barrier) task).arrive(partition);
+                } else if (failure.get() == null) {
+                    if (concurrentWrites && transactionLock == null) lock(transactionsLock.readLock());
+                    transaction.add(task);
+                    try {
+                        apply(task);
+                    } catch (RuntimeException e) {
+                        replay(e);
+                    }
+                    if (transaction.size() >= bufferSize) commit();
+                }
+            }
+        }
+
+        private void apply(final Object task) {
+            if (concurrentWrites) {
+                doApply(task);
+            } else {
+                synchronized (writeLock) {
+                    doApply(task);
+                }
+            }
+        }
+
+        private void doApply(final Object task) {
+            if (task instanceof VertexTask) {
+                final VertexTask vertexTask = (VertexTask) task;
+                if (cache.contains(vertexTask.id) || pending.contains(vertexTask.id))
+                    throw ExceptionFactory.vertexWithIdAlreadyExists(vertexTask.id);
+
+                Vertex vertex = loadingFromScratch ? null : findExisting(vertexTask.id);
+                if (vertex == null) {
+                    vertex = baseGraph.addVertex(vertexTask.id);
+                    if (vertexIdKey != null) vertex.setProperty(vertexIdKey, vertexTask.id);
+                }
+                setProperties(vertex, vertexTask.properties);
+                pending.setId(vertex.getId(), vertexTask.id);
+                created.add(new Object[]{vertex.getId(), vertexTask.id});
+            } else {
+                final EdgeTask edgeTask = (EdgeTask) task;
+                final Edge edge = baseGraph.addEdge(edgeTask.id, resolve(edgeTask.outVertexId), resolve(edgeTask.inVertexId), edgeTask.label);
+                if (edgeIdKey != null && edgeTask.id != null) edge.setProperty(edgeIdKey, edgeTask.id);
+                setProperties(edge, edgeTask.properties);
+            }
+        }
+
+        private Vertex resolve(final Object externalId) {
+            final Object internalId = cache.getEntry(externalId);
+            Vertex vertex = null;
+            if (internalId instanceof Vertex) vertex = (Vertex) internalId;
+            else if (internalId != null) vertex = baseGraph.getVertex(internalId);
+
+            if (vertex == null && !loadingFromScratch) {
+                vertex = findExisting(externalId);
+                if (vertex != null) cache.setId(vertex.getId(), externalId);
+            }
+            if (vertex == null)
+                throw new IllegalArgumentException("Vertex for given ID cannot be found: " + externalId);
+            return vertex;
+        }
+
+        private void commit() {
+            if (failure.get() != null) {
+                discard();
+                return;
+            }
+            if (transaction.isEmpty()) {
+                unlock();
+                return;
+            }
+            while (true) {
+                try {
+                    if (concurrentWrites) {
+                        baseGraph.commit();
+                    } else {
+                        synchronized (writeLock) {
+                            baseGraph.commit();
+                        }
+                    }
+                    break;
+                } catch (RuntimeException e) {
+                    if (!replay(e)) return;
+                }
+            }
+            unlock();
+
+            for (final Object[] ids : created) {
+                cache.setId(ids[0], ids[1]);
+            }
+            cache.newTransaction(partition);
+            vertexCount.addAndGet(created.size());
+            edgeCount.addAndGet(transaction.size() - created.size());
+            transaction.clear();
+            created.clear();
+            pending = type.getHeapVertexCache();
+            retries = 0;
+        }
+
+        /**
+         * Rolls back the current transaction and applies its elements again while no other worker has a transaction
+         * open, so that a transaction which failed on a lock conflict (e.g. a deadlock on a vertex shared with another
+         * worker) does not fail again for the same reason.
+         *
+         * @return whether the transaction could be replayed
+         */
+        private boolean replay(RuntimeException cause) {
+            while (true) {
+                if (!concurrentWrites || !isRetryable(cause) || retries >= maxRetries) {
+                    fail(cause);
+                    return false;
+                }
+                retries++;
+                rollback();
+                if (transactionLock != transactionsLock.writeLock()) {
+                    unlock();
+                    lock(transactionsLock.writeLock());
+                }
+                try {
+                    for (final Object task : transaction) {
+                        apply(task);
+                    }
+                    return true;
+                } catch (RuntimeException e) {
+                    cause = e;
+                }
+            }
+        }
+
+        private void rollback() {
+            created.clear();
+            pending = type.getHeapVertexCache();
+            if (concurrentWrites) {
+                try {
+                    baseGraph.rollback();
+                } catch (RuntimeException e) {
+                    // the failed transaction may already have been closed
+                }
+            }
+        }
+
+        private void discard() {
+            if (!transaction.isEmpty()) rollback();
+            transaction.clear();
+            unlock();
+        }
+
+        private void fail(final Throwable t) {
+            failure.compareAndSet(null, t);
+            discard();
+        }
+
+        private void lock(final Lock lock) {
+            lock.lock();
+            transactionLock = lock;
+        }
+
+        private void unlock() {
+            if (transactionLock != null) {
+                transactionLock.unlock();
+                transactionLock = null;
+            }
+        }
+    }
+
+    private static class Barrier {
+
+        private final CountDownLatch latch;
+        private final boolean[] arrived;
+
+        private Barrier(final int parties) {
+            this.latch = new CountDownLatch(parties);
+            this.arrived = new boolean[parties];
+        }
+
+        /**
+         * Counts the worker of the partition once, however often it or the loader passes the barrier for it.
+         */
+        private void arrive(final int partition) {
+            synchronized (arrived) {
+                if (arrived[partition]) return;
+                arrived[partition] = true;
+            }
+            latch.countDown();
+        }
+
+        private void await() {
+            try {
+                latch.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e.getMessage(), e);
+            }
+        }
+    }
+
+    private static class VertexTask {
+
+        private final Object id;
+        private final Map<String, ?> properties;
+
+        private VertexTask(final Object id, final Map<String, ?> properties) {
+            this.id = id;
+            this.properties = properties;
+        }
+    }
+
+    private static class EdgeTask {
+
+        private final Object id;
+        private final Object outVertexId;
+        private final Object inVertexId;
+        private final String label;
+        private final Map<String, ?> properties;
+
+        private EdgeTask(final Object id, final Object outVertexId, final Object inVertexId, final String label, final Map<String, ?> properties) {
+            this.id = id;
+            this.outVertexId = outVertexId;
+            this.inVertexId = inVertexId;
+            this.label = label;
+            this.properties = properties;
+        }
+    }
+}
@@ -1,14 +1,16 @@
 package com.tinkerpop.blueprints.util.wrappers.batch;
 
+import com.tinkerpop.blueprints.util.wrappers.batch.cache.CompactStringIDVertexCache;
 import com.tinkerpop.blueprints.util.wrappers.batch.cache.LongIDVertexCache;
+import com.tinkerpop.blueprints.util.wrappers.batch.cache.MappedVertexCache;
 import com.tinkerpop.blueprints.util.wrappers.batch.cache.ObjectIDVertexCache;
-import com.tinkerpop.blueprints.util.wrappers.batch.cache.StringIDVertexCache;
-import com.tinkerpop.blueprints.util.wrappers.batch.cache.URLCompression;
 import com.tinkerpop.blueprints.util.wrappers.batch.cache.VertexCache;
 
 /**
  * Type of vertex ids expected by BatchGraph. The default is IdType.OBJECT.
  * Use the IdType that best matches the used vertex id types in order to save memory.
+ * The ON_DISK types keep the ids in a {@link MappedVertexCache} in the temporary directory and are meant for loads
+ * with more vertices than the ids of which fit on the heap.
  *
  * @author Matthias Broecheler (http://www.matthiasb.com)
  */
@@ -31,17 +33,60 @@ public enum VertexIDType {
     STRING {
         @Override
         public VertexCache getVertexCache() {
-            return new StringIDVertexCache();
+            return new CompactStringIDVertexCache();
         }
     },
 
     URL {
         @Override
         public VertexCache getVertexCache() {
-            return new StringIDVertexCache(new URLCompression());
+            return new CompactStringIDVertexCache();
 
         }
+    },
+
+    OBJECT_ON_DISK {
+        @Override
+        public VertexCache getVertexCache() {
+            return new MappedVertexCache(this);
+        }
+
+        @Override
+        public VertexCache getHeapVertexCache() {
+            return OBJECT.getVertexCache();
+        }
+    },
+
+    NUMBER_ON_DISK {
+        @Override
+        public VertexCache getVertexCache() {
+            return new MappedVertexCache(this);
+        }
+
+        @Override
+        public VertexCache getHeapVertexCache() {
+            return NUMBER.getVertexCache();
+        }
+    },
+
+    STRING_ON_DISK {
+        @Override
+        public VertexCache getVertexCache() {
+            return new MappedVertexCache(this);
+        }
+
+        @Override
+        public VertexCache getHeapVertexCache() {
+            return STRING.getVertexCache();
+        }
     };
 
     public abstract VertexCache getVertexCache();
+
+    /**
+     * Returns a cache which considers the same ids equal as {@link #getVertexCache()} but is always kept on heap.
+     */
+    public VertexCache getHeapVertexCache() {
+        return getVertexCache();
+    }
 }
\ No newline at end of file
@@ -1,14 +1,19 @@
 package com.tinkerpop.blueprints.util.wrappers.batch;
 
+import com.tinkerpop.blueprints.BulkWriteGraph;
 import com.tinkerpop.blueprints.Edge;
 import com.tinkerpop.blueprints.Features;
 import com.tinkerpop.blueprints.Graph;
 import com.tinkerpop.blueprints.GraphQuery;
 import com.tinkerpop.blueprints.TransactionalGraph;
 import com.tinkerpop.blueprints.Vertex;
+import com.tinkerpop.blueprints.util.GraphHelper;
 import com.tinkerpop.blueprints.util.StringFactory;
 import com.tinkerpop.blueprints.util.wrappers.WrapperGraph;
 
+import java.util.List;
+import java.util.Map;
+
 /**
  * This is a naive wrapper to make a non-transactional graph transactional by simply writing all mutations
  * directly through to the wrapped graph and not supporting transactional failures.
@@ -22,7 +27,7 @@ import com.tinkerpop.blueprints.util.wrappers.WrapperGraph;
  * @author Matthias Broecheler (http://www.matthiasb.com)
  */
 
-class WritethroughGraph<T extends Graph> implements WrapperGraph<T>, TransactionalGraph {
+class WritethroughGraph<T extends Graph> implements WrapperGraph<T>, TransactionalGraph, BulkWriteGraph {
 
     private final T graph;
 
@@ -71,6 +76,14 @@ class WritethroughGraph<T extends Graph> implements WrapperGraph<T>, Transaction
         return graph.addVertex(id);
     }
 
+    public Vertex addVertex(final Object id, final Map<String, ?> properties) {
+        return GraphHelper.addVertex(graph, id, properties);
+    }
+
+    public List<Vertex> addVertices(final List<VertexSpec> vertices) {
+        return GraphHelper.addVertices(graph, vertices);
+    }
+
     @Override
     public Vertex getVertex(final Object id) {
         return graph.getVertex(id);
@@ -96,6 +109,14 @@ class WritethroughGraph<T extends Graph> implements WrapperGraph<T>, Transaction
         return graph.addEdge(id, outVertex, inVertex, label);
     }
 
+    public Edge addEdge(final Object id, final Vertex outVertex, final Vertex inVertex, final String label, final Map<String, ?> properties) {
+        return GraphHelper.addEdge(graph, id, outVertex, inVertex, label, properties);
+    }
+
+    public List<Edge> addEdges(final List<EdgeSpec> edges) {
+        return GraphHelper.addEdges(graph, edges);
+    }
+
     @Override
     public Edge getEdge(final Object id) {
         return graph.getEdge(id);
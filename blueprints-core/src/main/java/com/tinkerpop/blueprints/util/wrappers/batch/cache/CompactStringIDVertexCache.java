@@ -0,0 +1,273 @@
+package com.tinkerpop.blueprints.util.wrappers.batch.cache;
+
+import com.carrotsearch.hppc.IntArrayList;
+import com.tinkerpop.blueprints.Vertex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A {@link VertexCache} for string ids which keeps the ids as UTF-8 bytes in a shared arena of large byte arrays
+ * instead of one String object per vertex.
+ *
+ * Ids are split after their last '/', '#' or ':' (as in {@link URLCompression}). The part up to the delimiter, e.g. the
+ * namespace of an IRI, is stored only once in a prefix dictionary and every id only stores the number of its prefix
+ * and the bytes of the remainder. Ids are looked up through an open addressing hash table over the byte slices: the
+ * given id is encoded into a reusable buffer, so that no String or other object is created per lookup.
+ *
+ * Internal ids which are Long are kept unboxed. The vertices set in the current transaction are tracked by their
+ * entry number only.
+ */
+public class CompactStringIDVertexCache implements VertexCache {
+
+    private static final int CHUNK_BITS = 22;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int INITIAL_CHUNK_SIZE = 4096;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final double MAX_LOAD = 0.6;
+    private static final Object LONG_VALUE = new Object();
+
+    // prefix dictionary
+    private byte[][] prefixes = new byte[INITIAL_CAPACITY][];
+    private int[] prefixHashes = new int[INITIAL_CAPACITY];
+    private int[] prefixTable = new int[INITIAL_CAPACITY * 2];
+    private int prefixCount = 0;
+
+    // entries
+    private int[] entryPrefixes = new int[INITIAL_CAPACITY];
+    private int[] entryHashes = new int[INITIAL_CAPACITY];
+    private long[] entrySlices = new long[INITIAL_CAPACITY];
+    private Object[] entryValues = new Object[INITIAL_CAPACITY];
+    private long[] entryLongValues = new long[INITIAL_CAPACITY];
+    private int[] table = new int[INITIAL_CAPACITY * 2];
+    private int size = 0;
+
+    private final List<byte[]> chunks = new ArrayList<byte[]>();
+    private int chunkPosition = 0;
+
+    private final IntArrayList verticesInCurrentTx = new IntArrayList();
+
+    private byte[] buffer = new byte[256];
+    private int bufferLength;
+    private int split;
+
+    /**
+     * @return the number of ids in the cache
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the number of distinct prefixes of the ids in the cache
+     */
+    public int getNumberOfPrefixes() {
+        return prefixCount;
+    }
+
+    @Override
+    public Object getEntry(final Object externalId) {
+        final int entry = find(externalId, false);
+        return entry < 0 ? null : getValue(entry);
+    }
+
+    @Override
+    public void set(final Vertex vertex, final Object externalId) {
+        setId(vertex, externalId);
+    }
+
+    @Override
+    public void setId(final Object vertexId, final Object externalId) {
+        final int entry = find(externalId, true);
+        final boolean tracked = entryValues[entry] instanceof Vertex;
+        setValue(entry, vertexId);
+        if (vertexId instanceof Vertex && !tracked) verticesInCurrentTx.add(entry);
+    }
+
+    @Override
+    public boolean contains(final Object externalId) {
+        return find(externalId, false) >= 0;
+    }
+
+    @Override
+    public void newTransaction() {
+        for (int i = 0; i < verticesInCurrentTx.size(); i++) {
+            final int entry = verticesInCurrentTx.get(i);
+            final Object value = entryValues[entry];
+            if (value instanceof Vertex) setValue(entry, ((Vertex) value).getId());
+        }
+        verticesInCurrentTx.clear();
+    }
+
+    private void setValue(final int entry, final Object vertexId) {
+        if (vertexId instanceof Long) {
+            entryLongValues[entry] = (Long) vertexId;
+            entryValues[entry] = LONG_VALUE;
+        } else {
+            entryValues[entry] = vertexId;
+        }
+    }
+
+    private Object getValue(final int entry) {
+        final Object value = entryValues[entry];
+        return value == LONG_VALUE ? (Object) entryLongValues[entry] : value;
+    }
+
+    private int find(final Object externalId, final boolean create) {
+        if (externalId == null) throw new IllegalArgumentException("External id may not be null");
+        encode(externalId.toString());
+
+        final int prefix = findPrefix(create);
+        if (prefix < 0) return -1;
+
+        int hash = prefix;
+        for (int i = split; i < bufferLength; i++) {
+            hash = 31 * hash + buffer[i];
+        }
+        int slot = mix(hash) & (table.length - 1);
+        while (table[slot] != 0) {
+            final int entry = table[slot] - 1;
+            if (entryHashes[entry] == hash && entryPrefixes[entry] == prefix && matches(entrySlices[entry]))
+                return entry;
+            slot = (slot + 1) & (table.length - 1);
+        }
+        if (!create) return -1;
+
+        final int entry = size++;
+        if (entry == entryHashes.length) growEntries();
+        entryPrefixes[entry] = prefix;
+        entryHashes[entry] = hash;
+        entrySlices[entry] = append(split, bufferLength);
+        table[slot] = entry + 1;
+        if (size > table.length * MAX_LOAD) table = rehash(table, entryHashes, size);
+        return entry;
+    }
+
+    private int findPrefix(final boolean create) {
+        int hash = 0;
+        for (int i = 0; i < split; i++) {
+            hash = 31 * hash + buffer[i];
+        }
+        int slot = mix(hash) & (prefixTable.length - 1);
+        while (prefixTable[slot] != 0) {
+            final int prefix = prefixTable[slot] - 1;
+            if (prefixHashes[prefix] == hash && prefixes[prefix].length == split && equals(prefixes[prefix], 0, buffer, 0, split))
+                return prefix;
+            slot = (slot + 1) & (prefixTable.length - 1);
+        }
+        if (!create) return -1;
+
+        final int prefix = prefixCount++;
+        if (prefix == prefixes.length) {
+            prefixes = Arrays.copyOf(prefixes, prefix * 2);
+            prefixHashes = Arrays.copyOf(prefixHashes, prefix * 2);
+        }
+        prefixes[prefix] = Arrays.copyOf(buffer, split);
+        prefixHashes[prefix] = hash;
+        prefixTable[slot] = prefix + 1;
+        if (prefixCount > prefixTable.length * MAX_LOAD) prefixTable = rehash(prefixTable, prefixHashes, prefixCount);
+        return prefix;
+    }
+
+    private static int[] rehash(final int[] table, final int[] hashes, final int size) {
+        final int[] rehashed = new int[table.length * 2];
+        for (int i = 0; i < size; i++) {
+            int slot = mix(hashes[i]) & (rehashed.length - 1);
+            while (rehashed[slot] != 0) {
+                slot = (slot + 1) & (rehashed.length - 1);
+            }
+            rehashed[slot] = i + 1;
+        }
+        return rehashed;
+    }
+
+    private void growEntries() {
+        final int capacity = entryHashes.length * 2;
+        entryPrefixes = Arrays.copyOf(entryPrefixes, capacity);
+        entryHashes = Arrays.copyOf(entryHashes, capacity);
+        entrySlices = Arrays.copyOf(entrySlices, capacity);
+        entryValues = Arrays.copyOf(entryValues, capacity);
+        entryLongValues = Arrays.copyOf(entryLongValues, capacity);
+    }
+
+    /**
+     * Copies buffer[from, to) into the arena and returns its slice: the offset in the arena in the upper 40 bits and the
+     * length in the lower 24 bits. Slices never span two chunks.
+     */
+    private long append(final int from, final int to) {
+        final int length = to - from;
+        if (length > CHUNK_SIZE) throw new IllegalArgumentException("Vertex id is too long");
+        byte[] chunk = chunks.isEmpty() ? null : chunks.get(chunks.size() - 1);
+        if (chunk == null || chunkPosition + length > CHUNK_SIZE) {
+            chunk = new byte[Math.max(INITIAL_CHUNK_SIZE, length)];
+            chunks.add(chunk);
+            chunkPosition = 0;
+        } else if (chunkPosition + length > chunk.length) {
+            int newLength = chunk.length;
+            while (chunkPosition + length > newLength) {
+                newLength *= 2;
+            }
+            chunk = Arrays.copyOf(chunk, Math.min(CHUNK_SIZE, newLength));
+            chunks.set(chunks.size() - 1, chunk);
+        }
+        System.arraycopy(buffer, from, chunk, chunkPosition, length);
+        final long offset = ((long) (chunks.size() - 1) << CHUNK_BITS) + chunkPosition;
+        chunkPosition += length;
+        return (offset << 24) | length;
+    }
+
+    private boolean matches(final long slice) {
+        final int length = (int) (slice & 0xFFFFFF);
+        if (length != bufferLength - split) return false;
+        final long offset = slice >>> 24;
+        return equals(chunks.get((int) (offset >>> CHUNK_BITS)), (int) (offset & (CHUNK_SIZE - 1)), buffer, split, length);
+    }
+
+    private static boolean equals(final byte[] a, final int aFrom, final byte[] b, final int bFrom, final int length) {
+        for (int i = 0; i < length; i++) {
+            if (a[aFrom + i] != b[bFrom + i]) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Encodes the id as UTF-8 into the buffer and determines the split after the last delimiter.
+     */
+    private void encode(final String id) {
+        final int length = id.length();
+        if (buffer.length < length * 3) buffer = new byte[length * 3];
+        int position = 0;
+        split = 0;
+        for (int i = 0; i < length; i++) {
+            final char c = id.charAt(i);
+            if (c < 0x80) {
+                buffer[position++] = (byte) c;
+                if (c == '/' || c == '#' || c == ':') split = position;
+            } else if (c < 0x800) {
+                buffer[position++] = (byte) (0xC0 | (c >> 6));
+                buffer[position++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(id.charAt(i + 1))) {
+                final int codePoint = Character.toCodePoint(c, id.charAt(++i));
+                buffer[position++] = (byte) (0xF0 | (codePoint >> 18));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                buffer[position++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else {
+                buffer[position++] = (byte) (0xE0 | (c >> 12));
+                buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buffer[position++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        bufferLength = position;
+    }
+
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+}
@@ -0,0 +1,472 @@
+package com.tinkerpop.blueprints.util.wrappers.batch.cache;
+
+import com.tinkerpop.blueprints.Vertex;
+import com.tinkerpop.blueprints.util.wrappers.batch.VertexIDType;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.RandomAccessFile;
+import java.io.Serializable;
+import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A {@link VertexCache} which keeps the mapping of external to internal vertex ids in files on local disk so that the
+ * number of vertices which can be loaded is not bounded by the heap.
+ *
+ * The ids of the current transaction and a bounded, least recently used hot set are kept on heap. On
+ * {@link #newTransaction()} the ids of the transaction are written to a memory-mapped, open-addressing (linear probing)
+ * hash table of 16 byte slots. For number ids mapped to non-negative long ids (e.g. Neo4j) both ids are stored in
+ * the slot itself. All other ids are appended to a memory-mapped data file, which is only ever written sequentially,
+ * and the slot holds a 64 bit hash of the external id and the offset of the record.
+ *
+ * The files are created in the given directory and are deleted by {@link #close()} (or when the JVM exits).
+ */
+public class MappedVertexCache implements VertexCache, Closeable {
+
+    public static final int DEFAULT_HOT_SET_SIZE = 100000;
+    public static final long DEFAULT_EXPECTED_VERTICES = 1000000;
+
+    private static final int SLOT_SIZE = 16;
+    private static final int TABLE_SEGMENT_SIZE = 1 << 27;
+    private static final int DATA_SEGMENT_SIZE = 1 << 26;
+    private static final double MAX_LOAD = 0.75;
+    private static final long MIN_CAPACITY = 1024;
+
+    private static final byte LONG = 1;
+    private static final byte INTEGER = 2;
+    private static final byte STRING = 3;
+    private static final byte SERIALIZED = 4;
+
+    private final boolean numberIds;
+    private final boolean stringIds;
+    private final File directory;
+
+    private final Map<Object, Object> transaction = new HashMap<Object, Object>();
+    private final Map<Object, Object> hotSet;
+
+    private MappedFile table;
+    private long capacity;
+    private long size = 0;
+    private final MappedFile data;
+    private long dataLength = 0;
+
+    /**
+     * @param type             Type of the external vertex ids. Determines which ids are considered equal as for the
+     *                         on-heap caches.
+     * @param directory        Directory for the cache files
+     * @param hotSetSize       Number of recently used ids kept on heap
+     * @param expectedVertices Number of vertices expected. The hash table is sized for this many ids and doubled
+     *                         (which requires a full pass over it) whenever it becomes too full.
+     */
+    public MappedVertexCache(final VertexIDType type, final File directory, final int hotSetSize, final long expectedVertices) {
+        if (type == null) throw new IllegalArgumentException("Type may not be null");
+        if (directory == null || !directory.isDirectory())
+            throw new IllegalArgumentException("Directory expected: " + directory);
+        if (hotSetSize < 0) throw new IllegalArgumentException("Hot set size may not be negative");
+        this.numberIds = type == VertexIDType.NUMBER || type == VertexIDType.NUMBER_ON_DISK;
+        this.stringIds = type == VertexIDType.STRING || type == VertexIDType.STRING_ON_DISK || type == VertexIDType.URL;
+        this.directory = directory;
+        this.hotSet = new LinkedHashMap<Object, Object>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Object, Object> eldest) {
+                return size() > hotSetSize;
+            }
+        };
+
+        long capacity = MIN_CAPACITY;
+        while (capacity * MAX_LOAD < expectedVertices) {
+            capacity <<= 1;
+        }
+        this.capacity = capacity;
+        this.table = createTable(capacity);
+        this.data = new MappedFile(createFile(".data"), DATA_SEGMENT_SIZE);
+    }
+
+    public MappedVertexCache(final VertexIDType type) {
+        this(type, new File(System.getProperty("java.io.tmpdir")), DEFAULT_HOT_SET_SIZE, DEFAULT_EXPECTED_VERTICES);
+    }
+
+    /**
+     * @return the number of ids written to disk
+     */
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public Object getEntry(final Object externalId) {
+        final Object key = normalize(externalId);
+        Object entry = transaction.get(key);
+        if (entry == null) {
+            entry = hotSet.get(key);
+            if (entry == null) {
+                entry = read(key);
+                if (entry != null) hotSet.put(key, entry);
+            }
+        }
+        return entry;
+    }
+
+    @Override
+    public void set(final Vertex vertex, final Object externalId) {
+        setId(vertex, externalId);
+    }
+
+    @Override
+    public void setId(final Object vertexId, final Object externalId) {
+        final Object key = normalize(externalId);
+        hotSet.remove(key);
+        transaction.put(key, vertexId);
+    }
+
+    @Override
+    public boolean contains(final Object externalId) {
+        return getEntry(externalId) != null;
+    }
+
+    @Override
+    public void newTransaction() {
+        for (final Map.Entry<Object, Object> entry : transaction.entrySet()) {
+            Object vertexId = entry.getValue();
+            if (vertexId instanceof Vertex) vertexId = ((Vertex) vertexId).getId();
+            write(entry.getKey(), vertexId);
+            hotSet.put(entry.getKey(), vertexId);
+        }
+        transaction.clear();
+    }
+
+    /**
+     * Deletes the cache files.
+     */
+    @Override
+    public void close() {
+        transaction.clear();
+        hotSet.clear();
+        table.close();
+        data.close();
+    }
+
+    private Object normalize(final Object externalId) {
+        if (externalId == null) throw new IllegalArgumentException("External id may not be null");
+        if (numberIds) {
+            if (!(externalId instanceof Number)) throw new IllegalArgumentException("Number expected.");
+            return ((Number) externalId).longValue();
+        } else if (stringIds) {
+            return externalId.toString();
+        } else {
+            return externalId;
+        }
+    }
+
+    private byte[] keyBytes(final Object key) {
+        if (numberIds) return null;
+        else if (stringIds) return utf8((String) key);
+        else return encode(key);
+    }
+
+    private long keyField(final Object key, final byte[] keyBytes) {
+        return numberIds ? (Long) key : hash(keyBytes);
+    }
+
+    private Object read(final Object key) {
+        final byte[] keyBytes = keyBytes(key);
+        final long keyField = keyField(key, keyBytes);
+        long slot = index(keyField);
+        while (true) {
+            final long position = slot * SLOT_SIZE;
+            final long value = table.getLong(position + 8);
+            if (value == 0) return null;
+            if (table.getLong(position) == keyField && (numberIds || keyMatches(value, keyBytes)))
+                return decodeValue(value);
+            slot = (slot + 1) & (capacity - 1);
+        }
+    }
+
+    private void write(final Object key, final Object vertexId) {
+        if ((size + 1) > capacity * MAX_LOAD) resize();
+
+        final byte[] keyBytes = keyBytes(key);
+        final long keyField = keyField(key, keyBytes);
+        final long value;
+        if (numberIds && vertexId instanceof Long && (Long) vertexId >= 0 && (Long) vertexId < Long.MAX_VALUE) {
+            value = (Long) vertexId + 1;
+        } else {
+            value = -(append(numberIds ? new byte[0] : keyBytes, encode(vertexId)) + 1);
+        }
+
+        long slot = index(keyField);
+        while (true) {
+            final long position = slot * SLOT_SIZE;
+            final long current = table.getLong(position + 8);
+            if (current == 0) {
+                table.putLong(position, keyField);
+                table.putLong(position + 8, value);
+                size++;
+                return;
+            } else if (table.getLong(position) == keyField && (numberIds || keyMatches(current, keyBytes))) {
+                table.putLong(position + 8, value);
+                return;
+            }
+            slot = (slot + 1) & (capacity - 1);
+        }
+    }
+
+    private void resize() {
+        final long newCapacity = capacity << 1;
+        final MappedFile newTable = createTable(newCapacity);
+        for (long slot = 0; slot < capacity; slot++) {
+            final long position = slot * SLOT_SIZE;
+            final long value = table.getLong(position + 8);
+            if (value == 0) continue;
+            final long keyField = table.getLong(position);
+            long newSlot = mix(keyField) & (newCapacity - 1);
+            while (newTable.getLong(newSlot * SLOT_SIZE + 8) != 0) {
+                newSlot = (newSlot + 1) & (newCapacity - 1);
+            }
+            newTable.putLong(newSlot * SLOT_SIZE, keyField);
+            newTable.putLong(newSlot * SLOT_SIZE + 8, value);
+        }
+        table.close();
+        table = newTable;
+        capacity = newCapacity;
+    }
+
+    private long append(final byte[] key, final byte[] value) {
+        final int length = 8 + key.length + value.length;
+        if (length > DATA_SEGMENT_SIZE)
+            throw new IllegalArgumentException("Vertex id is too large to be cached on disk");
+        // records never span two mapped segments
+        final long remaining = DATA_SEGMENT_SIZE - (dataLength % DATA_SEGMENT_SIZE);
+        if (length > remaining) dataLength += remaining;
+
+        final long offset = dataLength;
+        data.ensureCapacity(offset + length);
+        data.putInt(offset, key.length);
+        data.put(offset + 4, key);
+        data.putInt(offset + 4 + key.length, value.length);
+        data.put(offset + 8 + key.length, value);
+        dataLength += length;
+        return offset;
+    }
+
+    private boolean keyMatches(final long value, final byte[] keyBytes) {
+        if (value > 0) return false;
+        final long offset = -value - 1;
+        if (data.getInt(offset) != keyBytes.length) return false;
+        final byte[] stored = new byte[keyBytes.length];
+        data.get(offset + 4, stored);
+        for (int i = 0; i < stored.length; i++) {
+            if (stored[i] != keyBytes[i]) return false;
+        }
+        return true;
+    }
+
+    private Object decodeValue(final long value) {
+        if (value > 0) return value - 1;
+        final long offset = -value - 1;
+        final int keyLength = data.getInt(offset);
+        final byte[] bytes = new byte[data.getInt(offset + 4 + keyLength)];
+        data.get(offset + 8 + keyLength, bytes);
+        return decode(bytes);
+    }
+
+    private MappedFile createTable(final long capacity) {
+        return new MappedFile(createFile(".table"), (int) Math.min(TABLE_SEGMENT_SIZE, capacity * SLOT_SIZE), capacity * SLOT_SIZE);
+    }
+
+    private File createFile(final String suffix) {
+        try {
+            final File file = File.createTempFile("vertexcache", suffix, directory);
+            file.deleteOnExit();
+            return file;
+        } catch (IOException e) {
+            throw new RuntimeException(e.getMessage(), e);
+        }
+    }
+
+    private long index(final long keyField) {
+        return mix(keyField) & (capacity - 1);
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static long hash(final byte[] bytes) {
+        long h = 0xcbf29ce484222325L;
+        for (final byte b : bytes) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+
+    private static byte[] utf8(final String string) {
+        try {
+            return string.getBytes("UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            throw new RuntimeException(e.getMessage(), e);
+        }
+    }
+
+    private static byte[] encode(final Object id) {
+        final ByteBuffer buffer;
+        if (id instanceof Long) {
+            buffer = ByteBuffer.allocate(9).put(LONG).putLong((Long) id);
+        } else if (id instanceof Integer) {
+            buffer = ByteBuffer.allocate(5).put(INTEGER).putInt((Integer) id);
+        } else if (id instanceof String) {
+            final byte[] bytes = utf8((String) id);
+            buffer = ByteBuffer.allocate(1 + bytes.length).put(STRING).put(bytes);
+        } else if (id instanceof Serializable) {
+            try {
+                final ByteArrayOutputStream out = new ByteArrayOutputStream();
+                out.write(SERIALIZED);
+                final ObjectOutputStream stream = new ObjectOutputStream(out);
+                stream.writeObject(id);
+                stream.close();
+                return out.toByteArray();
+            } catch (IOException e) {
+                throw new RuntimeException(e.getMessage(), e);
+            }
+        } else {
+            throw new IllegalArgumentException("Vertex id can not be cached on disk: " + id.getClass());
+        }
+        return buffer.array();
+    }
+
+    private static Object decode(final byte[] bytes) {
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        switch (buffer.get()) {
+            case LONG:
+                return buffer.getLong();
+            case INTEGER:
+                return buffer.getInt();
+            case STRING:
+                try {
+                    return new String(bytes, 1, bytes.length - 1, "UTF-8");
+                } catch (UnsupportedEncodingException e) {
+                    throw new RuntimeException(e.getMessage(), e);
+                }
+            default:
+                try {
+                    final ObjectInputStream stream = new ObjectInputStream(new ByteArrayInputStream(bytes, 1, bytes.length - 1));
+                    try {
+                        return stream.readObject();
+                    } finally {
+                        stream.close();
+                    }
+                } catch (Exception e) {
+                    throw new RuntimeException(e.getMessage(), e);
+                }
+        }
+    }
+
+    /**
+     * A file mapped into memory in segments of a fixed power of two size.
+     */
+    private static class MappedFile {
+
+        private final File file;
+        private final RandomAccessFile randomAccessFile;
+        private final FileChannel channel;
+        private final int segmentSize;
+        private final int shift;
+        private final List<MappedByteBuffer> segments = new ArrayList<MappedByteBuffer>();
+
+        private MappedFile(final File file, final int segmentSize, final long length) {
+            this(file, segmentSize);
+            ensureCapacity(length);
+        }
+
+        private MappedFile(final File file, final int segmentSize) {
+            if (Integer.bitCount(segmentSize) != 1)
+                throw new IllegalArgumentException("Segment size must be a power of two");
+            this.file = file;
+            this.segmentSize = segmentSize;
+            this.shift = Integer.numberOfTrailingZeros(segmentSize);
+            try {
+                this.randomAccessFile = new RandomAccessFile(file, "rw");
+            } catch (IOException e) {
+                throw new RuntimeException(e.getMessage(), e);
+            }
+            this.channel = randomAccessFile.getChannel();
+        }
+
+        private void ensureCapacity(final long length) {
+            try {
+                while (((long) segments.size() << shift) < length) {
+                    segments.add(channel.map(FileChannel.MapMode.READ_WRITE, (long) segments.size() << shift, segmentSize));
+                }
+            } catch (IOException e) {
+                throw new RuntimeException(e.getMessage(), e);
+            }
+        }
+
+        private ByteBuffer segment(final long position) {
+            return segments.get((int) (position >>> shift));
+        }
+
+        private int offset(final long position) {
+            return (int) (position & (segmentSize - 1));
+        }
+
+        private long getLong(final long position) {
+            return segment(position).getLong(offset(position));
+        }
+
+        private void putLong(final long position, final long value) {
+            segment(position).putLong(offset(position), value);
+        }
+
+        private int getInt(final long position) {
+            return segment(position).getInt(offset(position));
+        }
+
+        private void putInt(final long position, final int value) {
+            segment(position).putInt(offset(position), value);
+        }
+
+        private void get(final long position, final byte[] bytes) {
+            final ByteBuffer buffer = segment(position).duplicate();
+            buffer.position(offset(position));
+            buffer.get(bytes);
+        }
+
+        private void put(final long position, final byte[] bytes) {
+            final ByteBuffer buffer = segment(position).duplicate();
+            buffer.position(offset(position));
+            buffer.put(bytes);
+        }
+
+        private void close() {
+            segments.clear();
+            try {
+                channel.close();
+                randomAccessFile.close();
+            } catch (IOException e) {
+                throw new RuntimeException(e.getMessage(), e);
+            } finally {
+                file.delete();
+            }
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.tinkerpop.blueprints.util.wrappers.batch.cache;
+
+import com.tinkerpop.blueprints.Vertex;
+import com.tinkerpop.blueprints.util.wrappers.batch.VertexIDType;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * A thread safe {@link VertexCache} which hash partitions the external vertex ids over a number of independently
+ * locked caches of the given {@link VertexIDType}.
+ * Threads working on different partitions never contend, so loaders that route every vertex id to the worker
+ * owning its partition (see {@link #getPartition(Object)}) share the cache without a global lock.
+ */
+public class PartitionedVertexCache implements VertexCache, Closeable {
+
+    private final VertexIDType type;
+    private final VertexCache[] partitions;
+
+    public PartitionedVertexCache(final VertexIDType type, final int partitions) {
+        if (type == null) throw new IllegalArgumentException("Type may not be null");
+        if (partitions <= 0) throw new IllegalArgumentException("Number of partitions must be positive");
+        this.type = type;
+        this.partitions = new VertexCache[partitions];
+        for (int i = 0; i < partitions; i++) {
+            this.partitions[i] = type.getVertexCache();
+        }
+    }
+
+    public int getNumberOfPartitions() {
+        return partitions.length;
+    }
+
+    /**
+     * Returns the partition of the given external id. Ids which are considered equal by the caches of the
+     * {@link VertexIDType} (e.g. 5 and 5L for NUMBER) are mapped to the same partition.
+     *
+     * @param externalId the external vertex id
+     * @return the partition in [0, getNumberOfPartitions())
+     */
+    public int getPartition(final Object externalId) {
+        if (externalId == null) throw new IllegalArgumentException("External id may not be null");
+        int hash;
+        if ((type == VertexIDType.NUMBER || type == VertexIDType.NUMBER_ON_DISK) && externalId instanceof Number) {
+            final long id = ((Number) externalId).longValue();
+            hash = (int) (id ^ (id >>> 32));
+        } else if (type == VertexIDType.STRING || type == VertexIDType.STRING_ON_DISK || type == VertexIDType.URL) {
+            hash = externalId.toString().hashCode();
+        } else {
+            hash = externalId.hashCode();
+        }
+        hash ^= (hash >>> 16);
+        return (hash & Integer.MAX_VALUE) % partitions.length;
+    }
+
+    @Override
+    public Object getEntry(final Object externalId) {
+        final VertexCache partition = partitions[getPartition(externalId)];
+        synchronized (partition) {
+            return partition.getEntry(externalId);
+        }
+    }
+
+    @Override
+    public void set(final Vertex vertex, final Object externalId) {
+        final VertexCache partition = partitions[getPartition(externalId)];
+        synchronized (partition) {
+            partition.set(vertex, externalId);
+        }
+    }
+
+    @Override
+    public void setId(final Object vertexId, final Object externalId) {
+        final VertexCache partition = partitions[getPartition(externalId)];
+        synchronized (partition) {
+            partition.setId(vertexId, externalId);
+        }
+    }
+
+    @Override
+    public boolean contains(final Object externalId) {
+        final VertexCache partition = partitions[getPartition(externalId)];
+        synchronized (partition) {
+            return partition.contains(externalId);
+        }
+    }
+
+    /**
+     * Starts a new transaction on a single partition. Loaders with one transaction per partition should use this
+     * rather than {@link #newTransaction()}.
+     *
+     * @param partition the partition whose transaction has been committed
+     */
+    public void newTransaction(final int partition) {
+        final VertexCache cache = partitions[partition];
+        synchronized (cache) {
+            cache.newTransaction();
+        }
+    }
+
+    @Override
+    public void newTransaction() {
+        for (int i = 0; i < partitions.length; i++) {
+            newTransaction(i);
+        }
+    }
+
+    /**
+     * Closes the partitions which hold resources, such as {@link MappedVertexCache}.
+     */
+    @Override
+    public void close() throws IOException {
+        for (final VertexCache partition : partitions) {
+            if (partition instanceof Closeable) {
+                synchronized (partition) {
+                    ((Closeable) partition).close();
+                }
+            }
+        }
+    }
+}
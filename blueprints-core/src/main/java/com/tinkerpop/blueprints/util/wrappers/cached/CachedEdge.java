@@ -0,0 +1,28 @@
+package com.tinkerpop.blueprints.util.wrappers.cached;
+
+import com.tinkerpop.blueprints.Direction;
+import com.tinkerpop.blueprints.Edge;
+import com.tinkerpop.blueprints.Vertex;
+
+public class CachedEdge extends CachedElement implements Edge {
+
+    protected CachedEdge(final Edge baseEdge, final CachedGraph<?> cachedGraph) {
+        super(baseEdge, cachedGraph);
+    }
+
+    public Vertex getVertex(final Direction direction) throws IllegalArgumentException {
+        return new CachedVertex(((Edge) this.baseElement).getVertex(direction), this.cachedGraph);
+    }
+
+    public String getLabel() {
+        return ((Edge) this.baseElement).getLabel();
+    }
+
+    public void remove() {
+        this.cachedGraph.removeEdge(this);
+    }
+
+    public Edge getBaseEdge() {
+        return (Edge) this.baseElement;
+    }
+}
@@ -0,0 +1,46 @@
+package com.tinkerpop.blueprints.util.wrappers.cached;
+
+import com.tinkerpop.blueprints.CloseableIterable;
+import com.tinkerpop.blueprints.CursorIterable;
+import com.tinkerpop.blueprints.Edge;
+
+import java.util.Iterator;
+
+class CachedEdgeIterable implements CloseableIterable<Edge>, CursorIterable<Edge> {
+
+    private final Iterable<Edge> iterable;
+    private final CachedGraph<?> cachedGraph;
+
+    public CachedEdgeIterable(final Iterable<Edge> iterable, final CachedGraph<?> cachedGraph) {
+        this.iterable = iterable;
+        this.cachedGraph = cachedGraph;
+    }
+
+    public Iterator<Edge> iterator() {
+        return new Iterator<Edge>() {
+            private final Iterator<Edge> itty = iterable.iterator();
+
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+
+            public boolean hasNext() {
+                return this.itty.hasNext();
+            }
+
+            public Edge next() {
+                return new CachedEdge(this.itty.next(), cachedGraph);
+            }
+        };
+    }
+
+    public String getCursor() {
+        return this.iterable instanceof CursorIterable ? ((CursorIterable) this.iterable).getCursor() : null;
+    }
+
+    public void close() {
+        if (this.iterable instanceof CloseableIterable) {
+            ((CloseableIterable) iterable).close();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.tinkerpop.blueprints.util.wrappers.cached;
+
+import com.tinkerpop.blueprints.Element;
+import com.tinkerpop.blueprints.util.ElementHelper;
+
+import java.util.Set;
+
+/**
+ * A CachedElement reports every property mutation to its CachedGraph so the affected cached results are invalidated.
+ */
+public abstract class CachedElement implements Element {
+
+    protected final Element baseElement;
+    protected final CachedGraph<?> cachedGraph;
+
+    protected CachedElement(final Element baseElement, final CachedGraph<?> cachedGraph) {
+        this.baseElement = baseElement;
+        this.cachedGraph = cachedGraph;
+    }
+
+    public void setProperty(final String key, final Object value) {
+        final Object oldValue = this.baseElement.getProperty(key);
+        this.baseElement.setProperty(key, value);
+        this.cachedGraph.invalidateProperty(this.baseElement, key, oldValue, value);
+    }
+
+    public <T> T getProperty(final String key) {
+        return this.baseElement.getProperty(key);
+    }
+
+    public <T> T removeProperty(final String key) {
+        final T oldValue = this.baseElement.removeProperty(key);
+        if (null != oldValue)
+            this.cachedGraph.invalidateProperty(this.baseElement, key, oldValue, null);
+        return oldValue;
+    }
+
+    public Set<String> getPropertyKeys() {
+        return this.baseElement.getPropertyKeys();
+    }
+
+    public Object getId() {
+        return this.baseElement.getId();
+    }
+
+    public boolean equals(final Object object) {
+        return ElementHelper.areEqual(this, object);
+    }
+
+    public int hashCode() {
+        return this.baseElement.hashCode();
+    }
+
+    public Element getBaseElement() {
+        return this.baseElement;
+    }
+
+    public String toString() {
+        return this.baseElement.toString();
+    }
+}
@@ -0,0 +1,472 @@
+package com.tinkerpop.blueprints.util.wrappers.cached;
+
+import com.tinkerpop.blueprints.CloseableIterable;
+import com.tinkerpop.blueprints.Direction;
+import com.tinkerpop.blueprints.Edge;
+import com.tinkerpop.blueprints.Element;
+import com.tinkerpop.blueprints.Features;
+import com.tinkerpop.blueprints.Graph;
+import com.tinkerpop.blueprints.GraphQuery;
+import com.tinkerpop.blueprints.KeyIndexableGraph;
+import com.tinkerpop.blueprints.Parameter;
+import com.tinkerpop.blueprints.TransactionalGraph;
+import com.tinkerpop.blueprints.Vertex;
+import com.tinkerpop.blueprints.util.ExceptionFactory;
+import com.tinkerpop.blueprints.util.StringFactory;
+import com.tinkerpop.blueprints.util.wrappers.WrapperGraph;
+import com.tinkerpop.blueprints.util.wrappers.partition.PartitionGraph;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * CachedGraph caches the element ids behind getVertices(key, value), getEdges(key, value) and query() results.
+ * Cached results are held in a bounded, least-recently-used ElementIdCache and are turned back into elements
+ * with getVertex() and getEdge() on the base graph.
+ * Mutations made through CachedGraph (and through the elements it returns) invalidate exactly the lookups
+ * for the affected key/value pairs and the queries on the affected keys.
+ * Mutations made directly against the base graph bypass the cache and are not seen until the result is evicted or cleared.
+ * <p>
+ * To cache IdGraph identifier lookups, place CachedGraph beneath IdGraph so that IdGraph's key index lookups are answered
+ * from the cache: new IdGraph(new CachedGraph(baseGraph)).
+ * CachedGraph may equally sit above or beneath a PartitionGraph. Above one, the cache is cleared whenever the read
+ * partitions or the partition key of the PartitionGraph change, as the cached results no longer match what it shows.
+ * If the base graph is a TransactionalGraph, the invalidations of a transaction are applied again when it commits
+ * or rolls back so that results read by other threads in the meantime are not kept.
+ */
+public class CachedGraph<T extends Graph> implements KeyIndexableGraph, TransactionalGraph, WrapperGraph<T> {
+
+    private static final String VERTEX = "vertex";
+    private static final String EDGE = "edge";
+
+    protected final T baseGraph;
+    private final ElementIdCache cache;
+    private final Features features;
+    private final PartitionGraph<?> partitionGraph;
+    private volatile long partitionReadVersion;
+
+    private final ThreadLocal<Set<Object>> transactionKeys = new ThreadLocal<Set<Object>>() {
+        protected Set<Object> initialValue() {
+            return new HashSet<Object>();
+        }
+    };
+    private final ThreadLocal<Set<String>> transactionDependencies = new ThreadLocal<Set<String>>() {
+        protected Set<String> initialValue() {
+            return new HashSet<String>();
+        }
+    };
+
+    public CachedGraph(final T baseGraph) {
+        this(baseGraph, new ElementIdCache());
+    }
+
+    public CachedGraph(final T baseGraph, final ElementIdCache cache) {
+        this.baseGraph = baseGraph;
+        this.cache = cache;
+        this.features = this.baseGraph.getFeatures().copyFeatures();
+        this.features.isWrapper = true;
+        this.partitionGraph = findPartitionGraph(baseGraph);
+        this.partitionReadVersion = null == this.partitionGraph ? 0 : this.partitionGraph.getReadVersion();
+    }
+
+    /**
+     * @return the outermost PartitionGraph among the base graph and the graphs it wraps or null if there is none
+     */
+    private static PartitionGraph<?> findPartitionGraph(final Graph baseGraph) {
+        Graph graph = baseGraph;
+        while (graph instanceof WrapperGraph) {
+            if (graph instanceof PartitionGraph)
+                return (PartitionGraph<?>) graph;
+            graph = ((WrapperGraph<?>) graph).getBaseGraph();
+        }
+        return null;
+    }
+
+    /**
+     * @return the cache of this graph, which also carries its hit, miss, eviction and invalidation statistics
+     */
+    public ElementIdCache getCache() {
+        return this.cache;
+    }
+
+    public void shutdown() {
+        this.cache.clear();
+        this.baseGraph.shutdown();
+    }
+
+    public Vertex addVertex(final Object id) {
+        final Vertex vertex = this.baseGraph.addVertex(id);
+        this.invalidateDependency(additions(VERTEX));
+        return new CachedVertex(vertex, this);
+    }
+
+    public Vertex getVertex(final Object id) {
+        final Vertex vertex = this.baseGraph.getVertex(id);
+        if (null == vertex)
+            return null;
+        else
+            return new CachedVertex(vertex, this);
+    }
+
+    public Iterable<Vertex> getVertices() {
+        return new CachedVertexIterable(this.baseGraph.getVertices(), this);
+    }
+
+    public Iterable<Vertex> getVertices(final String key, final Object value) {
+        this.checkPartitionReadVersion();
+        final LookupKey lookupKey = new LookupKey(true, key, value);
+        final Object[] ids = this.cache.get(lookupKey);
+        if (null != ids)
+            return new CachedVertexIterable(new IdIterable<Vertex>(ids, true), this);
+
+        final String[] dependencies = new String[]{dependency(VERTEX, key)};
+        final long[] snapshot = this.cache.snapshot(dependencies);
+        return new CachedVertexIterable(new RecordingIterable<Vertex>(this.baseGraph.getVertices(key, value), lookupKey, dependencies, snapshot, false), this);
+    }
+
+    public Edge addEdge(final Object id, final Vertex outVertex, final Vertex inVertex, final String label) {
+        final Edge edge = this.baseGraph.addEdge(id, baseVertex(outVertex), baseVertex(inVertex), label);
+        this.invalidateDependency(additions(EDGE));
+        return new CachedEdge(edge, this);
+    }
+
+    public Edge getEdge(final Object id) {
+        final Edge edge = this.baseGraph.getEdge(id);
+        if (null == edge)
+            return null;
+        else
+            return new CachedEdge(edge, this);
+    }
+
+    public Iterable<Edge> getEdges() {
+        return new CachedEdgeIterable(this.baseGraph.getEdges(), this);
+    }
+
+    public Iterable<Edge> getEdges(final String key, final Object value) {
+        this.checkPartitionReadVersion();
+        final LookupKey lookupKey = new LookupKey(false, key, value);
+        final Object[] ids = this.cache.get(lookupKey);
+        if (null != ids)
+            return new CachedEdgeIterable(new IdIterable<Edge>(ids, false), this);
+
+        final String[] dependencies = new String[]{dependency(EDGE, key)};
+        final long[] snapshot = this.cache.snapshot(dependencies);
+        return new CachedEdgeIterable(new RecordingIterable<Edge>(this.baseGraph.getEdges(key, value), lookupKey, dependencies, snapshot, false), this);
+    }
+
+    public void removeEdge(final Edge edge) {
+        final Edge baseEdge = ((CachedEdge) edge).getBaseEdge();
+        this.invalidateRemoval(baseEdge, false);
+        this.baseGraph.removeEdge(baseEdge);
+    }
+
+    public void removeVertex(final Vertex vertex) {
+        final Vertex baseVertex = ((CachedVertex) vertex).getBaseVertex();
+        for (final Edge edge : baseVertex.getEdges(Direction.BOTH)) {
+            this.invalidateRemoval(edge, false);
+        }
+        this.invalidateRemoval(baseVertex, true);
+        this.baseGraph.removeVertex(baseVertex);
+    }
+
+    public GraphQuery query() {
+        return new CachedGraphQuery(this);
+    }
+
+    public <E extends Element> void dropKeyIndex(final String key, final Class<E> elementClass) {
+        verifyBaseGraphIsKeyIndexableGraph();
+        ((KeyIndexableGraph) this.baseGraph).dropKeyIndex(key, elementClass);
+    }
+
+    public <E extends Element> void createKeyIndex(final String key, final Class<E> elementClass, final Parameter... indexParameters) {
+        verifyBaseGraphIsKeyIndexableGraph();
+        ((KeyIndexableGraph) this.baseGraph).createKeyIndex(key, elementClass, indexParameters);
+    }
+
+    public <E extends Element> Set<String> getIndexedKeys(final Class<E> elementClass) {
+        if (this.baseGraph instanceof KeyIndexableGraph)
+            return ((KeyIndexableGraph) this.baseGraph).getIndexedKeys(elementClass);
+        if (elementClass == null)
+            throw ExceptionFactory.classForElementCannotBeNull();
+        return Collections.emptySet();
+    }
+
+    // Note: this is a no-op if the base graph is not an instance of TransactionalGraph
+    public void stopTransaction(final Conclusion conclusion) {
+        if (Conclusion.SUCCESS == conclusion)
+            commit();
+        else
+            rollback();
+    }
+
+    public void commit() {
+        if (this.baseGraph instanceof TransactionalGraph) {
+            try {
+                ((TransactionalGraph) this.baseGraph).commit();
+            } finally {
+                this.replayTransactionInvalidations();
+            }
+        }
+    }
+
+    public void rollback() {
+        if (this.baseGraph instanceof TransactionalGraph) {
+            try {
+                ((TransactionalGraph) this.baseGraph).rollback();
+            } finally {
+                this.replayTransactionInvalidations();
+            }
+        }
+    }
+
+    @Override
+    public T getBaseGraph() {
+        return this.baseGraph;
+    }
+
+    public String toString() {
+        return StringFactory.graphString(this, this.baseGraph.toString());
+    }
+
+    public Features getFeatures() {
+        return this.features;
+    }
+
+    ////////////////////
+
+    Iterable<Vertex> queryVertices(final CachedGraphQuery query) {
+        this.checkPartitionReadVersion();
+        if (!query.isCacheable())
+            return new CachedVertexIterable(query.toBaseQuery(this.baseGraph.query()).vertices(), this);
+
+        final Object queryKey = query.getCacheKey(true);
+        final Object[] ids = this.cache.get(queryKey);
+        if (null != ids)
+            return new CachedVertexIterable(new IdIterable<Vertex>(ids, true), this);
+
+        final String[] dependencies = query.getDependencies(VERTEX);
+        final long[] snapshot = this.cache.snapshot(dependencies);
+        return new CachedVertexIterable(new RecordingIterable<Vertex>(query.toBaseQuery(this.baseGraph.query()).vertices(), queryKey, dependencies, snapshot, true), this);
+    }
+
+    Iterable<Edge> queryEdges(final CachedGraphQuery query) {
+        this.checkPartitionReadVersion();
+        if (!query.isCacheable())
+            return new CachedEdgeIterable(query.toBaseQuery(this.baseGraph.query()).edges(), this);
+
+        final Object queryKey = query.getCacheKey(false);
+        final Object[] ids = this.cache.get(queryKey);
+        if (null != ids)
+            return new CachedEdgeIterable(new IdIterable<Edge>(ids, false), this);
+
+        final String[] dependencies = query.getDependencies(EDGE);
+        final long[] snapshot = this.cache.snapshot(dependencies);
+        return new CachedEdgeIterable(new RecordingIterable<Edge>(query.toBaseQuery(this.baseGraph.query()).edges(), queryKey, dependencies, snapshot, true), this);
+    }
+
+    /**
+     * Clears the cache if the PartitionGraph beneath this graph changed which elements it shows.
+     */
+    private void checkPartitionReadVersion() {
+        if (null == this.partitionGraph)
+            return;
+        final long readVersion = this.partitionGraph.getReadVersion();
+        if (readVersion != this.partitionReadVersion) {
+            this.partitionReadVersion = readVersion;
+            this.cache.clear();
+        }
+    }
+
+    /**
+     * Invalidate the results affected by changing the value of a property from oldValue to newValue.
+     */
+    void invalidateProperty(final Element element, final String key, final Object oldValue, final Object newValue) {
+        final boolean vertex = element instanceof Vertex;
+        this.invalidateDependency(dependency(vertex ? VERTEX : EDGE, key));
+        if (null != oldValue)
+            this.invalidateKey(new LookupKey(vertex, key, oldValue));
+        if (null != newValue)
+            this.invalidateKey(new LookupKey(vertex, key, newValue));
+    }
+
+    private void invalidateRemoval(final Element element, final boolean vertex) {
+        final String type = vertex ? VERTEX : EDGE;
+        for (final String key : element.getPropertyKeys()) {
+            this.invalidateDependency(dependency(type, key));
+            this.invalidateKey(new LookupKey(vertex, key, element.getProperty(key)));
+        }
+        this.invalidateDependency(removals(type));
+    }
+
+    private void invalidateKey(final Object key) {
+        this.cache.invalidate(key);
+        if (this.baseGraph instanceof TransactionalGraph)
+            this.transactionKeys.get().add(key);
+    }
+
+    private void invalidateDependency(final String dependency) {
+        this.cache.invalidateDependency(dependency);
+        if (this.baseGraph instanceof TransactionalGraph)
+            this.transactionDependencies.get().add(dependency);
+    }
+
+    private void replayTransactionInvalidations() {
+        for (final Object key : this.transactionKeys.get()) {
+            this.cache.invalidate(key);
+        }
+        for (final String dependency : this.transactionDependencies.get()) {
+            this.cache.invalidateDependency(dependency);
+        }
+        this.transactionKeys.remove();
+        this.transactionDependencies.remove();
+    }
+
+    private void verifyBaseGraphIsKeyIndexableGraph() {
+        if (!(this.baseGraph instanceof KeyIndexableGraph)) {
+            throw new UnsupportedOperationException("base graph is not a key indexable graph");
+        }
+    }
+
+    private static Vertex baseVertex(final Vertex vertex) {
+        return vertex instanceof CachedVertex ? ((CachedVertex) vertex).getBaseVertex() : vertex;
+    }
+
+    static String dependency(final String type, final String key) {
+        return type + ":" + key;
+    }
+
+    static String additions(final String type) {
+        return type + "+";
+    }
+
+    static String removals(final String type) {
+        return type + "-";
+    }
+
+    private static class LookupKey {
+        private final boolean vertex;
+        private final String key;
+        private final Object value;
+
+        private LookupKey(final boolean vertex, final String key, final Object value) {
+            this.vertex = vertex;
+            this.key = key;
+            this.value = value;
+        }
+
+        public boolean equals(final Object object) {
+            if (!(object instanceof LookupKey))
+                return false;
+            final LookupKey other = (LookupKey) object;
+            return this.vertex == other.vertex && this.key.equals(other.key)
+                    && (null == this.value ? null == other.value : this.value.equals(other.value));
+        }
+
+        public int hashCode() {
+            return 31 * (31 * this.key.hashCode() + (null == this.value ? 0 : this.value.hashCode())) + (this.vertex ? 1 : 0);
+        }
+    }
+
+    /**
+     * Turns cached ids back into base graph elements, passing over those that no longer exist.
+     */
+    private class IdIterable<E extends Element> implements Iterable<E> {
+
+        private final Object[] ids;
+        private final boolean vertex;
+
+        private IdIterable(final Object[] ids, final boolean vertex) {
+            this.ids = ids;
+            this.vertex = vertex;
+        }
+
+        public Iterator<E> iterator() {
+            return new Iterator<E>() {
+                private int index = 0;
+                private E nextElement = null;
+
+                public boolean hasNext() {
+                    while (null == this.nextElement && this.index < ids.length) {
+                        final Object id = ids[this.index++];
+                        this.nextElement = (E) (vertex ? baseGraph.getVertex(id) : baseGraph.getEdge(id));
+                    }
+                    return null != this.nextElement;
+                }
+
+                public E next() {
+                    if (!this.hasNext())
+                        throw new NoSuchElementException();
+                    final E temp = this.nextElement;
+                    this.nextElement = null;
+                    return temp;
+                }
+
+                public void remove() {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+    }
+
+    /**
+     * Records the ids of a base graph result as it is iterated and caches them once it has been fully read.
+     */
+    private class RecordingIterable<E extends Element> implements CloseableIterable<E> {
+
+        private final Iterable<E> iterable;
+        private final Object cacheKey;
+        private final String[] dependencies;
+        private final long[] snapshot;
+        private final boolean validate;
+
+        private RecordingIterable(final Iterable<E> iterable, final Object cacheKey, final String[] dependencies, final long[] snapshot, final boolean validate) {
+            this.iterable = iterable;
+            this.cacheKey = cacheKey;
+            this.dependencies = dependencies;
+            this.snapshot = snapshot;
+            this.validate = validate;
+        }
+
+        public Iterator<E> iterator() {
+            return new Iterator<E>() {
+                private final Iterator<E> itty = iterable.iterator();
+                private List<Object> ids = new ArrayList<Object>();
+
+                public boolean hasNext() {
+                    final boolean hasNext = this.itty.hasNext();
+                    if (!hasNext && null != this.ids) {
+                        cache.put(cacheKey, this.ids.toArray(), dependencies, snapshot, validate);
+                        this.ids = null;
+                    }
+                    return hasNext;
+                }
+
+                public E next() {
+                    final E element = this.itty.next();
+                    if (null != this.ids) {
+                        if (this.ids.size() < cache.getMaxResultSize())
+                            this.ids.add(element.getId());
+                        else
+                            this.ids = null;
+                    }
+                    return element;
+                }
+
+                public void remove() {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+
+        public void close() {
+            if (this.iterable instanceof CloseableIterable) {
+                ((CloseableIterable) this.iterable).close();
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.tinkerpop.blueprints.util.wrappers.cached;
+
+import com.tinkerpop.blueprints.Edge;
+import com.tinkerpop.blueprints.GraphQuery;
+import com.tinkerpop.blueprints.Vertex;
+import com.tinkerpop.blueprints.util.DefaultGraphQuery;
+import com.tinkerpop.blueprints.util.StringFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * CachedGraphQuery records the has-containers of a query so that they can serve as a cache key,
+ * and replays them against the base graph's own query when the result is not cached.
+ */
+class CachedGraphQuery extends DefaultGraphQuery {
+
+    private final CachedGraph<?> cachedGraph;
+
+    public CachedGraphQuery(final CachedGraph<?> cachedGraph) {
+        super(cachedGraph);
+        this.cachedGraph = cachedGraph;
+    }
+
+    @Override
+    public Iterable<Edge> edges() {
+        return this.cachedGraph.queryEdges(this);
+    }
+
+    @Override
+    public Iterable<Vertex> vertices() {
+        return this.cachedGraph.queryVertices(this);
+    }
+
+    /**
+     * Pages are not cached as every page is usually read only once and its cursor depends on the scan of the base graph.
+     */
+    boolean isCacheable() {
+        return !this.paged && this.limit == Integer.MAX_VALUE;
+    }
+
+    GraphQuery toBaseQuery(GraphQuery query) {
+        for (final HasContainer hasContainer : this.hasContainers) {
+            query = query.has(hasContainer.key, hasContainer.predicate, hasContainer.value);
+        }
+        if (this.limit != Integer.MAX_VALUE)
+            query = query.limit(this.limit);
+        if (this.skip > 0)
+            query = query.skip(this.skip);
+        if (this.paged)
+            query = query.cursor(this.cursor);
+        return query;
+    }
+
+    Object getCacheKey(final boolean vertex) {
+        final List<Object> containers = new ArrayList<Object>(this.hasContainers.size());
+        for (final HasContainer hasContainer : this.hasContainers) {
+            containers.add(Arrays.asList(hasContainer.key, hasContainer.predicate, hasContainer.value));
+        }
+        return Arrays.asList(vertex, containers, this.limit, this.skip);
+    }
+
+    /**
+     * A query depends on the keys it filters on and on element removals.
+     * It also depends on element additions if a new element, which has no properties yet, could satisfy it.
+     */
+    String[] getDependencies(final String type) {
+        final Set<String> dependencies = new LinkedHashSet<String>();
+        boolean matchesNewElements = true;
+        for (final HasContainer hasContainer : this.hasContainers) {
+            if (hasContainer.key.equals(StringFactory.ID) || hasContainer.key.equals(StringFactory.LABEL))
+                continue;
+            dependencies.add(CachedGraph.dependency(type, hasContainer.key));
+            if (matchesNewElements && !this.matchesMissingProperty(hasContainer))
+                matchesNewElements = false;
+        }
+        dependencies.add(CachedGraph.removals(type));
+        if (matchesNewElements)
+            dependencies.add(CachedGraph.additions(type));
+        return dependencies.toArray(new String[dependencies.size()]);
+    }
+
+    private boolean matchesMissingProperty(final HasContainer hasContainer) {
+        try {
+            return hasContainer.predicate.evaluate(null, hasContainer.value);
+        } catch (RuntimeException e) {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.tinkerpop.blueprints.util.wrappers.cached;
+
+import com.tinkerpop.blueprints.Direction;
+import com.tinkerpop.blueprints.Edge;
+import com.tinkerpop.blueprints.Vertex;
+import com.tinkerpop.blueprints.VertexQuery;
+import com.tinkerpop.blueprints.util.wrappers.WrapperVertexQuery;
+
+public class CachedVertex extends CachedElement implements Vertex {
+
+    protected CachedVertex(final Vertex baseVertex, final CachedGraph<?> cachedGraph) {
+        super(baseVertex, cachedGraph);
+    }
+
+    public Iterable<Edge> getEdges(final Direction direction, final String... labels) {
+        return new CachedEdgeIterable(((Vertex) this.baseElement).getEdges(direction, labels), this.cachedGraph);
+    }
+
+    public Iterable<Vertex> getVertices(final Direction direction, final String... labels) {
+        return new CachedVertexIterable(((Vertex) this.baseElement).getVertices(direction, labels), this.cachedGraph);
+    }
+
+    public VertexQuery query() {
+        return new WrapperVertexQuery(((Vertex) this.baseElement).query()) {
+            @Override
+            public Iterable<Vertex> vertices() {
+                return new CachedVertexIterable(this.query.vertices(), cachedGraph);
+            }
+
+            @Override
+            public Iterable<Edge> edges() {
+                return new CachedEdgeIterable(this.query.edges(), cachedGraph);
+            }
+        };
+    }
+
+    public Edge addEdge(final String label, final Vertex vertex) {
+        return this.cachedGraph.addEdge(null, this, vertex, label);
+    }
+
+    public void remove() {
+        this.cachedGraph.removeVertex(this);
+    }
+
+    public Vertex getBaseVertex() {
+        return (Vertex) this.baseElement;
+    }
+}
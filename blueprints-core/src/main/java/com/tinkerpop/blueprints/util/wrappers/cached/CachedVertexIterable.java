@@ -0,0 +1,46 @@
+package com.tinkerpop.blueprints.util.wrappers.cached;
+
+import com.tinkerpop.blueprints.CloseableIterable;
+import com.tinkerpop.blueprints.CursorIterable;
+import com.tinkerpop.blueprints.Vertex;
+
+import java.util.Iterator;
+
+class CachedVertexIterable implements CloseableIterable<Vertex>, CursorIterable<Vertex> {
+
+    private final Iterable<Vertex> iterable;
+    private final CachedGraph<?> cachedGraph;
+
+    public CachedVertexIterable(final Iterable<Vertex> iterable, final CachedGraph<?> cachedGraph) {
+        this.iterable = iterable;
+        this.cachedGraph = cachedGraph;
+    }
+
+    public Iterator<Vertex> iterator() {
+        return new Iterator<Vertex>() {
+            private final Iterator<Vertex> itty = iterable.iterator();
+
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+
+            public boolean hasNext() {
+                return this.itty.hasNext();
+            }
+
+            public Vertex next() {
+                return new CachedVertex(this.itty.next(), cachedGraph);
+            }
+        };
+    }
+
+    public String getCursor() {
+        return this.iterable instanceof CursorIterable ? ((CursorIterable) this.iterable).getCursor() : null;
+    }
+
+    public void close() {
+        if (this.iterable instanceof CloseableIterable) {
+            ((CloseableIterable) iterable).close();
+        }
+    }
+}
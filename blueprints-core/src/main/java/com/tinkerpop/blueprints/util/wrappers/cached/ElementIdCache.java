@@ -0,0 +1,231 @@
+package com.tinkerpop.blueprints.util.wrappers.cached;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ElementIdCache is a bounded, least-recently-used cache of the element ids returned by lookups and queries.
+ * Every entry may depend on a set of dependencies (e.g. property keys) each carrying a generation counter.
+ * Invalidating a dependency bumps its generation, which makes every entry that was filled under an older generation stale.
+ * Entries can also be removed directly by their cache key when the exact key affected by a mutation is known.
+ */
+public class ElementIdCache {
+
+    public static final int DEFAULT_MAX_ENTRIES = 10000;
+    public static final int DEFAULT_MAX_RESULT_SIZE = 1000;
+
+    private static final String[] NO_DEPENDENCIES = new String[0];
+
+    private final int maxEntries;
+    private final int maxResultSize;
+    private final Map<Object, Entry> entries;
+    private final ConcurrentMap<String, AtomicLong> generations = new ConcurrentHashMap<String, AtomicLong>();
+
+    private final AtomicLong hits = new AtomicLong(0l);
+    private final AtomicLong misses = new AtomicLong(0l);
+    private final AtomicLong evictions = new AtomicLong(0l);
+    private final AtomicLong invalidations = new AtomicLong(0l);
+
+    public ElementIdCache() {
+        this(DEFAULT_MAX_ENTRIES, DEFAULT_MAX_RESULT_SIZE);
+    }
+
+    /**
+     * @param maxEntries    the number of results held before the least recently used one is evicted
+     * @param maxResultSize results with more ids than this are not cached
+     */
+    public ElementIdCache(final int maxEntries, final int maxResultSize) {
+        if (maxEntries <= 0)
+            throw new IllegalArgumentException("The maximum number of entries must be positive: " + maxEntries);
+        if (maxResultSize < 0)
+            throw new IllegalArgumentException("The maximum result size can not be negative: " + maxResultSize);
+        this.maxEntries = maxEntries;
+        this.maxResultSize = maxResultSize;
+        this.entries = new LinkedHashMap<Object, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Object, Entry> eldest) {
+                if (this.size() > ElementIdCache.this.maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Get the ids cached for the provided key.
+     *
+     * @param key the cache key of the lookup or query
+     * @return the cached ids or null if the result is not cached or has become stale
+     */
+    public Object[] get(final Object key) {
+        final Entry entry;
+        synchronized (this.entries) {
+            entry = this.entries.get(key);
+            if (null != entry && !this.isCurrent(entry.dependencies, entry.generations)) {
+                this.entries.remove(key);
+                this.invalidations.incrementAndGet();
+                this.misses.incrementAndGet();
+                return null;
+            }
+        }
+        if (null == entry) {
+            this.misses.incrementAndGet();
+            return null;
+        }
+        this.hits.incrementAndGet();
+        return entry.ids;
+    }
+
+    /**
+     * Take a snapshot of the generations of the provided dependencies before the result to cache is read.
+     *
+     * @param dependencies the dependencies of the result
+     * @return the current generation of each dependency
+     */
+    public long[] snapshot(final String... dependencies) {
+        final long[] snapshot = new long[dependencies.length];
+        for (int i = 0; i < dependencies.length; i++) {
+            snapshot[i] = this.generation(dependencies[i]).get();
+        }
+        return snapshot;
+    }
+
+    /**
+     * Cache a result unless one of its dependencies was invalidated while the result was being read.
+     *
+     * @param key          the cache key of the lookup or query
+     * @param ids          the ids of the result
+     * @param dependencies the dependencies of the result
+     * @param snapshot     the generations of the dependencies taken before the result was read
+     * @param validate     whether reads should re-check the generations (false when the entry is removed by key)
+     * @return whether the result was cached
+     */
+    public boolean put(final Object key, final Object[] ids, final String[] dependencies, final long[] snapshot, final boolean validate) {
+        if (ids.length > this.maxResultSize)
+            return false;
+        synchronized (this.entries) {
+            if (!this.isCurrent(dependencies, snapshot))
+                return false;
+            this.entries.put(key, validate ? new Entry(ids, dependencies, snapshot) : new Entry(ids, NO_DEPENDENCIES, new long[0]));
+        }
+        return true;
+    }
+
+    /**
+     * Remove the result cached for the provided key.
+     */
+    public void invalidate(final Object key) {
+        synchronized (this.entries) {
+            if (null != this.entries.remove(key))
+                this.invalidations.incrementAndGet();
+        }
+    }
+
+    /**
+     * Make every result depending on the provided dependency stale.
+     */
+    public void invalidateDependency(final String dependency) {
+        this.generation(dependency).incrementAndGet();
+    }
+
+    public void clear() {
+        synchronized (this.entries) {
+            this.invalidations.addAndGet(this.entries.size());
+            this.entries.clear();
+        }
+        for (final AtomicLong generation : this.generations.values()) {
+            generation.incrementAndGet();
+        }
+    }
+
+    public int size() {
+        synchronized (this.entries) {
+            return this.entries.size();
+        }
+    }
+
+    public int getMaxEntries() {
+        return this.maxEntries;
+    }
+
+    public int getMaxResultSize() {
+        return this.maxResultSize;
+    }
+
+    public long getHitCount() {
+        return this.hits.get();
+    }
+
+    public long getMissCount() {
+        return this.misses.get();
+    }
+
+    public long getEvictionCount() {
+        return this.evictions.get();
+    }
+
+    public long getInvalidationCount() {
+        return this.invalidations.get();
+    }
+
+    /**
+     * @return the fraction of requests answered from the cache (0.0 when no requests were made)
+     */
+    public double getHitRate() {
+        final long hits = this.hits.get();
+        final long total = hits + this.misses.get();
+        return total == 0l ? 0.0d : (double) hits / (double) total;
+    }
+
+    public void resetStatistics() {
+        this.hits.set(0l);
+        this.misses.set(0l);
+        this.evictions.set(0l);
+        this.invalidations.set(0l);
+    }
+
+    public String toString() {
+        return "elementidcache[size:" + this.size() + " hits:" + this.hits.get() + " misses:" + this.misses.get() + "]";
+    }
+
+    private boolean isCurrent(final String[] dependencies, final long[] snapshot) {
+        for (int i = 0; i < dependencies.length; i++) {
+            if (this.generation(dependencies[i]).get() != snapshot[i])
+                return false;
+        }
+        return true;
+    }
+
+    private AtomicLong generation(final String dependency) {
+        AtomicLong generation = this.generations.get(dependency);
+        if (null == generation) {
+            final AtomicLong newGeneration = new AtomicLong(0l);
+            generation = this.generations.putIfAbsent(dependency, newGeneration);
+            if (null == generation)
+                generation = newGeneration;
+        }
+        return generation;
+    }
+
+    private static class Entry {
+        private final Object[] ids;
+        private final String[] dependencies;
+        private final long[] generations;
+
+        private Entry(final Object[] ids, final String[] dependencies, final long[] generations) {
+            this.ids = ids;
+            this.dependencies = dependencies;
+            this.generations = generations;
+        }
+
+        public String toString() {
+            return Arrays.toString(this.ids);
+        }
+    }
+}
@@ -0,0 +1,334 @@
+package com.tinkerpop.blueprints.util.wrappers.event;
+
+import com.tinkerpop.blueprints.util.wrappers.event.listener.EdgePropertyChangedEvent;
+import com.tinkerpop.blueprints.util.wrappers.event.listener.EdgePropertyEvent;
+import com.tinkerpop.blueprints.util.wrappers.event.listener.EdgeRemovedEvent;
+import com.tinkerpop.blueprints.util.wrappers.event.listener.Event;
+import com.tinkerpop.blueprints.util.wrappers.event.listener.VertexPropertyChangedEvent;
+import com.tinkerpop.blueprints.util.wrappers.event.listener.VertexPropertyEvent;
+import com.tinkerpop.blueprints.util.wrappers.event.listener.VertexRemovedEvent;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Delivers the events of an {@link EventGraph} to its listeners on a separate thread, so that slow listeners do not
+ * throttle the threads changing the graph.
+ *
+ * Fired events are appended to a bounded ring buffer. A single dispatch thread takes up to maxBatchSize events at a
+ * time from the buffer, fires them to the GraphChangedListeners one by one and passes them to the
+ * BatchGraphChangedListeners at once. The events of one transaction of an {@link EventTransactionalGraph} are appended
+ * to the buffer together, so events are delivered in the order of the commits and, within a transaction, in the order
+ * the changes occurred. When the buffer is full, the {@link BackpressurePolicy} determines whether the changing thread
+ * waits, the event is dropped or coalesced with a pending one.
+ *
+ * An exception thrown by a listener is counted as failed delivery. It keeps neither the other listeners from receiving
+ * the event nor the listener from receiving the following events, and does not stop the dispatch thread. Listeners
+ * must not change the graph they listen to, since the dispatch thread would wait for itself once the buffer is full.
+ *
+ * Use {@link EventGraph#dispatchAsynchronously(int, int, BackpressurePolicy)} to create a dispatcher.
+ */
+public class AsyncEventDispatcher {
+
+    public static final int DEFAULT_CAPACITY = 8192;
+    public static final int DEFAULT_MAX_BATCH_SIZE = 512;
+
+    private final EventGraph<?> graph;
+    private final Event[] ring;
+    private final int maxBatchSize;
+    private final BackpressurePolicy policy;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private final Condition delivered = lock.newCondition();
+    private final Object publishLock = new Object();
+
+    // sequence numbers of the next event to take, the next event to append and the last event delivered
+    private long head = 0;
+    private long tail = 0;
+    private long completed = 0;
+    private boolean running = true;
+
+    // sequence numbers of the latest pending property event per element and key, for coalescing
+    private final Map<PropertyKey, Long> pendingProperties;
+    private long lastRemoval = -1;
+
+    private volatile long droppedEvents = 0;
+    private volatile long coalescedEvents = 0;
+    private volatile long deliveredEvents = 0;
+    private volatile long failedBatches = 0;
+    private volatile long failedDeliveries = 0;
+
+    private final Thread thread;
+
+    AsyncEventDispatcher(final EventGraph<?> graph, final int capacity, final int maxBatchSize, final BackpressurePolicy policy) {
+        if (capacity <= 0) throw new IllegalArgumentException("Capacity must be positive");
+        if (maxBatchSize <= 0) throw new IllegalArgumentException("Batch size must be positive");
+        if (policy == null) throw new IllegalArgumentException("Policy may not be null");
+        this.graph = graph;
+        this.ring = new Event[capacity];
+        this.maxBatchSize = maxBatchSize;
+        this.policy = policy;
+        this.pendingProperties = policy == BackpressurePolicy.COALESCE ? new HashMap<PropertyKey, Long>() : null;
+
+        this.thread = new Thread(new Runnable() {
+            public void run() {
+                dispatch();
+            }
+        }, "event-dispatcher");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    public BackpressurePolicy getPolicy() {
+        return policy;
+    }
+
+    public int getCapacity() {
+        return ring.length;
+    }
+
+    /**
+     * @return the number of events in the buffer
+     */
+    public int getPendingEventCount() {
+        lock.lock();
+        try {
+            return (int) (tail - head);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getDroppedEventCount() {
+        return droppedEvents;
+    }
+
+    /**
+     * @return the number of property changes merged into a pending change
+     */
+    public long getCoalescedEventCount() {
+        return coalescedEvents;
+    }
+
+    /**
+     * @return the number of events received by all of their listeners
+     */
+    public long getDeliveredEventCount() {
+        return deliveredEvents;
+    }
+
+    /**
+     * @return the number of batches for which a listener threw an exception
+     */
+    public long getFailedBatchCount() {
+        return failedBatches;
+    }
+
+    /**
+     * @return the number of times a listener threw an exception, i.e. per event for a GraphChangedListener and per
+     *         batch for a BatchGraphChangedListener
+     */
+    public long getFailedDeliveryCount() {
+        return failedDeliveries;
+    }
+
+    /**
+     * Appends the events to the buffer. The events are appended together, i.e. not interleaved with the events
+     * published by other threads.
+     *
+     * @param events the events in the order the changes occurred
+     */
+    public void publish(final List<Event> events) {
+        synchronized (publishLock) {
+            lock.lock();
+            try {
+                for (final Event event : events) {
+                    append(event);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e.getMessage(), e);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void append(final Event event) throws InterruptedException {
+        while (tail - head == ring.length) {
+            if (!running) throw new IllegalStateException("Event dispatcher has been shut down");
+            if (policy == BackpressurePolicy.DROP) {
+                droppedEvents++;
+                return;
+            }
+            if (policy == BackpressurePolicy.COALESCE && coalesce(event)) {
+                coalescedEvents++;
+                return;
+            }
+            notFull.await();
+        }
+        if (!running) throw new IllegalStateException("Event dispatcher has been shut down");
+
+        if (pendingProperties != null) {
+            final PropertyKey key = PropertyKey.of(event);
+            if (key != null) pendingProperties.put(key, tail);
+            else if (event instanceof VertexRemovedEvent || event instanceof EdgeRemovedEvent) lastRemoval = tail;
+        }
+        ring[(int) (tail % ring.length)] = event;
+        tail++;
+        notEmpty.signal();
+    }
+
+    /**
+     * Merges a property change into the latest pending event of the same element and key, if that is a change as well
+     * and no element has been removed since.
+     */
+    private boolean coalesce(final Event event) {
+        if (!(event instanceof VertexPropertyChangedEvent || event instanceof EdgePropertyChangedEvent)) return false;
+        final Long sequence = pendingProperties.get(PropertyKey.of(event));
+        if (sequence == null || sequence < head || sequence < lastRemoval) return false;
+        final int slot = (int) (sequence % ring.length);
+        final Event pending = ring[slot];
+        if (pending instanceof VertexPropertyChangedEvent) {
+            final VertexPropertyChangedEvent previous = (VertexPropertyChangedEvent) pending;
+            final VertexPropertyChangedEvent current = (VertexPropertyChangedEvent) event;
+            ring[slot] = new VertexPropertyChangedEvent(current.getVertex(), current.getKey(), previous.getOldValue(), current.getNewValue());
+            return true;
+        } else if (pending instanceof EdgePropertyChangedEvent) {
+            final EdgePropertyChangedEvent previous = (EdgePropertyChangedEvent) pending;
+            final EdgePropertyChangedEvent current = (EdgePropertyChangedEvent) event;
+            ring[slot] = new EdgePropertyChangedEvent(current.getEdge(), current.getKey(), previous.getOldValue(), current.getNewValue());
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Waits until all events published so far have been delivered.
+     */
+    public void flush() {
+        lock.lock();
+        try {
+            final long target = tail;
+            while (completed < target && thread.isAlive()) {
+                delivered.await();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Delivers the pending events and stops the dispatch thread. Events published afterwards are rejected.
+     */
+    public void shutdown() {
+        flush();
+        lock.lock();
+        try {
+            running = false;
+            notEmpty.signalAll();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void dispatch() {
+        while (true) {
+            final List<Event> batch;
+            final long end;
+            lock.lock();
+            try {
+                while (head == tail && running) {
+                    notEmpty.awaitUninterruptibly();
+                }
+                if (head == tail) return;
+                final int size = (int) Math.min(tail - head, maxBatchSize);
+                batch = new ArrayList<Event>(size);
+                for (int i = 0; i < size; i++) {
+                    final int slot = (int) (head % ring.length);
+                    final Event event = ring[slot];
+                    batch.add(event);
+                    ring[slot] = null;
+                    if (pendingProperties != null) {
+                        final PropertyKey key = PropertyKey.of(event);
+                        if (key != null) {
+                            final Long sequence = pendingProperties.get(key);
+                            if (sequence != null && sequence == head) pendingProperties.remove(key);
+                        }
+                    }
+                    head++;
+                }
+                end = head;
+                notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+
+            final EventGraph.Delivery delivery = graph.deliver(batch);
+
+            lock.lock();
+            try {
+                if (delivery.getFailedDeliveries() > 0) {
+                    failedBatches++;
+                    failedDeliveries += delivery.getFailedDeliveries();
+                }
+                deliveredEvents += batch.size() - delivery.getUndeliveredEvents();
+                completed = end;
+                delivered.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private static final class PropertyKey {
+
+        private final boolean vertex;
+        private final Object id;
+        private final String key;
+
+        private PropertyKey(final boolean vertex, final Object id, final String key) {
+            this.vertex = vertex;
+            this.id = id;
+            this.key = key;
+        }
+
+        private static PropertyKey of(final Event event) {
+            if (event instanceof VertexPropertyEvent) {
+                final VertexPropertyEvent e = (VertexPropertyEvent) event;
+                return new PropertyKey(true, e.getVertex().getId(), e.getKey());
+            } else if (event instanceof EdgePropertyEvent) {
+                final EdgePropertyEvent e = (EdgePropertyEvent) event;
+                return new PropertyKey(false, e.getEdge().getId(), e.getKey());
+            }
+            return null;
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            if (!(other instanceof PropertyKey)) return false;
+            final PropertyKey that = (PropertyKey) other;
+            return vertex == that.vertex && id.equals(that.id) && key.equals(that.key);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(new Object[]{vertex, id, key});
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.tinkerpop.blueprints.util.wrappers.event;
+
+/**
+ * Determines what an {@link AsyncEventDispatcher} does with an event when its buffer is full.
+ */
+public enum BackpressurePolicy {
+
+    /**
+     * The mutating thread waits until the listeners have caught up.
+     */
+    BLOCK,
+
+    /**
+     * The event is dropped and counted.
+     */
+    DROP,
+
+    /**
+     * A property change is merged into a pending change of the same element and key, so that only the last value is
+     * delivered. Other events, and changes without a pending change to merge into, block.
+     */
+    COALESCE
+}
@@ -0,0 +1,254 @@
+package com.tinkerpop.blueprints.util.wrappers.event;
+
+import com.tinkerpop.blueprints.Element;
+import com.tinkerpop.blueprints.Vertex;
+import com.tinkerpop.blueprints.util.wrappers.event.listener.EdgeAddedEvent;
+import com.tinkerpop.blueprints.util.wrappers.event.listener.EdgePropertyChangedEvent;
+import com.tinkerpop.blueprints.util.wrappers.event.listener.EdgePropertyEvent;
+import com.tinkerpop.blueprints.util.wrappers.event.listener.EdgePropertyRemovedEvent;
+import com.tinkerpop.blueprints.util.wrappers.event.listener.EdgeRemovedEvent;
+import com.tinkerpop.blueprints.util.wrappers.event.listener.Event;
+import com.tinkerpop.blueprints.util.wrappers.event.listener.EventType;
+import com.tinkerpop.blueprints.util.wrappers.event.listener.VertexAddedEvent;
+import com.tinkerpop.blueprints.util.wrappers.event.listener.VertexPropertyChangedEvent;
+import com.tinkerpop.blueprints.util.wrappers.event.listener.VertexPropertyEvent;
+import com.tinkerpop.blueprints.util.wrappers.event.listener.VertexPropertyRemovedEvent;
+import com.tinkerpop.blueprints.util.wrappers.event.listener.VertexRemovedEvent;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The events of one transaction, coalesced as they are added:
+ * - changes and removals of the same property of an element are merged into one event which carries the value before
+ * the first and after the last change, at the position of the last change. A property which did not exist before and
+ * is removed again raises no event.
+ * - an element which is added and removed again raises no events. This includes the edges added to a vertex which is
+ * removed, as the removal of a vertex removes its edges without raising events for them.
+ *
+ * Replaced events are left as null in the list of events, which is compacted once more than half of it is null.
+ */
+class CoalescingEventQueue {
+
+    private final List<Event> events = new ArrayList<Event>();
+    private final Map<ElementKey, ElementEvents> elements = new HashMap<ElementKey, ElementEvents>();
+    // the edges added in this transaction per incident vertex, taken when the edges are added
+    private final Map<ElementKey, List<ElementKey>> addedEdges = new HashMap<ElementKey, List<ElementKey>>();
+    private int replaced = 0;
+
+    boolean isEmpty() {
+        return elements.isEmpty() && events.isEmpty();
+    }
+
+    void clear() {
+        events.clear();
+        elements.clear();
+        addedEdges.clear();
+        replaced = 0;
+    }
+
+    /**
+     * @return the coalesced events in order, the queue is empty afterwards
+     */
+    List<Event> drain() {
+        final List<Event> drained = new ArrayList<Event>(events.size());
+        for (final Event event : events) {
+            if (event != null) drained.add(event);
+        }
+        clear();
+        return drained;
+    }
+
+    void add(final Event event) {
+        final EventType type = EventType.of(event);
+        if (type == null) {
+            events.add(event);
+            return;
+        }
+        switch (type) {
+            case VERTEX_ADDED:
+                added(new ElementKey(((VertexAddedEvent) event).getVertex()), event);
+                break;
+            case EDGE_ADDED: {
+                final EdgeAddedEvent e = (EdgeAddedEvent) event;
+                final ElementKey key = new ElementKey(e.getEdge());
+                added(key, event);
+                incident(new ElementKey(e.getOutVertex()), key);
+                incident(new ElementKey(e.getInVertex()), key);
+                break;
+            }
+            case VERTEX_REMOVED: {
+                final ElementKey key = new ElementKey(((VertexRemovedEvent) event).getVertex());
+                final List<ElementKey> edges = addedEdges.remove(key);
+                if (edges != null) {
+                    for (final ElementKey edge : edges) {
+                        final ElementEvents own = elements.get(edge);
+                        if (own != null && own.added) dropAll(edge, own);
+                    }
+                }
+                removed(key, event);
+                break;
+            }
+            case EDGE_REMOVED:
+                removed(new ElementKey(((EdgeRemovedEvent) event).getEdge()), event);
+                break;
+            case VERTEX_PROPERTY_CHANGED:
+            case VERTEX_PROPERTY_REMOVED: {
+                final VertexPropertyEvent e = (VertexPropertyEvent) event;
+                property(new ElementKey(e.getVertex()), e.getKey(), e.getOldValue(), event);
+                break;
+            }
+            default: {
+                final EdgePropertyEvent e = (EdgePropertyEvent) event;
+                property(new ElementKey(e.getEdge()), e.getKey(), e.getOldValue(), event);
+            }
+        }
+    }
+
+    private void added(final ElementKey element, final Event event) {
+        final ElementEvents own = new ElementEvents(true);
+        elements.put(element, own);
+        own.indices.add(events.size());
+        events.add(event);
+    }
+
+    private void incident(final ElementKey vertex, final ElementKey edge) {
+        List<ElementKey> edges = addedEdges.get(vertex);
+        if (edges == null) {
+            edges = new ArrayList<ElementKey>();
+            addedEdges.put(vertex, edges);
+        }
+        edges.add(edge);
+    }
+
+    private void removed(final ElementKey element, final Event event) {
+        final ElementEvents own = elements.get(element);
+        if (own != null && own.added) {
+            dropAll(element, own);
+        } else {
+            elements.remove(element);
+            events.add(event);
+        }
+    }
+
+    private void dropAll(final ElementKey element, final ElementEvents own) {
+        elements.remove(element);
+        for (final int index : own.indices) {
+            replace(index);
+        }
+    }
+
+    private void property(final ElementKey element, final String key, final Object oldValue, final Event event) {
+        ElementEvents own = elements.get(element);
+        if (own == null) {
+            own = new ElementEvents(false);
+            elements.put(element, own);
+        }
+        final Integer previous = own.properties.remove(key);
+        Event coalesced = event;
+        if (previous != null) {
+            final Object firstOldValue = getOldValue(events.get(previous));
+            replace(previous);
+            coalesced = merge(event, firstOldValue);
+            if (coalesced == null) return;
+        } else if (oldValue == null && isRemoval(event) && own.added) {
+            // removing a property which was never set on a new element
+            return;
+        }
+        own.properties.put(key, events.size());
+        if (own.added) own.indices.add(events.size());
+        events.add(coalesced);
+        if (replaced > 1024 && replaced > events.size() / 2) compact();
+    }
+
+    private void replace(final int index) {
+        if (events.set(index, null) != null) replaced++;
+    }
+
+    private void compact() {
+        final int[] positions = new int[events.size()];
+        final List<Event> compacted = new ArrayList<Event>(events.size() - replaced);
+        for (int i = 0; i < events.size(); i++) {
+            positions[i] = compacted.size();
+            if (events.get(i) != null) compacted.add(events.get(i));
+        }
+        for (final ElementEvents own : elements.values()) {
+            final List<Integer> indices = new ArrayList<Integer>(own.indices.size());
+            for (final int index : own.indices) {
+                if (events.get(index) != null) indices.add(positions[index]);
+            }
+            own.indices.clear();
+            own.indices.addAll(indices);
+            for (final Map.Entry<String, Integer> entry : own.properties.entrySet()) {
+                entry.setValue(positions[entry.getValue()]);
+            }
+        }
+        events.clear();
+        events.addAll(compacted);
+        replaced = 0;
+    }
+
+    private static boolean isRemoval(final Event event) {
+        return event instanceof VertexPropertyRemovedEvent || event instanceof EdgePropertyRemovedEvent;
+    }
+
+    private static Object getOldValue(final Event event) {
+        return event instanceof VertexPropertyEvent ? ((VertexPropertyEvent) event).getOldValue() : ((EdgePropertyEvent) event).getOldValue();
+    }
+
+    /**
+     * @return the event replacing the latest change with the value before the first change, or null if the
+     *         property neither existed before nor after
+     */
+    private static Event merge(final Event latest, final Object firstOldValue) {
+        if (latest instanceof VertexPropertyRemovedEvent) {
+            final VertexPropertyRemovedEvent e = (VertexPropertyRemovedEvent) latest;
+            return firstOldValue == null ? null : new VertexPropertyRemovedEvent(e.getVertex(), e.getKey(), firstOldValue);
+        } else if (latest instanceof EdgePropertyRemovedEvent) {
+            final EdgePropertyRemovedEvent e = (EdgePropertyRemovedEvent) latest;
+            return firstOldValue == null ? null : new EdgePropertyRemovedEvent(e.getEdge(), e.getKey(), firstOldValue);
+        } else if (latest instanceof VertexPropertyChangedEvent) {
+            final VertexPropertyChangedEvent e = (VertexPropertyChangedEvent) latest;
+            return new VertexPropertyChangedEvent(e.getVertex(), e.getKey(), firstOldValue, e.getNewValue());
+        } else {
+            final EdgePropertyChangedEvent e = (EdgePropertyChangedEvent) latest;
+            return new EdgePropertyChangedEvent(e.getEdge(), e.getKey(), firstOldValue, e.getNewValue());
+        }
+    }
+
+    private static class ElementEvents {
+        private final boolean added;
+        // positions of all events of an element added in this transaction
+        private final List<Integer> indices = new ArrayList<Integer>();
+        // position of the latest event per property key
+        private final Map<String, Integer> properties = new HashMap<String, Integer>();
+
+        private ElementEvents(final boolean added) {
+            this.added = added;
+        }
+    }
+
+    private static final class ElementKey {
+        private final boolean vertex;
+        private final Object id;
+
+        private ElementKey(final Element element) {
+            this.vertex = element instanceof Vertex;
+            this.id = element.getId();
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            if (!(other instanceof ElementKey)) return false;
+            final ElementKey that = (ElementKey) other;
+            return vertex == that.vertex && id.equals(that.id);
+        }
+
+        @Override
+        public int hashCode() {
+            return vertex ? id.hashCode() : ~id.hashCode();
+        }
+    }
+}
@@ -9,16 +9,22 @@ import com.tinkerpop.blueprints.util.ElementHelper;
 import com.tinkerpop.blueprints.util.StringFactory;
 import com.tinkerpop.blueprints.util.wrappers.WrappedGraphQuery;
 import com.tinkerpop.blueprints.util.wrappers.WrapperGraph;
+import com.tinkerpop.blueprints.util.wrappers.event.listener.BatchGraphChangedListener;
 import com.tinkerpop.blueprints.util.wrappers.event.listener.EdgeAddedEvent;
 import com.tinkerpop.blueprints.util.wrappers.event.listener.EdgeRemovedEvent;
+import com.tinkerpop.blueprints.util.wrappers.event.listener.Event;
+import com.tinkerpop.blueprints.util.wrappers.event.listener.EventFilter;
 import com.tinkerpop.blueprints.util.wrappers.event.listener.GraphChangedListener;
 import com.tinkerpop.blueprints.util.wrappers.event.listener.VertexAddedEvent;
 import com.tinkerpop.blueprints.util.wrappers.event.listener.VertexRemovedEvent;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * An EventGraph is a wrapper to existing Graph implementations and provides for graph events to be raised
@@ -32,6 +38,16 @@ import java.util.Map;
  * the EventGraph by utilizing the addListener method.  EventGraph allows the addition of multiple GraphChangedListener
  * implementations.  Each listener will be notified in the order that it was added.
  *
+ * A {@link BatchGraphChangedListener} added with addBatchListener receives the events in batches instead, before the
+ * GraphChangedListeners are notified of them. An exception thrown by one listener does not keep the others from being
+ * notified; when listeners are notified synchronously, it is rethrown afterwards. Listeners can be added with an
+ * {@link EventFilter} to only receive events of certain types, edge labels or property keys. Listeners can be added
+ * and removed by any thread at any time.
+ *
+ * By default listeners are notified on the thread changing the graph. To keep slow listeners from throttling changes,
+ * events can be dispatched on a separate thread through a bounded buffer, see
+ * {@link #dispatchAsynchronously(int, int, BackpressurePolicy)}.
+ *
  * @author Stephen Mallette
  */
 public class EventGraph<T extends Graph> implements Graph, WrapperGraph<T> {
@@ -40,7 +56,16 @@ public class EventGraph<T extends Graph> implements Graph, WrapperGraph<T> {
 
     protected final T baseGraph;
 
-    protected final List<GraphChangedListener> graphChangedListeners = new ArrayList<GraphChangedListener>();
+    protected final List<GraphChangedListener> graphChangedListeners = new CopyOnWriteArrayList<GraphChangedListener>();
+
+    protected final List<BatchGraphChangedListener> batchGraphChangedListeners = new CopyOnWriteArrayList<BatchGraphChangedListener>();
+
+    /**
+     * The filters of the listeners which do not receive all events.
+     */
+    private final Map<Object, EventFilter> listenerFilters = new ConcurrentHashMap<Object, EventFilter>();
+
+    private volatile AsyncEventDispatcher dispatcher = null;
 
     private final Features features;
 
@@ -54,9 +79,19 @@ public class EventGraph<T extends Graph> implements Graph, WrapperGraph<T> {
 
     public void removeAllListeners() {
         this.graphChangedListeners.clear();
+        this.batchGraphChangedListeners.clear();
+        this.listenerFilters.clear();
     }
 
     public void addListener(final GraphChangedListener listener) {
+        this.addListener(listener, EventFilter.all());
+    }
+
+    /**
+     * Adds a listener which is only notified of the events accepted by the filter.
+     */
+    public void addListener(final GraphChangedListener listener, final EventFilter filter) {
+        this.setFilter(listener, filter);
         this.graphChangedListeners.add(listener);
     }
 
@@ -70,6 +105,178 @@ public class EventGraph<T extends Graph> implements Graph, WrapperGraph<T> {
 
     public void removeListener(final GraphChangedListener listener) {
         this.graphChangedListeners.remove(listener);
+        if (!this.graphChangedListeners.contains(listener)) this.listenerFilters.remove(listener);
+    }
+
+    public void addBatchListener(final BatchGraphChangedListener listener) {
+        this.addBatchListener(listener, EventFilter.all());
+    }
+
+    /**
+     * Adds a batch listener which only receives the events accepted by the filter. Batches without such events are
+     * not passed to the listener.
+     */
+    public void addBatchListener(final BatchGraphChangedListener listener, final EventFilter filter) {
+        this.setFilter(listener, filter);
+        this.batchGraphChangedListeners.add(listener);
+    }
+
+    public void removeBatchListener(final BatchGraphChangedListener listener) {
+        this.batchGraphChangedListeners.remove(listener);
+        if (!this.batchGraphChangedListeners.contains(listener)) this.listenerFilters.remove(listener);
+    }
+
+    private void setFilter(final Object listener, final EventFilter filter) {
+        if (filter == null) throw new IllegalArgumentException("Filter may not be null");
+        if (filter == EventFilter.all()) this.listenerFilters.remove(listener);
+        else this.listenerFilters.put(listener, filter);
+    }
+
+    /**
+     * Dispatches events on a separate thread from now on. Events fired before are still delivered synchronously.
+     *
+     * @param capacity     the number of events buffered before the policy applies
+     * @param maxBatchSize the largest number of events delivered to batch listeners at once
+     * @param policy       what to do with events when the buffer is full
+     * @return the dispatcher, e.g. to flush the events or to read its counters
+     */
+    public AsyncEventDispatcher dispatchAsynchronously(final int capacity, final int maxBatchSize, final BackpressurePolicy policy) {
+        if (this.dispatcher != null) throw new IllegalStateException("Events are already dispatched asynchronously");
+        this.dispatcher = new AsyncEventDispatcher(this, capacity, maxBatchSize, policy);
+        return this.dispatcher;
+    }
+
+    /**
+     * Delivers the pending events of the asynchronous dispatcher, if any, and notifies listeners on the thread
+     * changing the graph from now on.
+     */
+    public void dispatchSynchronously() {
+        final AsyncEventDispatcher current = this.dispatcher;
+        if (current != null) {
+            this.dispatcher = null;
+            current.shutdown();
+        }
+    }
+
+    /**
+     * @return the asynchronous dispatcher or null if listeners are notified synchronously
+     */
+    public AsyncEventDispatcher getDispatcher() {
+        return this.dispatcher;
+    }
+
+    /**
+     * Fires events raised by changes to the graph, in the order the changes occurred.
+     */
+    void fire(final List<Event> events) {
+        final AsyncEventDispatcher current = this.dispatcher;
+        if (current != null) current.publish(events);
+        else dispatch(events);
+    }
+
+    /**
+     * Notifies the listeners of the events.
+     *
+     * @throws RuntimeException the first exception thrown by a listener, once all listeners have been notified
+     */
+    void dispatch(final List<Event> events) {
+        final Delivery delivery = this.deliver(events);
+        if (delivery.failure != null) throw delivery.failure;
+    }
+
+    /**
+     * Notifies the listeners of the events. The batch listeners are notified first, so that a sink capturing the changes
+     * such as a ChangeLog has recorded them before other listeners react to them. An exception thrown by a listener
+     * keeps neither the other listeners from being notified of the event nor the listener from being notified of the
+     * following events.
+     */
+    Delivery deliver(final List<Event> events) {
+        final Delivery delivery = new Delivery(events.size());
+        final boolean filtered = !this.listenerFilters.isEmpty();
+        if (!this.batchGraphChangedListeners.isEmpty()) {
+            final List<Event> batch = Collections.unmodifiableList(events);
+            for (final BatchGraphChangedListener listener : this.batchGraphChangedListeners) {
+                final EventFilter filter = filtered ? this.listenerFilters.get(listener) : null;
+                final List<Integer> accepted = new ArrayList<Integer>();
+                for (int i = 0; i < events.size(); i++) {
+                    if (filter == null || filter.accepts(events.get(i))) accepted.add(i);
+                }
+                if (accepted.isEmpty()) continue;
+                try {
+                    if (accepted.size() == events.size()) {
+                        listener.eventsFired(batch);
+                    } else {
+                        final List<Event> subset = new ArrayList<Event>(accepted.size());
+                        for (final Integer i : accepted) {
+                            subset.add(events.get(i));
+                        }
+                        listener.eventsFired(Collections.unmodifiableList(subset));
+                    }
+                } catch (RuntimeException e) {
+                    delivery.failed(e, accepted.toArray(new Integer[accepted.size()]));
+                }
+            }
+        }
+        for (int i = 0; i < events.size(); i++) {
+            final Event event = events.get(i);
+            for (final GraphChangedListener listener : filtered ? this.getListeners(event) : this.graphChangedListeners) {
+                try {
+                    event.fireEvent(Collections.singletonList(listener).iterator());
+                } catch (RuntimeException e) {
+                    delivery.failed(e, i);
+                }
+            }
+        }
+        return delivery;
+    }
+
+    private List<GraphChangedListener> getListeners(final Event event) {
+        final List<GraphChangedListener> accepted = new ArrayList<GraphChangedListener>(this.graphChangedListeners.size());
+        for (final GraphChangedListener listener : this.graphChangedListeners) {
+            final EventFilter filter = this.listenerFilters.get(listener);
+            if (filter == null || filter.accepts(event)) accepted.add(listener);
+        }
+        return accepted;
+    }
+
+    /**
+     * The outcome of notifying the listeners of a batch of events.
+     */
+    static final class Delivery {
+
+        private final boolean[] undelivered;
+        private int failedDeliveries = 0;
+        private int undeliveredEvents = 0;
+        private RuntimeException failure = null;
+
+        private Delivery(final int events) {
+            this.undelivered = new boolean[events];
+        }
+
+        private void failed(final RuntimeException e, final Integer... events) {
+            if (this.failure == null) this.failure = e;
+            this.failedDeliveries++;
+            for (final Integer i : events) {
+                if (!this.undelivered[i]) {
+                    this.undelivered[i] = true;
+                    this.undeliveredEvents++;
+                }
+            }
+        }
+
+        /**
+         * @return the number of calls of a listener which threw an exception
+         */
+        int getFailedDeliveries() {
+            return this.failedDeliveries;
+        }
+
+        /**
+         * @return the number of events not received by at least one of their listeners
+         */
+        int getUndeliveredEvents() {
+            return this.undeliveredEvents;
+        }
     }
 
     protected void onVertexAdded(Vertex vertex) {
@@ -84,6 +291,10 @@ public class EventGraph<T extends Graph> implements Graph, WrapperGraph<T> {
         this.trigger.addEvent(new EdgeAddedEvent(edge));
     }
 
+    protected void onEdgeAdded(final Edge edge, final Vertex outVertex, final Vertex inVertex, final String label) {
+        this.trigger.addEvent(new EdgeAddedEvent(edge, outVertex, inVertex, label));
+    }
+
     protected void onEdgeRemoved(final Edge edge, Map<String, Object> props) {
         this.trigger.addEvent(new EdgeRemovedEvent(edge, props));
     }
@@ -150,7 +361,7 @@ public class EventGraph<T extends Graph> implements Graph, WrapperGraph<T> {
         if (edge == null) {
             return null;
         } else {
-            this.onEdgeAdded(edge);
+            this.onEdgeAdded(edge, outVertexToSet, inVertexToSet, label);
             return new EventEdge(edge, this);
         }
     }
@@ -191,12 +402,14 @@ public class EventGraph<T extends Graph> implements Graph, WrapperGraph<T> {
         return new WrappedGraphQuery(this.baseGraph.query()) {
             @Override
             public Iterable<Edge> edges() {
-                return new EventEdgeIterable(this.query.edges(), eventGraph);
+                final Iterable<Edge> edges = this.query.edges();
+                return this.withCursor(edges, new EventEdgeIterable(edges, eventGraph));
             }
 
             @Override
             public Iterable<Vertex> vertices() {
-                return new EventVertexIterable(this.query.vertices(), eventGraph);
+                final Iterable<Vertex> vertices = this.query.vertices();
+                return this.withCursor(vertices, new EventVertexIterable(vertices, eventGraph));
             }
         };
     }
@@ -208,6 +421,7 @@ public class EventGraph<T extends Graph> implements Graph, WrapperGraph<T> {
             // TODO: hmmmmmm??
             this.trigger.fireEventQueue();
             this.trigger.resetEventQueue();
+            this.dispatchSynchronously();
         } catch (Exception re) {
 
         }
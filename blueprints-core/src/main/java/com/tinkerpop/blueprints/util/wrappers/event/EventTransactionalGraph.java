@@ -16,6 +16,19 @@ public class EventTransactionalGraph<T extends TransactionalGraph> extends Event
         this.trigger = new EventTrigger(this, true);
     }
 
+    /**
+     * When set to true, the events of a transaction are coalesced before they are fired on commit: changes of the same
+     * property of an element are merged into one event carrying the values before and after the transaction, and
+     * elements which are added and removed again in the same transaction raise no events.
+     */
+    public void setCoalesceEvents(final boolean coalesceEvents) {
+        this.trigger.setCoalesceEvents(coalesceEvents);
+    }
+
+    public boolean isCoalesceEvents() {
+        return this.trigger.isCoalesceEvents();
+    }
+
     @Override
     public void stopTransaction(Conclusion conclusion) {
         if (Conclusion.SUCCESS == conclusion)
@@ -3,7 +3,10 @@ package com.tinkerpop.blueprints.util.wrappers.event;
 import com.tinkerpop.blueprints.util.wrappers.event.listener.Event;
 
 import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Deque;
+import java.util.List;
 
 public class EventTrigger {
 
@@ -17,11 +20,22 @@ public class EventTrigger {
         }
     };
 
+    /**
+     * The queue of events that are triggered by change to the graph when they are coalesced.
+     */
+    private final ThreadLocal<CoalescingEventQueue> coalescingQueue = new ThreadLocal<CoalescingEventQueue>() {
+        protected CoalescingEventQueue initialValue() {
+            return new CoalescingEventQueue();
+        }
+    };
+
     /**
      * When set to true, events in the event queue will only be fired when a transaction is committed.
      */
     private final boolean enqueEvents;
 
+    private volatile boolean coalesceEvents = false;
+
     private final EventGraph graph;
 
     public EventTrigger(final EventGraph graph, final boolean enqueEvents) {
@@ -35,7 +49,8 @@ public class EventTrigger {
      * If the enqueEvents is false, then the queue fires and resets after each event is added.
      */
     public void addEvent(Event evt) {
-        this.eventQueue.get().add(evt);
+        if (this.coalesceEvents) this.coalescingQueue.get().add(evt);
+        else this.eventQueue.get().add(evt);
 
         if (!this.enqueEvents) {
             this.fireEventQueue();
@@ -45,14 +60,37 @@ public class EventTrigger {
 
     public void resetEventQueue() {
         eventQueue.set(new ArrayDeque<Event>());
+        coalescingQueue.get().clear();
     }
 
-    public void fireEventQueue() {
-        Deque<Event> deque = eventQueue.get();
+    /**
+     * When set to true, the events of a transaction are coalesced before they are fired: changes of the same property
+     * of an element are merged into the last one and elements which are added and removed again raise no events.
+     * Only applies if events are queued until a transaction is committed.
+     */
+    public void setCoalesceEvents(final boolean coalesceEvents) {
+        if (coalesceEvents && !this.enqueEvents)
+            throw new IllegalStateException("Only events queued until a commit can be coalesced");
+        this.coalesceEvents = coalesceEvents;
+    }
+
+    public boolean isCoalesceEvents() {
+        return this.coalesceEvents;
+    }
 
-        // This array
-        for (Event event = deque.pollFirst(); event != null; event = deque.pollFirst()) {
-            event.fireEvent(this.graph.getListenerIterator());
+    /**
+     * Fires the events in the event queue to the listeners of the graph, or hands them to its
+     * {@link AsyncEventDispatcher} as one batch. Events raised by listeners changing the graph are fired afterwards.
+     */
+    public void fireEventQueue() {
+        final Deque<Event> deque = eventQueue.get();
+        final CoalescingEventQueue coalesced = coalescingQueue.get();
+        while (!deque.isEmpty() || !coalesced.isEmpty()) {
+            if (!coalesced.isEmpty()) deque.addAll(coalesced.drain());
+            if (deque.isEmpty()) break;
+            final List<Event> events = deque.size() == 1 ? Collections.singletonList(deque.pollFirst()) : new ArrayList<Event>(deque);
+            deque.clear();
+            this.graph.fire(events);
         }
     }
 }
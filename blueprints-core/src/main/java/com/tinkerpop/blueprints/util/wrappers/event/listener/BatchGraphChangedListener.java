@@ -0,0 +1,24 @@
+package com.tinkerpop.blueprints.util.wrappers.event.listener;
+
+import java.util.List;
+
+/**
+ * Interface for a listener to EventGraph change events which receives the events in batches instead of one call per
+ * event, e.g. to update a search index with one request per batch.
+ *
+ * Implementations of this interface should be added to the list of batch listeners on the addBatchListener method on
+ * the EventGraph. When events are fired synchronously, a batch holds the events of one committed transaction (or the
+ * single event for a non-transactional graph). When events are dispatched asynchronously, a batch holds the events
+ * taken from the buffer at once, which may span several transactions. In both cases the events are in the order the
+ * changes occurred to the graph. Batch listeners are notified of a batch before the GraphChangedListeners are notified of
+ * its events.
+ */
+public interface BatchGraphChangedListener {
+
+    /**
+     * Raised with a batch of events.
+     *
+     * @param events the events in the order the changes occurred, which must not be modified
+     */
+    public void eventsFired(final List<Event> events);
+}
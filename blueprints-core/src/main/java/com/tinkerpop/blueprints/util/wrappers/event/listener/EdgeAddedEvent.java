@@ -1,16 +1,47 @@
 package com.tinkerpop.blueprints.util.wrappers.event.listener;
 
 
+import com.tinkerpop.blueprints.Direction;
 import com.tinkerpop.blueprints.Edge;
+import com.tinkerpop.blueprints.Vertex;
 
 import java.util.Iterator;
 
 public class EdgeAddedEvent implements Event {
 
     private final Edge edge;
+    private final Vertex outVertex;
+    private final Vertex inVertex;
+    private final String label;
 
     public EdgeAddedEvent(final Edge edge) {
+        this(edge, null, null, null);
+    }
+
+    /**
+     * Keeps the vertices and label the edge was added with, so that they are known after the edge was removed again.
+     */
+    public EdgeAddedEvent(final Edge edge, final Vertex outVertex, final Vertex inVertex, final String label) {
         this.edge = edge;
+        this.outVertex = outVertex;
+        this.inVertex = inVertex;
+        this.label = label;
+    }
+
+    public Edge getEdge() {
+        return edge;
+    }
+
+    public Vertex getOutVertex() {
+        return null == outVertex ? edge.getVertex(Direction.OUT) : outVertex;
+    }
+
+    public Vertex getInVertex() {
+        return null == inVertex ? edge.getVertex(Direction.IN) : inVertex;
+    }
+
+    public String getLabel() {
+        return null == label ? edge.getLabel() : label;
     }
 
     @Override
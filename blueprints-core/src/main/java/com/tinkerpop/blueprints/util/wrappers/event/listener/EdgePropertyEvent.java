@@ -18,6 +18,25 @@ public abstract class EdgePropertyEvent implements Event {
         this.newValue = newValue;
     }
 
+    public Edge getEdge() {
+        return edge;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public Object getOldValue() {
+        return oldValue;
+    }
+
+    /**
+     * @return the value set, null for a removed property
+     */
+    public Object getNewValue() {
+        return newValue;
+    }
+
     abstract void fire(final GraphChangedListener listener, final Edge edge, final String key, final Object oldValue, final Object newValue);
 
     @Override
@@ -21,6 +21,17 @@ public class EdgeRemovedEvent implements Event {
         this.props = props;
     }
 
+    public Edge getEdge() {
+        return edge;
+    }
+
+    /**
+     * @return the properties of the removed element
+     */
+    public Map<String, Object> getProperties() {
+        return props;
+    }
+
     @Override
     public void fireEvent(final Iterator<GraphChangedListener> eventListeners) {
         while (eventListeners.hasNext()) {
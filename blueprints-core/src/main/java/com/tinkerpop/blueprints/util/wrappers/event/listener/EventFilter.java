@@ -0,0 +1,83 @@
+package com.tinkerpop.blueprints.util.wrappers.event.listener;
+
+import com.tinkerpop.blueprints.Edge;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Selects the events a listener is subscribed to, see addListener and addBatchListener on EventGraph.
+ *
+ * A filter accepts an event if it satisfies every criterion given:
+ * - types: the event is of one of the given types
+ * - labels: the event is an edge event and the label of the edge is one of the given labels
+ * - keys: the event is a property event and its key is one of the given keys
+ *
+ * Hence, a filter without criteria accepts all events, and a filter on keys or labels does not accept vertex added or
+ * removed events, for instance. Filters are immutable; the methods return a new filter with the additional criterion.
+ */
+public class EventFilter {
+
+    private static final EventFilter ALL = new EventFilter(null, null, null);
+
+    private final EnumSet<EventType> types;
+    private final Set<String> labels;
+    private final Set<String> keys;
+
+    private EventFilter(final EnumSet<EventType> types, final Set<String> labels, final Set<String> keys) {
+        this.types = types;
+        this.labels = labels;
+        this.keys = keys;
+    }
+
+    /**
+     * @return a filter accepting all events
+     */
+    public static EventFilter all() {
+        return ALL;
+    }
+
+    public EventFilter types(final EventType... types) {
+        if (types.length == 0) throw new IllegalArgumentException("At least one type expected");
+        return new EventFilter(EnumSet.copyOf(Arrays.asList(types)), labels, keys);
+    }
+
+    public EventFilter labels(final String... labels) {
+        if (labels.length == 0) throw new IllegalArgumentException("At least one label expected");
+        return new EventFilter(types, new HashSet<String>(Arrays.asList(labels)), keys);
+    }
+
+    public EventFilter keys(final String... keys) {
+        if (keys.length == 0) throw new IllegalArgumentException("At least one key expected");
+        return new EventFilter(types, labels, new HashSet<String>(Arrays.asList(keys)));
+    }
+
+    public boolean accepts(final Event event) {
+        if (types != null) {
+            final EventType type = EventType.of(event);
+            if (type == null || !types.contains(type)) return false;
+        }
+        if (labels != null) {
+            final Edge edge;
+            if (event instanceof EdgeAddedEvent) edge = ((EdgeAddedEvent) event).getEdge();
+            else if (event instanceof EdgePropertyEvent) edge = ((EdgePropertyEvent) event).getEdge();
+            else if (event instanceof EdgeRemovedEvent) edge = ((EdgeRemovedEvent) event).getEdge();
+            else return false;
+            if (!labels.contains(edge.getLabel())) return false;
+        }
+        if (keys != null) {
+            final String key;
+            if (event instanceof VertexPropertyEvent) key = ((VertexPropertyEvent) event).getKey();
+            else if (event instanceof EdgePropertyEvent) key = ((EdgePropertyEvent) event).getKey();
+            else return false;
+            if (!keys.contains(key)) return false;
+        }
+        return true;
+    }
+
+    public String toString() {
+        return "EventFilter[types:" + types + ", labels:" + labels + ", keys:" + keys + "]";
+    }
+}
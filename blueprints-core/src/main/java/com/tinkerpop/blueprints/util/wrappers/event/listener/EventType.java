@@ -0,0 +1,31 @@
+package com.tinkerpop.blueprints.util.wrappers.event.listener;
+
+/**
+ * The types of the events raised by EventGraph.
+ */
+public enum EventType {
+
+    VERTEX_ADDED,
+    VERTEX_PROPERTY_CHANGED,
+    VERTEX_PROPERTY_REMOVED,
+    VERTEX_REMOVED,
+    EDGE_ADDED,
+    EDGE_PROPERTY_CHANGED,
+    EDGE_PROPERTY_REMOVED,
+    EDGE_REMOVED;
+
+    /**
+     * @return the type of the event or null if it is none of the events raised by EventGraph
+     */
+    public static EventType of(final Event event) {
+        if (event instanceof VertexPropertyChangedEvent) return VERTEX_PROPERTY_CHANGED;
+        else if (event instanceof EdgePropertyChangedEvent) return EDGE_PROPERTY_CHANGED;
+        else if (event instanceof VertexAddedEvent) return VERTEX_ADDED;
+        else if (event instanceof EdgeAddedEvent) return EDGE_ADDED;
+        else if (event instanceof VertexPropertyRemovedEvent) return VERTEX_PROPERTY_REMOVED;
+        else if (event instanceof EdgePropertyRemovedEvent) return EDGE_PROPERTY_REMOVED;
+        else if (event instanceof VertexRemovedEvent) return VERTEX_REMOVED;
+        else if (event instanceof EdgeRemovedEvent) return EDGE_REMOVED;
+        else return null;
+    }
+}
@@ -17,6 +17,10 @@ public class VertexAddedEvent implements Event {
         this.vertex = vertex;
     }
 
+    public Vertex getVertex() {
+        return vertex;
+    }
+
     @Override
     public void fireEvent(final Iterator<GraphChangedListener> eventListeners) {
         while (eventListeners.hasNext()) {
@@ -24,6 +24,25 @@ public abstract class VertexPropertyEvent implements Event {
         this.newValue = newValue;
     }
 
+    public Vertex getVertex() {
+        return vertex;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public Object getOldValue() {
+        return oldValue;
+    }
+
+    /**
+     * @return the value set, null for a removed property
+     */
+    public Object getNewValue() {
+        return newValue;
+    }
+
     abstract void fire(final GraphChangedListener listener, final Vertex vertex, final String key, final Object oldValue, final Object newValue);
 
     @Override
@@ -20,6 +20,17 @@ public class VertexRemovedEvent implements Event {
         this.props = props;
     }
 
+    public Vertex getVertex() {
+        return vertex;
+    }
+
+    /**
+     * @return the properties of the removed element
+     */
+    public Map<String, Object> getProperties() {
+        return props;
+    }
+
     @Override
     public void fireEvent(final Iterator<GraphChangedListener> eventListeners) {
         while (eventListeners.hasNext()) {
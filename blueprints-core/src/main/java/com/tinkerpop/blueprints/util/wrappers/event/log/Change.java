@@ -0,0 +1,130 @@
+package com.tinkerpop.blueprints.util.wrappers.event.log;
+
+import com.tinkerpop.blueprints.util.wrappers.event.listener.EdgeAddedEvent;
+import com.tinkerpop.blueprints.util.wrappers.event.listener.EdgePropertyChangedEvent;
+import com.tinkerpop.blueprints.util.wrappers.event.listener.EdgePropertyRemovedEvent;
+import com.tinkerpop.blueprints.util.wrappers.event.listener.EdgeRemovedEvent;
+import com.tinkerpop.blueprints.util.wrappers.event.listener.Event;
+import com.tinkerpop.blueprints.util.wrappers.event.listener.EventType;
+import com.tinkerpop.blueprints.util.wrappers.event.listener.VertexAddedEvent;
+import com.tinkerpop.blueprints.util.wrappers.event.listener.VertexPropertyChangedEvent;
+import com.tinkerpop.blueprints.util.wrappers.event.listener.VertexPropertyRemovedEvent;
+import com.tinkerpop.blueprints.util.wrappers.event.listener.VertexRemovedEvent;
+
+/**
+ * A change to a graph as recorded in a {@link ChangeLog}. Unlike the events it is created from, a change holds ids
+ * instead of elements, and only what is needed to apply the change to another graph: the label and vertex ids of added
+ * edges and the new value of changed properties.
+ */
+public class Change {
+
+    private final EventType type;
+    private final Object elementId;
+    private final String key;
+    private final Object value;
+    private final String label;
+    private final Object outVertexId;
+    private final Object inVertexId;
+
+    Change(final EventType type, final Object elementId, final String key, final Object value,
+           final String label, final Object outVertexId, final Object inVertexId) {
+        this.type = type;
+        this.elementId = elementId;
+        this.key = key;
+        this.value = value;
+        this.label = label;
+        this.outVertexId = outVertexId;
+        this.inVertexId = inVertexId;
+    }
+
+    /**
+     * @return the change recorded for the event or null if the event is none of the events raised by EventGraph
+     */
+    static Change of(final Event event) {
+        final EventType type = EventType.of(event);
+        if (type == null) return null;
+        switch (type) {
+            case VERTEX_ADDED:
+                return new Change(type, ((VertexAddedEvent) event).getVertex().getId(), null, null, null, null, null);
+            case VERTEX_PROPERTY_CHANGED: {
+                final VertexPropertyChangedEvent e = (VertexPropertyChangedEvent) event;
+                return new Change(type, e.getVertex().getId(), e.getKey(), e.getNewValue(), null, null, null);
+            }
+            case VERTEX_PROPERTY_REMOVED: {
+                final VertexPropertyRemovedEvent e = (VertexPropertyRemovedEvent) event;
+                return new Change(type, e.getVertex().getId(), e.getKey(), null, null, null, null);
+            }
+            case VERTEX_REMOVED:
+                return new Change(type, ((VertexRemovedEvent) event).getVertex().getId(), null, null, null, null, null);
+            case EDGE_ADDED: {
+                // the edge may have been removed by the time the event is logged
+                final EdgeAddedEvent e = (EdgeAddedEvent) event;
+                return new Change(type, e.getEdge().getId(), null, null, e.getLabel(),
+                        e.getOutVertex().getId(), e.getInVertex().getId());
+            }
+            case EDGE_PROPERTY_CHANGED: {
+                final EdgePropertyChangedEvent e = (EdgePropertyChangedEvent) event;
+                return new Change(type, e.getEdge().getId(), e.getKey(), e.getNewValue(), null, null, null);
+            }
+            case EDGE_PROPERTY_REMOVED: {
+                final EdgePropertyRemovedEvent e = (EdgePropertyRemovedEvent) event;
+                return new Change(type, e.getEdge().getId(), e.getKey(), null, null, null, null);
+            }
+            default:
+                return new Change(type, ((EdgeRemovedEvent) event).getEdge().getId(), null, null, null, null, null);
+        }
+    }
+
+    public EventType getType() {
+        return type;
+    }
+
+    /**
+     * @return the id of the vertex or edge changed
+     */
+    public Object getElementId() {
+        return elementId;
+    }
+
+    /**
+     * @return the key of a changed or removed property, otherwise null
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * @return the new value of a changed property, otherwise null
+     */
+    public Object getValue() {
+        return value;
+    }
+
+    /**
+     * @return the label of an added edge, otherwise null
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * @return the id of the out vertex of an added edge, otherwise null
+     */
+    public Object getOutVertexId() {
+        return outVertexId;
+    }
+
+    /**
+     * @return the id of the in vertex of an added edge, otherwise null
+     */
+    public Object getInVertexId() {
+        return inVertexId;
+    }
+
+    public String toString() {
+        final StringBuilder builder = new StringBuilder("Change[").append(type).append(':').append(elementId);
+        if (key != null) builder.append(", ").append(key).append('=').append(value);
+        if (label != null) builder.append(", ").append(outVertexId).append('-').append(label).append("->").append(inVertexId);
+        return builder.append(']').toString();
+    }
+}
@@ -0,0 +1,234 @@
+package com.tinkerpop.blueprints.util.wrappers.event.log;
+
+import com.tinkerpop.blueprints.util.wrappers.event.listener.BatchGraphChangedListener;
+import com.tinkerpop.blueprints.util.wrappers.event.listener.Event;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ChangeLog is a change-data-capture sink which appends the changes of committed transactions to a binary log on disk,
+ * from which other processes read them with a {@link ChangeLogReader} to keep downstream systems in sync, e.g. by
+ * replaying them into another graph with a {@link ChangeLogReplayer}.
+ *
+ * A ChangeLog is added to an EventTransactionalGraph as batch listener. Since a batch then holds the events of one
+ * committed transaction, every transaction is appended as one record, written with a single write so that readers
+ * tailing the log never see part of a transaction. (With asynchronous dispatch, a batch may hold part of a transaction
+ * or several transactions, and a record holds a batch instead.) Batch listeners are notified before the other listeners
+ * and independently of their failures, so a transaction is appended even if a listener throws an exception on it.
+ *
+ * The log is a directory of segment files. Once the current segment exceeds the maximum segment size, a new one is
+ * started, so that segments which have been read by all readers can be removed with {@link #deleteSegmentsBefore(long)}.
+ * Positions in the log are given as offsets, which increase with every record appended. Opening an existing log
+ * continues it after its last complete record.
+ *
+ * The changes do not include the previous values of changed properties or the properties of removed elements.
+ * Ids and property values which are not strings, numbers or booleans must be Serializable.
+ */
+public class ChangeLog implements BatchGraphChangedListener, Closeable {
+
+    /**
+     * Default maximum size of a segment in bytes
+     */
+    public static final long DEFAULT_MAX_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    private final File directory;
+    private final long maxSegmentSize;
+
+    private long startOffset;
+    private long segmentOffset;
+    private long endOffset;
+    private long nextSequence = 0;
+    private FileOutputStream segment;
+    private boolean syncOnCommit = false;
+    private IOException failure = null;
+
+    public ChangeLog(final File directory) {
+        this(directory, DEFAULT_MAX_SEGMENT_SIZE);
+    }
+
+    public ChangeLog(final File directory, final long maxSegmentSize) {
+        if (maxSegmentSize <= 0) throw new IllegalArgumentException("Segment size must be positive");
+        if (!directory.isDirectory() && !directory.mkdirs())
+            throw new IllegalArgumentException("Could not create directory: " + directory);
+        this.directory = directory;
+        this.maxSegmentSize = maxSegmentSize;
+        try {
+            this.recover();
+        } catch (IOException e) {
+            throw new RuntimeException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Continues the last segment after its last complete record, or starts the first segment.
+     */
+    private void recover() throws IOException {
+        final List<Long> segments = ChangeLogCodec.listSegments(this.directory);
+        if (segments.isEmpty()) {
+            this.startOffset = 0;
+            this.segmentOffset = 0;
+        } else {
+            this.startOffset = segments.get(0);
+            this.segmentOffset = segments.get(segments.size() - 1);
+        }
+
+        final File file = ChangeLogCodec.segmentFile(this.directory, this.segmentOffset);
+        long valid = 0;
+        if (file.exists()) {
+            final RandomAccessFile in = new RandomAccessFile(file, "rw");
+            try {
+                final long length = in.length();
+                while (length - valid >= ChangeLogCodec.HEADER_LENGTH) {
+                    in.seek(valid);
+                    final int size = in.readInt();
+                    final int checksum = in.readInt();
+                    if (size < 0 || length - valid - ChangeLogCodec.HEADER_LENGTH < size) break;
+                    final byte[] payload = new byte[size];
+                    in.readFully(payload);
+                    if (!ChangeLogCodec.isValid(payload, checksum)) break;
+                    this.nextSequence = ChangeLogCodec.readSequence(payload) + 1;
+                    valid += ChangeLogCodec.HEADER_LENGTH + size;
+                }
+                // drop a record which was only partially written
+                if (valid < length) in.setLength(valid);
+            } finally {
+                in.close();
+            }
+        }
+        this.endOffset = this.segmentOffset + valid;
+        this.segment = new FileOutputStream(file, true);
+    }
+
+    /**
+     * When set to true, every record is forced to disk before the commit returns. Otherwise records are handed to the
+     * operating system, which survives a crash of the process but not of the machine.
+     */
+    public void setSyncOnCommit(final boolean syncOnCommit) {
+        this.syncOnCommit = syncOnCommit;
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    /**
+     * @return the offset of the first record in the log
+     */
+    public synchronized long getStartOffset() {
+        return startOffset;
+    }
+
+    /**
+     * @return the offset the next record is appended at
+     */
+    public synchronized long getEndOffset() {
+        return endOffset;
+    }
+
+    public synchronized int getSegmentCount() {
+        return ChangeLogCodec.listSegments(this.directory).size();
+    }
+
+    /**
+     * @return a reader starting at the given offset, which must be the offset of a record or the end offset of the log
+     */
+    public ChangeLogReader openReader(final long offset) {
+        return new ChangeLogReader(this.directory, offset);
+    }
+
+    public void eventsFired(final List<Event> events) {
+        this.append(events);
+    }
+
+    /**
+     * Appends the events as one record, ignoring events which are not raised by EventGraph.
+     *
+     * @return the offset of the record or -1 if there was nothing to append
+     */
+    public synchronized long append(final List<Event> events) {
+        if (this.segment == null) throw new IllegalStateException("Change log has been closed");
+        if (this.failure != null)
+            throw new IllegalStateException("Change log could not remove a partially written record, reopen it to recover", this.failure);
+        final List<Change> changes = new ArrayList<Change>(events.size());
+        for (final Event event : events) {
+            final Change change = Change.of(event);
+            if (change != null) changes.add(change);
+        }
+        if (changes.isEmpty()) return -1;
+
+        try {
+            final byte[] record = ChangeLogCodec.encode(this.nextSequence, System.currentTimeMillis(), changes);
+            if (this.endOffset > this.segmentOffset && this.endOffset - this.segmentOffset + record.length > this.maxSegmentSize) {
+                this.roll();
+            }
+            this.segment.write(record);
+            if (this.syncOnCommit) this.segment.getFD().sync();
+            final long offset = this.endOffset;
+            this.endOffset += record.length;
+            this.nextSequence++;
+            return offset;
+        } catch (IOException e) {
+            this.truncate();
+            throw new RuntimeException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Removes what has been written of a record which failed, so that the next record follows the last complete one.
+     */
+    private void truncate() {
+        try {
+            this.segment.getChannel().truncate(this.endOffset - this.segmentOffset);
+        } catch (IOException e) {
+            this.failure = e;
+        }
+    }
+
+    private void roll() throws IOException {
+        this.segment.getFD().sync();
+        this.segment.close();
+        this.segmentOffset = this.endOffset;
+        this.segment = new FileOutputStream(ChangeLogCodec.segmentFile(this.directory, this.segmentOffset), true);
+    }
+
+    /**
+     * Removes the segments which only hold records before the given offset, e.g. the lowest offset any reader has yet
+     * to read. The current segment is never removed.
+     *
+     * @return the number of segments removed
+     */
+    public synchronized int deleteSegmentsBefore(final long offset) {
+        final List<Long> segments = ChangeLogCodec.listSegments(this.directory);
+        int deleted = 0;
+        for (int i = 0; i < segments.size() - 1; i++) {
+            if (segments.get(i + 1) > offset) break;
+            if (!ChangeLogCodec.segmentFile(this.directory, segments.get(i)).delete())
+                throw new IllegalStateException("Could not delete segment starting at " + segments.get(i));
+            this.startOffset = segments.get(i + 1);
+            deleted++;
+        }
+        return deleted;
+    }
+
+    public synchronized void close() {
+        if (this.segment == null) return;
+        try {
+            this.segment.getFD().sync();
+            this.segment.close();
+        } catch (IOException e) {
+            throw new RuntimeException(e.getMessage(), e);
+        } finally {
+            this.segment = null;
+        }
+    }
+
+    public String toString() {
+        return "ChangeLog[" + directory + ", offsets:" + startOffset + "-" + endOffset + "]";
+    }
+}
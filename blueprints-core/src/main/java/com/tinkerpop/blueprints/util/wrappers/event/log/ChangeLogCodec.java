@@ -0,0 +1,294 @@
+package com.tinkerpop.blueprints.util.wrappers.event.log;
+
+import com.tinkerpop.blueprints.util.wrappers.event.listener.EventType;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * The binary format of the change log.
+ *
+ * A log is a directory of segment files, each named after the offset of its first record. A record is a header of the
+ * length and the CRC32 checksum of its payload followed by the payload: the sequence number and timestamp of the
+ * transaction, the number of changes and the changes. A change is the code of its type and the element id,
+ * followed by the key and new value of a property change, the key of a property removal or the label and vertex ids of
+ * an added edge. Ids and values are tagged with their type, strings, numbers and booleans are written natively and
+ * other objects serialized.
+ */
+final class ChangeLogCodec {
+
+    static final int HEADER_LENGTH = 8;
+
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private static final byte NULL = 0;
+    private static final byte LONG = 1;
+    private static final byte INTEGER = 2;
+    private static final byte STRING = 3;
+    private static final byte DOUBLE = 4;
+    private static final byte FLOAT = 5;
+    private static final byte BOOLEAN = 6;
+    private static final byte SERIALIZED = 7;
+
+    // the codes of the types of changes, which must never change
+    private static final byte VERTEX_ADDED = 0;
+    private static final byte VERTEX_PROPERTY_CHANGED = 1;
+    private static final byte VERTEX_PROPERTY_REMOVED = 2;
+    private static final byte VERTEX_REMOVED = 3;
+    private static final byte EDGE_ADDED = 4;
+    private static final byte EDGE_PROPERTY_CHANGED = 5;
+    private static final byte EDGE_PROPERTY_REMOVED = 6;
+    private static final byte EDGE_REMOVED = 7;
+
+    private ChangeLogCodec() {
+    }
+
+    static File segmentFile(final File directory, final long baseOffset) {
+        return new File(directory, String.format("%020d", baseOffset) + SEGMENT_SUFFIX);
+    }
+
+    /**
+     * @return the base offsets of the segments in the directory in ascending order
+     */
+    static List<Long> listSegments(final File directory) {
+        final String[] names = directory.list(new FilenameFilter() {
+            public boolean accept(final File dir, final String name) {
+                return name.endsWith(SEGMENT_SUFFIX) && name.length() == 20 + SEGMENT_SUFFIX.length();
+            }
+        });
+        final List<Long> segments = new ArrayList<Long>();
+        if (names != null) {
+            for (final String name : names) {
+                try {
+                    segments.add(Long.parseLong(name.substring(0, 20)));
+                } catch (NumberFormatException e) {
+                    // not a segment
+                }
+            }
+        }
+        Collections.sort(segments);
+        return segments;
+    }
+
+    /**
+     * @return the record of the transaction including its header
+     */
+    static byte[] encode(final long sequence, final long timestamp, final List<Change> changes) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + changes.size() * 32);
+        final DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(0);
+        out.writeInt(0);
+        out.writeLong(sequence);
+        out.writeLong(timestamp);
+        out.writeInt(changes.size());
+        for (final Change change : changes) {
+            out.writeByte(typeCode(change.getType()));
+            writeObject(out, change.getElementId());
+            switch (change.getType()) {
+                case VERTEX_PROPERTY_CHANGED:
+                case EDGE_PROPERTY_CHANGED:
+                    out.writeUTF(change.getKey());
+                    writeObject(out, change.getValue());
+                    break;
+                case VERTEX_PROPERTY_REMOVED:
+                case EDGE_PROPERTY_REMOVED:
+                    out.writeUTF(change.getKey());
+                    break;
+                case EDGE_ADDED:
+                    out.writeUTF(change.getLabel());
+                    writeObject(out, change.getOutVertexId());
+                    writeObject(out, change.getInVertexId());
+                    break;
+                default:
+            }
+        }
+        out.flush();
+
+        final byte[] record = bytes.toByteArray();
+        final int length = record.length - HEADER_LENGTH;
+        final CRC32 crc = new CRC32();
+        crc.update(record, HEADER_LENGTH, length);
+        writeInt(record, 0, length);
+        writeInt(record, 4, (int) crc.getValue());
+        return record;
+    }
+
+    static boolean isValid(final byte[] payload, final int checksum) {
+        final CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue() == checksum;
+    }
+
+    static ChangeSet decode(final long offset, final byte[] payload) throws IOException {
+        final DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        final long sequence = in.readLong();
+        final long timestamp = in.readLong();
+        final int size = in.readInt();
+        final List<Change> changes = new ArrayList<Change>(size);
+        for (int i = 0; i < size; i++) {
+            final EventType type = type(in.readByte());
+            final Object id = readObject(in);
+            switch (type) {
+                case VERTEX_PROPERTY_CHANGED:
+                case EDGE_PROPERTY_CHANGED:
+                    changes.add(new Change(type, id, in.readUTF(), readObject(in), null, null, null));
+                    break;
+                case VERTEX_PROPERTY_REMOVED:
+                case EDGE_PROPERTY_REMOVED:
+                    changes.add(new Change(type, id, in.readUTF(), null, null, null, null));
+                    break;
+                case EDGE_ADDED:
+                    changes.add(new Change(type, id, null, null, in.readUTF(), readObject(in), readObject(in)));
+                    break;
+                default:
+                    changes.add(new Change(type, id, null, null, null, null, null));
+            }
+        }
+        return new ChangeSet(offset, offset + HEADER_LENGTH + payload.length, sequence, timestamp, changes);
+    }
+
+    private static byte typeCode(final EventType type) {
+        switch (type) {
+            case VERTEX_ADDED:
+                return VERTEX_ADDED;
+            case VERTEX_PROPERTY_CHANGED:
+                return VERTEX_PROPERTY_CHANGED;
+            case VERTEX_PROPERTY_REMOVED:
+                return VERTEX_PROPERTY_REMOVED;
+            case VERTEX_REMOVED:
+                return VERTEX_REMOVED;
+            case EDGE_ADDED:
+                return EDGE_ADDED;
+            case EDGE_PROPERTY_CHANGED:
+                return EDGE_PROPERTY_CHANGED;
+            case EDGE_PROPERTY_REMOVED:
+                return EDGE_PROPERTY_REMOVED;
+            case EDGE_REMOVED:
+                return EDGE_REMOVED;
+            default:
+                throw new IllegalArgumentException("Change type can not be written to the change log: " + type);
+        }
+    }
+
+    private static EventType type(final byte code) throws IOException {
+        switch (code) {
+            case VERTEX_ADDED:
+                return EventType.VERTEX_ADDED;
+            case VERTEX_PROPERTY_CHANGED:
+                return EventType.VERTEX_PROPERTY_CHANGED;
+            case VERTEX_PROPERTY_REMOVED:
+                return EventType.VERTEX_PROPERTY_REMOVED;
+            case VERTEX_REMOVED:
+                return EventType.VERTEX_REMOVED;
+            case EDGE_ADDED:
+                return EventType.EDGE_ADDED;
+            case EDGE_PROPERTY_CHANGED:
+                return EventType.EDGE_PROPERTY_CHANGED;
+            case EDGE_PROPERTY_REMOVED:
+                return EventType.EDGE_PROPERTY_REMOVED;
+            case EDGE_REMOVED:
+                return EventType.EDGE_REMOVED;
+            default:
+                throw new IOException("Unknown change type in change log: " + code);
+        }
+    }
+
+    /**
+     * @return the sequence number in the payload of a record
+     */
+    static long readSequence(final byte[] payload) throws IOException {
+        return new DataInputStream(new ByteArrayInputStream(payload)).readLong();
+    }
+
+    private static void writeInt(final byte[] bytes, final int position, final int value) {
+        bytes[position] = (byte) (value >>> 24);
+        bytes[position + 1] = (byte) (value >>> 16);
+        bytes[position + 2] = (byte) (value >>> 8);
+        bytes[position + 3] = (byte) value;
+    }
+
+    private static void writeObject(final DataOutputStream out, final Object object) throws IOException {
+        if (object == null) {
+            out.writeByte(NULL);
+        } else if (object instanceof Long) {
+            out.writeByte(LONG);
+            out.writeLong((Long) object);
+        } else if (object instanceof Integer) {
+            out.writeByte(INTEGER);
+            out.writeInt((Integer) object);
+        } else if (object instanceof String) {
+            final byte[] bytes = ((String) object).getBytes("UTF-8");
+            out.writeByte(STRING);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        } else if (object instanceof Double) {
+            out.writeByte(DOUBLE);
+            out.writeDouble((Double) object);
+        } else if (object instanceof Float) {
+            out.writeByte(FLOAT);
+            out.writeFloat((Float) object);
+        } else if (object instanceof Boolean) {
+            out.writeByte(BOOLEAN);
+            out.writeBoolean((Boolean) object);
+        } else if (object instanceof Serializable) {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            final ObjectOutputStream stream = new ObjectOutputStream(bytes);
+            stream.writeObject(object);
+            stream.close();
+            out.writeByte(SERIALIZED);
+            out.writeInt(bytes.size());
+            bytes.writeTo(out);
+        } else {
+            throw new IllegalArgumentException("Value can not be written to the change log: " + object.getClass());
+        }
+    }
+
+    private static Object readObject(final DataInputStream in) throws IOException {
+        final byte type = in.readByte();
+        switch (type) {
+            case NULL:
+                return null;
+            case LONG:
+                return in.readLong();
+            case INTEGER:
+                return in.readInt();
+            case STRING: {
+                final byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                return new String(bytes, "UTF-8");
+            }
+            case DOUBLE:
+                return in.readDouble();
+            case FLOAT:
+                return in.readFloat();
+            case BOOLEAN:
+                return in.readBoolean();
+            case SERIALIZED: {
+                final byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                final ObjectInputStream stream = new ObjectInputStream(new ByteArrayInputStream(bytes));
+                try {
+                    return stream.readObject();
+                } catch (ClassNotFoundException e) {
+                    throw new IOException(e.getMessage(), e);
+                } finally {
+                    stream.close();
+                }
+            }
+            default:
+                throw new IOException("Unknown type in change log: " + type);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.tinkerpop.blueprints.util.wrappers.event.log;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads the change sets of a {@link ChangeLog} in order, starting at a given offset.
+ *
+ * The reader tails the log: {@link #next()} returns null once it has read all records appended so far and returns
+ * the records appended afterwards on the next calls, following the log into new segments. A reader typically stores
+ * the next offset of the last change set it processed, so that it can resume from there after a restart. The log may
+ * be written by another process.
+ */
+public class ChangeLogReader implements Closeable {
+
+    private static final long POLL_INTERVAL = 10;
+
+    private final File directory;
+    private long offset;
+    private long segmentOffset = -1;
+    private RandomAccessFile segment;
+
+    public ChangeLogReader(final File directory, final long offset) {
+        if (offset < 0) throw new IllegalArgumentException("Offset must not be negative");
+        this.directory = directory;
+        this.offset = offset;
+    }
+
+    /**
+     * @return the offset of the next change set to read
+     */
+    public long getOffset() {
+        return offset;
+    }
+
+    /**
+     * Continues reading at the given offset, which must be the offset of a record or the end offset of the log.
+     */
+    public void seek(final long offset) {
+        if (offset < 0) throw new IllegalArgumentException("Offset must not be negative");
+        this.close();
+        this.offset = offset;
+    }
+
+    /**
+     * @return the next change set or null if no further change set has been appended yet
+     */
+    public ChangeSet next() {
+        try {
+            while (true) {
+                if (this.segment == null && !this.openSegment()) return null;
+                final long position = this.offset - this.segmentOffset;
+                final long available = this.segment.length() - position;
+                if (available < ChangeLogCodec.HEADER_LENGTH) {
+                    if (available == 0 && this.nextSegment()) continue;
+                    return null;
+                }
+                this.segment.seek(position);
+                final int size = this.segment.readInt();
+                final int checksum = this.segment.readInt();
+                // the record is being written
+                if (available - ChangeLogCodec.HEADER_LENGTH < size) return null;
+                final byte[] payload = new byte[size];
+                this.segment.readFully(payload);
+                if (!ChangeLogCodec.isValid(payload, checksum))
+                    throw new IllegalStateException("Corrupt record at offset " + this.offset);
+                final ChangeSet changeSet = ChangeLogCodec.decode(this.offset, payload);
+                this.offset = changeSet.getNextOffset();
+                return changeSet;
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Waits up to the given time for the next change set to be appended.
+     *
+     * @return the next change set or null if none has been appended in time
+     */
+    public ChangeSet poll(final long timeout, final TimeUnit unit) throws InterruptedException {
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (true) {
+            final ChangeSet changeSet = this.next();
+            if (changeSet != null || System.nanoTime() >= deadline) return changeSet;
+            Thread.sleep(POLL_INTERVAL);
+        }
+    }
+
+    /**
+     * Opens the segment holding the current offset.
+     *
+     * @return false if the log has no segments yet
+     */
+    private boolean openSegment() throws IOException {
+        final List<Long> segments = ChangeLogCodec.listSegments(this.directory);
+        if (segments.isEmpty()) return false;
+        if (this.offset < segments.get(0))
+            throw new IllegalStateException("Offset " + this.offset + " has been removed from the log");
+        long base = segments.get(0);
+        for (final long segmentOffset : segments) {
+            if (segmentOffset > this.offset) break;
+            base = segmentOffset;
+        }
+        this.segmentOffset = base;
+        this.segment = new RandomAccessFile(ChangeLogCodec.segmentFile(this.directory, base), "r");
+        return true;
+    }
+
+    /**
+     * Moves to the segment starting at the current offset once the log has been rolled.
+     */
+    private boolean nextSegment() throws IOException {
+        final File next = ChangeLogCodec.segmentFile(this.directory, this.offset);
+        if (this.offset == this.segmentOffset || !next.exists()) return false;
+        this.segment.close();
+        this.segmentOffset = this.offset;
+        this.segment = new RandomAccessFile(next, "r");
+        return true;
+    }
+
+    public void close() {
+        if (this.segment == null) return;
+        try {
+            this.segment.close();
+        } catch (IOException e) {
+            throw new RuntimeException(e.getMessage(), e);
+        } finally {
+            this.segment = null;
+            this.segmentOffset = -1;
+        }
+    }
+
+    public String toString() {
+        return "ChangeLogReader[" + directory + ", offset:" + offset + "]";
+    }
+}
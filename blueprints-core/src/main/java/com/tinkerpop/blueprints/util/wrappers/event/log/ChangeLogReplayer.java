@@ -0,0 +1,150 @@
+package com.tinkerpop.blueprints.util.wrappers.event.log;
+
+import com.tinkerpop.blueprints.Edge;
+import com.tinkerpop.blueprints.Element;
+import com.tinkerpop.blueprints.Graph;
+import com.tinkerpop.blueprints.TransactionalGraph;
+import com.tinkerpop.blueprints.Vertex;
+import com.tinkerpop.blueprints.util.wrappers.event.listener.EventType;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Applies the change sets read from a {@link ChangeLog} to another graph, e.g. to keep a replica in sync with the
+ * graph the log is written from.
+ *
+ * Each change set is committed as one transaction if the graph is a TransactionalGraph. Elements are looked up by
+ * their ids in the source graph. If the graph ignores supplied ids, the replayer maps the ids of the elements it added
+ * in memory; to replay across restarts into such a graph, wrap it into an IdGraph instead. Changes of elements which
+ * do not exist in the graph, e.g. because reading started after they were added, are skipped and counted.
+ */
+public class ChangeLogReplayer {
+
+    private final Graph graph;
+    private final Map<Object, Object> vertexIds;
+    private final Map<Object, Object> edgeIds;
+    // the previous mappings of the ids mapped by the change set being replayed, to restore them on a rollback
+    private final List<Object[]> mappingUndos = new ArrayList<Object[]>();
+    private long skippedChanges = 0;
+
+    public ChangeLogReplayer(final Graph graph) {
+        this.graph = graph;
+        if (graph.getFeatures().ignoresSuppliedIds) {
+            this.vertexIds = new HashMap<Object, Object>();
+            this.edgeIds = new HashMap<Object, Object>();
+        } else {
+            this.vertexIds = null;
+            this.edgeIds = null;
+        }
+    }
+
+    /**
+     * @return the number of changes skipped since their element did not exist
+     */
+    public long getSkippedChangeCount() {
+        return skippedChanges;
+    }
+
+    /**
+     * Applies all change sets the reader has yet to read.
+     *
+     * @return the number of change sets applied
+     */
+    public long replay(final ChangeLogReader reader) {
+        long count = 0;
+        ChangeSet changeSet;
+        while ((changeSet = reader.next()) != null) {
+            this.replay(changeSet);
+            count++;
+        }
+        return count;
+    }
+
+    public void replay(final ChangeSet changeSet) {
+        boolean committed = false;
+        try {
+            for (final Change change : changeSet.getChanges()) {
+                this.apply(change);
+            }
+            if (this.graph instanceof TransactionalGraph) ((TransactionalGraph) this.graph).commit();
+            committed = true;
+        } catch (RuntimeException e) {
+            if (this.graph instanceof TransactionalGraph) ((TransactionalGraph) this.graph).rollback();
+            throw e;
+        } finally {
+            if (!committed) this.undoMappings();
+            this.mappingUndos.clear();
+        }
+    }
+
+    private void apply(final Change change) {
+        final Object id = change.getElementId();
+        if (change.getType() == EventType.VERTEX_ADDED) {
+            final Vertex vertex = this.graph.addVertex(id);
+            if (this.vertexIds != null) this.map(this.vertexIds, id, vertex.getId());
+        } else if (change.getType() == EventType.EDGE_ADDED) {
+            final Vertex out = this.getVertex(change.getOutVertexId());
+            final Vertex in = this.getVertex(change.getInVertexId());
+            if (out == null || in == null) {
+                this.skippedChanges++;
+                return;
+            }
+            final Edge edge = this.graph.addEdge(id, out, in, change.getLabel());
+            if (this.edgeIds != null) this.map(this.edgeIds, id, edge.getId());
+        } else {
+            final boolean vertex = change.getType() == EventType.VERTEX_PROPERTY_CHANGED
+                    || change.getType() == EventType.VERTEX_PROPERTY_REMOVED || change.getType() == EventType.VERTEX_REMOVED;
+            final Element element = vertex ? this.getVertex(id) : this.getEdge(id);
+            if (element == null) {
+                this.skippedChanges++;
+                return;
+            }
+            switch (change.getType()) {
+                case VERTEX_PROPERTY_CHANGED:
+                case EDGE_PROPERTY_CHANGED:
+                    element.setProperty(change.getKey(), change.getValue());
+                    break;
+                case VERTEX_PROPERTY_REMOVED:
+                case EDGE_PROPERTY_REMOVED:
+                    element.removeProperty(change.getKey());
+                    break;
+                case VERTEX_REMOVED:
+                    this.graph.removeVertex((Vertex) element);
+                    if (this.vertexIds != null) this.map(this.vertexIds, id, null);
+                    break;
+                default:
+                    this.graph.removeEdge((Edge) element);
+                    if (this.edgeIds != null) this.map(this.edgeIds, id, null);
+            }
+        }
+    }
+
+    private void map(final Map<Object, Object> ids, final Object id, final Object mapped) {
+        final Object previous = mapped == null ? ids.remove(id) : ids.put(id, mapped);
+        this.mappingUndos.add(new Object[]{ids, id, previous});
+    }
+
+    private void undoMappings() {
+        for (int i = this.mappingUndos.size() - 1; i >= 0; i--) {
+            final Object[] undo = this.mappingUndos.get(i);
+            final Map<Object, Object> ids = (Map<Object, Object>) undo[0];
+            if (undo[2] == null) ids.remove(undo[1]);
+            else ids.put(undo[1], undo[2]);
+        }
+    }
+
+    private Vertex getVertex(final Object id) {
+        if (this.vertexIds == null) return this.graph.getVertex(id);
+        final Object mapped = this.vertexIds.get(id);
+        return mapped == null ? null : this.graph.getVertex(mapped);
+    }
+
+    private Edge getEdge(final Object id) {
+        if (this.edgeIds == null) return this.graph.getEdge(id);
+        final Object mapped = this.edgeIds.get(id);
+        return mapped == null ? null : this.graph.getEdge(mapped);
+    }
+}
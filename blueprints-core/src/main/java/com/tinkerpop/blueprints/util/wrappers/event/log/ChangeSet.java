@@ -0,0 +1,64 @@
+package com.tinkerpop.blueprints.util.wrappers.event.log;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The changes of one committed transaction as read from a {@link ChangeLog}.
+ */
+public class ChangeSet {
+
+    private final long offset;
+    private final long nextOffset;
+    private final long sequence;
+    private final long timestamp;
+    private final List<Change> changes;
+
+    ChangeSet(final long offset, final long nextOffset, final long sequence, final long timestamp, final List<Change> changes) {
+        this.offset = offset;
+        this.nextOffset = nextOffset;
+        this.sequence = sequence;
+        this.timestamp = timestamp;
+        this.changes = Collections.unmodifiableList(changes);
+    }
+
+    /**
+     * @return the offset of this change set in the log
+     */
+    public long getOffset() {
+        return offset;
+    }
+
+    /**
+     * @return the offset of the change set following this one, i.e. the offset to resume reading from once this change
+     *         set has been processed
+     */
+    public long getNextOffset() {
+        return nextOffset;
+    }
+
+    /**
+     * @return the number of the transaction, counting from 0 for the first transaction in the log
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * @return the time the transaction was appended to the log in milliseconds
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * @return the changes in the order they occurred
+     */
+    public List<Change> getChanges() {
+        return changes;
+    }
+
+    public String toString() {
+        return "ChangeSet[offset:" + offset + ", sequence:" + sequence + ", changes:" + changes.size() + "]";
+    }
+}
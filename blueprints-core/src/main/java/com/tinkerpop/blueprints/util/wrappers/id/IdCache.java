@@ -0,0 +1,76 @@
+package com.tinkerpop.blueprints.util.wrappers.id;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded, least-recently-used cache from the custom ids of IdGraph to the ids of the elements in the base graph.
+ *
+ * Entries are only hints: IdGraph checks that the base element still exists and carries the custom id before it uses a
+ * cached entry, so that entries which became stale by changes bypassing IdGraph, rollbacks or base ids being reused
+ * lead to a regular index lookup instead of a wrong element.
+ */
+public class IdCache {
+
+    public static final int DEFAULT_MAX_ENTRIES = 10000;
+
+    private final int maxEntries;
+    private final Map<Object, Object> entries;
+
+    private long hits = 0;
+    private long misses = 0;
+
+    public IdCache(final int maxEntries) {
+        if (maxEntries <= 0)
+            throw new IllegalArgumentException("The maximum number of entries must be positive: " + maxEntries);
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<Object, Object>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Object, Object> eldest) {
+                return this.size() > IdCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * @return the id of the base element cached for the custom id or null
+     */
+    public synchronized Object get(final Object id) {
+        final Object baseId = this.entries.get(id);
+        if (null == baseId) this.misses++;
+        else this.hits++;
+        return baseId;
+    }
+
+    public synchronized void put(final Object id, final Object baseId) {
+        this.entries.put(id, baseId);
+    }
+
+    public synchronized void remove(final Object id) {
+        this.entries.remove(id);
+    }
+
+    public synchronized void clear() {
+        this.entries.clear();
+    }
+
+    public synchronized int size() {
+        return this.entries.size();
+    }
+
+    public int getMaxEntries() {
+        return this.maxEntries;
+    }
+
+    public synchronized long getHitCount() {
+        return this.hits;
+    }
+
+    public synchronized long getMissCount() {
+        return this.misses;
+    }
+
+    public String toString() {
+        return "idcache[size:" + this.size() + " hits:" + this.getHitCount() + " misses:" + this.getMissCount() + "]";
+    }
+}
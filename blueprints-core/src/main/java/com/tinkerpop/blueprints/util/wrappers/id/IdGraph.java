@@ -1,5 +1,6 @@
 package com.tinkerpop.blueprints.util.wrappers.id;
 
+import com.tinkerpop.blueprints.BulkReadGraph;
 import com.tinkerpop.blueprints.Edge;
 import com.tinkerpop.blueprints.Element;
 import com.tinkerpop.blueprints.Features;
@@ -11,12 +12,18 @@ import com.tinkerpop.blueprints.Parameter;
 import com.tinkerpop.blueprints.TransactionalGraph;
 import com.tinkerpop.blueprints.Vertex;
 import com.tinkerpop.blueprints.util.ExceptionFactory;
+import com.tinkerpop.blueprints.util.GraphHelper;
 import com.tinkerpop.blueprints.util.StringFactory;
 import com.tinkerpop.blueprints.util.wrappers.WrappedGraphQuery;
 import com.tinkerpop.blueprints.util.wrappers.WrapperGraph;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.logging.Logger;
@@ -31,9 +38,13 @@ import java.util.logging.Logger;
  * For those graphs which support vertex indices but not edge indices (or vice versa),
  * you may configure IdGraph to use custom IDs only for vertices or only for edges.
  *
+ * Lookups by custom ID go through a bounded cache of the base IDs of recently used elements (see {@link IdCache}),
+ * which avoids most key index lookups in the base graph. The cache is sized with setIdCacheSize.
+ * A bulk lookup retrieves the cached elements from the base graph in one call and looks each remaining id up once.
+ *
  * @author Joshua Shinavier (http://fortytwo.net)
  */
-public class IdGraph<T extends KeyIndexableGraph> implements KeyIndexableGraph, WrapperGraph<T>, IndexableGraph, TransactionalGraph {
+public class IdGraph<T extends KeyIndexableGraph> implements KeyIndexableGraph, WrapperGraph<T>, IndexableGraph, TransactionalGraph, BulkReadGraph {
 
     private static final Logger LOGGER = Logger.getLogger(IdGraph.class.getName());
 
@@ -51,6 +62,9 @@ public class IdGraph<T extends KeyIndexableGraph> implements KeyIndexableGraph,
 
     private boolean uniqueIds = true;
 
+    private IdCache vertexIdCache;
+    private IdCache edgeIdCache;
+
     /**
      * Adds custom ID functionality to the given graph,
      * supporting both custom vertex IDs and custom edge IDs.
@@ -88,6 +102,31 @@ public class IdGraph<T extends KeyIndexableGraph> implements KeyIndexableGraph,
 
         vertexIdFactory = new DefaultIdFactory();
         edgeIdFactory = new DefaultIdFactory();
+
+        setIdCacheSize(IdCache.DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * @param maxEntries the number of vertex IDs and of edge IDs cached, or 0 to disable the caches
+     */
+    public void setIdCacheSize(final int maxEntries) {
+        if (maxEntries < 0) throw new IllegalArgumentException("cache size can not be negative: " + maxEntries);
+        vertexIdCache = supportVertexIds && maxEntries > 0 ? new IdCache(maxEntries) : null;
+        edgeIdCache = supportEdgeIds && maxEntries > 0 ? new IdCache(maxEntries) : null;
+    }
+
+    /**
+     * @return the cache of base vertex IDs or null if vertex IDs are not cached
+     */
+    public IdCache getVertexIdCache() {
+        return vertexIdCache;
+    }
+
+    /**
+     * @return the cache of base edge IDs or null if edge IDs are not cached
+     */
+    public IdCache getEdgeIdCache() {
+        return edgeIdCache;
     }
 
     /**
@@ -138,6 +177,7 @@ public class IdGraph<T extends KeyIndexableGraph> implements KeyIndexableGraph,
 
             if (null != v) {
                 base.setProperty(ID, v);
+                if (null != vertexIdCache) vertexIdCache.put(v, base.getId());
             }
         }
 
@@ -150,6 +190,18 @@ public class IdGraph<T extends KeyIndexableGraph> implements KeyIndexableGraph,
         }
 
         if (supportVertexIds) {
+            final IdCache cache = vertexIdCache;
+            if (null != cache) {
+                final Object baseId = cache.get(id);
+                if (null != baseId) {
+                    final Vertex base = baseGraph.getVertex(baseId);
+                    if (null != base && id.equals(base.getProperty(ID))) {
+                        return new IdVertex(base, this);
+                    }
+                    cache.remove(id);
+                }
+            }
+
             final Iterable<Vertex> i = baseGraph.getVertices(ID, id);
             final Iterator<Vertex> iter = i.iterator();
             if (!iter.hasNext()) {
@@ -161,6 +213,7 @@ public class IdGraph<T extends KeyIndexableGraph> implements KeyIndexableGraph,
                     LOGGER.warning("multiple vertices exist with id '" + id + "'. Arbitarily choosing " + v);
                 }
 
+                if (null != cache) cache.put(id, v.getId());
                 return new IdVertex(v, this);
             }
         } else {
@@ -169,8 +222,54 @@ public class IdGraph<T extends KeyIndexableGraph> implements KeyIndexableGraph,
         }
     }
 
+    public List<Vertex> getVertices(final Collection<?> ids) {
+        final List<Vertex> vertices = new ArrayList<Vertex>(ids.size());
+        if (!supportVertexIds) {
+            for (final Vertex base : GraphHelper.getVertices(baseGraph, ids)) {
+                vertices.add(null == base ? null : new IdVertex(base, this));
+            }
+            return vertices;
+        }
+
+        final Map<Object, Vertex> found = new HashMap<Object, Vertex>();
+        final IdCache cache = vertexIdCache;
+        if (null != cache) {
+            final List<Object> cachedIds = new ArrayList<Object>();
+            final List<Object> baseIds = new ArrayList<Object>();
+            for (final Object id : new HashSet<Object>(ids)) {
+                if (null == id) {
+                    throw new IllegalArgumentException("vertex identifier cannot be null");
+                }
+                final Object baseId = cache.get(id);
+                if (null != baseId) {
+                    cachedIds.add(id);
+                    baseIds.add(baseId);
+                }
+            }
+            final List<Vertex> bases = GraphHelper.getVertices(baseGraph, baseIds);
+            for (int i = 0; i < bases.size(); i++) {
+                final Object id = cachedIds.get(i);
+                final Vertex base = bases.get(i);
+                if (null != base && id.equals(base.getProperty(ID))) {
+                    found.put(id, new IdVertex(base, this));
+                } else {
+                    cache.remove(id);
+                }
+            }
+        }
+
+        for (final Object id : ids) {
+            if (!found.containsKey(id)) {
+                found.put(id, getVertex(id));
+            }
+            vertices.add(found.get(id));
+        }
+        return vertices;
+    }
+
     public void removeVertex(final Vertex vertex) {
         verifyNativeElement(vertex);
+        if (null != vertexIdCache) vertexIdCache.remove(vertex.getId());
         baseGraph.removeVertex(((IdVertex) vertex).getBaseVertex());
     }
 
@@ -205,6 +304,7 @@ public class IdGraph<T extends KeyIndexableGraph> implements KeyIndexableGraph,
 
             if (null != v) {
                 base.setProperty(ID, v);
+                if (null != edgeIdCache) edgeIdCache.put(v, base.getId());
             }
         }
 
@@ -217,6 +317,18 @@ public class IdGraph<T extends KeyIndexableGraph> implements KeyIndexableGraph,
         }
 
         if (supportEdgeIds) {
+            final IdCache cache = edgeIdCache;
+            if (null != cache) {
+                final Object baseId = cache.get(id);
+                if (null != baseId) {
+                    final Edge base = baseGraph.getEdge(baseId);
+                    if (null != base && id.equals(base.getProperty(ID))) {
+                        return new IdEdge(base, this);
+                    }
+                    cache.remove(id);
+                }
+            }
+
             Iterable<Edge> i = baseGraph.getEdges(ID, id);
             Iterator<Edge> iter = i.iterator();
             if (!iter.hasNext()) {
@@ -228,6 +340,7 @@ public class IdGraph<T extends KeyIndexableGraph> implements KeyIndexableGraph,
                     LOGGER.warning("multiple edges exist with id '" + id + "'. Arbitarily choosing " + e);
                 }
 
+                if (null != cache) cache.put(id, e.getId());
                 return new IdEdge(e, this);
             }
         } else {
@@ -236,8 +349,54 @@ public class IdGraph<T extends KeyIndexableGraph> implements KeyIndexableGraph,
         }
     }
 
+    public List<Edge> getEdges(final Collection<?> ids) {
+        final List<Edge> edges = new ArrayList<Edge>(ids.size());
+        if (!supportEdgeIds) {
+            for (final Edge base : GraphHelper.getEdges(baseGraph, ids)) {
+                edges.add(null == base ? null : new IdEdge(base, this));
+            }
+            return edges;
+        }
+
+        final Map<Object, Edge> found = new HashMap<Object, Edge>();
+        final IdCache cache = edgeIdCache;
+        if (null != cache) {
+            final List<Object> cachedIds = new ArrayList<Object>();
+            final List<Object> baseIds = new ArrayList<Object>();
+            for (final Object id : new HashSet<Object>(ids)) {
+                if (null == id) {
+                    throw new IllegalArgumentException("edge identifier cannot be null");
+                }
+                final Object baseId = cache.get(id);
+                if (null != baseId) {
+                    cachedIds.add(id);
+                    baseIds.add(baseId);
+                }
+            }
+            final List<Edge> bases = GraphHelper.getEdges(baseGraph, baseIds);
+            for (int i = 0; i < bases.size(); i++) {
+                final Object id = cachedIds.get(i);
+                final Edge base = bases.get(i);
+                if (null != base && id.equals(base.getProperty(ID))) {
+                    found.put(id, new IdEdge(base, this));
+                } else {
+                    cache.remove(id);
+                }
+            }
+        }
+
+        for (final Object id : ids) {
+            if (!found.containsKey(id)) {
+                found.put(id, getEdge(id));
+            }
+            edges.add(found.get(id));
+        }
+        return edges;
+    }
+
     public void removeEdge(final Edge edge) {
         verifyNativeElement(edge);
+        if (null != edgeIdCache) edgeIdCache.remove(edge.getId());
 
         baseGraph.removeEdge(((IdEdge) edge).getBaseEdge());
     }
@@ -266,6 +425,9 @@ public class IdGraph<T extends KeyIndexableGraph> implements KeyIndexableGraph,
     public void rollback() {
         if (this.baseGraph instanceof TransactionalGraph) {
             ((TransactionalGraph) baseGraph).rollback();
+            // elements added in the transaction are gone
+            if (null != vertexIdCache) vertexIdCache.clear();
+            if (null != edgeIdCache) edgeIdCache.clear();
         }
     }
 
@@ -376,12 +538,14 @@ public class IdGraph<T extends KeyIndexableGraph> implements KeyIndexableGraph,
         return new WrappedGraphQuery(this.baseGraph.query()) {
             @Override
             public Iterable<Edge> edges() {
-                return new IdEdgeIterable(this.query.edges(), idGraph);
+                final Iterable<Edge> edges = this.query.edges();
+                return this.withCursor(edges, new IdEdgeIterable(edges, idGraph));
             }
 
             @Override
             public Iterable<Vertex> vertices() {
-                return new IdVertexIterable(this.query.vertices(), idGraph);
+                final Iterable<Vertex> vertices = this.query.vertices();
+                return this.withCursor(vertices, new IdVertexIterable(vertices, idGraph));
             }
         };
     }
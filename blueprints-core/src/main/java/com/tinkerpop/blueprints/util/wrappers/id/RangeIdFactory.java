@@ -0,0 +1,81 @@
+package com.tinkerpop.blueprints.util.wrappers.id;
+
+/**
+ * An IdFactory handing out long ids from ranges which are reserved at once from an {@link Allocator}, e.g. a sequence
+ * in a database shared by several loaders.
+ *
+ * Only one call to the allocator is made per range, so several loaders can take ids without contending on every
+ * element. A bulk loader which assigns ids itself can take a block of them from {@link #reserve(int)}. The allocator
+ * must never hand out a range twice, also not after a restart: the default allocator counting up in memory is only
+ * suitable for graphs which are loaded once.
+ */
+public class RangeIdFactory implements IdGraph.IdFactory {
+
+    public static final int DEFAULT_RANGE_SIZE = 1000;
+
+    /**
+     * Reserves ranges of ids.
+     */
+    public static interface Allocator {
+
+        /**
+         * @return the first id of a range of size ids, which has not been handed out before
+         */
+        long allocate(int size);
+    }
+
+    private final Allocator allocator;
+    private final int rangeSize;
+
+    // the ids left in the current range
+    private long next = 0;
+    private long end = 0;
+
+    /**
+     * Creates a factory counting up in memory from the given id.
+     */
+    public RangeIdFactory(final long start) {
+        this(new Allocator() {
+            private long next = start;
+
+            public synchronized long allocate(final int size) {
+                final long first = next;
+                next += size;
+                return first;
+            }
+        }, DEFAULT_RANGE_SIZE);
+    }
+
+    public RangeIdFactory(final Allocator allocator, final int rangeSize) {
+        if (rangeSize <= 0) throw new IllegalArgumentException("Range size must be positive");
+        this.allocator = allocator;
+        this.rangeSize = rangeSize;
+    }
+
+    public synchronized Object createId() {
+        if (this.next == this.end) {
+            this.next = this.allocator.allocate(this.rangeSize);
+            this.end = this.next + this.rangeSize;
+        }
+        return this.next++;
+    }
+
+    /**
+     * Reserves a range of ids at once.
+     *
+     * @return the first of count consecutive ids
+     */
+    public synchronized long reserve(final int count) {
+        if (count <= 0) throw new IllegalArgumentException("Count must be positive");
+        if (this.end - this.next >= count) {
+            final long first = this.next;
+            this.next += count;
+            return first;
+        }
+        return this.allocator.allocate(count);
+    }
+
+    public String toString() {
+        return "rangeidfactory[range size:" + this.rangeSize + "]";
+    }
+}
@@ -0,0 +1,34 @@
+package com.tinkerpop.blueprints.util.wrappers.metrics;
+
+import com.tinkerpop.blueprints.Direction;
+import com.tinkerpop.blueprints.Edge;
+import com.tinkerpop.blueprints.Vertex;
+
+/**
+ * An edge of a MetricsGraph.
+ */
+public class MetricsEdge extends MetricsElement implements Edge {
+
+    protected MetricsEdge(final Edge baseEdge, final MetricsRegistry registry) {
+        super(baseEdge, registry);
+    }
+
+    public Vertex getVertex(final Direction direction) throws IllegalArgumentException {
+        return new MetricsVertex(((Edge) this.baseElement).getVertex(direction), this.registry);
+    }
+
+    public String getLabel() {
+        return ((Edge) this.baseElement).getLabel();
+    }
+
+    public void remove() {
+        final OperationMetrics metrics = this.registry.get(Operation.REMOVE_EDGE, this.getLabel());
+        final long start = metrics.start();
+        this.baseElement.remove();
+        metrics.stop(start);
+    }
+
+    public Edge getBaseEdge() {
+        return (Edge) this.baseElement;
+    }
+}
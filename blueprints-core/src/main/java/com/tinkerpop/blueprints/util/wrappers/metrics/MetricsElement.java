@@ -0,0 +1,67 @@
+package com.tinkerpop.blueprints.util.wrappers.metrics;
+
+import com.tinkerpop.blueprints.Element;
+import com.tinkerpop.blueprints.util.ElementHelper;
+
+import java.util.Set;
+
+/**
+ * An element of a MetricsGraph recording the reads and writes of its properties.
+ */
+public abstract class MetricsElement implements Element {
+
+    protected final Element baseElement;
+    protected final MetricsRegistry registry;
+
+    protected MetricsElement(final Element baseElement, final MetricsRegistry registry) {
+        this.baseElement = baseElement;
+        this.registry = registry;
+    }
+
+    public void setProperty(final String key, final Object value) {
+        final OperationMetrics metrics = this.registry.get(Operation.SET_PROPERTY, key);
+        final long start = metrics.start();
+        this.baseElement.setProperty(key, value);
+        metrics.stop(start);
+    }
+
+    public <T> T getProperty(final String key) {
+        final OperationMetrics metrics = this.registry.get(Operation.GET_PROPERTY, key);
+        final long start = metrics.start();
+        final T value = this.baseElement.getProperty(key);
+        metrics.stop(start);
+        return value;
+    }
+
+    public <T> T removeProperty(final String key) {
+        final OperationMetrics metrics = this.registry.get(Operation.REMOVE_PROPERTY, key);
+        final long start = metrics.start();
+        final T value = this.baseElement.removeProperty(key);
+        metrics.stop(start);
+        return value;
+    }
+
+    public Set<String> getPropertyKeys() {
+        return this.baseElement.getPropertyKeys();
+    }
+
+    public Object getId() {
+        return this.baseElement.getId();
+    }
+
+    public boolean equals(final Object object) {
+        return ElementHelper.areEqual(this, object);
+    }
+
+    public int hashCode() {
+        return this.baseElement.hashCode();
+    }
+
+    public Element getBaseElement() {
+        return this.baseElement;
+    }
+
+    public String toString() {
+        return this.baseElement.toString();
+    }
+}
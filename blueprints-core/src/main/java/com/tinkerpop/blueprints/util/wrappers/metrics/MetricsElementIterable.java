@@ -0,0 +1,79 @@
+package com.tinkerpop.blueprints.util.wrappers.metrics;
+
+import com.tinkerpop.blueprints.CloseableIterable;
+import com.tinkerpop.blueprints.Edge;
+import com.tinkerpop.blueprints.Element;
+import com.tinkerpop.blueprints.Vertex;
+
+import java.util.Iterator;
+
+/**
+ * Wraps the elements returned by an operation and adds the time spent iterating them to the latency of the operation,
+ * which is recorded once the first iteration reaches the end.
+ */
+class MetricsElementIterable<T extends Element> implements CloseableIterable<T> {
+
+    private final Iterable<T> iterable;
+    private final MetricsRegistry registry;
+    private final OperationMetrics metrics;
+    private long latency;
+
+    MetricsElementIterable(final Iterable<T> iterable, final MetricsRegistry registry, final OperationMetrics metrics, final long start) {
+        this.iterable = iterable;
+        this.registry = registry;
+        this.metrics = metrics;
+        this.latency = start == OperationMetrics.NOT_SAMPLED ? OperationMetrics.NOT_SAMPLED : System.nanoTime() - start;
+    }
+
+    public Iterator<T> iterator() {
+        final long start = this.latency == OperationMetrics.NOT_SAMPLED ? OperationMetrics.NOT_SAMPLED : System.nanoTime();
+        final Iterator<T> itty = this.iterable.iterator();
+        if (start != OperationMetrics.NOT_SAMPLED) this.latency += System.nanoTime() - start;
+
+        return new Iterator<T>() {
+            public boolean hasNext() {
+                if (latency == OperationMetrics.NOT_SAMPLED) return itty.hasNext();
+                final long start = System.nanoTime();
+                final boolean hasNext = itty.hasNext();
+                latency += System.nanoTime() - start;
+                if (!hasNext) recordLatency();
+                return hasNext;
+            }
+
+            public T next() {
+                final T element;
+                if (latency == OperationMetrics.NOT_SAMPLED) {
+                    element = itty.next();
+                } else {
+                    final long start = System.nanoTime();
+                    element = itty.next();
+                    latency += System.nanoTime() - start;
+                }
+                return wrap(element);
+            }
+
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    private synchronized void recordLatency() {
+        if (this.latency == OperationMetrics.NOT_SAMPLED) return;
+        this.metrics.record(this.latency);
+        this.latency = OperationMetrics.NOT_SAMPLED;
+    }
+
+    private T wrap(final T element) {
+        if (element instanceof Vertex)
+            return (T) new MetricsVertex((Vertex) element, this.registry);
+        else
+            return (T) new MetricsEdge((Edge) element, this.registry);
+    }
+
+    public void close() {
+        if (this.iterable instanceof CloseableIterable) {
+            ((CloseableIterable) this.iterable).close();
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.tinkerpop.blueprints.util.wrappers.metrics;
+
+import com.tinkerpop.blueprints.Edge;
+import com.tinkerpop.blueprints.Features;
+import com.tinkerpop.blueprints.Graph;
+import com.tinkerpop.blueprints.GraphQuery;
+import com.tinkerpop.blueprints.Vertex;
+import com.tinkerpop.blueprints.util.StringFactory;
+import com.tinkerpop.blueprints.util.wrappers.WrappedGraphQuery;
+import com.tinkerpop.blueprints.util.wrappers.WrapperGraph;
+
+/**
+ * MetricsGraph records the count and latency of the operations on the graph it wraps, broken down by edge label and
+ * property key where relevant, to find out which operations dominate the time spent in the graph.
+ *
+ * The metrics are kept in a {@link MetricsRegistry}, which can be shared by several MetricsGraphs, read as a
+ * {@link MetricsSnapshot} and exposed through JMX with {@link MetricsRegistry#registerMBean(String)}. To lower the
+ * overhead on hot paths, the latency may be sampled and the breakdown disabled on the registry.
+ *
+ * Other features of the wrapped graph, e.g. transactions and indices, are available through getBaseGraph() and are
+ * not recorded.
+ */
+public class MetricsGraph<T extends Graph> implements Graph, WrapperGraph<T> {
+
+    protected final T baseGraph;
+    private final MetricsRegistry registry;
+    private final Features features;
+
+    public MetricsGraph(final T baseGraph) {
+        this(baseGraph, new MetricsRegistry());
+    }
+
+    public MetricsGraph(final T baseGraph, final MetricsRegistry registry) {
+        this.baseGraph = baseGraph;
+        this.registry = registry;
+        this.features = this.baseGraph.getFeatures().copyFeatures();
+        this.features.isWrapper = true;
+    }
+
+    public MetricsRegistry getMetrics() {
+        return this.registry;
+    }
+
+    /**
+     * @return a snapshot of the metrics recorded so far
+     */
+    public MetricsSnapshot getSnapshot() {
+        return this.registry.getSnapshot();
+    }
+
+    public void shutdown() {
+        this.baseGraph.shutdown();
+    }
+
+    public Vertex addVertex(final Object id) {
+        final OperationMetrics metrics = this.registry.get(Operation.ADD_VERTEX);
+        final long start = metrics.start();
+        final Vertex vertex = this.baseGraph.addVertex(id);
+        metrics.stop(start);
+        return new MetricsVertex(vertex, this.registry);
+    }
+
+    public Vertex getVertex(final Object id) {
+        final OperationMetrics metrics = this.registry.get(Operation.GET_VERTEX);
+        final long start = metrics.start();
+        final Vertex vertex = this.baseGraph.getVertex(id);
+        metrics.stop(start);
+        if (null == vertex)
+            return null;
+        else
+            return new MetricsVertex(vertex, this.registry);
+    }
+
+    public Iterable<Vertex> getVertices() {
+        final OperationMetrics metrics = this.registry.get(Operation.GET_VERTICES);
+        final long start = metrics.start();
+        return new MetricsElementIterable<Vertex>(this.baseGraph.getVertices(), this.registry, metrics, start);
+    }
+
+    public Iterable<Vertex> getVertices(final String key, final Object value) {
+        final OperationMetrics metrics = this.registry.get(Operation.GET_VERTICES_BY_KEY, key);
+        final long start = metrics.start();
+        return new MetricsElementIterable<Vertex>(this.baseGraph.getVertices(key, value), this.registry, metrics, start);
+    }
+
+    public Edge addEdge(final Object id, final Vertex outVertex, final Vertex inVertex, final String label) {
+        final OperationMetrics metrics = this.registry.get(Operation.ADD_EDGE, label);
+        final long start = metrics.start();
+        final Edge edge = this.baseGraph.addEdge(id, ((MetricsVertex) outVertex).getBaseVertex(), ((MetricsVertex) inVertex).getBaseVertex(), label);
+        metrics.stop(start);
+        return new MetricsEdge(edge, this.registry);
+    }
+
+    public Edge getEdge(final Object id) {
+        final OperationMetrics metrics = this.registry.get(Operation.GET_EDGE);
+        final long start = metrics.start();
+        final Edge edge = this.baseGraph.getEdge(id);
+        metrics.stop(start);
+        if (null == edge)
+            return null;
+        else
+            return new MetricsEdge(edge, this.registry);
+    }
+
+    public Iterable<Edge> getEdges() {
+        final OperationMetrics metrics = this.registry.get(Operation.GET_EDGES);
+        final long start = metrics.start();
+        return new MetricsElementIterable<Edge>(this.baseGraph.getEdges(), this.registry, metrics, start);
+    }
+
+    public Iterable<Edge> getEdges(final String key, final Object value) {
+        final OperationMetrics metrics = this.registry.get(Operation.GET_EDGES_BY_KEY, key);
+        final long start = metrics.start();
+        return new MetricsElementIterable<Edge>(this.baseGraph.getEdges(key, value), this.registry, metrics, start);
+    }
+
+    public void removeEdge(final Edge edge) {
+        final Edge baseEdge = ((MetricsEdge) edge).getBaseEdge();
+        final OperationMetrics metrics = this.registry.get(Operation.REMOVE_EDGE, baseEdge.getLabel());
+        final long start = metrics.start();
+        this.baseGraph.removeEdge(baseEdge);
+        metrics.stop(start);
+    }
+
+    public void removeVertex(final Vertex vertex) {
+        final OperationMetrics metrics = this.registry.get(Operation.REMOVE_VERTEX);
+        final long start = metrics.start();
+        this.baseGraph.removeVertex(((MetricsVertex) vertex).getBaseVertex());
+        metrics.stop(start);
+    }
+
+    @Override
+    public T getBaseGraph() {
+        return this.baseGraph;
+    }
+
+    public GraphQuery query() {
+        final MetricsRegistry registry = this.registry;
+        return new WrappedGraphQuery(this.baseGraph.query()) {
+            @Override
+            public Iterable<Edge> edges() {
+                final OperationMetrics metrics = registry.get(Operation.QUERY);
+                final long start = metrics.start();
+                final Iterable<Edge> edges = this.query.edges();
+                return this.withCursor(edges, new MetricsElementIterable<Edge>(edges, registry, metrics, start));
+            }
+
+            @Override
+            public Iterable<Vertex> vertices() {
+                final OperationMetrics metrics = registry.get(Operation.QUERY);
+                final long start = metrics.start();
+                final Iterable<Vertex> vertices = this.query.vertices();
+                return this.withCursor(vertices, new MetricsElementIterable<Vertex>(vertices, registry, metrics, start));
+            }
+        };
+    }
+
+    public String toString() {
+        return StringFactory.graphString(this, this.baseGraph.toString());
+    }
+
+    public Features getFeatures() {
+        return this.features;
+    }
+}
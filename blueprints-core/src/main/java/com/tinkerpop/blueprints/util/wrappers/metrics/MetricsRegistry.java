@@ -0,0 +1,191 @@
+package com.tinkerpop.blueprints.util.wrappers.metrics;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The metrics recorded by a {@link MetricsGraph}, one {@link OperationMetrics} per operation and, if breakdown is
+ * enabled, one per operation and edge label or property key.
+ *
+ * The latency of every sampleRate-th call of an operation is measured, counting the call itself for lookups, the call
+ * and the iteration of the result for operations returning elements. Results which are not iterated to their end are
+ * counted without latency.
+ *
+ * The number of labels and keys an operation is broken down by is limited by maxBreakdowns, so that operations with
+ * many distinct keys are only recorded in total once the limit is reached.
+ */
+public class MetricsRegistry implements MetricsRegistryMXBean {
+
+    public static final int DEFAULT_MAX_BREAKDOWNS = 1000;
+
+    public static final String MBEAN_DOMAIN = "com.tinkerpop.blueprints";
+
+    private static final Operation[] OPERATIONS = Operation.values();
+
+    private volatile int sampleRate = 1;
+    private volatile boolean breakdown = true;
+    private final int maxBreakdowns;
+
+    private volatile OperationMetrics[] operations;
+    private volatile ConcurrentMap<String, OperationMetrics>[] breakdowns;
+
+    private ObjectName objectName = null;
+
+    public MetricsRegistry() {
+        this(DEFAULT_MAX_BREAKDOWNS);
+    }
+
+    public MetricsRegistry(final int maxBreakdowns) {
+        if (maxBreakdowns < 0)
+            throw new IllegalArgumentException("The maximum number of breakdowns must not be negative: " + maxBreakdowns);
+        this.maxBreakdowns = maxBreakdowns;
+        this.reset();
+    }
+
+    /**
+     * @return the metrics of the operation in total
+     */
+    public OperationMetrics get(final Operation operation) {
+        return this.operations[operation.ordinal()];
+    }
+
+    /**
+     * @return the metrics of the operation for the label or key, which add to the total, or the total if the operation
+     *         is not broken down by the label or key
+     */
+    public OperationMetrics get(final Operation operation, final String labelOrKey) {
+        final OperationMetrics total = this.operations[operation.ordinal()];
+        if (!this.breakdown || null == labelOrKey) return total;
+        final ConcurrentMap<String, OperationMetrics> metrics = this.breakdowns[operation.ordinal()];
+        OperationMetrics result = metrics.get(labelOrKey);
+        if (null == result) {
+            if (metrics.size() >= this.maxBreakdowns) return total;
+            result = new OperationMetrics(operation.getName(labelOrKey), total, this);
+            final OperationMetrics existing = metrics.putIfAbsent(labelOrKey, result);
+            if (null != existing) result = existing;
+        }
+        return result;
+    }
+
+    public MetricsSnapshot getSnapshot() {
+        final SortedMap<String, OperationSnapshot> snapshots = new TreeMap<String, OperationSnapshot>();
+        final OperationMetrics[] operations = this.operations;
+        final ConcurrentMap<String, OperationMetrics>[] breakdowns = this.breakdowns;
+        for (int i = 0; i < operations.length; i++) {
+            final OperationSnapshot snapshot = operations[i].getSnapshot();
+            if (snapshot.getCount() == 0) continue;
+            snapshots.put(snapshot.getName(), snapshot);
+            for (final OperationMetrics metrics : breakdowns[i].values()) {
+                snapshots.put(metrics.getName(), metrics.getSnapshot());
+            }
+        }
+        return new MetricsSnapshot(System.currentTimeMillis(), snapshots);
+    }
+
+    /**
+     * Discards all metrics recorded so far.
+     */
+    public void reset() {
+        final OperationMetrics[] operations = new OperationMetrics[OPERATIONS.length];
+        final ConcurrentMap<String, OperationMetrics>[] breakdowns = new ConcurrentMap[OPERATIONS.length];
+        for (int i = 0; i < OPERATIONS.length; i++) {
+            operations[i] = new OperationMetrics(OPERATIONS[i].getName(), null, this);
+            breakdowns[i] = new ConcurrentHashMap<String, OperationMetrics>();
+        }
+        this.breakdowns = breakdowns;
+        this.operations = operations;
+    }
+
+    public int getSampleRate() {
+        return this.sampleRate;
+    }
+
+    /**
+     * @param sampleRate measure the latency of every sampleRate-th call of an operation, 1 to measure all calls
+     */
+    public void setSampleRate(final int sampleRate) {
+        if (sampleRate <= 0) throw new IllegalArgumentException("Sample rate must be positive: " + sampleRate);
+        this.sampleRate = sampleRate;
+    }
+
+    public boolean isBreakdown() {
+        return this.breakdown;
+    }
+
+    /**
+     * @param breakdown whether to record operations by label and key in addition to their total
+     */
+    public void setBreakdown(final boolean breakdown) {
+        this.breakdown = breakdown;
+    }
+
+    public Map<String, Long> getCounts() {
+        final Map<String, Long> result = new HashMap<String, Long>();
+        for (final OperationSnapshot snapshot : this.getSnapshot().getOperations().values()) {
+            result.put(snapshot.getName(), snapshot.getCount());
+        }
+        return result;
+    }
+
+    public Map<String, Double> getMeanLatencies() {
+        final Map<String, Double> result = new HashMap<String, Double>();
+        for (final OperationSnapshot snapshot : this.getSnapshot().getOperations().values()) {
+            result.put(snapshot.getName(), snapshot.getMeanLatency());
+        }
+        return result;
+    }
+
+    public Map<String, Long> getMedianLatencies() {
+        return this.getLatencyPercentiles(50);
+    }
+
+    public Map<String, Long> get99thPercentileLatencies() {
+        return this.getLatencyPercentiles(99);
+    }
+
+    private Map<String, Long> getLatencyPercentiles(final double percentile) {
+        final Map<String, Long> result = new HashMap<String, Long>();
+        for (final OperationSnapshot snapshot : this.getSnapshot().getOperations().values()) {
+            result.put(snapshot.getName(), snapshot.getLatencyPercentile(percentile));
+        }
+        return result;
+    }
+
+    /**
+     * Registers the registry with the platform MBean server as com.tinkerpop.blueprints:type=MetricsGraph,name=name.
+     */
+    public synchronized ObjectName registerMBean(final String name) {
+        if (null != this.objectName) throw new IllegalStateException("The registry is already registered as " + this.objectName);
+        try {
+            final ObjectName objectName = new ObjectName(MBEAN_DOMAIN + ":type=MetricsGraph,name=" + name);
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+            this.objectName = objectName;
+            return objectName;
+        } catch (JMException e) {
+            throw new RuntimeException(e.getMessage(), e);
+        }
+    }
+
+    public synchronized void unregisterMBean() {
+        if (null == this.objectName) return;
+        try {
+            final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (server.isRegistered(this.objectName)) server.unregisterMBean(this.objectName);
+            this.objectName = null;
+        } catch (JMException e) {
+            throw new RuntimeException(e.getMessage(), e);
+        }
+    }
+
+    public String toString() {
+        return "metricsregistry[sample rate:" + this.sampleRate + " breakdown:" + this.breakdown + "]";
+    }
+}
@@ -0,0 +1,29 @@
+package com.tinkerpop.blueprints.util.wrappers.metrics;
+
+import java.util.Map;
+
+/**
+ * The management interface of a {@link MetricsRegistry}, see {@link MetricsRegistry#registerMBean(String)}.
+ *
+ * Latencies are given in microseconds.
+ */
+public interface MetricsRegistryMXBean {
+
+    public int getSampleRate();
+
+    public void setSampleRate(int sampleRate);
+
+    public boolean isBreakdown();
+
+    public void setBreakdown(boolean breakdown);
+
+    public Map<String, Long> getCounts();
+
+    public Map<String, Double> getMeanLatencies();
+
+    public Map<String, Long> getMedianLatencies();
+
+    public Map<String, Long> get99thPercentileLatencies();
+
+    public void reset();
+}
@@ -0,0 +1,57 @@
+package com.tinkerpop.blueprints.util.wrappers.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.SortedMap;
+
+/**
+ * The metrics of all operations recorded by a {@link MetricsRegistry} at one point in time, by their names.
+ */
+public class MetricsSnapshot {
+
+    private final long timestamp;
+    private final SortedMap<String, OperationSnapshot> operations;
+
+    MetricsSnapshot(final long timestamp, final SortedMap<String, OperationSnapshot> operations) {
+        this.timestamp = timestamp;
+        this.operations = Collections.unmodifiableSortedMap(operations);
+    }
+
+    /**
+     * @return the time the snapshot was taken in milliseconds since the epoch
+     */
+    public long getTimestamp() {
+        return this.timestamp;
+    }
+
+    /**
+     * @return the snapshots of the operations by their names, e.g. getProperty or getProperty[name]
+     */
+    public Map<String, OperationSnapshot> getOperations() {
+        return this.operations;
+    }
+
+    /**
+     * @return the snapshot of the operation or null if it was not recorded
+     */
+    public OperationSnapshot getOperation(final String name) {
+        return this.operations.get(name);
+    }
+
+    public OperationSnapshot getOperation(final Operation operation) {
+        return this.operations.get(operation.getName());
+    }
+
+    public OperationSnapshot getOperation(final Operation operation, final String labelOrKey) {
+        return this.operations.get(operation.getName(labelOrKey));
+    }
+
+    public String toString() {
+        final StringBuilder builder = new StringBuilder("MetricsSnapshot[");
+        for (final OperationSnapshot operation : this.operations.values()) {
+            if (builder.length() > 16) builder.append(", ");
+            builder.append(operation);
+        }
+        return builder.append("]").toString();
+    }
+}
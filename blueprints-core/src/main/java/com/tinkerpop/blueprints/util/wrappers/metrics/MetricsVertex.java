@@ -0,0 +1,77 @@
+package com.tinkerpop.blueprints.util.wrappers.metrics;
+
+import com.tinkerpop.blueprints.Direction;
+import com.tinkerpop.blueprints.Edge;
+import com.tinkerpop.blueprints.Vertex;
+import com.tinkerpop.blueprints.VertexQuery;
+import com.tinkerpop.blueprints.util.wrappers.WrapperVertexQuery;
+
+/**
+ * A vertex of a MetricsGraph recording the traversals of its edges.
+ */
+public class MetricsVertex extends MetricsElement implements Vertex {
+
+    protected MetricsVertex(final Vertex baseVertex, final MetricsRegistry registry) {
+        super(baseVertex, registry);
+    }
+
+    public Iterable<Edge> getEdges(final Direction direction, final String... labels) {
+        final OperationMetrics metrics = this.registry.get(Operation.GET_ADJACENT_EDGES, labelKey(labels));
+        final long start = metrics.start();
+        return new MetricsElementIterable<Edge>(((Vertex) this.baseElement).getEdges(direction, labels), this.registry, metrics, start);
+    }
+
+    public Iterable<Vertex> getVertices(final Direction direction, final String... labels) {
+        final OperationMetrics metrics = this.registry.get(Operation.GET_ADJACENT_VERTICES, labelKey(labels));
+        final long start = metrics.start();
+        return new MetricsElementIterable<Vertex>(((Vertex) this.baseElement).getVertices(direction, labels), this.registry, metrics, start);
+    }
+
+    private static String labelKey(final String... labels) {
+        if (labels.length == 0) return null;
+        if (labels.length == 1) return labels[0];
+        final StringBuilder builder = new StringBuilder(labels[0]);
+        for (int i = 1; i < labels.length; i++) {
+            builder.append(",").append(labels[i]);
+        }
+        return builder.toString();
+    }
+
+    public VertexQuery query() {
+        return new WrapperVertexQuery(((Vertex) this.baseElement).query()) {
+            @Override
+            public Iterable<Vertex> vertices() {
+                final OperationMetrics metrics = registry.get(Operation.QUERY);
+                final long start = metrics.start();
+                return new MetricsElementIterable<Vertex>(this.query.vertices(), registry, metrics, start);
+            }
+
+            @Override
+            public Iterable<Edge> edges() {
+                final OperationMetrics metrics = registry.get(Operation.QUERY);
+                final long start = metrics.start();
+                return new MetricsElementIterable<Edge>(this.query.edges(), registry, metrics, start);
+            }
+        };
+    }
+
+    public Edge addEdge(final String label, final Vertex vertex) {
+        final OperationMetrics metrics = this.registry.get(Operation.ADD_EDGE, label);
+        final long start = metrics.start();
+        final Vertex inVertex = vertex instanceof MetricsVertex ? ((MetricsVertex) vertex).getBaseVertex() : vertex;
+        final Edge edge = ((Vertex) this.baseElement).addEdge(label, inVertex);
+        metrics.stop(start);
+        return new MetricsEdge(edge, this.registry);
+    }
+
+    public void remove() {
+        final OperationMetrics metrics = this.registry.get(Operation.REMOVE_VERTEX);
+        final long start = metrics.start();
+        this.baseElement.remove();
+        metrics.stop(start);
+    }
+
+    public Vertex getBaseVertex() {
+        return (Vertex) this.baseElement;
+    }
+}
@@ -0,0 +1,44 @@
+package com.tinkerpop.blueprints.util.wrappers.metrics;
+
+/**
+ * The operations on a graph recorded by {@link MetricsGraph}.
+ */
+public enum Operation {
+
+    ADD_VERTEX("addVertex"),
+    GET_VERTEX("getVertex"),
+    GET_VERTICES("getVertices"),
+    GET_VERTICES_BY_KEY("getVerticesByKey"),
+    REMOVE_VERTEX("removeVertex"),
+    ADD_EDGE("addEdge"),
+    GET_EDGE("getEdge"),
+    GET_EDGES("getEdges"),
+    GET_EDGES_BY_KEY("getEdgesByKey"),
+    REMOVE_EDGE("removeEdge"),
+    GET_ADJACENT_EDGES("getAdjacentEdges"),
+    GET_ADJACENT_VERTICES("getAdjacentVertices"),
+    QUERY("query"),
+    GET_PROPERTY("getProperty"),
+    SET_PROPERTY("setProperty"),
+    REMOVE_PROPERTY("removeProperty");
+
+    private final String name;
+
+    private Operation(final String name) {
+        this.name = name;
+    }
+
+    /**
+     * @return the name of the operation in snapshots and JMX, e.g. getProperty
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * @return the name of the operation broken down by a label or key, e.g. getProperty[name]
+     */
+    public String getName(final String labelOrKey) {
+        return this.name + "[" + labelOrKey + "]";
+    }
+}
@@ -0,0 +1,114 @@
+package com.tinkerpop.blueprints.util.wrappers.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The live count and latency histogram of an operation, possibly broken down by a label or key.
+ *
+ * Counts and total latencies are striped by thread so that threads recording the same operation rarely contend on the
+ * same memory. Latencies are counted in a histogram of power of two buckets: bucket 0 counts operations faster than
+ * 1 microsecond and bucket i counts operations which took at least 2^(i-1) and less than 2^i microseconds.
+ */
+public class OperationMetrics {
+
+    /**
+     * Number of buckets of the latency histogram
+     */
+    public static final int NUMBER_OF_BUCKETS = 32;
+
+    static final long NOT_SAMPLED = Long.MIN_VALUE;
+
+    private static final int STRIPES = 16;
+    // a cache line of longs between the stripes to avoid false sharing
+    private static final int PADDING = 8;
+
+    private final String name;
+    private final OperationMetrics parent;
+    private final MetricsRegistry registry;
+
+    private final AtomicLongArray counts = new AtomicLongArray(STRIPES * PADDING);
+    private final AtomicLongArray nanos = new AtomicLongArray(STRIPES * PADDING);
+    private final AtomicLongArray latencies = new AtomicLongArray(NUMBER_OF_BUCKETS);
+
+    OperationMetrics(final String name, final OperationMetrics parent, final MetricsRegistry registry) {
+        this.name = name;
+        this.parent = parent;
+        this.registry = registry;
+    }
+
+    /**
+     * Counts an operation which is about to start.
+     *
+     * @return the time the operation started if its latency is sampled, otherwise NOT_SAMPLED
+     */
+    long start() {
+        final int stripe = stripe();
+        final long count = this.counts.incrementAndGet(stripe);
+        if (null != this.parent) this.parent.counts.incrementAndGet(stripe);
+        return count % this.registry.getSampleRate() == 0 ? System.nanoTime() : NOT_SAMPLED;
+    }
+
+    /**
+     * Records the latency of an operation if it is sampled.
+     */
+    void stop(final long start) {
+        if (start != NOT_SAMPLED) this.record(System.nanoTime() - start);
+    }
+
+    void record(final long nanos) {
+        this.nanos.addAndGet(stripe(), nanos);
+        this.latencies.incrementAndGet(getBucket(nanos / 1000));
+        if (null != this.parent) this.parent.record(nanos);
+    }
+
+    private static int stripe() {
+        return ((int) Thread.currentThread().getId() & (STRIPES - 1)) * PADDING;
+    }
+
+    private static int getBucket(final long micros) {
+        final int bucket = 64 - Long.numberOfLeadingZeros(Math.max(micros, 0));
+        return Math.min(bucket, NUMBER_OF_BUCKETS - 1);
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public long getCount() {
+        return sum(this.counts);
+    }
+
+    /**
+     * @return the sum of the sampled latencies in nanoseconds
+     */
+    public long getTotalLatency() {
+        return sum(this.nanos);
+    }
+
+    /**
+     * @return a copy of the latency histogram
+     */
+    public long[] getLatencyHistogram() {
+        final long[] histogram = new long[NUMBER_OF_BUCKETS];
+        for (int i = 0; i < histogram.length; i++) {
+            histogram[i] = this.latencies.get(i);
+        }
+        return histogram;
+    }
+
+    public OperationSnapshot getSnapshot() {
+        return new OperationSnapshot(this.name, this.getCount(), this.getTotalLatency(), this.getLatencyHistogram());
+    }
+
+    private static long sum(final AtomicLongArray stripes) {
+        long sum = 0;
+        for (int i = 0; i < STRIPES; i++) {
+            sum += stripes.get(i * PADDING);
+        }
+        return sum;
+    }
+
+    public String toString() {
+        return this.getSnapshot().toString();
+    }
+}
@@ -0,0 +1,83 @@
+package com.tinkerpop.blueprints.util.wrappers.metrics;
+
+/**
+ * The count and latency histogram of an operation at one point in time, see {@link OperationMetrics}.
+ */
+public class OperationSnapshot {
+
+    private final String name;
+    private final long count;
+    private final long totalLatency;
+    private final long[] histogram;
+    private final long sampledCount;
+
+    OperationSnapshot(final String name, final long count, final long totalLatency, final long[] histogram) {
+        this.name = name;
+        this.count = count;
+        this.totalLatency = totalLatency;
+        this.histogram = histogram;
+        long sampled = 0;
+        for (final long bucket : histogram) {
+            sampled += bucket;
+        }
+        this.sampledCount = sampled;
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public long getCount() {
+        return this.count;
+    }
+
+    /**
+     * @return the number of operations whose latency was sampled
+     */
+    public long getSampledCount() {
+        return this.sampledCount;
+    }
+
+    /**
+     * @return the sum of the sampled latencies in nanoseconds
+     */
+    public long getTotalLatency() {
+        return this.totalLatency;
+    }
+
+    /**
+     * @return the mean of the sampled latencies in microseconds
+     */
+    public double getMeanLatency() {
+        return this.sampledCount == 0 ? 0.0d : this.totalLatency / 1e3d / this.sampledCount;
+    }
+
+    /**
+     * @param percentile the percentile between 0 and 100, e.g. 99
+     * @return the upper bound in microseconds of the histogram bucket holding the percentile of the sampled latencies
+     */
+    public long getLatencyPercentile(final double percentile) {
+        if (percentile < 0 || percentile > 100)
+            throw new IllegalArgumentException("Percentile must be between 0 and 100: " + percentile);
+        if (this.sampledCount == 0) return 0;
+        final double rank = Math.max(1, Math.ceil(this.sampledCount * percentile / 100));
+        long seen = 0;
+        for (int i = 0; i < this.histogram.length; i++) {
+            seen += this.histogram[i];
+            if (seen >= rank) return 1L << i;
+        }
+        return 1L << (this.histogram.length - 1);
+    }
+
+    /**
+     * @return a copy of the latency histogram
+     */
+    public long[] getLatencyHistogram() {
+        return this.histogram.clone();
+    }
+
+    public String toString() {
+        return this.name + "[count:" + this.count + ", mean us:" + this.getMeanLatency()
+                + ", p50 us:" + this.getLatencyPercentile(50) + ", p99 us:" + this.getLatencyPercentile(99) + "]";
+    }
+}
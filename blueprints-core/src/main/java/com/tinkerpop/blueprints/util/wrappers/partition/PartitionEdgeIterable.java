@@ -13,10 +13,19 @@ class PartitionEdgeIterable implements CloseableIterable<Edge> {
 
     private final Iterable<Edge> iterable;
     private final PartitionGraph graph;
+    private final boolean filter;
 
     public PartitionEdgeIterable(final Iterable<Edge> iterable, final PartitionGraph graph) {
+        this(iterable, graph, true);
+    }
+
+    /**
+     * @param filter false if all elements of the iterable are known to be in a read partition
+     */
+    PartitionEdgeIterable(final Iterable<Edge> iterable, final PartitionGraph graph, final boolean filter) {
         this.iterable = iterable;
         this.graph = graph;
+        this.filter = filter;
     }
 
     public Iterator<Edge> iterator() {
@@ -34,7 +43,7 @@ class PartitionEdgeIterable implements CloseableIterable<Edge> {
                 }
                 while (this.itty.hasNext()) {
                     final Edge edge = this.itty.next();
-                    if (graph.isInPartition(edge)) {
+                    if (!filter || graph.isInPartition(edge)) {
                         nextEdge = new PartitionEdge(edge, graph);
                         return true;
                     }
@@ -51,7 +60,7 @@ class PartitionEdgeIterable implements CloseableIterable<Edge> {
                 } else {
                     while (this.itty.hasNext()) {
                         final Edge edge = this.itty.next();
-                        if (graph.isInPartition(edge)) {
+                        if (!filter || graph.isInPartition(edge)) {
                             return new PartitionEdge(edge, graph);
                         }
                     }
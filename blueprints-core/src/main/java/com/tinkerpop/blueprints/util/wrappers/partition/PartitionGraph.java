@@ -6,16 +6,26 @@ import com.tinkerpop.blueprints.Element;
 import com.tinkerpop.blueprints.Features;
 import com.tinkerpop.blueprints.Graph;
 import com.tinkerpop.blueprints.GraphQuery;
+import com.tinkerpop.blueprints.KeyIndexableGraph;
 import com.tinkerpop.blueprints.Vertex;
+import com.tinkerpop.blueprints.util.MultiIterable;
+import com.tinkerpop.blueprints.util.PropertyFilteredIterable;
 import com.tinkerpop.blueprints.util.StringFactory;
 import com.tinkerpop.blueprints.util.wrappers.WrappedGraphQuery;
 import com.tinkerpop.blueprints.util.wrappers.WrapperGraph;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 /**
+ * Scans read every element of the base graph and filter those outside of the read partitions, so that elements
+ * without a partition stay visible. A caller which assigns every element to a partition can call indexPartitionKey():
+ * getVertices() and getEdges() then look up the elements of each read partition in the key index instead, and
+ * getVertices(key, value) and getEdges(key, value) filter these by the property unless the key is indexed itself.
+ *
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  */
 public class PartitionGraph<T extends Graph> implements Graph, WrapperGraph<T> {
@@ -27,6 +37,11 @@ public class PartitionGraph<T extends Graph> implements Graph, WrapperGraph<T> {
 
     private final Features features;
 
+    private boolean vertexPushdown = false;
+    private boolean edgePushdown = false;
+
+    private volatile long readVersion = 0;
+
     public PartitionGraph(final T baseGraph, final String partitionKey, final String writePartition, final Set<String> readPartitions) {
         this.baseGraph = baseGraph;
         this.partitionKey = partitionKey;
@@ -53,15 +68,80 @@ public class PartitionGraph<T extends Graph> implements Graph, WrapperGraph<T> {
     }
 
     public void removeReadPartition(final String readPartition) {
-        this.readPartitions.remove(readPartition);
+        if (this.readPartitions.remove(readPartition))
+            this.readVersion++;
     }
 
     public void addReadPartition(final String readPartition) {
-        this.readPartitions.add(readPartition);
+        if (this.readPartitions.add(readPartition))
+            this.readVersion++;
     }
 
     public void setPartitionKey(final String partitionKey) {
         this.partitionKey = partitionKey;
+        this.vertexPushdown = false;
+        this.edgePushdown = false;
+        this.readVersion++;
+    }
+
+    /**
+     * The read version changes whenever a change of the read partitions, the partition key or the use of its index
+     * may change which elements are visible, so that wrappers caching results of this graph can drop them.
+     *
+     * @return the read version of this graph
+     */
+    public long getReadVersion() {
+        return this.readVersion;
+    }
+
+    /**
+     * @return whether scans use the index of the partition key
+     */
+    public boolean isPartitionKeyIndexed() {
+        return this.vertexPushdown || this.edgePushdown;
+    }
+
+    /**
+     * Indexes the partition key of the base graph for the element types its features allow, which builds the index
+     * over all elements of the graph, and lets the scans of these types look up the read partitions in the index.
+     * Such scans no longer return elements without a partition, so this is only meant for graphs in which every
+     * element has been assigned to one. Setting another partition key turns the lookups off again.
+     *
+     * @throws IllegalStateException if the base graph does not support key indices
+     */
+    public void indexPartitionKey() {
+        final Features baseFeatures = this.baseGraph.getFeatures();
+        if (!(this.baseGraph instanceof KeyIndexableGraph) || !Boolean.TRUE.equals(baseFeatures.supportsKeyIndices))
+            throw new IllegalStateException("The base graph does not support key indices: " + this.baseGraph);
+        final KeyIndexableGraph graph = (KeyIndexableGraph) this.baseGraph;
+        if (Boolean.TRUE.equals(baseFeatures.supportsVertexKeyIndex)) {
+            if (!graph.getIndexedKeys(Vertex.class).contains(this.partitionKey))
+                graph.createKeyIndex(this.partitionKey, Vertex.class);
+            this.vertexPushdown = true;
+        }
+        if (Boolean.TRUE.equals(baseFeatures.supportsEdgeKeyIndex)) {
+            if (!graph.getIndexedKeys(Edge.class).contains(this.partitionKey))
+                graph.createKeyIndex(this.partitionKey, Edge.class);
+            this.edgePushdown = true;
+        }
+        this.readVersion++;
+    }
+
+    /**
+     * @return the union of the index lookups of the read partitions
+     */
+    private <E extends Element> Iterable<E> getPartitionElements(final Class<E> elementClass) {
+        final List<Iterable<E>> iterables = new ArrayList<Iterable<E>>();
+        for (final String partition : this.getReadPartitions()) {
+            iterables.add(Vertex.class.equals(elementClass)
+                    ? (Iterable<E>) this.baseGraph.getVertices(this.partitionKey, partition)
+                    : (Iterable<E>) this.baseGraph.getEdges(this.partitionKey, partition));
+        }
+        return new MultiIterable<E>(iterables);
+    }
+
+    private boolean isIndexed(final String key, final Class<? extends Element> elementClass) {
+        return this.baseGraph instanceof KeyIndexableGraph && ((KeyIndexableGraph) this.baseGraph).getIndexedKeys(elementClass).contains(key);
     }
 
     public String getPartitionKey() {
@@ -100,10 +180,14 @@ public class PartitionGraph<T extends Graph> implements Graph, WrapperGraph<T> {
     }
 
     public Iterable<Vertex> getVertices() {
+        if (this.vertexPushdown)
+            return new PartitionVertexIterable(this.getPartitionElements(Vertex.class), this, false);
         return new PartitionVertexIterable(this.baseGraph.getVertices(), this);
     }
 
     public Iterable<Vertex> getVertices(final String key, final Object value) {
+        if (this.vertexPushdown && !key.equals(this.partitionKey) && !this.isIndexed(key, Vertex.class))
+            return new PartitionVertexIterable(new PropertyFilteredIterable<Vertex>(key, value, this.getPartitionElements(Vertex.class)), this, false);
         return new PartitionVertexIterable(this.baseGraph.getVertices(key, value), this);
     }
 
@@ -122,10 +206,14 @@ public class PartitionGraph<T extends Graph> implements Graph, WrapperGraph<T> {
     }
 
     public Iterable<Edge> getEdges() {
+        if (this.edgePushdown)
+            return new PartitionEdgeIterable(this.getPartitionElements(Edge.class), this, false);
         return new PartitionEdgeIterable(this.baseGraph.getEdges(), this);
     }
 
     public Iterable<Edge> getEdges(final String key, final Object value) {
+        if (this.edgePushdown && !key.equals(this.partitionKey) && !this.isIndexed(key, Edge.class))
+            return new PartitionEdgeIterable(new PropertyFilteredIterable<Edge>(key, value, this.getPartitionElements(Edge.class)), this, false);
         return new PartitionEdgeIterable(this.baseGraph.getEdges(key, value), this);
     }
 
@@ -155,12 +243,14 @@ public class PartitionGraph<T extends Graph> implements Graph, WrapperGraph<T> {
         return new WrappedGraphQuery(this.baseGraph.query()) {
             @Override
             public Iterable<Edge> edges() {
-                return new PartitionEdgeIterable(this.query.has(partitionKey, Contains.IN, readPartitions).edges(), partitionGraph);
+                final Iterable<Edge> edges = this.query.has(partitionKey, Contains.IN, readPartitions).edges();
+                return this.withCursor(edges, new PartitionEdgeIterable(edges, partitionGraph));
             }
 
             @Override
             public Iterable<Vertex> vertices() {
-                return new PartitionVertexIterable(this.query.has(partitionKey, Contains.IN, readPartitions).vertices(), partitionGraph);
+                final Iterable<Vertex> vertices = this.query.has(partitionKey, Contains.IN, readPartitions).vertices();
+                return this.withCursor(vertices, new PartitionVertexIterable(vertices, partitionGraph));
             }
         };
     }
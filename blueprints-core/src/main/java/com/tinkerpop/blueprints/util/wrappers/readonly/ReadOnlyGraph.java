@@ -106,12 +106,14 @@ public class ReadOnlyGraph<T extends Graph> implements Graph, WrapperGraph<T> {
         return new WrappedGraphQuery(this.baseGraph.query()) {
             @Override
             public Iterable<Edge> edges() {
-                return new ReadOnlyEdgeIterable(this.query.edges());
+                final Iterable<Edge> edges = this.query.edges();
+                return this.withCursor(edges, new ReadOnlyEdgeIterable(edges));
             }
 
             @Override
             public Iterable<Vertex> vertices() {
-                return new ReadOnlyVertexIterable(this.query.vertices());
+                final Iterable<Vertex> vertices = this.query.vertices();
+                return this.withCursor(vertices, new ReadOnlyVertexIterable(vertices));
             }
         };
     }
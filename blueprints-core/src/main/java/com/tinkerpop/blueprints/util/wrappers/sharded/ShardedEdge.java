@@ -0,0 +1,27 @@
+package com.tinkerpop.blueprints.util.wrappers.sharded;
+
+import com.tinkerpop.blueprints.Direction;
+import com.tinkerpop.blueprints.Edge;
+import com.tinkerpop.blueprints.Vertex;
+
+/**
+ * An edge of a ShardedGraph, stored in the shard of its out vertex.
+ */
+public class ShardedEdge extends ShardedElement implements Edge {
+
+    protected ShardedEdge(final Edge baseEdge, final int shard, final ShardedGraph graph) {
+        super(baseEdge, shard, graph);
+    }
+
+    public Vertex getVertex(final Direction direction) throws IllegalArgumentException {
+        return this.graph.getVertex(this, direction);
+    }
+
+    public String getLabel() {
+        return ((Edge) this.baseElement).getLabel();
+    }
+
+    public Edge getBaseEdge() {
+        return (Edge) this.baseElement;
+    }
+}
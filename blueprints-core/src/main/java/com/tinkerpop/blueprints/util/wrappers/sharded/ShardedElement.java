@@ -0,0 +1,99 @@
+package com.tinkerpop.blueprints.util.wrappers.sharded;
+
+import com.tinkerpop.blueprints.Edge;
+import com.tinkerpop.blueprints.Element;
+import com.tinkerpop.blueprints.Vertex;
+import com.tinkerpop.blueprints.util.ElementHelper;
+
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * An element of a ShardedGraph, accessed while holding the lock of its shard.
+ */
+public abstract class ShardedElement implements Element {
+
+    protected final Element baseElement;
+    protected final int shard;
+    protected final ShardedGraph graph;
+
+    protected ShardedElement(final Element baseElement, final int shard, final ShardedGraph graph) {
+        this.baseElement = baseElement;
+        this.shard = shard;
+        this.graph = graph;
+    }
+
+    public <T> T getProperty(final String key) {
+        final Lock lock = this.graph.getLock(this.shard).readLock();
+        lock.lock();
+        try {
+            return this.baseElement.getProperty(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Set<String> getPropertyKeys() {
+        final Lock lock = this.graph.getLock(this.shard).readLock();
+        lock.lock();
+        try {
+            return this.baseElement.getPropertyKeys();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void setProperty(final String key, final Object value) {
+        final Lock lock = this.graph.getLock(this.shard).writeLock();
+        lock.lock();
+        try {
+            this.baseElement.setProperty(key, value);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public <T> T removeProperty(final String key) {
+        final Lock lock = this.graph.getLock(this.shard).writeLock();
+        lock.lock();
+        try {
+            return this.baseElement.removeProperty(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Object getId() {
+        return this.baseElement.getId();
+    }
+
+    /**
+     * @return the index of the shard the element is stored in
+     */
+    public int getShard() {
+        return this.shard;
+    }
+
+    public Element getBaseElement() {
+        return this.baseElement;
+    }
+
+    public void remove() {
+        if (this instanceof Vertex)
+            this.graph.removeVertex((Vertex) this);
+        else
+            this.graph.removeEdge((Edge) this);
+    }
+
+    public boolean equals(final Object object) {
+        return ElementHelper.areEqual(this, object);
+    }
+
+    public int hashCode() {
+        return this.baseElement.hashCode();
+    }
+
+    public String toString() {
+        return this.baseElement.toString();
+    }
+}
@@ -0,0 +1,398 @@
+package com.tinkerpop.blueprints.util.wrappers.sharded;
+
+import com.tinkerpop.blueprints.Direction;
+import com.tinkerpop.blueprints.Edge;
+import com.tinkerpop.blueprints.Features;
+import com.tinkerpop.blueprints.Graph;
+import com.tinkerpop.blueprints.GraphQuery;
+import com.tinkerpop.blueprints.Vertex;
+import com.tinkerpop.blueprints.util.DefaultGraphQuery;
+import com.tinkerpop.blueprints.util.ExceptionFactory;
+import com.tinkerpop.blueprints.util.StringFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * ShardedGraph spreads the vertices of one graph over several graphs in the same JVM, the shards, by the hash of the
+ * string of their id. An edge is stored in the shard of its out vertex. If its in vertex lives in another shard, the
+ * edge points to a ghost of the in vertex there: a vertex without properties carrying the same id, which is created
+ * with the first such edge and removed with the last one.
+ *
+ * A vertex is looked up in its shard only. Its out edges are in its shard, its in edges are gathered from its own
+ * vertex and its ghosts in all shards. Scans of the vertices or edges of the graph run on all shards in parallel and
+ * gather their results, leaving out the ghosts.
+ *
+ * Every shard is guarded by a read-write lock, so that writes to different shards run concurrently while the shards
+ * themselves need not be thread safe. Results are read from a shard while holding its lock and are returned as lists.
+ * Operations spanning shards, such as removing a vertex with ghosts or adding an edge to a vertex of another shard,
+ * lock one shard at a time and are not atomic.
+ *
+ * The shards must use the ids supplied for vertices and edges: graphs which ignore them can be wrapped in an IdGraph.
+ * Generated ids are random UUID strings.
+ */
+public class ShardedGraph<T extends Graph> implements Graph {
+
+    private final List<T> shards;
+    private final ReadWriteLock[] locks;
+    private final ExecutorService executor;
+    private final boolean ownsExecutor;
+    private final Features features;
+
+    /**
+     * Scans the shards on a pool of one thread per shard.
+     */
+    public ShardedGraph(final List<T> shards) {
+        this(shards, Executors.newFixedThreadPool(shards.size(), new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            public Thread newThread(final Runnable runnable) {
+                final Thread thread = new Thread(runnable, "sharded-graph-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        }), true);
+    }
+
+    /**
+     * Scans the shards on the executor, which is not shut down with the graph.
+     */
+    public ShardedGraph(final List<T> shards, final ExecutorService executor) {
+        this(shards, executor, false);
+    }
+
+    private ShardedGraph(final List<T> shards, final ExecutorService executor, final boolean ownsExecutor) {
+        if (null == shards || shards.isEmpty()) throw new IllegalArgumentException("There must be at least one shard");
+        if (null == executor) throw new IllegalArgumentException("Executor may not be null");
+        for (final T shard : shards) {
+            if (shard.getFeatures().ignoresSuppliedIds)
+                throw new IllegalArgumentException("The shards must use the ids supplied for their elements: " + shard);
+        }
+        this.shards = new ArrayList<T>(shards);
+        this.locks = new ReadWriteLock[shards.size()];
+        for (int i = 0; i < this.locks.length; i++) {
+            this.locks[i] = new ReentrantReadWriteLock();
+        }
+        this.executor = executor;
+        this.ownsExecutor = ownsExecutor;
+
+        this.features = this.shards.get(0).getFeatures().copyFeatures();
+        this.features.isWrapper = true;
+        this.features.ignoresSuppliedIds = false;
+        this.features.supportsIndices = false;
+        this.features.supportsVertexIndex = false;
+        this.features.supportsEdgeIndex = false;
+        this.features.supportsKeyIndices = false;
+        this.features.supportsVertexKeyIndex = false;
+        this.features.supportsEdgeKeyIndex = false;
+        this.features.supportsTransactions = false;
+        this.features.supportsThreadedTransactions = false;
+        this.features.supportsThreadIsolatedTransactions = false;
+    }
+
+    /**
+     * @return the index of the shard of the vertex with the id
+     */
+    public int getShard(final Object vertexId) {
+        return (vertexId.toString().hashCode() & Integer.MAX_VALUE) % this.shards.size();
+    }
+
+    public List<T> getShards() {
+        return Collections.unmodifiableList(this.shards);
+    }
+
+    public Features getFeatures() {
+        return this.features;
+    }
+
+    public Vertex addVertex(final Object id) {
+        final Object vertexId = null == id ? UUID.randomUUID().toString() : id;
+        final int shard = this.getShard(vertexId);
+        this.locks[shard].writeLock().lock();
+        try {
+            return new ShardedVertex(this.shards.get(shard).addVertex(vertexId), shard, this);
+        } finally {
+            this.locks[shard].writeLock().unlock();
+        }
+    }
+
+    public Vertex getVertex(final Object id) {
+        if (null == id)
+            throw ExceptionFactory.vertexIdCanNotBeNull();
+        final int shard = this.getShard(id);
+        this.locks[shard].readLock().lock();
+        try {
+            final Vertex vertex = this.shards.get(shard).getVertex(id);
+            return null == vertex ? null : new ShardedVertex(vertex, shard, this);
+        } finally {
+            this.locks[shard].readLock().unlock();
+        }
+    }
+
+    public void removeVertex(final Vertex vertex) {
+        final Object id = vertex.getId();
+        final int home = this.getShard(id);
+        final List<Object> ghostIds = new ArrayList<Object>();
+        this.locks[home].writeLock().lock();
+        try {
+            final Graph graph = this.shards.get(home);
+            final Vertex baseVertex = graph.getVertex(id);
+            if (null == baseVertex)
+                throw ExceptionFactory.vertexWithIdDoesNotExist(id);
+            for (final Edge edge : baseVertex.getEdges(Direction.OUT)) {
+                final Object inId = edge.getVertex(Direction.IN).getId();
+                if (this.getShard(inId) != home)
+                    ghostIds.add(inId);
+            }
+            graph.removeVertex(baseVertex);
+            for (final Object ghostId : ghostIds) {
+                this.removeGhostIfUnused(graph, ghostId);
+            }
+        } finally {
+            this.locks[home].writeLock().unlock();
+        }
+
+        // the ghosts in the other shards take the in edges of the vertex along
+        for (int shard = 0; shard < this.shards.size(); shard++) {
+            if (shard == home) continue;
+            this.locks[shard].writeLock().lock();
+            try {
+                final Vertex ghost = this.shards.get(shard).getVertex(id);
+                if (null != ghost)
+                    this.shards.get(shard).removeVertex(ghost);
+            } finally {
+                this.locks[shard].writeLock().unlock();
+            }
+        }
+    }
+
+    public Iterable<Vertex> getVertices() {
+        return this.scatter(new ShardTask<Vertex>() {
+            public void run(final Graph graph, final int shard, final List<Vertex> results) {
+                addVertices(graph.getVertices(), shard, results);
+            }
+        });
+    }
+
+    public Iterable<Vertex> getVertices(final String key, final Object value) {
+        return this.scatter(new ShardTask<Vertex>() {
+            public void run(final Graph graph, final int shard, final List<Vertex> results) {
+                addVertices(graph.getVertices(key, value), shard, results);
+            }
+        });
+    }
+
+    public Edge addEdge(final Object id, final Vertex outVertex, final Vertex inVertex, final String label) {
+        if (null == label)
+            throw ExceptionFactory.edgeLabelCanNotBeNull();
+        if (null != id && null != this.getEdge(id))
+            throw ExceptionFactory.edgeWithIdAlreadyExist(id);
+
+        final Object edgeId = null == id ? UUID.randomUUID().toString() : id;
+        final Object outId = outVertex.getId();
+        final Object inId = inVertex.getId();
+        final int shard = this.getShard(outId);
+        this.locks[shard].writeLock().lock();
+        try {
+            final Graph graph = this.shards.get(shard);
+            final Vertex baseOut = graph.getVertex(outId);
+            if (null == baseOut)
+                throw ExceptionFactory.vertexWithIdDoesNotExist(outId);
+            Vertex baseIn = graph.getVertex(inId);
+            if (null == baseIn) {
+                if (this.getShard(inId) == shard)
+                    throw ExceptionFactory.vertexWithIdDoesNotExist(inId);
+                baseIn = graph.addVertex(inId);
+            }
+            return new ShardedEdge(graph.addEdge(edgeId, baseOut, baseIn, label), shard, this);
+        } finally {
+            this.locks[shard].writeLock().unlock();
+        }
+    }
+
+    /**
+     * Edges are looked up in one shard after the other, as their ids do not tell the shard of their out vertex.
+     */
+    public Edge getEdge(final Object id) {
+        if (null == id)
+            throw ExceptionFactory.edgeIdCanNotBeNull();
+        for (int shard = 0; shard < this.shards.size(); shard++) {
+            this.locks[shard].readLock().lock();
+            try {
+                final Edge edge = this.shards.get(shard).getEdge(id);
+                if (null != edge)
+                    return new ShardedEdge(edge, shard, this);
+            } finally {
+                this.locks[shard].readLock().unlock();
+            }
+        }
+        return null;
+    }
+
+    public void removeEdge(final Edge edge) {
+        final ShardedEdge shardedEdge = (ShardedEdge) edge;
+        final int shard = shardedEdge.getShard();
+        this.locks[shard].writeLock().lock();
+        try {
+            final Graph graph = this.shards.get(shard);
+            final Object inId = shardedEdge.getBaseEdge().getVertex(Direction.IN).getId();
+            graph.removeEdge(shardedEdge.getBaseEdge());
+            if (this.getShard(inId) != shard)
+                this.removeGhostIfUnused(graph, inId);
+        } finally {
+            this.locks[shard].writeLock().unlock();
+        }
+    }
+
+    public Iterable<Edge> getEdges() {
+        return this.scatter(new ShardTask<Edge>() {
+            public void run(final Graph graph, final int shard, final List<Edge> results) {
+                addEdges(graph.getEdges(), shard, results);
+            }
+        });
+    }
+
+    public Iterable<Edge> getEdges(final String key, final Object value) {
+        return this.scatter(new ShardTask<Edge>() {
+            public void run(final Graph graph, final int shard, final List<Edge> results) {
+                addEdges(graph.getEdges(key, value), shard, results);
+            }
+        });
+    }
+
+    public GraphQuery query() {
+        return new DefaultGraphQuery(this);
+    }
+
+    public void shutdown() {
+        if (this.ownsExecutor)
+            this.executor.shutdown();
+        for (final T shard : this.shards) {
+            shard.shutdown();
+        }
+    }
+
+    public String toString() {
+        return StringFactory.graphString(this, "shards:" + this.shards.size());
+    }
+
+    /**
+     * @return the edges of the vertex in the direction, read from the shards of its edges
+     */
+    List<Edge> getEdges(final ShardedVertex vertex, final Direction direction, final String... labels) {
+        final List<Edge> edges = new ArrayList<Edge>();
+        if (direction == Direction.OUT || direction == Direction.BOTH) {
+            final int shard = vertex.getShard();
+            this.locks[shard].readLock().lock();
+            try {
+                this.addEdges(vertex.getBaseVertex().getEdges(Direction.OUT, labels), shard, edges);
+            } finally {
+                this.locks[shard].readLock().unlock();
+            }
+        }
+        if (direction == Direction.IN || direction == Direction.BOTH) {
+            for (int shard = 0; shard < this.shards.size(); shard++) {
+                this.locks[shard].readLock().lock();
+                try {
+                    final Vertex baseVertex = shard == vertex.getShard() ? vertex.getBaseVertex() : this.shards.get(shard).getVertex(vertex.getId());
+                    if (null != baseVertex)
+                        this.addEdges(baseVertex.getEdges(Direction.IN, labels), shard, edges);
+                } finally {
+                    this.locks[shard].readLock().unlock();
+                }
+            }
+        }
+        return edges;
+    }
+
+    /**
+     * @return the vertex at the end of the edge, which is looked up in its own shard if the edge points to a ghost
+     */
+    Vertex getVertex(final ShardedEdge edge, final Direction direction) {
+        final int shard = edge.getShard();
+        final Vertex baseVertex;
+        this.locks[shard].readLock().lock();
+        try {
+            baseVertex = edge.getBaseEdge().getVertex(direction);
+        } finally {
+            this.locks[shard].readLock().unlock();
+        }
+        if (this.getShard(baseVertex.getId()) == shard)
+            return new ShardedVertex(baseVertex, shard, this);
+        else
+            return this.getVertex(baseVertex.getId());
+    }
+
+    ReadWriteLock getLock(final int shard) {
+        return this.locks[shard];
+    }
+
+    private void removeGhostIfUnused(final Graph graph, final Object ghostId) {
+        final Vertex ghost = graph.getVertex(ghostId);
+        if (null != ghost && !ghost.getEdges(Direction.IN).iterator().hasNext())
+            graph.removeVertex(ghost);
+    }
+
+    private void addVertices(final Iterable<Vertex> vertices, final int shard, final List<Vertex> results) {
+        for (final Vertex vertex : vertices) {
+            if (this.getShard(vertex.getId()) == shard)
+                results.add(new ShardedVertex(vertex, shard, this));
+        }
+    }
+
+    private void addEdges(final Iterable<Edge> edges, final int shard, final List<Edge> results) {
+        for (final Edge edge : edges) {
+            results.add(new ShardedEdge(edge, shard, this));
+        }
+    }
+
+    private <E> List<E> scatter(final ShardTask<E> task) {
+        final List<Future<List<E>>> futures = new ArrayList<Future<List<E>>>(this.shards.size());
+        for (int i = 0; i < this.shards.size(); i++) {
+            final int shard = i;
+            futures.add(this.executor.submit(new Callable<List<E>>() {
+                public List<E> call() {
+                    final List<E> results = new ArrayList<E>();
+                    locks[shard].readLock().lock();
+                    try {
+                        task.run(shards.get(shard), shard, results);
+                    } finally {
+                        locks[shard].readLock().unlock();
+                    }
+                    return results;
+                }
+            }));
+        }
+
+        final List<E> results = new ArrayList<E>();
+        try {
+            for (final Future<List<E>> future : futures) {
+                results.addAll(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e.getMessage(), e);
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            throw new RuntimeException(cause.getMessage(), cause);
+        }
+        return results;
+    }
+
+    private static interface ShardTask<E> {
+        public void run(Graph graph, int shard, List<E> results);
+    }
+}
@@ -0,0 +1,38 @@
+package com.tinkerpop.blueprints.util.wrappers.sharded;
+
+import com.tinkerpop.blueprints.Direction;
+import com.tinkerpop.blueprints.Edge;
+import com.tinkerpop.blueprints.Vertex;
+import com.tinkerpop.blueprints.VertexQuery;
+import com.tinkerpop.blueprints.util.DefaultVertexQuery;
+import com.tinkerpop.blueprints.util.VerticesFromEdgesIterable;
+
+/**
+ * A vertex of a ShardedGraph, whose in edges may be stored in other shards.
+ */
+public class ShardedVertex extends ShardedElement implements Vertex {
+
+    protected ShardedVertex(final Vertex baseVertex, final int shard, final ShardedGraph graph) {
+        super(baseVertex, shard, graph);
+    }
+
+    public Iterable<Edge> getEdges(final Direction direction, final String... labels) {
+        return this.graph.getEdges(this, direction, labels);
+    }
+
+    public Iterable<Vertex> getVertices(final Direction direction, final String... labels) {
+        return new VerticesFromEdgesIterable(this, direction, labels);
+    }
+
+    public VertexQuery query() {
+        return new DefaultVertexQuery(this);
+    }
+
+    public Edge addEdge(final String label, final Vertex vertex) {
+        return this.graph.addEdge(null, this, vertex, label);
+    }
+
+    public Vertex getBaseVertex() {
+        return (Vertex) this.baseElement;
+    }
+}
@@ -87,12 +87,14 @@ public class WrappedGraph<T extends Graph> implements Graph, WrapperGraph<T> {
         return new WrappedGraphQuery(this.baseGraph.query()) {
             @Override
             public Iterable<Edge> edges() {
-                return new WrappedEdgeIterable(this.query.edges());
+                final Iterable<Edge> edges = this.query.edges();
+                return this.withCursor(edges, new WrappedEdgeIterable(edges));
             }
 
             @Override
             public Iterable<Vertex> vertices() {
-                return new WrappedVertexIterable(this.query.vertices());
+                final Iterable<Vertex> vertices = this.query.vertices();
+                return this.withCursor(vertices, new WrappedVertexIterable(vertices));
             }
         };
     }
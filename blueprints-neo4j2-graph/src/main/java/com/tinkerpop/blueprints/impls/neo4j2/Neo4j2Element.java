@@ -6,6 +6,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.Map;
 import java.util.Set;
 
 import org.neo4j.graphdb.Node;
@@ -44,6 +45,15 @@ abstract class Neo4j2Element<S extends PropertyContainer> implements Element {
         this.rawElement.setProperty(key, tryConvertCollectionToArray(value));
     }
 
+    /**
+     * Sets properties which are validated already, in the transaction started by the caller.
+     */
+    void setValidatedProperties(final Map<String, ?> properties) {
+        for (final Map.Entry<String, ?> entry : properties.entrySet()) {
+            this.rawElement.setProperty(entry.getKey(), tryConvertCollectionToArray(entry.getValue()));
+        }
+    }
+
     public <T> T removeProperty(final String key) {
         if (!this.rawElement.hasProperty(key))
             return null;
@@ -2,7 +2,9 @@ package com.tinkerpop.blueprints.impls.neo4j2;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
@@ -31,10 +33,13 @@ import org.neo4j.kernel.GraphDatabaseAPI;
 import org.neo4j.kernel.impl.core.NodeManager;
 import org.neo4j.tooling.GlobalGraphOperations;
 
+import com.tinkerpop.blueprints.BulkReadGraph;
+import com.tinkerpop.blueprints.BulkWriteGraph;
 import com.tinkerpop.blueprints.Edge;
 import com.tinkerpop.blueprints.Element;
 import com.tinkerpop.blueprints.Features;
 import com.tinkerpop.blueprints.GraphQuery;
+import com.tinkerpop.blueprints.IdOrderedGraph;
 import com.tinkerpop.blueprints.Index;
 import com.tinkerpop.blueprints.IndexableGraph;
 import com.tinkerpop.blueprints.KeyIndexableGraph;
@@ -47,6 +52,7 @@ import com.tinkerpop.blueprints.impls.neo4j2.index.Neo4j2VertexIndex;
 import com.tinkerpop.blueprints.impls.neo4j2.iterate.Neo4j2EdgeIterable;
 import com.tinkerpop.blueprints.impls.neo4j2.iterate.Neo4j2VertexIterable;
 import com.tinkerpop.blueprints.util.DefaultGraphQuery;
+import com.tinkerpop.blueprints.util.ElementHelper;
 import com.tinkerpop.blueprints.util.ExceptionFactory;
 import com.tinkerpop.blueprints.util.KeyIndexableGraphHelper;
 import com.tinkerpop.blueprints.util.PropertyFilteredIterable;
@@ -57,7 +63,7 @@ import com.tinkerpop.blueprints.util.StringFactory;
  *
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  */
-public class Neo4j2Graph implements TransactionalGraph, IndexableGraph, KeyIndexableGraph, MetaGraph<GraphDatabaseService> {
+public class Neo4j2Graph implements TransactionalGraph, IndexableGraph, KeyIndexableGraph, IdOrderedGraph, BulkReadGraph, BulkWriteGraph, MetaGraph<GraphDatabaseService> {
 	
     private static final Logger logger = Logger.getLogger(Neo4j2Graph.class.getName());
     
@@ -326,6 +332,28 @@ public class Neo4j2Graph implements TransactionalGraph, IndexableGraph, KeyIndex
         return new Neo4j2Vertex(this.rawGraph.createNode(), this);
     }
 
+    public Neo4j2Vertex addVertex(final Object id, final Map<String, ?> properties) {
+        ElementHelper.validateProperties(Vertex.class, properties);
+        this.autoStartTransaction(true);
+        final Neo4j2Vertex vertex = new Neo4j2Vertex(this.rawGraph.createNode(), this);
+        vertex.setValidatedProperties(properties);
+        return vertex;
+    }
+
+    public List<Vertex> addVertices(final List<VertexSpec> vertices) {
+        for (final VertexSpec spec : vertices) {
+            ElementHelper.validateProperties(Vertex.class, spec.getProperties());
+        }
+        this.autoStartTransaction(true);
+        final List<Vertex> added = new ArrayList<Vertex>(vertices.size());
+        for (final VertexSpec spec : vertices) {
+            final Neo4j2Vertex vertex = new Neo4j2Vertex(this.rawGraph.createNode(), this);
+            vertex.setValidatedProperties(spec.getProperties());
+            added.add(vertex);
+        }
+        return added;
+    }
+
     public Neo4j2Vertex getVertex(final Object id) {
         this.autoStartTransaction(false);
 
@@ -348,6 +376,73 @@ public class Neo4j2Graph implements TransactionalGraph, IndexableGraph, KeyIndex
         }
     }
 
+    /**
+     * Neo4j ids are store record offsets, so the elements are loaded in ascending id order to read the store forward
+     * and are then put back in the order of the ids.
+     */
+    public List<Vertex> getVertices(final Collection<?> ids) {
+        this.autoStartTransaction(false);
+        final Long[] longIds = toLongIds(ids, true);
+        final Vertex[] vertices = new Vertex[longIds.length];
+        for (final Integer index : inIdOrder(longIds)) {
+            try {
+                vertices[index] = new Neo4j2Vertex(this.rawGraph.getNodeById(longIds[index]), this);
+            } catch (NotFoundException e) {
+                // the vertex stays null
+            }
+        }
+        return new ArrayList<Vertex>(Arrays.asList(vertices));
+    }
+
+    public List<Edge> getEdges(final Collection<?> ids) {
+        this.autoStartTransaction(false);
+        final Long[] longIds = toLongIds(ids, false);
+        final Edge[] edges = new Edge[longIds.length];
+        for (final Integer index : inIdOrder(longIds)) {
+            try {
+                edges[index] = new Neo4j2Edge(this.rawGraph.getRelationshipById(longIds[index]), this);
+            } catch (NotFoundException e) {
+                // the edge stays null
+            }
+        }
+        return new ArrayList<Edge>(Arrays.asList(edges));
+    }
+
+    private static Long[] toLongIds(final Collection<?> ids, final boolean vertices) {
+        final Long[] longIds = new Long[ids.size()];
+        int i = 0;
+        for (final Object id : ids) {
+            if (null == id)
+                throw vertices ? ExceptionFactory.vertexIdCanNotBeNull() : ExceptionFactory.edgeIdCanNotBeNull();
+            try {
+                if (id instanceof Long)
+                    longIds[i] = (Long) id;
+                else if (id instanceof Number)
+                    longIds[i] = ((Number) id).longValue();
+                else
+                    longIds[i] = Double.valueOf(id.toString()).longValue();
+            } catch (NumberFormatException e) {
+                longIds[i] = null;
+            }
+            i++;
+        }
+        return longIds;
+    }
+
+    private static List<Integer> inIdOrder(final Long[] longIds) {
+        final List<Integer> positions = new ArrayList<Integer>(longIds.length);
+        for (int i = 0; i < longIds.length; i++) {
+            if (null != longIds[i])
+                positions.add(i);
+        }
+        Collections.sort(positions, new Comparator<Integer>() {
+            public int compare(final Integer a, final Integer b) {
+                return longIds[a].compareTo(longIds[b]);
+            }
+        });
+        return positions;
+    }
+
     /**
      * @return all the vertices in the graph
      */
@@ -384,6 +479,20 @@ public class Neo4j2Graph implements TransactionalGraph, IndexableGraph, KeyIndex
         return new Neo4j2EdgeIterable(GlobalGraphOperations.at(rawGraph).getAllRelationships(), this);
     }
 
+    /**
+     * The vertices are read in id order with a Cypher query, which only relies on the public API and therefore
+     * works on any GraphDatabaseService.
+     */
+    public Iterable<Vertex> getVerticesAfter(final Object id) {
+        this.autoStartTransaction(false);
+        return new Neo4j2VertexIterable(new IdOrderedIterable<Node>("MATCH (n) WHERE id(n) > {after} RETURN n AS element ORDER BY id(n)", id), this);
+    }
+
+    public Iterable<Edge> getEdgesAfter(final Object id) {
+        this.autoStartTransaction(false);
+        return new Neo4j2EdgeIterable(new IdOrderedIterable<Relationship>("MATCH ()-[r]->() WHERE id(r) > {after} RETURN r AS element ORDER BY id(r)", id), this);
+    }
+
     public Iterable<Edge> getEdges(final String key, final Object value) {
         this.autoStartTransaction(false);
         final AutoIndexer<?> indexer = this.rawGraph.index().getRelationshipAutoIndexer();
@@ -474,6 +583,35 @@ public class Neo4j2Graph implements TransactionalGraph, IndexableGraph, KeyIndex
                 DynamicRelationshipType.withName(label)), this);
     }
 
+    public Neo4j2Edge addEdge(final Object id, final Vertex outVertex, final Vertex inVertex, final String label, final Map<String, ?> properties) {
+        if (label == null)
+            throw ExceptionFactory.edgeLabelCanNotBeNull();
+        ElementHelper.validateProperties(Edge.class, properties);
+
+        this.autoStartTransaction(true);
+        final Neo4j2Edge edge = new Neo4j2Edge(((Neo4j2Vertex) outVertex).getRawElement().createRelationshipTo(((Neo4j2Vertex) inVertex).getRawElement(),
+                DynamicRelationshipType.withName(label)), this);
+        edge.setValidatedProperties(properties);
+        return edge;
+    }
+
+    public List<Edge> addEdges(final List<EdgeSpec> edges) {
+        for (final EdgeSpec spec : edges) {
+            if (spec.getLabel() == null)
+                throw ExceptionFactory.edgeLabelCanNotBeNull();
+            ElementHelper.validateProperties(Edge.class, spec.getProperties());
+        }
+        this.autoStartTransaction(true);
+        final List<Edge> added = new ArrayList<Edge>(edges.size());
+        for (final EdgeSpec spec : edges) {
+            final Neo4j2Edge edge = new Neo4j2Edge(((Neo4j2Vertex) spec.getOutVertex()).getRawElement().createRelationshipTo(((Neo4j2Vertex) spec.getInVertex()).getRawElement(),
+                    DynamicRelationshipType.withName(spec.getLabel())), this);
+            edge.setValidatedProperties(spec.getProperties());
+            added.add(edge);
+        }
+        return added;
+    }
+
     public Neo4j2Edge getEdge(final Object id) {
         if (null == id)
             throw ExceptionFactory.edgeIdCanNotBeNull();
@@ -577,6 +715,24 @@ public class Neo4j2Graph implements TransactionalGraph, IndexableGraph, KeyIndex
     }
     
     
+    /**
+     * Runs a query returning the elements whose id follows the provided id as column "element" each time it is iterated.
+     */
+    private class IdOrderedIterable<S extends PropertyContainer> implements Iterable<S> {
+
+        private final String query;
+        private final Map<String, Object> params;
+
+        public IdOrderedIterable(final String query, final Object id) {
+            this.query = query;
+            this.params = Collections.<String, Object>singletonMap("after", null == id ? -1l : Double.valueOf(id.toString()).longValue());
+        }
+
+        public Iterator<S> iterator() {
+            return rawGraph.execute(this.query, this.params).<S>columnAs("element");
+        }
+    }
+
     /**
      * A class that encapsulates some deprecated method calls, 
      * and other "hackish" bits, leftover from previous implementation. 
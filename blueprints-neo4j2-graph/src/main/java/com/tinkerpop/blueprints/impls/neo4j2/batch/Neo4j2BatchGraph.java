@@ -1,5 +1,6 @@
 package com.tinkerpop.blueprints.impls.neo4j2.batch;
 
+import com.tinkerpop.blueprints.BulkWriteGraph;
 import com.tinkerpop.blueprints.Edge;
 import com.tinkerpop.blueprints.Element;
 import com.tinkerpop.blueprints.Features;
@@ -10,6 +11,7 @@ import com.tinkerpop.blueprints.KeyIndexableGraph;
 import com.tinkerpop.blueprints.MetaGraph;
 import com.tinkerpop.blueprints.Parameter;
 import com.tinkerpop.blueprints.Vertex;
+import com.tinkerpop.blueprints.util.ElementHelper;
 import com.tinkerpop.blueprints.util.ExceptionFactory;
 import com.tinkerpop.blueprints.util.StringFactory;
 import org.neo4j.graphdb.DynamicRelationshipType;
@@ -28,8 +30,10 @@ import org.neo4j.unsafe.batchinsert.BatchInserter;
 import org.neo4j.unsafe.batchinsert.BatchInserterIndexProvider;
 import org.neo4j.unsafe.batchinsert.BatchInserters;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -44,7 +48,7 @@ import java.util.Set;
  *
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  */
-public class Neo4j2BatchGraph implements KeyIndexableGraph, IndexableGraph, MetaGraph<BatchInserter> {
+public class Neo4j2BatchGraph implements KeyIndexableGraph, IndexableGraph, BulkWriteGraph, MetaGraph<BatchInserter> {
 
     private final BatchInserter rawGraph;
     private final BatchInserterIndexProvider indexProvider;
@@ -212,34 +216,62 @@ public class Neo4j2BatchGraph implements KeyIndexableGraph, IndexableGraph, Meta
      * @return the newly created vertex
      */
     public Vertex addVertex(final Object id) {
-
-        final Long finalId;
-        Map<String, Object> finalProperties = new HashMap<String, Object>();
-        if (null == id) {
-            rawGraph.createNode(++this.idCounter, finalProperties);
-            finalId = this.idCounter;
-        } else if (id instanceof Long) {
-            rawGraph.createNode((Long) id, finalProperties);
-            finalId = (Long) id;
-        } else if (id instanceof Map) {
-            finalProperties = makePropertyMap((Map<String, Object>) id);
+        if (id instanceof Map) {
+            final Map<String, Object> finalProperties = makePropertyMap((Map<String, Object>) id);
             final Long providedId = (Long) ((Map<String, Object>) id).get(Neo4j2BatchTokens.ID);
-            finalProperties.remove(Neo4j2BatchTokens.ID);
+            final Long finalId;
             if (providedId == null)
                 finalId = rawGraph.createNode(finalProperties);
             else {
                 rawGraph.createNode(providedId, finalProperties);
                 finalId = providedId;
             }
+            return new Neo4j2BatchVertex(this, finalId);
+        } else {
+            return this.createVertex(id, new HashMap<String, Object>());
+        }
+    }
+
+    /**
+     * The vertex is written with all its properties in one call to the batch inserter.
+     * The object id can either be null, a long id or an object convertible to long.
+     *
+     * @param id         a long id which can be null
+     * @param properties the properties of the vertex
+     * @return the newly created vertex
+     */
+    public Vertex addVertex(final Object id, final Map<String, ?> properties) {
+        ElementHelper.validateProperties(Vertex.class, properties);
+        return this.createVertex(id, new HashMap<String, Object>(properties));
+    }
+
+    public List<Vertex> addVertices(final List<VertexSpec> vertices) {
+        for (final VertexSpec spec : vertices) {
+            ElementHelper.validateProperties(Vertex.class, spec.getProperties());
+        }
+        final List<Vertex> added = new ArrayList<Vertex>(vertices.size());
+        for (final VertexSpec spec : vertices) {
+            added.add(this.createVertex(spec.getId(), new HashMap<String, Object>(spec.getProperties())));
+        }
+        return added;
+    }
+
+    private Vertex createVertex(final Object id, final Map<String, Object> properties) {
+        final Long finalId;
+        if (null == id) {
+            rawGraph.createNode(++this.idCounter, properties);
+            finalId = this.idCounter;
+        } else if (id instanceof Long) {
+            rawGraph.createNode((Long) id, properties);
+            finalId = (Long) id;
         } else {
             try {
                 finalId = Double.valueOf(id.toString()).longValue();
-                rawGraph.createNode(finalId, finalProperties);
             } catch (NumberFormatException e) {
                 throw new IllegalArgumentException("The provided object must be null, a long id, an object convertible to long, or a Map<String,Object>");
             }
+            rawGraph.createNode(finalId, properties);
         }
-
         return new Neo4j2BatchVertex(this, finalId);
     }
 
@@ -309,6 +341,36 @@ public class Neo4j2BatchGraph implements KeyIndexableGraph, IndexableGraph, Meta
         return new Neo4j2BatchEdge(this, finalId, label);
     }
 
+    /**
+     * The edge is written with all its properties in one call to the batch inserter. The id is ignored.
+     *
+     * @param properties the properties of the edge
+     * @return the newly created edge
+     */
+    public Edge addEdge(final Object id, final Vertex outVertex, final Vertex inVertex, final String label, final Map<String, ?> properties) {
+        if (label == null)
+            throw ExceptionFactory.edgeLabelCanNotBeNull();
+        ElementHelper.validateProperties(Edge.class, properties);
+
+        final Long finalId = this.rawGraph.createRelationship((Long) outVertex.getId(), (Long) inVertex.getId(), DynamicRelationshipType.withName(label), new HashMap<String, Object>(properties));
+        return new Neo4j2BatchEdge(this, finalId, label);
+    }
+
+    public List<Edge> addEdges(final List<EdgeSpec> edges) {
+        for (final EdgeSpec spec : edges) {
+            if (spec.getLabel() == null)
+                throw ExceptionFactory.edgeLabelCanNotBeNull();
+            ElementHelper.validateProperties(Edge.class, spec.getProperties());
+        }
+        final List<Edge> added = new ArrayList<Edge>(edges.size());
+        for (final EdgeSpec spec : edges) {
+            final Long finalId = this.rawGraph.createRelationship((Long) spec.getOutVertex().getId(), (Long) spec.getInVertex().getId(),
+                    DynamicRelationshipType.withName(spec.getLabel()), new HashMap<String, Object>(spec.getProperties()));
+            added.add(new Neo4j2BatchEdge(this, finalId, spec.getLabel()));
+        }
+        return added;
+    }
+
     /**
      * @throws UnsupportedOperationException
      */
@@ -35,6 +35,21 @@ final class RestHelper {
         }
     }
 
+    /**
+     * @return the response or null if the server answered with 404 Not Found
+     */
+    static JSONObject getIfFound(final String uri) {
+        try {
+            final HttpURLConnection connection = createConnection(uri, null, RexsterTokens.APPLICATION_REXSTER_TYPED_JSON);
+            connection.connect();
+            if (HttpURLConnection.HTTP_NOT_FOUND == connection.getResponseCode())
+                return null;
+            return new JSONObject(new JSONTokener(convertStreamToString(connection.getInputStream())));
+        } catch (Exception e) {
+            throw new RuntimeException(e.getMessage(), e);
+        }
+    }
+
     static JSONArray getResultArray(final String uri) {
         return RestHelper.get(safeUri(uri)).optJSONArray(RexsterTokens.RESULTS);
     }
@@ -1,5 +1,6 @@
 package com.tinkerpop.blueprints.impls.rexster;
 
+import com.tinkerpop.blueprints.BulkReadGraph;
 import com.tinkerpop.blueprints.Edge;
 import com.tinkerpop.blueprints.Element;
 import com.tinkerpop.blueprints.Features;
@@ -20,8 +21,10 @@ import org.codehaus.jettison.json.JSONException;
 import org.codehaus.jettison.json.JSONObject;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -31,11 +34,12 @@ import java.util.Set;
  *
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  */
-public class RexsterGraph implements IndexableGraph, KeyIndexableGraph, MetaGraph<JSONObject> {
+public class RexsterGraph implements IndexableGraph, KeyIndexableGraph, BulkReadGraph, MetaGraph<JSONObject> {
 
     public static final int DEFAULT_BUFFER_SIZE = 100;
     private final String graphURI;
     private int bufferSize;
+    private volatile boolean batchExtension = true;
 
     private static final Features FEATURES = new Features();
 
@@ -181,6 +185,98 @@ public class RexsterGraph implements IndexableGraph, KeyIndexableGraph, MetaGrap
         }
     }
 
+    /**
+     * The vertices are requested from the batch extension of Rexster, bufferSize ids per request.
+     * If the server does not provide the extension, they are requested one by one.
+     */
+    public List<Vertex> getVertices(final Collection<?> ids) {
+        final List<Vertex> vertices = new ArrayList<Vertex>(ids.size());
+        final Map<String, Element> found = this.getBatch(RexsterTokens.SLASH_BATCH_VERTICES, ids, true);
+        for (final Object id : ids) {
+            vertices.add((Vertex) found.get(id.toString()));
+        }
+        return vertices;
+    }
+
+    /**
+     * The edges are requested from the batch extension of Rexster, bufferSize ids per request.
+     * If the server does not provide the extension, they are requested one by one.
+     */
+    public List<Edge> getEdges(final Collection<?> ids) {
+        final List<Edge> edges = new ArrayList<Edge>(ids.size());
+        final Map<String, Element> found = this.getBatch(RexsterTokens.SLASH_BATCH_EDGES, ids, false);
+        for (final Object id : ids) {
+            edges.add((Edge) found.get(id.toString()));
+        }
+        return edges;
+    }
+
+    /**
+     * Once the server answered that it does not provide the batch extension, the ids of the chunk and of all later
+     * chunks are requested one by one, while the elements of the chunks fetched before are kept. Any other failure
+     * of a batch request is thrown.
+     *
+     * @return the elements found by the string of their id
+     */
+    private Map<String, Element> getBatch(final String path, final Collection<?> ids, final boolean vertices) {
+        final Map<String, Object> distinct = new LinkedHashMap<String, Object>();
+        for (final Object id : ids) {
+            if (null == id)
+                throw vertices ? ExceptionFactory.vertexIdCanNotBeNull() : ExceptionFactory.edgeIdCanNotBeNull();
+            distinct.put(id.toString(), id);
+        }
+
+        final Map<String, Element> found = new HashMap<String, Element>();
+        final List<String> chunk = new ArrayList<String>(this.bufferSize);
+        for (final Map.Entry<String, Object> entry : distinct.entrySet()) {
+            if (!this.batchExtension) {
+                this.getOne(entry.getKey(), entry.getValue(), found, vertices);
+                continue;
+            }
+            chunk.add(entry.getKey());
+            if (chunk.size() == this.bufferSize)
+                this.getBatch(path, chunk, distinct, found, vertices);
+        }
+        if (!chunk.isEmpty())
+            this.getBatch(path, chunk, distinct, found, vertices);
+        return found;
+    }
+
+    private void getBatch(final String path, final List<String> chunk, final Map<String, Object> distinct,
+                          final Map<String, Element> found, final boolean vertices) {
+        final StringBuilder uri = new StringBuilder(this.graphURI + path + RexsterTokens.QUESTION + RexsterTokens.VALUES_EQUALS + RexsterTokens.LEFT_SQUARE_BRACKET);
+        for (int i = 0; i < chunk.size(); i++) {
+            if (i > 0) uri.append(RexsterTokens.COMMA);
+            uri.append(RestHelper.encode(chunk.get(i)));
+        }
+        uri.append(RexsterTokens.RIGHT_SQUARE_BRACKET);
+
+        final JSONObject response = this.batchExtension ? RestHelper.getIfFound(uri.toString()) : null;
+        if (null == response) {
+            // the extension is not installed on the server, which is not asked again
+            this.batchExtension = false;
+            for (final String id : chunk) {
+                this.getOne(id, distinct.get(id), found, vertices);
+            }
+        } else {
+            final JSONArray results = response.optJSONArray(RexsterTokens.RESULTS);
+            if (null == results)
+                throw new RuntimeException("The batch extension returned no results: " + uri);
+            for (int ix = 0; ix < results.length(); ix++) {
+                final JSONObject json = results.optJSONObject(ix);
+                if (null != json)
+                    found.put(json.opt(RexsterTokens._ID).toString(), vertices ? new RexsterVertex(json, this) : new RexsterEdge(json, this));
+            }
+        }
+        chunk.clear();
+    }
+
+    private void getOne(final String key, final Object id, final Map<String, Element> found, final boolean vertices) {
+        final Element element = vertices ? this.getVertex(id) : this.getEdge(id);
+        if (null != element)
+            found.put(key, element);
+    }
+
     public Iterable<Edge> getEdges() {
         return new RexsterEdgeIterable(this.graphURI + RexsterTokens.SLASH_EDGES, this);
     }
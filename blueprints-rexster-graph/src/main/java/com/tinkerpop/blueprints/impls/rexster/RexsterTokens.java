@@ -55,6 +55,8 @@ class RexsterTokens {
     public static final String SLASH_BOTHIDS = "/bothv";
 
     public static final String SLASH_GREMLIN = "/tp/gremlin";
+    public static final String SLASH_BATCH_VERTICES = "/tp/batch/vertices";
+    public static final String SLASH_BATCH_EDGES = "/tp/batch/edges";
 
     public static final String AND = "&";
     public static final String COMMA = ",";
@@ -68,6 +70,7 @@ class RexsterTokens {
     public static final String KEYS_EQUALS = "keys=";
     public static final String VALUE = "value";
     public static final String VALUE_EQUALS = "value=";
+    public static final String VALUES_EQUALS = "values=";
     public static final String TYPE = "type";
     public static final String TYPE_EQUALS = "type=";
     public static final String ID_EQUALS = "id=";
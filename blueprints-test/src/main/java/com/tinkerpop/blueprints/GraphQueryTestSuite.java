@@ -127,6 +127,42 @@ public class GraphQueryTestSuite extends TestSuite {
         graph.shutdown();
     }
 
+    public void testGraphQuerySkipAndCursor() {
+        Graph graph = graphTest.generateGraph();
+        if (graph.getFeatures().supportsVertexProperties && graph.getFeatures().supportsVertexIteration) {
+            for (int i = 0; i < 10; i++) {
+                graph.addVertex(null).setProperty("group", i % 2 == 0 ? "even" : "odd");
+            }
+
+            assertEquals(count(graph.query().has("group", "even").vertices()), 5);
+            assertEquals(count(graph.query().has("group", "even").skip(2).vertices()), 3);
+            assertEquals(count(graph.query().has("group", "even").skip(2).limit(2).vertices()), 2);
+            assertEquals(count(graph.query().has("group", "even").skip(5).vertices()), 0);
+            assertEquals(count(graph.query().skip(20).vertices()), 0);
+
+            final Set<Vertex> paged = new HashSet<Vertex>();
+            String cursor = null;
+            int pages = 0;
+            while (true) {
+                final Iterable<Vertex> page = graph.query().has("group", "even").cursor(cursor).limit(2).vertices();
+                final List<Vertex> vertices = asList(page);
+                if (vertices.isEmpty())
+                    break;
+                for (final Vertex vertex : vertices) {
+                    assertEquals(vertex.getProperty("group"), "even");
+                    assertTrue(paged.add(vertex));
+                }
+                assertTrue(page instanceof CursorIterable);
+                cursor = ((CursorIterable<Vertex>) page).getCursor();
+                assertNotNull(cursor);
+                assertTrue(++pages <= 3);
+            }
+            assertEquals(paged.size(), 5);
+            assertEquals(pages, 3);
+        }
+        graph.shutdown();
+    }
+
     public void testGraphQueryForHasOR() {
         Graph graph = graphTest.generateGraph();
         if (graph.getFeatures().supportsEdgeIndex && graph instanceof KeyIndexableGraph) {
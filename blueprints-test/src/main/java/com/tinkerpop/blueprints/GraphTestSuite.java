@@ -1,9 +1,11 @@
 package com.tinkerpop.blueprints;
 
 import com.tinkerpop.blueprints.impls.GraphTest;
+import com.tinkerpop.blueprints.util.GraphHelper;
 import com.tinkerpop.blueprints.util.io.MockSerializable;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -182,6 +184,119 @@ public class GraphTestSuite extends TestSuite {
         graph.shutdown();
     }
 
+    public void testGettingVerticesAndEdgesByIds() {
+        Graph graph = graphTest.generateGraph();
+        List<Vertex> vertices = new ArrayList<Vertex>();
+        for (int i = 0; i < 10; i++) {
+            vertices.add(graph.addVertex(null));
+        }
+        List<Edge> edges = new ArrayList<Edge>();
+        for (int i = 1; i < 10; i++) {
+            edges.add(graph.addEdge(null, vertices.get(i - 1), vertices.get(i), graphTest.convertLabel("next")));
+        }
+        Vertex removedVertex = graph.addVertex(null);
+        Object removedVertexId = removedVertex.getId();
+        Edge removedEdge = graph.addEdge(null, vertices.get(0), vertices.get(9), graphTest.convertLabel("next"));
+        Object removedEdgeId = removedEdge.getId();
+        graph.removeEdge(removedEdge);
+        graph.removeVertex(removedVertex);
+
+        List<Object> ids = new ArrayList<Object>();
+        for (int i = 9; i >= 0; i--) {
+            ids.add(vertices.get(i).getId());
+            if (i == 5) {
+                ids.add(removedVertexId);
+                ids.add(vertices.get(7).getId());
+            }
+        }
+        this.stopWatch();
+        List<Vertex> found = GraphHelper.getVertices(graph, ids);
+        printPerformance(graph.toString(), ids.size(), "vertices retrieved by id", this.stopWatch());
+        assertEquals(12, found.size());
+        for (int i = 0; i < found.size(); i++) {
+            if (ids.get(i).equals(removedVertexId))
+                assertNull(found.get(i));
+            else
+                assertEquals(graph.getVertex(ids.get(i)), found.get(i));
+        }
+        assertEquals(vertices.get(9), found.get(0));
+        assertEquals(vertices.get(7), found.get(6));
+        assertTrue(GraphHelper.getVertices(graph, new ArrayList<Object>()).isEmpty());
+
+        if (graph.getFeatures().supportsEdgeRetrieval) {
+            ids.clear();
+            ids.add(removedEdgeId);
+            for (Edge edge : edges) {
+                ids.add(0, edge.getId());
+            }
+            List<Edge> foundEdges = GraphHelper.getEdges(graph, ids);
+            assertEquals(10, foundEdges.size());
+            assertNull(foundEdges.get(9));
+            for (int i = 0; i < 9; i++) {
+                assertEquals(edges.get(8 - i), foundEdges.get(i));
+            }
+        }
+        graph.shutdown();
+    }
+
+    public void testAddingVerticesAndEdgesWithProperties() {
+        Graph graph = graphTest.generateGraph();
+        if (graph.getFeatures().supportsVertexProperties && graph.getFeatures().supportsStringProperty && graph.getFeatures().supportsIntegerProperty) {
+            Map<String, Object> properties = new HashMap<String, Object>();
+            properties.put("name", "marko");
+            properties.put("age", 29);
+            Vertex marko = GraphHelper.addVertex(graph, null, properties);
+            assertEquals("marko", marko.getProperty("name"));
+            assertEquals(29, marko.getProperty("age"));
+            assertEquals(2, marko.getPropertyKeys().size());
+
+            List<BulkWriteGraph.VertexSpec> vertexSpecs = new ArrayList<BulkWriteGraph.VertexSpec>();
+            for (int i = 0; i < 10; i++) {
+                Map<String, Object> vertexProperties = new HashMap<String, Object>();
+                vertexProperties.put("name", "v" + i);
+                vertexProperties.put("number", i);
+                vertexSpecs.add(new BulkWriteGraph.VertexSpec(null, vertexProperties));
+            }
+            List<Vertex> vertices = GraphHelper.addVertices(graph, vertexSpecs);
+            assertEquals(10, vertices.size());
+            for (int i = 0; i < 10; i++) {
+                assertEquals("v" + i, vertices.get(i).getProperty("name"));
+                assertEquals(i, vertices.get(i).getProperty("number"));
+            }
+            if (graph.getFeatures().supportsVertexIteration) {
+                assertEquals(11, count(graph.getVertices()));
+            }
+
+            try {
+                properties.put("nothing", null);
+                GraphHelper.addVertex(graph, null, properties);
+                assertTrue(false);
+            } catch (IllegalArgumentException e) {
+                assertTrue(true);
+            }
+
+            if (graph.getFeatures().supportsEdgeProperties) {
+                Edge edge = GraphHelper.addEdge(graph, null, marko, vertices.get(0), graphTest.convertLabel("knows"), Collections.singletonMap("weight", 5));
+                assertEquals(5, edge.getProperty("weight"));
+                assertEquals(marko, edge.getVertex(Direction.OUT));
+
+                List<BulkWriteGraph.EdgeSpec> edgeSpecs = new ArrayList<BulkWriteGraph.EdgeSpec>();
+                for (int i = 1; i < 10; i++) {
+                    edgeSpecs.add(new BulkWriteGraph.EdgeSpec(null, vertices.get(i - 1), vertices.get(i), graphTest.convertLabel("next"), Collections.singletonMap("number", i)));
+                }
+                List<Edge> edges = GraphHelper.addEdges(graph, edgeSpecs);
+                assertEquals(9, edges.size());
+                for (int i = 1; i < 10; i++) {
+                    Edge next = edges.get(i - 1);
+                    assertEquals(i, next.getProperty("number"));
+                    assertEquals(vertices.get(i), next.getVertex(Direction.IN));
+                }
+                assertEquals(1, count(vertices.get(4).getEdges(Direction.OUT)));
+            }
+        }
+        graph.shutdown();
+    }
+
     public void testSettingProperties() {
         Graph graph = graphTest.generateGraph();
         if (graph.getFeatures().supportsEdgeProperties) {
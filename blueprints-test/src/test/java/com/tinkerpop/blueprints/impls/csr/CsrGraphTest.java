@@ -0,0 +1,208 @@
+package com.tinkerpop.blueprints.impls.csr;
+
+import com.tinkerpop.blueprints.BaseTest;
+import com.tinkerpop.blueprints.Direction;
+import com.tinkerpop.blueprints.Edge;
+import com.tinkerpop.blueprints.Element;
+import com.tinkerpop.blueprints.Vertex;
+import com.tinkerpop.blueprints.impls.tg.TinkerGraph;
+import com.tinkerpop.blueprints.impls.tg.TinkerGraphFactory;
+import com.tinkerpop.blueprints.util.ElementHelper;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+public class CsrGraphTest extends BaseTest {
+
+    public void testSnapshotOfTinkerGraph() {
+        final TinkerGraph source = TinkerGraphFactory.createTinkerGraph();
+        final CsrGraph graph = new CsrGraph.Builder(source).build();
+        assertEquals(6, graph.getVertexCount());
+        assertEquals(6, graph.getEdgeCount());
+        assertEquals(6, count(graph.getVertices()));
+        assertEquals(6, count(graph.getEdges()));
+        assertFalse(graph.getFeatures().supportsTransactions);
+
+        for (final Vertex vertex : source.getVertices()) {
+            final Vertex other = graph.getVertex(vertex.getId());
+            assertEquals(vertex.getId(), other.getId());
+            assertTrue(ElementHelper.haveEqualProperties(vertex, other));
+            for (final Direction direction : Direction.values()) {
+                assertEquals(ids(vertex.getEdges(direction)), ids(other.getEdges(direction)));
+                assertEquals(ids(vertex.getVertices(direction)), ids(other.getVertices(direction)));
+                assertEquals(ids(vertex.getEdges(direction, "knows")), ids(other.getEdges(direction, "knows")));
+                assertEquals(ids(vertex.getVertices(direction, "created", "knows")), ids(other.getVertices(direction, "created", "knows")));
+                assertEquals(count(vertex.getEdges(direction)), graph.getDegree(graph.getVertexIndex(vertex.getId()), direction));
+            }
+            assertEquals(0, count(other.getEdges(Direction.OUT, "unknown")));
+        }
+        for (final Edge edge : source.getEdges()) {
+            final Edge other = graph.getEdge(edge.getId());
+            assertEquals(edge.getLabel(), other.getLabel());
+            assertTrue(ElementHelper.haveEqualProperties(edge, other));
+            assertEquals(edge.getVertex(Direction.OUT), source.getVertex(other.getVertex(Direction.OUT).getId()));
+            assertEquals(edge.getVertex(Direction.IN), source.getVertex(other.getVertex(Direction.IN).getId()));
+        }
+
+        // ids of TinkerGraph are strings, which may be looked up by numbers as well
+        assertEquals(graph.getVertex("1"), graph.getVertex(1));
+        assertEquals("marko", graph.getVertex(1).getProperty("name"));
+        assertNull(graph.getVertex(100));
+        assertNull(graph.getEdge("100"));
+        try {
+            graph.getVertex(null);
+            fail();
+        } catch (IllegalArgumentException e) {
+        }
+
+        assertEquals(1, count(graph.getVertices("name", "marko")));
+        assertEquals(2, count(graph.getEdges("weight", 1.0f)));
+        assertEquals(0, count(graph.getVertices("unknown", "marko")));
+        assertEquals(0, count(graph.getVertices("name", null)));
+        assertEquals(2, count(graph.query().has("lang", "java").vertices()));
+        assertEquals(2, count(graph.getVertex(1).query().direction(Direction.OUT).labels("knows").vertices()));
+    }
+
+    public void testPropertyKeys() {
+        final CsrGraph graph = new CsrGraph.Builder(TinkerGraphFactory.createTinkerGraph()).vertexKeys("name").edgeKeys().build();
+        final Vertex marko = graph.getVertex(1);
+        assertEquals("marko", marko.getProperty("name"));
+        assertNull(marko.getProperty("age"));
+        assertEquals(1, marko.getPropertyKeys().size());
+        assertEquals(0, graph.getEdge(7).getPropertyKeys().size());
+    }
+
+    public void testReadOnly() {
+        final CsrGraph graph = new CsrGraph.Builder(TinkerGraphFactory.createTinkerGraph()).build();
+        final Vertex marko = graph.getVertex(1);
+        try {
+            graph.addVertex(null);
+            fail();
+        } catch (UnsupportedOperationException e) {
+        }
+        try {
+            graph.removeVertex(marko);
+            fail();
+        } catch (UnsupportedOperationException e) {
+        }
+        try {
+            marko.addEdge("knows", marko);
+            fail();
+        } catch (UnsupportedOperationException e) {
+        }
+        try {
+            marko.setProperty("name", "okram");
+            fail();
+        } catch (UnsupportedOperationException e) {
+        }
+        try {
+            graph.getEdge(7).removeProperty("weight");
+            fail();
+        } catch (UnsupportedOperationException e) {
+        }
+        try {
+            graph.getEdge(7).remove();
+            fail();
+        } catch (UnsupportedOperationException e) {
+        }
+        assertEquals("marko", marko.getProperty("name"));
+    }
+
+    public void testPrimitiveAccess() {
+        final CsrGraph graph = new CsrGraph.Builder(TinkerGraphFactory.createTinkerGraph()).build();
+        final int marko = graph.getVertexIndex("1");
+        assertEquals(-1, graph.getVertexIndex("100"));
+        assertEquals("1", graph.getVertexId(marko));
+        assertEquals(3, graph.getDegree(marko, Direction.OUT));
+        assertEquals(0, graph.getDegree(marko, Direction.IN));
+        assertEquals(3, graph.getDegree(marko, Direction.BOTH));
+        assertEquals("marko", graph.getVertexProperty(marko, "name"));
+        assertNull(graph.getVertexProperty(marko, "unknown"));
+
+        final int knows = graph.getLabelIndex("knows");
+        assertEquals("knows", graph.getLabels().get(knows));
+        assertEquals(-1, graph.getLabelIndex("unknown"));
+        final int start = graph.getLabelStart(marko, Direction.OUT, knows);
+        final int end = graph.getLabelEnd(marko, Direction.OUT, knows);
+        assertEquals(2, end - start);
+        final Set<Object> known = new HashSet<Object>();
+        for (int i = start; i < end; i++) {
+            known.add(graph.getVertexId(graph.getAdjacentVertices(Direction.OUT)[i]));
+            final int edge = graph.getAdjacentEdges(Direction.OUT)[i];
+            assertEquals("knows", graph.getLabel(edge));
+            assertEquals(knows, graph.getAdjacentLabels(Direction.OUT)[i]);
+            assertEquals(marko, graph.getOutVertex(edge));
+            assertEquals(graph.getAdjacentVertices(Direction.OUT)[i], graph.getInVertex(edge));
+            assertEquals(edge, graph.getEdgeIndex(graph.getEdgeId(edge)));
+        }
+        assertEquals(new HashSet<Object>(Arrays.asList("2", "4")), known);
+
+        final int[] offsets = graph.getOffsets(Direction.IN);
+        assertEquals(graph.getVertexCount() + 1, offsets.length);
+        assertEquals(graph.getEdgeCount(), offsets[graph.getVertexCount()]);
+        try {
+            graph.getOffsets(Direction.BOTH);
+            fail();
+        } catch (IllegalArgumentException e) {
+        }
+    }
+
+    public void testTraversalPerformance() {
+        final TinkerGraph source = new TinkerGraph();
+        final Random random = new Random(42);
+        final int vertices = 10000;
+        for (int i = 0; i < vertices; i++) {
+            source.addVertex(i);
+        }
+        for (int i = 0; i < vertices * 10; i++) {
+            source.addEdge(null, source.getVertex(random.nextInt(vertices)), source.getVertex(random.nextInt(vertices)), i % 2 == 0 ? "a" : "b");
+        }
+
+        this.stopWatch();
+        final CsrGraph graph = new CsrGraph.Builder(source).build();
+        printPerformance(graph.toString(), vertices, "vertices compiled", this.stopWatch());
+
+        this.stopWatch();
+        long expected = 0;
+        for (final Vertex vertex : source.getVertices()) {
+            for (final Vertex adjacent : vertex.getVertices(Direction.OUT, "a")) {
+                expected += count(adjacent.getVertices(Direction.OUT, "a"));
+            }
+        }
+        printPerformance(source.toString(), vertices, "vertices traversed 2 steps", this.stopWatch());
+
+        this.stopWatch();
+        final int label = graph.getLabelIndex("a");
+        final int[] targets = graph.getAdjacentVertices(Direction.OUT);
+        long actual = 0;
+        for (int v = 0; v < graph.getVertexCount(); v++) {
+            final int end = graph.getLabelEnd(v, Direction.OUT, label);
+            for (int i = graph.getLabelStart(v, Direction.OUT, label); i < end; i++) {
+                final int w = targets[i];
+                actual += graph.getLabelEnd(w, Direction.OUT, label) - graph.getLabelStart(w, Direction.OUT, label);
+            }
+        }
+        printPerformance(graph.toString(), vertices, "vertices traversed 2 steps with primitive access", this.stopWatch());
+        assertEquals(expected, actual);
+
+        this.stopWatch();
+        long views = 0;
+        for (final Vertex vertex : graph.getVertices()) {
+            for (final Vertex adjacent : vertex.getVertices(Direction.OUT, "a")) {
+                views += count(adjacent.getVertices(Direction.OUT, "a"));
+            }
+        }
+        printPerformance(graph.toString(), vertices, "vertices traversed 2 steps through the Graph interface", this.stopWatch());
+        assertEquals(expected, views);
+    }
+
+    private static Set<Object> ids(final Iterable<? extends Element> elements) {
+        final Set<Object> ids = new HashSet<Object>();
+        for (final Element element : elements) {
+            ids.add(element.getId());
+        }
+        return ids;
+    }
+}
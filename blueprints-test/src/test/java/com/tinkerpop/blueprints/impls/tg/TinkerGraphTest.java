@@ -16,6 +16,7 @@ import com.tinkerpop.blueprints.VertexQueryTestSuite;
 import com.tinkerpop.blueprints.VertexTestSuite;
 import com.tinkerpop.blueprints.impls.GraphTest;
 import com.tinkerpop.blueprints.util.ElementHelper;
+import com.tinkerpop.blueprints.util.KeyIndexBuild;
 import com.tinkerpop.blueprints.util.io.gml.GMLReaderTestSuite;
 import com.tinkerpop.blueprints.util.io.graphml.GraphMLReaderTestSuite;
 import com.tinkerpop.blueprints.util.io.graphson.GraphSONReaderTestSuite;
@@ -23,8 +24,14 @@ import com.tinkerpop.blueprints.util.io.graphson.GraphSONWriterTestSuite;
 
 import java.io.File;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author Marko A. Rodriguez (http://markorodriguez.com)
@@ -197,6 +204,120 @@ public class TinkerGraphTest extends GraphTest {
         printPerformance(graph.toString(), iterations, "iterations of shutdown and restart", this.stopWatch());
     }
 
+    public void testBuildKeyIndex() throws Exception {
+        final TinkerGraph graph = new TinkerGraph();
+        final Vertex[] vertices = new Vertex[10];
+        for (int i = 0; i < vertices.length; i++) {
+            vertices[i] = graph.addVertex(i);
+            if (i < 9)
+                vertices[i].setProperty("type", i % 2 == 0 ? "even" : "odd");
+        }
+
+        final QueuedExecutor executor = new QueuedExecutor();
+        final KeyIndexBuild build = graph.buildKeyIndex("type", Vertex.class, executor, 3);
+        assertEquals(4, executor.tasks.size());
+        assertEquals(10, build.getElementCount());
+        assertEquals(0.0d, build.getProgress());
+        assertSame(build, graph.getKeyIndexBuild("type", Vertex.class));
+        assertFalse(graph.getIndexedKeys(Vertex.class).contains("type"));
+        try {
+            graph.buildKeyIndex("type", Vertex.class, executor, 3);
+            fail();
+        } catch (IllegalStateException e) {
+        }
+
+        executor.runNext();
+        assertEquals(3, build.getProcessedCount());
+        assertFalse(build.isDone());
+
+        // writes during the build
+        for (final Vertex vertex : graph.getVertices()) {
+            if (vertex.getId().equals("0")) vertex.setProperty("type", "odd");
+            if (vertex.getId().equals("9")) vertex.setProperty("type", "even");
+            if (vertex.getId().equals("2")) vertex.removeProperty("type");
+        }
+        graph.removeVertex(graph.getVertex(1));
+        graph.removeVertex(graph.getVertex(4));
+        graph.addVertex(null).setProperty("type", "even");
+        assertEquals(4, count(graph.getVertices("type", "even")));
+        assertEquals(4, count(graph.getVertices("type", "odd")));
+        assertFalse(graph.getIndexedKeys(Vertex.class).contains("type"));
+
+        while (!executor.tasks.isEmpty()) {
+            executor.runNext();
+        }
+        assertTrue(build.isDone());
+        assertEquals(1.0d, build.getProgress());
+        assertNull(graph.getKeyIndexBuild("type", Vertex.class));
+        assertTrue(graph.getIndexedKeys(Vertex.class).contains("type"));
+        assertEquals(4, count(graph.getVertices("type", "even")));
+        assertEquals(4, count(graph.getVertices("type", "odd")));
+        for (final Vertex vertex : graph.getVertices("type", "even")) {
+            assertEquals("even", vertex.getProperty("type"));
+        }
+        assertEquals(build.getIndexedCount(), build.get().longValue());
+
+        // an indexed key is built at once
+        assertTrue(graph.buildKeyIndex("type", Vertex.class, executor).isDone());
+        assertTrue(executor.tasks.isEmpty());
+    }
+
+    public void testBuildKeyIndexCancel() throws Exception {
+        final TinkerGraph graph = TinkerGraphFactory.createTinkerGraph();
+        final QueuedExecutor executor = new QueuedExecutor();
+        final KeyIndexBuild build = graph.buildKeyIndex("weight", Edge.class, executor, 2);
+        graph.dropKeyIndex("weight", Edge.class);
+        assertTrue(build.isCancelled());
+        while (!executor.tasks.isEmpty()) {
+            executor.runNext();
+        }
+        assertEquals(0, build.getProcessedCount());
+        assertFalse(graph.getIndexedKeys(Edge.class).contains("weight"));
+        assertEquals(2, count(graph.getEdges("weight", 1.0f)));
+
+        final KeyIndexBuild rebuild = graph.buildKeyIndex("weight", Edge.class, executor, 2);
+        graph.createKeyIndex("weight", Edge.class);
+        assertTrue(rebuild.isCancelled());
+        assertTrue(graph.getIndexedKeys(Edge.class).contains("weight"));
+        assertEquals(2, count(graph.getEdges("weight", 1.0f)));
+    }
+
+    public void testBuildKeyIndexInParallel() throws Exception {
+        final TinkerGraph graph = new TinkerGraph();
+        final int total = 20000;
+        for (int i = 0; i < total; i++) {
+            graph.addVertex(null).setProperty("group", i % 10);
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            this.stopWatch();
+            final KeyIndexBuild build = graph.buildKeyIndex("group", Vertex.class, executor);
+            // the graph stays writable during the build
+            for (int i = 0; i < 1000; i++) {
+                graph.addVertex(null).setProperty("group", 3);
+            }
+            assertEquals(total, build.get(10, TimeUnit.SECONDS).longValue());
+            printPerformance(graph.toString(), total, "vertices indexed in the background", this.stopWatch());
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(total / 10 + 1000, count(graph.getVertices("group", 3)));
+        assertEquals(total / 10, count(graph.getVertices("group", 7)));
+    }
+
+    private static class QueuedExecutor implements Executor {
+        private final List<Runnable> tasks = new ArrayList<Runnable>();
+
+        public void execute(final Runnable task) {
+            this.tasks.add(task);
+        }
+
+        private void runNext() {
+            this.tasks.remove(0).run();
+        }
+    }
+
     public void testGraphFileTypeJava() {
         testGraphFileType("graph-test-java", TinkerGraph.FileType.JAVA);
     }
@@ -0,0 +1,142 @@
+package com.tinkerpop.blueprints.util;
+
+import com.tinkerpop.blueprints.BaseTest;
+import com.tinkerpop.blueprints.Compare;
+import com.tinkerpop.blueprints.Direction;
+import com.tinkerpop.blueprints.Edge;
+import com.tinkerpop.blueprints.Vertex;
+import com.tinkerpop.blueprints.impls.tg.TinkerGraph;
+import com.tinkerpop.blueprints.impls.tg.TinkerGraphFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class DefaultGraphQueryTest extends BaseTest {
+
+    public void testExplain() {
+        final TinkerGraph graph = TinkerGraphFactory.createTinkerGraph();
+        final DefaultGraphQuery query = (DefaultGraphQuery) graph.query().has("age", Compare.GREATER_THAN, 30).has("name", "josh").limit(1);
+        // TinkerGraph is an IdOrderedGraph, which is only read in order of ids for paged queries
+        QueryPlan plan = query.explain(Vertex.class);
+        assertEquals(QueryPlan.AccessPath.SCAN, plan.getAccessPath());
+        assertEquals(QueryPlan.AccessPath.SCAN, ((DefaultGraphQuery) graph.query().has("name", "josh").skip(1)).explain(Vertex.class).getAccessPath());
+        assertEquals(QueryPlan.AccessPath.ID_ORDERED, ((DefaultGraphQuery) graph.query().has("name", "josh").cursor(null)).explain(Vertex.class).getAccessPath());
+        assertNull(plan.getIndexKey());
+        assertEquals(Arrays.asList("age GREATER_THAN 30", "name EQUAL josh"), plan.getFilters());
+        assertEquals(1, plan.getLimit());
+
+        graph.createKeyIndex("name", Vertex.class);
+        plan = query.explain(Vertex.class);
+        assertEquals(QueryPlan.AccessPath.KEY_INDEX, plan.getAccessPath());
+        assertEquals("name", plan.getIndexKey());
+        assertEquals("josh", plan.getIndexValue());
+        assertEquals(QueryPlan.AccessPath.SCAN, query.explain(Edge.class).getAccessPath());
+        assertEquals(QueryPlan.AccessPath.ID_ORDERED, ((DefaultGraphQuery) graph.query().has("name", "josh").cursor(null)).explain(Edge.class).getAccessPath());
+        assertTrue(plan.toString().contains("KEY_INDEX on name=josh"));
+
+        final DefaultVertexQuery vertexQuery = (DefaultVertexQuery) graph.getVertex(1).query().direction(Direction.OUT).labels("knows");
+        plan = vertexQuery.explain(Vertex.class);
+        assertEquals(QueryPlan.AccessPath.ADJACENCY, plan.getAccessPath());
+        assertEquals(Direction.OUT, plan.getDirection());
+        assertEquals(Arrays.asList("knows"), Arrays.asList(plan.getLabels()));
+    }
+
+    public void testProfile() {
+        final TinkerGraph graph = new TinkerGraph();
+        for (int i = 0; i < 100; i++) {
+            final Vertex vertex = graph.addVertex(null);
+            vertex.setProperty("age", i);
+            vertex.setProperty("name", i % 2 == 0 ? "even" : "odd");
+        }
+
+        QueryProfile profile = ((DefaultGraphQuery) graph.query().has("age", Compare.GREATER_THAN_EQUAL, 50).has("name", "even").skip(5)).profile(Vertex.class);
+        assertTrue(profile.isFinished());
+        assertEquals(QueryPlan.AccessPath.SCAN, profile.getPlan().getAccessPath());
+        assertEquals(100, profile.getScannedCount());
+        assertEquals(50, profile.getRejectedCount(0));
+        assertEquals(25, profile.getRejectedCount(1));
+        assertEquals(75, profile.getRejectedCount());
+        assertEquals(5, profile.getSkippedCount());
+        assertEquals(20, profile.getReturnedCount());
+        assertEquals(profile.getSourceTime() + profile.getScanTime() + profile.getFilterTime(), profile.getTotalTime());
+        assertTrue(profile.getFilterTime() > 0);
+
+        // the key index is used instead of a scan, and the limit stops the query early
+        graph.createKeyIndex("name", Vertex.class);
+        profile = ((DefaultGraphQuery) graph.query().has("name", "even").limit(10)).profile(Vertex.class);
+        assertEquals(QueryPlan.AccessPath.KEY_INDEX, profile.getPlan().getAccessPath());
+        assertEquals(10, profile.getScannedCount());
+        assertEquals(10, profile.getReturnedCount());
+        assertEquals(0, profile.getRejectedCount());
+    }
+
+    public void testVertexQueryProfile() {
+        final TinkerGraph graph = TinkerGraphFactory.createTinkerGraph();
+        QueryProfile profile = ((DefaultVertexQuery) graph.getVertex(1).query().direction(Direction.OUT).has("weight", Compare.GREATER_THAN, 0.45f)).profile(Edge.class);
+        assertEquals(3, profile.getScannedCount());
+        assertEquals(1, profile.getRejectedCount(0));
+        assertEquals(2, profile.getReturnedCount());
+
+        profile = ((DefaultVertexQuery) graph.getVertex(1).query().direction(Direction.OUT).limit(1)).profile(Vertex.class);
+        assertEquals(1, profile.getScannedCount());
+        assertEquals(1, profile.getReturnedCount());
+    }
+
+    public void testSlowQueryListener() {
+        final TinkerGraph graph = TinkerGraphFactory.createTinkerGraph();
+        final List<QueryProfile> slowQueries = new ArrayList<QueryProfile>();
+        final SlowQueryListener listener = new SlowQueryListener() {
+            public void slowQuery(final QueryProfile profile) {
+                slowQueries.add(profile);
+            }
+        };
+
+        graph.setSlowQueryListener(listener, 0);
+        assertSame(listener, graph.getSlowQueryListener());
+        assertSame(listener, ((DefaultQuery) graph.query()).getSlowQueryListener());
+        assertEquals(2, count(graph.query().has("lang", "java").vertices()));
+        assertEquals(2, count(graph.getVertex(1).query().labels("knows").edges()));
+        assertEquals(2, slowQueries.size());
+        assertEquals(6, slowQueries.get(0).getScannedCount());
+        assertEquals(2, slowQueries.get(0).getReturnedCount());
+        assertEquals(QueryPlan.AccessPath.ADJACENCY, slowQueries.get(1).getPlan().getAccessPath());
+
+        // queries not iterated to their end are not reported
+        graph.query().vertices().iterator().next();
+        assertEquals(2, slowQueries.size());
+
+        graph.setSlowQueryListener(listener, 60000);
+        assertEquals(6, count(graph.query().vertices()));
+        assertEquals(2, slowQueries.size());
+
+        // the listener is configured per graph
+        final TinkerGraph other = TinkerGraphFactory.createTinkerGraph();
+        assertNull(other.getSlowQueryListener());
+        assertEquals(6, count(other.query().vertices()));
+        assertEquals(2, slowQueries.size());
+
+        graph.setSlowQueryListener(null, 0);
+        assertEquals(6, count(graph.query().vertices()));
+        assertEquals(2, slowQueries.size());
+
+        // and can be set on a single query
+        final DefaultGraphQuery query = (DefaultGraphQuery) other.query();
+        query.setSlowQueryListener(listener, 0);
+        assertEquals(6, count(query.vertices()));
+        assertEquals(3, slowQueries.size());
+        assertEquals(6, count(other.query().vertices()));
+        assertEquals(3, slowQueries.size());
+
+        try {
+            graph.setSlowQueryListener(listener, -1);
+            fail();
+        } catch (IllegalArgumentException e) {
+        }
+        try {
+            query.setSlowQueryListener(listener, -1);
+            fail();
+        } catch (IllegalArgumentException e) {
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.tinkerpop.blueprints.util;
+
+import com.tinkerpop.blueprints.BaseTest;
+import com.tinkerpop.blueprints.TransactionalGraph;
+import com.tinkerpop.blueprints.Vertex;
+import com.tinkerpop.blueprints.impls.tg.TinkerGraph;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class GroupCommitExecutorTest extends BaseTest {
+
+    public void testBatchesFromManyThreads() throws Exception {
+        final CountingTransactionalGraph graph = new CountingTransactionalGraph();
+        final GroupCommitExecutor executor = new GroupCommitExecutor.Builder(graph).maxBatchSize(50).maxDelay(5).build();
+        final List<Future<Object>> futures = new ArrayList<Future<Object>>();
+        final List<Thread> threads = new ArrayList<Thread>();
+        for (int t = 0; t < 10; t++) {
+            final int thread = t;
+            threads.add(new Thread() {
+                public void run() {
+                    for (int i = 0; i < 100; i++) {
+                        final Future<Object> future = executor.submit(addVertex(thread + ":" + i));
+                        synchronized (futures) {
+                            futures.add(future);
+                        }
+                    }
+                }
+            });
+        }
+        for (final Thread thread : threads) {
+            thread.start();
+        }
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+
+        for (final Future<Object> future : futures) {
+            final Object id = future.get(10, TimeUnit.SECONDS);
+            assertTrue(future.isDone());
+            assertNotNull(graph.getVertex(id));
+        }
+        assertEquals(1000, count(graph.getVertices()));
+        assertEquals(1000, executor.getCommittedCount());
+        assertEquals(0, executor.getFailedBatchCount());
+        assertTrue(graph.commits.get() < 1000);
+        assertEquals(graph.commits.get(), executor.getBatchCount());
+
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+    }
+
+    public void testFallbackToSingleUnits() throws Exception {
+        final CountingTransactionalGraph graph = new CountingTransactionalGraph();
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final GroupCommitExecutor executor = new GroupCommitExecutor.Builder(graph).build();
+
+        // hold the writer so that the following units are batched together
+        executor.submit(new TransactionWork<Object>() {
+            public Object execute(final TransactionalGraph graph) throws Exception {
+                blocked.countDown();
+                release.await();
+                return null;
+            }
+        });
+        blocked.await();
+        final Future<Object> first = executor.submit(addVertex("a"));
+        final Future<Object> failing = executor.submit(new TransactionWork<Object>() {
+            public Object execute(final TransactionalGraph graph) throws Exception {
+                throw new IllegalStateException("failing unit");
+            }
+        });
+        final Future<Object> last = executor.submit(addVertex("b"));
+        release.countDown();
+
+        assertEquals("a", first.get(10, TimeUnit.SECONDS));
+        assertEquals("b", last.get(10, TimeUnit.SECONDS));
+        try {
+            failing.get(10, TimeUnit.SECONDS);
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+        assertEquals(1, executor.getFailedBatchCount());
+        assertEquals(1, executor.getFailedCount());
+        assertEquals(3, executor.getCommittedCount());
+        assertEquals(2, count(graph.getVertices()));
+
+        // a failing commit falls back as well
+        graph.failCommits.set(1);
+        assertEquals("c", executor.submit(addVertex("c")).get(10, TimeUnit.SECONDS));
+        assertEquals(2, executor.getFailedBatchCount());
+        executor.shutdown();
+    }
+
+    public void testErrorFailsBatch() throws Exception {
+        final CountingTransactionalGraph graph = new CountingTransactionalGraph();
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final GroupCommitExecutor executor = new GroupCommitExecutor.Builder(graph).build();
+
+        executor.submit(new TransactionWork<Object>() {
+            public Object execute(final TransactionalGraph graph) throws Exception {
+                blocked.countDown();
+                release.await();
+                return null;
+            }
+        });
+        blocked.await();
+        final List<Future<Object>> batch = new ArrayList<Future<Object>>();
+        batch.add(executor.submit(addVertex("a")));
+        batch.add(executor.submit(new TransactionWork<Object>() {
+            public Object execute(final TransactionalGraph graph) throws Exception {
+                throw new AssertionError("failing unit");
+            }
+        }));
+        batch.add(executor.submit(addVertex("b")));
+        release.countDown();
+
+        for (final Future<Object> future : batch) {
+            try {
+                future.get(10, TimeUnit.SECONDS);
+                fail();
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof AssertionError);
+            }
+        }
+        assertEquals(1, graph.rollbacks.get());
+        assertEquals(1, executor.getFailedBatchCount());
+        assertEquals(3, executor.getFailedCount());
+
+        // the writer keeps running
+        assertEquals("c", executor.submit(addVertex("c")).get(10, TimeUnit.SECONDS));
+
+        // an error of a unit executed on its own after a failed batch is rolled back as well
+        graph.failCommits.set(1);
+        final Future<Object> alone = executor.submit(new TransactionWork<Object>() {
+            private boolean first = true;
+
+            public Object execute(final TransactionalGraph graph) throws Exception {
+                if (first) {
+                    first = false;
+                    return null;
+                }
+                throw new AssertionError("failing again");
+            }
+        });
+        try {
+            alone.get(10, TimeUnit.SECONDS);
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof AssertionError);
+        }
+        assertEquals(3, graph.rollbacks.get());
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+    }
+
+    public void testShutdown() throws Exception {
+        final CountingTransactionalGraph graph = new CountingTransactionalGraph();
+        final GroupCommitExecutor executor = new GroupCommitExecutor.Builder(graph).maxBatchSize(3).build();
+        final List<Future<Object>> futures = new ArrayList<Future<Object>>();
+        for (int i = 0; i < 20; i++) {
+            futures.add(executor.submit(addVertex(String.valueOf(i))));
+        }
+        executor.shutdown();
+        assertTrue(executor.isShutdown());
+        try {
+            executor.submit(addVertex("late"));
+            fail();
+        } catch (IllegalStateException e) {
+        }
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        for (final Future<Object> future : futures) {
+            assertTrue(future.isDone());
+        }
+        assertEquals(20, count(graph.getVertices()));
+        assertEquals(0, executor.getQueueSize());
+
+        try {
+            new GroupCommitExecutor.Builder(graph).writerThreads(2).build();
+            fail();
+        } catch (IllegalArgumentException e) {
+        }
+    }
+
+    private static TransactionWork<Object> addVertex(final String id) {
+        return new TransactionWork<Object>() {
+            public Object execute(final TransactionalGraph graph) throws Exception {
+                // the work may be executed again if its batch fails
+                Vertex vertex = graph.getVertex(id);
+                if (null == vertex) vertex = graph.addVertex(id);
+                return vertex.getId();
+            }
+        };
+    }
+
+    private static class CountingTransactionalGraph extends TinkerGraph implements TransactionalGraph {
+
+        private final AtomicInteger commits = new AtomicInteger();
+        private final AtomicInteger failCommits = new AtomicInteger();
+        private final AtomicInteger rollbacks = new AtomicInteger();
+
+        public void stopTransaction(final Conclusion conclusion) {
+        }
+
+        public void commit() {
+            if (failCommits.getAndDecrement() > 0) throw new IllegalStateException("commit failed");
+            commits.incrementAndGet();
+        }
+
+        public void rollback() {
+            rollbacks.incrementAndGet();
+        }
+    }
+}
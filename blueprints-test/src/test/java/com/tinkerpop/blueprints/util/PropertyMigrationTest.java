@@ -0,0 +1,113 @@
+package com.tinkerpop.blueprints.util;
+
+import com.tinkerpop.blueprints.BaseTest;
+import com.tinkerpop.blueprints.Element;
+import com.tinkerpop.blueprints.Vertex;
+import com.tinkerpop.blueprints.impls.tg.TinkerGraph;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class PropertyMigrationTest extends BaseTest {
+
+    public void testRenamePropertyInParallel() {
+        final TinkerGraph graph = createGraph(10000);
+        final AtomicInteger reports = new AtomicInteger();
+        final PropertyMigration migration = new PropertyMigration.Builder(graph, PropertyMigration.renameProperty("name", "title"))
+                .threads(4).batchSize(500).listener(new PropertyMigration.Listener() {
+                    public void committed(final PropertyMigration migration) {
+                        reports.incrementAndGet();
+                    }
+                }).build();
+
+        this.stopWatch();
+        assertEquals(10000, migration.migrateVertices());
+        printPerformance(migration.toString(), 10000, "properties renamed", this.stopWatch());
+        assertEquals(10000, migration.getChangedCount());
+        assertEquals(20, migration.getCommitCount());
+        assertEquals(20, reports.get());
+        assertEquals(10000, migration.getPosition());
+        assertTrue(migration.getThroughput() > 0);
+        for (final Vertex vertex : graph.getVertices()) {
+            assertNull(vertex.getProperty("name"));
+            assertTrue(vertex.getProperty("title").toString().startsWith("v"));
+        }
+    }
+
+    public void testResumeAfterFailure() {
+        final TinkerGraph graph = createGraph(1000);
+        final PropertyMigration.Checkpoint checkpoint = new PropertyMigration.MemoryCheckpoint();
+        final PropertyMigration.Mutation failing = new PropertyMigration.Mutation() {
+            public boolean apply(final Element element) {
+                if (element.getId().equals("500"))
+                    throw new IllegalStateException("unexpected value");
+                return PropertyMigration.typecastProperty("number", Integer.class).apply(element);
+            }
+        };
+        try {
+            new PropertyMigration.Builder(graph, failing).batchSize(100).checkpoint(checkpoint).build().migrateVertices();
+            fail();
+        } catch (RuntimeException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+        // vertices are ordered by the strings of their ids
+        assertEquals(400, checkpoint.getPosition());
+        assertEquals("458", checkpoint.getLastId());
+
+        final PropertyMigration migration = new PropertyMigration.Builder(graph, PropertyMigration.typecastProperty("number", Integer.class))
+                .batchSize(100).checkpoint(checkpoint).build();
+        assertEquals(600, migration.migrateVertices());
+        assertEquals(1000, checkpoint.getPosition());
+        for (final Vertex vertex : graph.getVertices()) {
+            assertTrue(vertex.getProperty("number") instanceof Integer);
+        }
+    }
+
+    public void testFileCheckpoint() {
+        final File file = new File(computeTestDataRoot(), "migration.checkpoint");
+        file.delete();
+        final TinkerGraph graph = createGraph(100);
+        final List<Element> elements = new ArrayList<Element>();
+        for (final Vertex vertex : graph.getVertices()) {
+            elements.add(vertex);
+        }
+
+        new PropertyMigration.FileCheckpoint(file).save(30, elements.get(29).getId());
+        final PropertyMigration.FileCheckpoint checkpoint = new PropertyMigration.FileCheckpoint(file);
+        assertEquals(30, checkpoint.getPosition());
+        assertEquals(elements.get(29).getId(), checkpoint.getLastId());
+
+        final PropertyMigration migration = new PropertyMigration.Builder(graph, PropertyMigration.removeProperty("name"))
+                .threads(2).batchSize(7).checkpoint(checkpoint).build();
+        assertEquals(70, migration.migrate(elements));
+        assertEquals(100, new PropertyMigration.FileCheckpoint(file).getPosition());
+        for (int i = 0; i < elements.size(); i++) {
+            assertEquals(i < 30, null != elements.get(i).getProperty("name"));
+        }
+        file.delete();
+    }
+
+    public void testRemoveProperties() {
+        final TinkerGraph graph = createGraph(10);
+        final PropertyMigration migration = new PropertyMigration.Builder(graph, PropertyMigration.removeProperties()).build();
+        assertEquals(10, migration.migrateVertices());
+        assertEquals(10, migration.getChangedCount());
+        // a migration which is done does nothing when run again
+        assertEquals(0, migration.migrateVertices());
+        for (final Vertex vertex : graph.getVertices()) {
+            assertEquals(0, vertex.getPropertyKeys().size());
+        }
+    }
+
+    private static TinkerGraph createGraph(final int vertices) {
+        final TinkerGraph graph = new TinkerGraph();
+        for (int i = 0; i < vertices; i++) {
+            final Vertex vertex = graph.addVertex(i);
+            vertex.setProperty("name", "v" + i);
+            vertex.setProperty("number", String.valueOf(i));
+        }
+        return graph;
+    }
+}
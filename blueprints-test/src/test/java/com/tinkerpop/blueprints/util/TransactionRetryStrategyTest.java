@@ -0,0 +1,185 @@
+package com.tinkerpop.blueprints.util;
+
+import com.tinkerpop.blueprints.BaseTest;
+import com.tinkerpop.blueprints.TransactionalGraph;
+import com.tinkerpop.blueprints.impls.tg.TinkerGraph;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TransactionRetryStrategyTest extends BaseTest {
+
+    public void testDecorrelatedJitter() {
+        final TransactionalTinkerGraph graph = new TransactionalTinkerGraph();
+        final ContentionTracker tracker = new ContentionTracker();
+        final FailingWork work = new FailingWork(3);
+        final String result = new TransactionRetryHelper.Builder<String>(graph).perform(work).build().decorrelatedJitter(8, 1, 5, tracker);
+        assertEquals("done", result);
+        assertEquals(1, graph.commits.get());
+        assertEquals(3, graph.rollbacks.get());
+
+        final RetryMetrics metrics = tracker.getMetrics(FailingWork.class);
+        assertEquals(1, metrics.getExecutionCount());
+        assertEquals(4, metrics.getAttemptCount());
+        assertEquals(3, metrics.getRetryCount());
+        assertEquals(3, metrics.getConflictCount());
+        assertEquals(1, metrics.getSuccessCount());
+        assertEquals(0, metrics.getFailureCount());
+        assertTrue(metrics.getTotalDelay() >= 3);
+        // the widened delays are still at most the maximum delay
+        assertTrue(metrics.getTotalDelay() <= 3 * 5);
+        assertEquals(Collections.singleton(FailingWork.class), tracker.getMetrics().keySet());
+
+        // three of four recent attempts conflicted, older attempts count slightly less
+        assertEquals(0.75d, tracker.getConflictRate(), 0.05d);
+        assertEquals(1 + 0.75d * ContentionTracker.DEFAULT_WIDENING, tracker.getBackoffFactor(), 0.2d);
+    }
+
+    public void testExceptionsToRetryOn() {
+        final TransactionalTinkerGraph graph = new TransactionalTinkerGraph();
+        final ContentionTracker tracker = new ContentionTracker();
+        final HashSet<Class> exceptions = new HashSet<Class>();
+        exceptions.add(IllegalArgumentException.class);
+        try {
+            new TransactionRetryStrategy.DecorrelatedJitter<String>(8, 1, 5, exceptions, tracker).execute(graph, new FailingWork(3));
+            fail();
+        } catch (RuntimeException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+        final RetryMetrics metrics = tracker.getMetrics(FailingWork.class);
+        assertEquals(1, metrics.getAttemptCount());
+        assertEquals(0, metrics.getConflictCount());
+        assertEquals(1, metrics.getFailureCount());
+        assertEquals(0.0d, tracker.getConflictRate());
+    }
+
+    public void testRetryBudget() {
+        final TransactionalTinkerGraph graph = new TransactionalTinkerGraph();
+        final ContentionTracker tracker = new ContentionTracker(1000, 0, 0.5d, 2);
+        assertEquals(2, tracker.getRetryBudget());
+        final TransactionRetryStrategy.DecorrelatedJitter<String> strategy = new TransactionRetryStrategy.DecorrelatedJitter<String>(10, 1, 2, tracker);
+        try {
+            strategy.execute(graph, new FailingWork(100));
+            fail();
+        } catch (RuntimeException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+        final RetryMetrics metrics = tracker.getMetrics(FailingWork.class);
+        assertEquals(3, metrics.getAttemptCount());
+        assertEquals(1, metrics.getBudgetExhaustedCount());
+        assertEquals(1, metrics.getFailureCount());
+        assertEquals(0, tracker.getRetryBudget());
+
+        // executions deposit half a retry each
+        assertEquals("done", strategy.execute(graph, new FailingWork(0)));
+        assertEquals("done", strategy.execute(graph, new FailingWork(0)));
+        assertEquals(1, tracker.getRetryBudget());
+        assertEquals(1.0d, tracker.getBackoffFactor());
+    }
+
+    public void testExecuteAsync() throws Exception {
+        final TransactionalTinkerGraph graph = new TransactionalTinkerGraph();
+        final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        try {
+            final TransactionRetryStrategy.DecorrelatedJitter<String> strategy = new TransactionRetryStrategy.DecorrelatedJitter<String>(8, 1, 5);
+            final FailingWork work = new FailingWork(2);
+            final Future<String> future = new TransactionRetryHelper.Builder<String>(graph).perform(work).build().useAsync(strategy, scheduler);
+            assertEquals("done", future.get(10, TimeUnit.SECONDS));
+            assertEquals(3, work.attempts.get());
+            assertFalse(Thread.currentThread().equals(work.thread));
+
+            final Future<String> failing = strategy.executeAsync(graph, new FailingWork(100), scheduler);
+            try {
+                failing.get(10, TimeUnit.SECONDS);
+                fail();
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause().getCause() instanceof IllegalStateException);
+            }
+            assertNull(strategy.getTracker());
+            assertEquals(1, ContentionTracker.forGraph(graph).getMetrics(FailingWork.class).getFailureCount());
+
+            // an error ends the execution and fails the future instead of leaving it incomplete
+            final Future<String> erroneous = strategy.executeAsync(graph, new TransactionWork<String>() {
+                public String execute(final TransactionalGraph graph) {
+                    throw new AssertionError("broken");
+                }
+            }, scheduler);
+            try {
+                erroneous.get(10, TimeUnit.SECONDS);
+                fail();
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof AssertionError);
+            }
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+
+    public void testTrackerOfGraph() {
+        final TransactionalTinkerGraph graph = new TransactionalTinkerGraph();
+        final ContentionTracker tracker = ContentionTracker.forGraph(graph);
+        assertSame(tracker, ContentionTracker.forGraph(graph));
+        assertNotSame(tracker, ContentionTracker.forGraph(new TransactionalTinkerGraph()));
+
+        // the strategies created without a tracker record their attempts on the graph they execute against
+        assertEquals("done", new TransactionRetryHelper.Builder<String>(graph).perform(new FailingWork(1)).build().decorrelatedJitter());
+        assertEquals("done", new TransactionRetryStrategy.DecorrelatedJitter<String>(8, 1, 5).execute(graph, new FailingWork(2)));
+        final RetryMetrics metrics = tracker.getMetrics(FailingWork.class);
+        assertEquals(2, metrics.getExecutionCount());
+        assertEquals(5, metrics.getAttemptCount());
+        assertEquals(3, metrics.getConflictCount());
+        assertTrue(tracker.getConflictRate() > 0.0d);
+
+        try {
+            new TransactionRetryStrategy.DecorrelatedJitter<String>().execute(graph, new TransactionWork<String>() {
+                public String execute(final TransactionalGraph graph) {
+                    throw new AssertionError("broken");
+                }
+            });
+            fail();
+        } catch (AssertionError e) {
+            assertEquals("broken", e.getMessage());
+        }
+        assertEquals(4, graph.rollbacks.get());
+    }
+
+    private static class FailingWork implements TransactionWork<String> {
+        private final int failures;
+        private final AtomicInteger attempts = new AtomicInteger();
+        private volatile Thread thread;
+
+        private FailingWork(final int failures) {
+            this.failures = failures;
+        }
+
+        public String execute(final TransactionalGraph graph) throws Exception {
+            this.thread = Thread.currentThread();
+            if (this.attempts.incrementAndGet() <= this.failures)
+                throw new IllegalStateException("conflict");
+            return "done";
+        }
+    }
+
+    private static class TransactionalTinkerGraph extends TinkerGraph implements TransactionalGraph {
+
+        private final AtomicInteger commits = new AtomicInteger();
+        private final AtomicInteger rollbacks = new AtomicInteger();
+
+        public void stopTransaction(final Conclusion conclusion) {
+        }
+
+        public void commit() {
+            commits.incrementAndGet();
+        }
+
+        public void rollback() {
+            rollbacks.incrementAndGet();
+        }
+    }
+}
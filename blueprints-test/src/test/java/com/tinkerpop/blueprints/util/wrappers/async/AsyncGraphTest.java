@@ -0,0 +1,274 @@
+package com.tinkerpop.blueprints.util.wrappers.async;
+
+import com.tinkerpop.blueprints.BaseTest;
+import com.tinkerpop.blueprints.Direction;
+import com.tinkerpop.blueprints.Edge;
+import com.tinkerpop.blueprints.TransactionalGraph;
+import com.tinkerpop.blueprints.Vertex;
+import com.tinkerpop.blueprints.impls.tg.TinkerGraph;
+import com.tinkerpop.blueprints.impls.tg.TinkerGraphFactory;
+import com.tinkerpop.blueprints.util.TransactionWork;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class AsyncGraphTest extends BaseTest {
+
+    public void testOperations() throws Exception {
+        final AsyncGraph<TinkerGraph> graph = new AsyncGraph<TinkerGraph>(TinkerGraphFactory.createTinkerGraph());
+        final Vertex marko = graph.getVertex(1).get();
+        assertEquals("marko", graph.<String>getProperty(marko, "name").get());
+        assertEquals(2, graph.getPropertyKeys(marko).get().size());
+
+        final Vertex vertex = graph.addVertex(null).get();
+        graph.setProperty(vertex, "name", "pavel").get();
+        final Edge edge = graph.addEdge(null, marko, vertex, "knows").get();
+        assertEquals(vertex, graph.getVertex(edge, Direction.IN).get());
+        assertEquals(edge, graph.getEdge(edge.getId()).get());
+        assertEquals(3, count(graph.getVertices(marko, Direction.OUT, "knows")));
+        assertEquals(4, count(graph.getEdges(marko, Direction.OUT)));
+        assertEquals(1, count(graph.getVertices("name", "pavel")));
+        assertEquals(7, count(graph.getVertices()));
+        assertEquals(7, count(graph.getEdges()));
+        assertEquals(2, count(graph.getEdges("weight", 1.0f)));
+
+        assertEquals("pavel", graph.<String>removeProperty(vertex, "name").get());
+        graph.removeEdge(edge).get();
+        graph.removeVertex(vertex).get();
+        assertEquals(6, count(graph.getVertices()));
+        assertEquals(6, count(graph.getEdges()));
+        assertNull(graph.getVertex("missing").get());
+
+        try {
+            graph.addEdge(null, marko, null, "knows").get();
+            fail();
+        } catch (ExecutionException e) {
+        }
+        graph.shutdown();
+    }
+
+    public void testStreamBackpressure() throws Exception {
+        final ExecutorService executor = Executors.newCachedThreadPool();
+        final AsyncGraph<TinkerGraph> graph = new AsyncGraph<TinkerGraph>(new TinkerGraph(), executor, 10);
+        for (int i = 0; i < 1000; i++) {
+            graph.getGraph().addVertex(null);
+        }
+
+        final AtomicInteger read = new AtomicInteger();
+        final AsyncStream<Vertex> stream = graph.stream(new Callable<Iterable<Vertex>>() {
+            public Iterable<Vertex> call() {
+                return new Iterable<Vertex>() {
+                    public Iterator<Vertex> iterator() {
+                        final Iterator<Vertex> vertices = graph.getGraph().getVertices().iterator();
+                        return new Iterator<Vertex>() {
+                            public boolean hasNext() {
+                                return vertices.hasNext();
+                            }
+
+                            public Vertex next() {
+                                read.incrementAndGet();
+                                return vertices.next();
+                            }
+
+                            public void remove() {
+                                throw new UnsupportedOperationException();
+                            }
+                        };
+                    }
+                };
+            }
+        });
+
+        Thread.sleep(300);
+        // the reader waits for the consumer once the stream holds its capacity
+        assertTrue(read.get() <= 10 + 1);
+        assertFalse(stream.isExhausted());
+        assertEquals(5, stream.poll(5).size());
+
+        int taken = 5;
+        List<Vertex> batch;
+        while (!(batch = stream.take(10, 1, TimeUnit.SECONDS)).isEmpty()) {
+            assertTrue(batch.size() <= 10);
+            taken = taken + batch.size();
+        }
+        assertEquals(1000, taken);
+        assertTrue(stream.isExhausted());
+        assertEquals(1000, stream.getReadCount());
+
+        final AsyncStream<Vertex> closed = graph.getVertices();
+        assertFalse(closed.take(10, 1, TimeUnit.SECONDS).isEmpty());
+        closed.close();
+        assertTrue(closed.isExhausted());
+        assertTrue(closed.poll(10).isEmpty());
+        Thread.sleep(300);
+        assertTrue(closed.getReadCount() < 1000);
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+    }
+
+    public void testStreamFailure() throws Exception {
+        final AsyncGraph<TinkerGraph> graph = new AsyncGraph<TinkerGraph>(new TinkerGraph());
+        final AsyncStream<Vertex> stream = graph.stream(new Callable<Iterable<Vertex>>() {
+            public Iterable<Vertex> call() {
+                throw new IllegalStateException("no vertices");
+            }
+        });
+        try {
+            count(stream);
+            fail();
+        } catch (RuntimeException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+        assertTrue(stream.isExhausted());
+        graph.shutdown();
+    }
+
+    public void testStreamFailureRollsBack() throws Exception {
+        final ThreadBoundGraph base = new ThreadBoundGraph();
+        final AsyncGraph<ThreadBoundGraph> graph = new AsyncGraph<ThreadBoundGraph>(base);
+        final AsyncStream<Vertex> stream = graph.stream(new Callable<Iterable<Vertex>>() {
+            public Iterable<Vertex> call() {
+                return new Iterable<Vertex>() {
+                    public Iterator<Vertex> iterator() {
+                        return new Iterator<Vertex>() {
+                            private int read = 0;
+
+                            public boolean hasNext() {
+                                return true;
+                            }
+
+                            public Vertex next() {
+                                if (++this.read > 3)
+                                    throw new IllegalStateException("broken source");
+                                return base.addVertex(null);
+                            }
+
+                            public void remove() {
+                                throw new UnsupportedOperationException();
+                            }
+                        };
+                    }
+                };
+            }
+        });
+        try {
+            count(stream);
+            fail();
+        } catch (RuntimeException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+        // the vertices read before the failure are rolled back instead of committed
+        assertEquals(0, base.committed.get());
+        assertEquals(3, base.rolledBack.get());
+
+        // a failing rollback does not hide the failure of the work
+        base.failRollback = true;
+        try {
+            graph.submit(new Callable<Object>() {
+                public Object call() {
+                    throw new IllegalArgumentException("broken work");
+                }
+            }).get();
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalArgumentException);
+        }
+        graph.shutdown();
+    }
+
+    public void testTransactionAffinity() throws Exception {
+        final ThreadBoundGraph base = new ThreadBoundGraph();
+        final AsyncGraph<ThreadBoundGraph> graph = new AsyncGraph<ThreadBoundGraph>(base, Executors.newFixedThreadPool(4));
+
+        final List<Future<Vertex>> futures = new ArrayList<Future<Vertex>>();
+        for (int i = 0; i < 200; i++) {
+            futures.add(graph.addVertex(null));
+        }
+        for (final Future<Vertex> future : futures) {
+            future.get();
+        }
+        final Integer added = graph.execute(new TransactionWork<Integer>() {
+            public Integer execute(final TransactionalGraph g) {
+                for (int i = 0; i < 50; i++) {
+                    g.addVertex(null);
+                }
+                return 50;
+            }
+        }).get();
+        assertEquals(50, added.intValue());
+        assertEquals(250, count(graph.getVertices()));
+
+        try {
+            graph.execute(new TransactionWork<Object>() {
+                public Object execute(final TransactionalGraph g) {
+                    g.addVertex(null);
+                    throw new IllegalStateException();
+                }
+            }).get();
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+
+        // every transaction ended on the thread it was opened on
+        assertEquals(250, base.committed.get());
+        assertEquals(1, base.rolledBack.get());
+
+        try {
+            new AsyncGraph<TinkerGraph>(new TinkerGraph()).execute(new TransactionWork<Object>() {
+                public Object execute(final TransactionalGraph g) {
+                    return null;
+                }
+            });
+            fail();
+        } catch (IllegalStateException e) {
+        }
+        graph.getExecutor().shutdown();
+    }
+
+    /**
+     * Counts the changes of a transaction per thread, like the graphs which bind a transaction to its thread.
+     */
+    private static class ThreadBoundGraph extends TinkerGraph implements TransactionalGraph {
+        private final ThreadLocal<Integer> pending = new ThreadLocal<Integer>() {
+            protected Integer initialValue() {
+                return 0;
+            }
+        };
+        private final AtomicInteger committed = new AtomicInteger();
+        private final AtomicInteger rolledBack = new AtomicInteger();
+        private volatile boolean failRollback = false;
+
+        public synchronized Vertex addVertex(final Object id) {
+            this.pending.set(this.pending.get() + 1);
+            return super.addVertex(id);
+        }
+
+        public void commit() {
+            this.committed.addAndGet(this.pending.get());
+            this.pending.set(0);
+        }
+
+        public void rollback() {
+            if (this.failRollback)
+                throw new IllegalStateException("broken rollback");
+            this.rolledBack.addAndGet(this.pending.get());
+            this.pending.set(0);
+        }
+
+        public void stopTransaction(final Conclusion conclusion) {
+            if (Conclusion.SUCCESS == conclusion)
+                this.commit();
+            else
+                this.rollback();
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.tinkerpop.blueprints.util.wrappers.batch;
 
 import com.tinkerpop.blueprints.BaseTest;
+import com.tinkerpop.blueprints.BulkWriteGraph;
 import com.tinkerpop.blueprints.Direction;
 import com.tinkerpop.blueprints.Edge;
 import com.tinkerpop.blueprints.Features;
@@ -11,8 +12,16 @@ import com.tinkerpop.blueprints.Vertex;
 import com.tinkerpop.blueprints.impls.tg.IgnoreIdTinkerGraph;
 import com.tinkerpop.blueprints.impls.tg.MockTransactionalGraph;
 import com.tinkerpop.blueprints.impls.tg.TinkerGraph;
+import com.tinkerpop.blueprints.util.io.graphml.GraphMLReader;
 import junit.framework.TestCase;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Random;
 
 /**
@@ -63,6 +72,17 @@ public class BatchGraphTest extends TestCase {
         loadingTest(200000, 10000, VertexIDType.URL, new URLLoadingFactory());
     }
 
+    public void testOnDiskIdLoading() {
+        loadingTest(5000, 100, VertexIDType.NUMBER_ON_DISK, new NumberLoadingFactory());
+        loadingTest(200000, 10000, VertexIDType.NUMBER_ON_DISK, new NumberLoadingFactory());
+        loadingTest(5000, 100, VertexIDType.STRING_ON_DISK, new StringLoadingFactory());
+        loadingTest(5000, 100, VertexIDType.OBJECT_ON_DISK, new StringLoadingFactory());
+
+        ignoreIDs = true;
+        loadingTest(5000, 100, VertexIDType.NUMBER_ON_DISK, new NumberLoadingFactory());
+        ignoreIDs = false;
+    }
+
     public void testQuadLoading() {
         int numEdges = 10000;
         String[][] quads = generateQuads(100, numEdges, new String[]{"knows", "friend"});
@@ -147,6 +167,210 @@ public class BatchGraphTest extends TestCase {
     }
 
 
+    public void testLoadingWithExistingVertexFilter() throws Exception {
+        final TinkerGraph tg = new TinkerGraph();
+        for (int i = 0; i < 100; i++) {
+            tg.addVertex("v" + i).setProperty("uid", "v" + i);
+        }
+        final int[] lookups = new int[1];
+        final WritethroughGraph<TinkerGraph> base = new WritethroughGraph<TinkerGraph>(tg) {
+            @Override
+            public Vertex getVertex(final Object id) {
+                lookups[0]++;
+                return super.getVertex(id);
+            }
+        };
+
+        BatchGraph<WritethroughGraph<TinkerGraph>> bg = new BatchGraph<WritethroughGraph<TinkerGraph>>(base, VertexIDType.STRING, 100);
+        bg.setLoadingFromScratch(false);
+        assertEquals(100, bg.loadExistingVertices(1000, 0.001, false));
+        for (int i = 50; i < 1000; i++) {
+            if (bg.getVertex("v" + i) == null) bg.addVertex("v" + i);
+        }
+        assertEquals(1000, BaseTest.count(tg.getVertices()));
+        // existing vertices plus the few false positives
+        assertTrue(lookups[0] >= 50 && lookups[0] < 60);
+        assertEquals("v75", bg.getVertex("v75").getId());
+        assertEquals(1000, bg.getExistingVertexFilter().size());
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        bg.getExistingVertexFilter().write(out);
+        bg.shutdown();
+
+        // the next load uses the saved filter and prewarms the cache instead
+        lookups[0] = 0;
+        bg = new BatchGraph<WritethroughGraph<TinkerGraph>>(base, VertexIDType.STRING, 100);
+        bg.setVertexIdKey("uid");
+        bg.setLoadingFromScratch(false);
+        bg.setExistingVertexFilter(BloomFilter.read(new ByteArrayInputStream(out.toByteArray())));
+        for (int i = 0; i < 10; i++) {
+            assertNull(bg.getVertex("new" + i));
+        }
+        assertNotNull(bg.getVertex("v999"));
+        assertEquals(1, lookups[0]);
+        try {
+            bg.setExistingVertexFilter(new BloomFilter(1000, 0.01, VertexIDType.NUMBER));
+            fail();
+        } catch (IllegalArgumentException e) {
+        }
+
+        lookups[0] = 0;
+        bg = new BatchGraph<WritethroughGraph<TinkerGraph>>(base, VertexIDType.STRING, 100);
+        bg.setVertexIdKey("uid");
+        bg.setLoadingFromScratch(false);
+        assertEquals(100, bg.loadExistingVertices(2000, 0.01, true));
+        for (int i = 0; i < 100; i++) {
+            assertNotNull(bg.getVertex("v" + i));
+        }
+        assertEquals(100, lookups[0]);
+    }
+
+    public void testAdaptiveBufferSize() throws Exception {
+        // a fixed cost per commit favours larger batches
+        final MockTransactionalGraph base = new MockTransactionalGraph(new TinkerGraph()) {
+            @Override
+            public void commit() {
+                super.commit();
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        };
+        final BatchGraph<MockTransactionalGraph> graph = new BatchGraph<MockTransactionalGraph>(base, VertexIDType.NUMBER, 100);
+        assertFalse(graph.isAdaptiveBufferSize());
+        graph.setAdaptiveBufferSize(100, 5000);
+        assertTrue(graph.isAdaptiveBufferSize());
+        for (int i = 0; i < 20000; i++) {
+            graph.addVertex(i);
+        }
+        graph.commit();
+        assertTrue(graph.getBufferSize() > 1000);
+        assertTrue(graph.getBufferSize() <= 5000);
+        assertTrue(base.getNumTransactionsCommitted() < 30);
+
+        // the buffer size is reduced while the heap usage is above the bound
+        final BatchGraph<MockTransactionalGraph> bounded = new BatchGraph<MockTransactionalGraph>(new MockTransactionalGraph(new TinkerGraph()), VertexIDType.NUMBER, 1000);
+        bounded.setAdaptiveBufferSize(100, 5000, 0.000001d);
+        for (int i = 0; i < 5000; i++) {
+            bounded.addVertex(i);
+        }
+        assertEquals(100, bounded.getBufferSize());
+
+        final BatchGraph wrapped = BatchGraph.wrapAdaptive(new TinkerGraph());
+        assertTrue(wrapped.isAdaptiveBufferSize());
+        assertEquals(BatchGraph.MIN_ADAPTIVE_BUFFER_SIZE, wrapped.getBufferSize());
+        assertFalse(BatchGraph.wrap(new TinkerGraph(), 10).isAdaptiveBufferSize());
+
+        // the readers use a fixed buffer unless they are given an adaptive BatchGraph
+        final TinkerGraph loaded = new TinkerGraph();
+        final BatchGraph adaptive = BatchGraph.wrapAdaptive(loaded);
+        GraphMLReader.inputGraph(adaptive, GraphMLReader.class.getResourceAsStream("graph-example-1.xml"));
+        assertTrue(adaptive.isAdaptiveBufferSize());
+        assertEquals(6, BaseTest.count(loaded.getVertices()));
+        assertEquals(6, BaseTest.count(loaded.getEdges()));
+    }
+
+    public void testLoadStatistics() {
+        final MockTransactionalGraph base = new MockTransactionalGraph(new TinkerGraph());
+        final BatchGraph<MockTransactionalGraph> graph = new BatchGraph<MockTransactionalGraph>(base, VertexIDType.NUMBER, 100);
+        final LoadStatistics statistics = graph.getStatistics();
+        assertEquals(0.0d, statistics.getElementsPerSecond());
+        for (int i = 0; i < 1000; i++) {
+            graph.addVertex(i);
+        }
+        for (int i = 1; i < 1000; i++) {
+            graph.addEdge(null, graph.getVertex(i - 1), graph.getVertex(i), "next");
+        }
+        graph.commit();
+
+        assertEquals(1000, statistics.getVertexCount());
+        assertEquals(999, statistics.getEdgeCount());
+        assertEquals(1999, statistics.getElementCount());
+        assertTrue(statistics.getElementsPerSecond() > 0.0d);
+        assertEquals(base.getNumTransactionsCommitted(), statistics.getCommitCount());
+        long commits = 0;
+        for (final long count : statistics.getCommitLatencyHistogram()) {
+            commits += count;
+        }
+        assertEquals(statistics.getCommitCount(), commits);
+        assertEquals(100, statistics.getBufferSize());
+        // only the lookups of the vertices of edges are counted
+        assertEquals(0, statistics.getCacheMisses());
+        assertEquals(2 * 999, statistics.getCacheHits());
+    }
+
+    public void testCacheStatisticsOfMixedLoad() {
+        final TinkerGraph base = new TinkerGraph();
+        base.addVertex("a");
+        final BatchGraph graph = BatchGraph.wrap(base, 100);
+        graph.setLoadingFromScratch(false);
+        final LoadStatistics statistics = graph.getStatistics();
+        for (int i = 0; i < 10; i++) {
+            graph.addVertex("v" + i);
+        }
+        // adding vertices checks the cache for duplicates without counting the lookups
+        assertEquals(0, statistics.getCacheHits());
+        assertEquals(0, statistics.getCacheMisses());
+
+        for (int i = 1; i < 10; i++) {
+            graph.addEdge(null, graph.getVertex("v" + (i - 1)), graph.getVertex("v" + i), "next");
+        }
+        assertEquals(18, statistics.getCacheHits());
+        assertEquals(0, statistics.getCacheMisses());
+
+        // the existing vertex is looked up in the wrapped graph once and then served by the cache
+        graph.addEdge(null, graph.getVertex("v0"), graph.getVertex("a"), "knows");
+        graph.addVertex("v10");
+        graph.addEdge(null, graph.getVertex("v10"), graph.getVertex("a"), "knows");
+        assertNull(graph.getVertex("missing"));
+        graph.commit();
+
+        assertEquals(11, statistics.getVertexCount());
+        assertEquals(11, statistics.getEdgeCount());
+        assertEquals(21, statistics.getCacheHits());
+        assertEquals(2, statistics.getCacheMisses());
+        assertEquals(21.0d / 23, statistics.getCacheHitRate(), 1e-9);
+    }
+
+    public void testLoadingWithPropertyMaps() {
+        final TinkerGraph base = new TinkerGraph();
+        base.createKeyIndex("name", Vertex.class);
+        final BatchGraph graph = BatchGraph.wrap(base, 10);
+        graph.setVertexIdKey(UID);
+        graph.setEdgeIdKey(UID);
+
+        final Map<String, Object> properties = new HashMap<String, Object>();
+        properties.put("name", "marko");
+        properties.put("age", 29);
+        graph.addVertex(1, properties);
+        final List<BulkWriteGraph.VertexSpec> vertices = new ArrayList<BulkWriteGraph.VertexSpec>();
+        for (int i = 2; i <= 50; i++) {
+            vertices.add(new BulkWriteGraph.VertexSpec(i, Collections.singletonMap("name", "v" + i)));
+        }
+        assertEquals(49, graph.addVertices(vertices).size());
+        final List<BulkWriteGraph.EdgeSpec> edges = new ArrayList<BulkWriteGraph.EdgeSpec>();
+        for (int i = 2; i <= 50; i++) {
+            edges.add(new BulkWriteGraph.EdgeSpec("e" + i, graph.getVertex(i - 1), graph.getVertex(i), "next", Collections.singletonMap("weight", i)));
+        }
+        assertEquals(49, graph.addEdges(edges).size());
+        graph.addEdge("e51", graph.getVertex(50), graph.getVertex(1), "next", "weight", 51);
+        graph.commit();
+
+        assertEquals(50, BaseTest.count(base.getVertices()));
+        assertEquals(50, BaseTest.count(base.getEdges()));
+        final Vertex marko = base.getVertex(1);
+        assertEquals("marko", marko.getProperty("name"));
+        assertEquals(29, marko.getProperty("age"));
+        assertEquals(1, marko.getProperty(UID));
+        assertEquals(marko, base.getVertices("name", "marko").iterator().next());
+        assertEquals(1, BaseTest.count(base.getVertices("name", "v50")));
+        assertEquals(10, base.getEdge("e10").getProperty("weight"));
+        assertEquals("e10", base.getEdge("e10").getProperty(UID));
+        assertEquals(51, base.getEdge("e51").getProperty("weight"));
+    }
+
     public static String[][] generateQuads(int numVertices, int numEdges, String[] labels) {
         Random random = new Random();
         String[][] edges = new String[numEdges][4];
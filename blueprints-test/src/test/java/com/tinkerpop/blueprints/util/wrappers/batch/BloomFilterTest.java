@@ -0,0 +1,83 @@
+package com.tinkerpop.blueprints.util.wrappers.batch;
+
+import junit.framework.TestCase;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+public class BloomFilterTest extends TestCase {
+
+    public void testNoFalseNegatives() {
+        final BloomFilter filter = new BloomFilter(10000, 0.01);
+        for (int i = 0; i < 10000; i++) {
+            filter.put("v" + i);
+            filter.put((long) i);
+        }
+        for (int i = 0; i < 10000; i++) {
+            assertTrue(filter.mightContain("v" + i));
+            assertTrue(filter.mightContain(i));
+            assertTrue(filter.mightContain((long) i));
+            assertTrue(filter.mightContain("" + i));
+        }
+        assertEquals(20000, filter.size());
+    }
+
+    public void testNormalizationOfIdType() {
+        final Object id = new Object() {
+            public String toString() {
+                return "custom";
+            }
+        };
+        final BloomFilter strings = new BloomFilter(1000, 0.001, VertexIDType.STRING);
+        strings.put("5.5");
+        strings.put("custom");
+        strings.put(7);
+        assertTrue(strings.mightContain(5.5d));
+        assertTrue(strings.mightContain(id));
+        assertTrue(strings.mightContain("7"));
+
+        final BloomFilter numbers = new BloomFilter(1000, 0.001, VertexIDType.NUMBER_ON_DISK);
+        numbers.put(5);
+        assertTrue(numbers.mightContain(5.5d));
+        assertTrue(numbers.mightContain(5l));
+        try {
+            numbers.put("5");
+            fail();
+        } catch (IllegalArgumentException e) {
+        }
+
+        assertTrue(strings.isCompatible(VertexIDType.URL));
+        assertTrue(strings.isCompatible(VertexIDType.STRING_ON_DISK));
+        assertFalse(strings.isCompatible(VertexIDType.OBJECT));
+        assertTrue(numbers.isCompatible(VertexIDType.NUMBER));
+    }
+
+    public void testFalsePositiveProbability() {
+        final BloomFilter filter = new BloomFilter(100000, 0.01);
+        for (int i = 0; i < 100000; i++) {
+            filter.put("http://example.org/" + i);
+        }
+        int falsePositives = 0;
+        for (int i = 100000; i < 200000; i++) {
+            if (filter.mightContain("http://example.org/" + i)) falsePositives++;
+        }
+        assertTrue("false positives: " + falsePositives, falsePositives < 1500);
+    }
+
+    public void testWriteAndRead() throws Exception {
+        final BloomFilter filter = new BloomFilter(1000, 0.001, VertexIDType.NUMBER);
+        for (int i = 0; i < 1000; i++) {
+            filter.put(i);
+        }
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        filter.write(out);
+        final BloomFilter read = BloomFilter.read(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(filter.size(), read.size());
+        assertEquals(filter.getNumberOfBits(), read.getNumberOfBits());
+        assertEquals(filter.getNumberOfHashes(), read.getNumberOfHashes());
+        assertEquals(VertexIDType.NUMBER, read.getIdType());
+        for (int i = 0; i < 2000; i++) {
+            assertEquals(filter.mightContain(i), read.mightContain(i));
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.tinkerpop.blueprints.util.wrappers.batch;
+
+import com.tinkerpop.blueprints.BaseTest;
+import com.tinkerpop.blueprints.Edge;
+import com.tinkerpop.blueprints.Vertex;
+import com.tinkerpop.blueprints.impls.tg.IgnoreIdTinkerGraph;
+import com.tinkerpop.blueprints.impls.tg.TinkerGraph;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+public class ExternalEdgeSorterTest extends BaseTest {
+
+    private File directory;
+
+    public void setUp() {
+        directory = new File(computeTestDataRoot(), "external-edge-sorter");
+        deleteDirectory(directory);
+        directory.mkdirs();
+    }
+
+    public void tearDown() {
+        deleteDirectory(directory);
+    }
+
+    public void testSortingInMemory() {
+        final RecordingTinkerGraph graph = new RecordingTinkerGraph();
+        final ExternalEdgeSorter sorter = new ExternalEdgeSorter(directory, 1000);
+        loadRandomEdges(graph, sorter, 100, 500, new Random(1));
+        assertEquals(0, sorter.getNumberOfRuns());
+        assertEquals(500, sorter.load(graph));
+        assertEquals(500, count(graph.getEdges()));
+        assertSorted(graph.outVertexIds);
+    }
+
+    public void testSortingOnDisk() {
+        final RecordingTinkerGraph graph = new RecordingTinkerGraph();
+        final ExternalEdgeSorter sorter = new ExternalEdgeSorter(directory, 10);
+        loadRandomEdges(graph, sorter, 200, 3000, new Random(2));
+        assertEquals(300, sorter.getNumberOfRuns());
+        assertEquals(3000, sorter.getEdgeCount());
+        assertEquals(3000, sorter.load(graph));
+        assertEquals(0, directory.listFiles().length);
+
+        assertEquals(3000, count(graph.getEdges()));
+        assertSorted(graph.outVertexIds);
+        for (final Edge edge : graph.getEdges()) {
+            assertEquals(edge.getId(), "e" + edge.getProperty("number"));
+            assertEquals("knows", edge.getLabel());
+            assertEquals(new Date(1000L * (Integer) edge.getProperty("number")), edge.getProperty("date"));
+        }
+    }
+
+    public void testSortingByInternalId() {
+        final RecordingIgnoreIdTinkerGraph base = new RecordingIgnoreIdTinkerGraph();
+        final BatchGraph<?> graph = BatchGraph.wrap(base, 100);
+        graph.setVertexIdKey("uid");
+        final int vertices = 100;
+        // internal ids are assigned in the opposite order of the external ids
+        for (int i = vertices - 1; i >= 0; i--) {
+            graph.addVertex((long) i);
+        }
+        final ExternalEdgeSorter sorter = new ExternalEdgeSorter(graph, directory, 50);
+        final Random random = new Random(3);
+        for (int i = 0; i < 1000; i++) {
+            sorter.addEdge(null, (long) random.nextInt(vertices), (long) random.nextInt(vertices), "knows");
+        }
+        assertEquals(1000, sorter.load(graph));
+        graph.commit();
+        assertEquals(1000, count(base.getEdges()));
+        assertSorted(base.outVertexIds);
+    }
+
+    public void testMissingVertex() {
+        final TinkerGraph graph = new TinkerGraph();
+        graph.addVertex("a");
+        final ExternalEdgeSorter sorter = new ExternalEdgeSorter(directory, 10);
+        sorter.addEdge(null, "a", "b", "knows");
+        try {
+            sorter.load(graph);
+            fail();
+        } catch (IllegalArgumentException e) {
+        }
+
+        final BatchGraph<?> batchGraph = BatchGraph.wrap(new TinkerGraph());
+        batchGraph.addVertex("a");
+        final ExternalEdgeSorter internal = new ExternalEdgeSorter(batchGraph, directory, 10);
+        try {
+            internal.addEdge(null, "b", "a", "knows");
+            fail();
+        } catch (IllegalArgumentException e) {
+        }
+    }
+
+    public void testNotSerializableProperty() {
+        final ExternalEdgeSorter sorter = new ExternalEdgeSorter(directory, 1);
+        final Map<String, Object> properties = new HashMap<String, Object>();
+        properties.put("object", new Object());
+        try {
+            sorter.addEdge(null, "a", "b", "knows", properties);
+            fail();
+        } catch (IllegalArgumentException e) {
+        }
+        sorter.close();
+    }
+
+    private static void loadRandomEdges(final TinkerGraph graph, final ExternalEdgeSorter sorter, final int vertices, final int edges, final Random random) {
+        for (int i = 0; i < vertices; i++) {
+            graph.addVertex("v" + i);
+        }
+        for (int i = 0; i < edges; i++) {
+            final Map<String, Object> properties = new HashMap<String, Object>();
+            properties.put("number", i);
+            properties.put("date", new Date(1000L * i));
+            sorter.addEdge("e" + i, "v" + random.nextInt(vertices), "v" + random.nextInt(vertices), "knows", properties);
+        }
+    }
+
+    private static void assertSorted(final List<String> ids) {
+        final List<String> sorted = new ArrayList<String>(ids);
+        Collections.sort(sorted);
+        assertEquals(sorted, ids);
+    }
+
+    private static class RecordingTinkerGraph extends TinkerGraph {
+
+        private final List<String> outVertexIds = new ArrayList<String>();
+
+        @Override
+        public Edge addEdge(final Object id, final Vertex outVertex, final Vertex inVertex, final String label) {
+            outVertexIds.add((String) outVertex.getId());
+            return super.addEdge(id, outVertex, inVertex, label);
+        }
+    }
+
+    private static class RecordingIgnoreIdTinkerGraph extends IgnoreIdTinkerGraph {
+
+        private final List<String> outVertexIds = new ArrayList<String>();
+
+        @Override
+        public Edge addEdge(final Object id, final Vertex outVertex, final Vertex inVertex, final String label) {
+            outVertexIds.add((String) outVertex.getId());
+            return super.addEdge(id, outVertex, inVertex, label);
+        }
+    }
+}
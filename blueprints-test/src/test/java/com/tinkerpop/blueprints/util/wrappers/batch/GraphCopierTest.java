@@ -0,0 +1,86 @@
+package com.tinkerpop.blueprints.util.wrappers.batch;
+
+import com.tinkerpop.blueprints.BaseTest;
+import com.tinkerpop.blueprints.Direction;
+import com.tinkerpop.blueprints.Edge;
+import com.tinkerpop.blueprints.Vertex;
+import com.tinkerpop.blueprints.impls.tg.IgnoreIdTinkerGraph;
+import com.tinkerpop.blueprints.impls.tg.TinkerGraph;
+import com.tinkerpop.blueprints.impls.tg.TinkerGraphFactory;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class GraphCopierTest extends BaseTest {
+
+    public void testCopyTinkerGraph() {
+        final TinkerGraph from = TinkerGraphFactory.createTinkerGraph();
+        final TinkerGraph to = new TinkerGraph();
+        new GraphCopier.Builder(from, to).build().copy();
+
+        assertEquals(6, count(to.getVertices()));
+        assertEquals(6, count(to.getEdges()));
+        for (final Vertex vertex : from.getVertices()) {
+            final Vertex copy = to.getVertex(vertex.getId());
+            assertEquals(vertex.getProperty("name"), copy.getProperty("name"));
+            assertEquals(vertex.getProperty("age"), copy.getProperty("age"));
+            assertEquals(count(vertex.getEdges(Direction.OUT)), count(copy.getEdges(Direction.OUT)));
+            assertEquals(count(vertex.getEdges(Direction.IN)), count(copy.getEdges(Direction.IN)));
+        }
+        for (final Edge edge : from.getEdges()) {
+            final Edge copy = to.getEdge(edge.getId());
+            assertEquals(edge.getLabel(), copy.getLabel());
+            assertEquals(edge.getProperty("weight"), copy.getProperty("weight"));
+            assertEquals(edge.getVertex(Direction.OUT).getId(), copy.getVertex(Direction.OUT).getId());
+            assertEquals(edge.getVertex(Direction.IN).getId(), copy.getVertex(Direction.IN).getId());
+        }
+    }
+
+    public void testCopyInParallel() {
+        final TinkerGraph from = new TinkerGraph();
+        final int total = 20000;
+        Vertex previous = null;
+        for (int i = 0; i < total; i++) {
+            final Vertex vertex = from.addVertex(null);
+            vertex.setProperty("number", i);
+            if (null != previous)
+                from.addEdge(null, previous, vertex, "next").setProperty("number", i);
+            previous = vertex;
+        }
+
+        final IgnoreIdTinkerGraph to = new IgnoreIdTinkerGraph();
+        final AtomicInteger reports = new AtomicInteger();
+        final GraphCopier copier = new GraphCopier.Builder(from, to).type(VertexIDType.STRING).threads(4).bufferSize(1000)
+                .vertexIdKey("uid").listener(new GraphCopier.Listener() {
+                    public void progress(final GraphCopier copier) {
+                        reports.incrementAndGet();
+                    }
+                }, 5000).build();
+
+        this.stopWatch();
+        copier.copy();
+        printPerformance(copier.toString(), 2 * total - 1, "elements copied", this.stopWatch());
+        assertTrue(copier.isDone());
+        assertEquals(total, copier.getVertexCount());
+        assertEquals(total - 1, copier.getEdgeCount());
+        assertEquals(total, copier.getReadVertexCount());
+        assertEquals(total - 1, copier.getReadEdgeCount());
+        // every 5000 elements read and once when done
+        assertEquals(8, reports.get());
+
+        assertEquals(total, count(to.getVertices()));
+        assertEquals(total - 1, count(to.getEdges()));
+        for (final Edge edge : to.getEdges()) {
+            final Vertex out = edge.getVertex(Direction.OUT);
+            final Vertex in = edge.getVertex(Direction.IN);
+            assertEquals(edge.getProperty("number"), in.getProperty("number"));
+            assertEquals(((Integer) in.getProperty("number")) - 1, out.getProperty("number"));
+            assertEquals(from.getVertex(in.getProperty("uid")).getProperty("number"), in.getProperty("number"));
+        }
+
+        try {
+            copier.copy();
+            fail();
+        } catch (IllegalStateException e) {
+        }
+    }
+}
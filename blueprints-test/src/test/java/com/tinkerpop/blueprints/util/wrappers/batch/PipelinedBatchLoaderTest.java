@@ -0,0 +1,205 @@
+package com.tinkerpop.blueprints.util.wrappers.batch;
+
+import com.tinkerpop.blueprints.BaseTest;
+import com.tinkerpop.blueprints.Direction;
+import com.tinkerpop.blueprints.Edge;
+import com.tinkerpop.blueprints.Vertex;
+import com.tinkerpop.blueprints.impls.tg.IgnoreIdTinkerGraph;
+import com.tinkerpop.blueprints.impls.tg.TinkerGraph;
+import com.tinkerpop.blueprints.util.wrappers.batch.cache.PartitionedVertexCache;
+import junit.framework.TestCase;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class PipelinedBatchLoaderTest extends TestCase {
+
+    public void testChainLoading() {
+        chainTest(VertexIDType.NUMBER, 20000, 1000, 4);
+        chainTest(VertexIDType.STRING, 5000, 100, 3);
+        chainTest(VertexIDType.OBJECT, 5000, 10000, 1);
+    }
+
+    public void testParallelSubmission() throws Exception {
+        final TinkerGraph graph = new TinkerGraph();
+        final PipelinedBatchLoader loader = PipelinedBatchLoader.wrap(graph, VertexIDType.NUMBER, 500, 4);
+        final int perThread = 5000;
+        final AtomicReference<Throwable> error = new AtomicReference<Throwable>();
+        final Thread[] parsers = new Thread[3];
+        for (int t = 0; t < parsers.length; t++) {
+            final int offset = t * perThread;
+            parsers[t] = new Thread() {
+                public void run() {
+                    try {
+                        for (int i = 0; i < perThread; i++) {
+                            loader.addVertex(offset + i, null);
+                        }
+                    } catch (Throwable e) {
+                        error.set(e);
+                    }
+                }
+            };
+            parsers[t].start();
+        }
+        for (final Thread parser : parsers) {
+            parser.join();
+        }
+        assertNull(error.get());
+        for (int i = 1; i < parsers.length * perThread; i++) {
+            loader.addEdge(null, i - 1, i, "next", null);
+        }
+        loader.finish();
+
+        assertEquals(parsers.length * perThread, BaseTest.count(graph.getVertices()));
+        assertEquals(parsers.length * perThread - 1, BaseTest.count(graph.getEdges()));
+        assertEquals(parsers.length * perThread, loader.getVertexCount());
+        assertEquals(parsers.length * perThread - 1, loader.getEdgeCount());
+    }
+
+    public void testVerticesAfterEdges() {
+        final PipelinedBatchLoader loader = PipelinedBatchLoader.wrap(new TinkerGraph(), VertexIDType.OBJECT, 100, 2);
+        loader.addVertex("a", null);
+        loader.addVertex("b", null);
+        loader.addEdge(null, "a", "b", "knows", null);
+        try {
+            loader.addVertex("c", null);
+            fail();
+        } catch (IllegalStateException e) {
+        }
+        try {
+            loader.setVertexIdKey("uid");
+            fail();
+        } catch (IllegalStateException e) {
+        }
+        loader.finish();
+        try {
+            loader.addEdge(null, "a", "b", "knows", null);
+            fail();
+        } catch (IllegalStateException e) {
+        }
+    }
+
+    public void testFailureIsRethrown() {
+        final PipelinedBatchLoader loader = PipelinedBatchLoader.wrap(new TinkerGraph(), VertexIDType.STRING, 100, 2);
+        loader.addVertex("a", null);
+        loader.addVertex("a", null);
+        try {
+            loader.addEdge(null, "a", "missing", "knows", null);
+            loader.finish();
+            fail();
+        } catch (IllegalArgumentException e) {
+        }
+
+        final PipelinedBatchLoader edges = PipelinedBatchLoader.wrap(new TinkerGraph(), VertexIDType.STRING, 100, 2);
+        edges.addVertex("a", null);
+        edges.addEdge(null, "a", "missing", "knows", null);
+        try {
+            edges.finish();
+            fail();
+        } catch (IllegalArgumentException e) {
+        }
+    }
+
+    public void testErrorDoesNotBlockEdges() throws Exception {
+        final TinkerGraph graph = new TinkerGraph() {
+            public Vertex addVertex(final Object id) {
+                if ("broken".equals(id)) throw new AssertionError("broken vertex");
+                return super.addVertex(id);
+            }
+        };
+        final PipelinedBatchLoader loader = PipelinedBatchLoader.wrap(graph, VertexIDType.STRING, 100, 2);
+        final AtomicReference<Throwable> error = new AtomicReference<Throwable>();
+        final Thread parser = new Thread() {
+            public void run() {
+                try {
+                    for (int i = 0; i < 100; i++) {
+                        loader.addVertex("v" + i, null);
+                    }
+                    loader.addVertex("broken", null);
+                    loader.addEdge(null, "v0", "v1", "knows", null);
+                    loader.finish();
+                } catch (Throwable t) {
+                    error.set(t);
+                }
+            }
+        };
+        parser.start();
+        // the worker killed by the error still passes the edge barrier and stops
+        parser.join(10000);
+        assertFalse(parser.isAlive());
+        assertTrue(error.get() instanceof AssertionError);
+        try {
+            loader.finish();
+            fail();
+        } catch (AssertionError e) {
+        }
+    }
+
+    public void testIncrementalLoading() {
+        final TinkerGraph graph = new IgnoreIdTinkerGraph();
+        final Vertex existing = graph.addVertex(null);
+        existing.setProperty("uid", "a");
+
+        final PipelinedBatchLoader loader = PipelinedBatchLoader.wrap(graph, VertexIDType.STRING, 10, 2);
+        loader.setVertexIdKey("uid");
+        loader.setLoadingFromScratch(false);
+        loader.addVertex("a", Collections.singletonMap("name", "marko"));
+        loader.addVertex("b", null);
+        loader.addEdge(null, "a", "b", "knows", null);
+        loader.finish();
+
+        assertEquals(2, BaseTest.count(graph.getVertices()));
+        assertEquals("marko", existing.getProperty("name"));
+        assertEquals("b", existing.getVertices(Direction.OUT, "knows").iterator().next().getProperty("uid"));
+    }
+
+    public void testPartitionedVertexCache() {
+        final PartitionedVertexCache cache = new PartitionedVertexCache(VertexIDType.NUMBER, 7);
+        for (long i = -1000; i < 1000; i++) {
+            assertEquals(cache.getPartition(i), cache.getPartition((int) i));
+            cache.setId("v" + i, i);
+        }
+        cache.newTransaction();
+        for (int i = -1000; i < 1000; i++) {
+            assertTrue(cache.contains(i));
+            assertEquals("v" + i, cache.getEntry(i));
+        }
+
+        final PartitionedVertexCache strings = new PartitionedVertexCache(VertexIDType.STRING, 3);
+        assertEquals(strings.getPartition(5), strings.getPartition("5"));
+    }
+
+    private void chainTest(final VertexIDType type, final int total, final long bufferSize, final int threads) {
+        final TinkerGraph graph = new TinkerGraph();
+        final PipelinedBatchLoader loader = PipelinedBatchLoader.wrap(graph, type, bufferSize, threads);
+        loader.setVertexIdKey("vid");
+        loader.setEdgeIdKey("eid");
+        for (int i = 0; i < total; i++) {
+            final Map<String, Object> properties = new HashMap<String, Object>();
+            properties.put("uid", i);
+            loader.addVertex(getId(type, i), properties);
+        }
+        for (int i = 1; i < total; i++) {
+            loader.addEdge("e" + i, getId(type, i - 1), getId(type, i), "next", Collections.singletonMap("uid", i));
+        }
+        loader.finish();
+
+        assertEquals(total, BaseTest.count(graph.getVertices()));
+        assertEquals(total - 1, BaseTest.count(graph.getEdges()));
+        for (final Edge edge : graph.getEdges()) {
+            final int uid = (Integer) edge.getProperty("uid");
+            assertEquals("e" + uid, edge.getProperty("eid"));
+            assertEquals(uid - 1, edge.getVertex(Direction.OUT).getProperty("uid"));
+            assertEquals(uid, edge.getVertex(Direction.IN).getProperty("uid"));
+        }
+        final Vertex first = graph.getVertex(getId(type, 0));
+        assertNotNull(first);
+        assertEquals(getId(type, 0), first.getProperty("vid"));
+    }
+
+    private static Object getId(final VertexIDType type, final int i) {
+        return type == VertexIDType.NUMBER ? (Object) Long.valueOf(i) : "v" + i;
+    }
+}
@@ -0,0 +1,97 @@
+package com.tinkerpop.blueprints.util.wrappers.batch.cache;
+
+import com.tinkerpop.blueprints.BaseTest;
+import com.tinkerpop.blueprints.Vertex;
+import com.tinkerpop.blueprints.impls.tg.TinkerGraph;
+
+public class CompactStringIDVertexCacheTest extends BaseTest {
+
+    public void testIds() {
+        final CompactStringIDVertexCache cache = new CompactStringIDVertexCache();
+        final int total = 100000;
+        for (int i = 0; i < total; i++) {
+            cache.setId((long) i, getIRI(i));
+        }
+        assertEquals(total, cache.size());
+        assertEquals(10, cache.getNumberOfPrefixes());
+        for (int i = 0; i < total; i++) {
+            assertEquals((long) i, cache.getEntry(getIRI(i)));
+            assertTrue(cache.contains(getIRI(i)));
+        }
+        assertNull(cache.getEntry(getIRI(total)));
+        assertFalse(cache.contains("http://example.org/unknown/0"));
+        assertFalse(cache.contains("0"));
+
+        cache.setId("internal", getIRI(0));
+        assertEquals("internal", cache.getEntry(getIRI(0)));
+        assertEquals(total, cache.size());
+    }
+
+    public void testStringsAndCharacters() {
+        final CompactStringIDVertexCache cache = new CompactStringIDVertexCache();
+        final String[] ids = new String[]{"", "/", "a", "1", "http://example.org/", "urn:isbn:0451450523",
+                "http://dbpedia.org/resource/Köln", "http://example.org/中文", "😀:😁", "\ud800"};
+        for (int i = 0; i < ids.length; i++) {
+            cache.setId(i, ids[i]);
+        }
+        for (int i = 0; i < ids.length; i++) {
+            assertEquals(i, cache.getEntry(ids[i]));
+        }
+        assertNull(cache.getEntry("http://dbpedia.org/resource/Koln"));
+        cache.setId("five", 5);
+        assertEquals("five", cache.getEntry("5"));
+
+        final StringBuilder longId = new StringBuilder("http://example.org/");
+        for (int i = 0; i < 10000; i++) {
+            longId.append(i);
+        }
+        cache.setId("long", longId.toString());
+        assertEquals("long", cache.getEntry(longId.toString()));
+    }
+
+    public void testVerticesOfTransaction() {
+        final TinkerGraph graph = new TinkerGraph();
+        final CompactStringIDVertexCache cache = new CompactStringIDVertexCache();
+        final Vertex a = graph.addVertex(1L);
+        final Vertex b = graph.addVertex("b");
+        cache.set(a, "a");
+        cache.set(b, "b");
+        cache.set(b, "b");
+        assertSame(a, cache.getEntry("a"));
+        cache.newTransaction();
+        assertEquals("1", cache.getEntry("a"));
+        assertEquals("b", cache.getEntry("b"));
+    }
+
+    public void testMemoryAgainstStringIDVertexCache() {
+        final int total = 200000;
+        final long compact = measure(new CompactStringIDVertexCache(), total);
+        final long strings = measure(new StringIDVertexCache(), total);
+        final long urls = measure(new StringIDVertexCache(new URLCompression()), total);
+        System.out.println("\tCompactStringIDVertexCache: " + total + " ids in " + compact / 1024 + "kb");
+        System.out.println("\tStringIDVertexCache: " + total + " ids in " + strings / 1024 + "kb");
+        System.out.println("\tStringIDVertexCache(URLCompression): " + total + " ids in " + urls / 1024 + "kb");
+    }
+
+    private static long measure(final VertexCache cache, final int total) {
+        final long before = usedMemory();
+        for (int i = 0; i < total; i++) {
+            cache.setId((long) i, getIRI(i));
+        }
+        cache.newTransaction();
+        final long used = usedMemory() - before;
+        assertEquals((long) total - 1, cache.getEntry(getIRI(total - 1)));
+        return used;
+    }
+
+    private static long usedMemory() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
+    }
+
+    private static String getIRI(final int i) {
+        return "http://example.org/dataset/resource" + (i % 10) + "/entity" + i;
+    }
+}
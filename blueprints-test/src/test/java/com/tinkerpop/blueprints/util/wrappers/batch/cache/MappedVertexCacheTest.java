@@ -0,0 +1,131 @@
+package com.tinkerpop.blueprints.util.wrappers.batch.cache;
+
+import com.tinkerpop.blueprints.BaseTest;
+import com.tinkerpop.blueprints.Vertex;
+import com.tinkerpop.blueprints.impls.tg.TinkerGraph;
+import com.tinkerpop.blueprints.util.wrappers.batch.VertexIDType;
+
+import java.io.File;
+import java.util.Arrays;
+
+public class MappedVertexCacheTest extends BaseTest {
+
+    private File directory;
+
+    public void setUp() {
+        directory = new File(computeTestDataRoot(), "mapped-vertex-cache");
+        deleteDirectory(directory);
+        directory.mkdirs();
+    }
+
+    public void tearDown() {
+        deleteDirectory(directory);
+    }
+
+    public void testNumberIds() {
+        final MappedVertexCache cache = new MappedVertexCache(VertexIDType.NUMBER_ON_DISK, directory, 10, 100);
+        final int total = 10000;
+        for (int i = 0; i < total; i++) {
+            cache.setId((long) i * 7, i);
+            if (i % 100 == 0) cache.newTransaction();
+        }
+        assertEquals(0L, cache.getEntry(0));
+        assertEquals(7L * (total - 1), cache.getEntry((long) total - 1));
+        cache.newTransaction();
+        assertEquals(total, cache.size());
+        for (int i = 0; i < total; i++) {
+            assertEquals((long) i * 7, cache.getEntry(i));
+            assertEquals((long) i * 7, cache.getEntry((long) i));
+        }
+        assertFalse(cache.contains(total));
+        assertFalse(cache.contains(-1));
+
+        // internal ids which do not fit into the slot
+        cache.setId("v1", 1);
+        cache.setId(-5L, 2);
+        cache.newTransaction();
+        assertEquals(total, cache.size());
+        for (int i = 0; i < 20; i++) {
+            cache.getEntry(1000 + i);
+        }
+        assertEquals("v1", cache.getEntry(1));
+        assertEquals(-5L, cache.getEntry(2));
+
+        try {
+            cache.getEntry("1");
+            fail();
+        } catch (IllegalArgumentException e) {
+        }
+        cache.close();
+        assertEquals(0, directory.listFiles().length);
+    }
+
+    public void testStringAndObjectIds() {
+        for (final VertexIDType type : Arrays.asList(VertexIDType.STRING_ON_DISK, VertexIDType.OBJECT_ON_DISK)) {
+            final MappedVertexCache cache = new MappedVertexCache(type, directory, 0, 10);
+            for (int i = 0; i < 5000; i++) {
+                cache.setId(i % 2 == 0 ? (Object) ("id" + i) : (Object) i, "uri:" + i);
+            }
+            cache.newTransaction();
+            assertEquals(5000, cache.size());
+            for (int i = 0; i < 5000; i++) {
+                assertEquals(i % 2 == 0 ? "id" + i : i, cache.getEntry("uri:" + i));
+            }
+            assertNull(cache.getEntry("uri:5000"));
+            cache.setId("replaced", "uri:0");
+            cache.newTransaction();
+            assertEquals("replaced", cache.getEntry("uri:0"));
+            assertEquals(5000, cache.size());
+            cache.close();
+        }
+
+        final MappedVertexCache strings = new MappedVertexCache(VertexIDType.STRING_ON_DISK, directory, 0, 10);
+        strings.setId("a", 5);
+        strings.newTransaction();
+        assertEquals("a", strings.getEntry("5"));
+        strings.close();
+
+        final MappedVertexCache objects = new MappedVertexCache(VertexIDType.OBJECT_ON_DISK, directory, 0, 10);
+        objects.setId("a", 5);
+        objects.newTransaction();
+        assertNull(objects.getEntry("5"));
+        assertNull(objects.getEntry(5L));
+        assertEquals("a", objects.getEntry(5));
+        objects.close();
+    }
+
+    public void testVerticesOfTransaction() {
+        final TinkerGraph graph = new TinkerGraph();
+        final MappedVertexCache cache = new MappedVertexCache(VertexIDType.STRING_ON_DISK, directory, 10, 10);
+        final Vertex vertex = graph.addVertex("1");
+        cache.set(vertex, "a");
+        assertSame(vertex, cache.getEntry("a"));
+        cache.newTransaction();
+        assertEquals("1", cache.getEntry("a"));
+        cache.close();
+    }
+
+    public void testPerformanceAgainstHeapCaches() {
+        final int total = 500000;
+        compare("LongIDVertexCache", new LongIDVertexCache(), total, false);
+        compare("MappedVertexCache(NUMBER)", new MappedVertexCache(VertexIDType.NUMBER_ON_DISK, directory, 10000, 1000), total, false);
+        compare("StringIDVertexCache", new StringIDVertexCache(), total, true);
+        compare("MappedVertexCache(STRING)", new MappedVertexCache(VertexIDType.STRING_ON_DISK, directory, 10000, 1000), total, true);
+    }
+
+    private void compare(final String name, final VertexCache cache, final int total, final boolean strings) {
+        this.stopWatch();
+        for (int i = 0; i < total; i++) {
+            cache.setId((long) i, strings ? (Object) ("vertex" + i) : (Object) i);
+            if (i % 10000 == 0) cache.newTransaction();
+        }
+        cache.newTransaction();
+        printPerformance(name, total, "ids written", this.stopWatch());
+        this.stopWatch();
+        for (int i = 0; i < total; i++) {
+            assertEquals((long) i, cache.getEntry(strings ? (Object) ("vertex" + i) : (Object) i));
+        }
+        printPerformance(name, total, "ids read", this.stopWatch());
+        if (cache instanceof MappedVertexCache) ((MappedVertexCache) cache).close();
+    }
+}
@@ -0,0 +1,229 @@
+package com.tinkerpop.blueprints.util.wrappers.cached;
+
+import com.tinkerpop.blueprints.Contains;
+import com.tinkerpop.blueprints.Direction;
+import com.tinkerpop.blueprints.Edge;
+import com.tinkerpop.blueprints.EdgeTestSuite;
+import com.tinkerpop.blueprints.Graph;
+import com.tinkerpop.blueprints.GraphQueryTestSuite;
+import com.tinkerpop.blueprints.GraphTestSuite;
+import com.tinkerpop.blueprints.KeyIndexableGraphTestSuite;
+import com.tinkerpop.blueprints.TestSuite;
+import com.tinkerpop.blueprints.Vertex;
+import com.tinkerpop.blueprints.VertexTestSuite;
+import com.tinkerpop.blueprints.impls.GraphTest;
+import com.tinkerpop.blueprints.impls.tg.TinkerGraph;
+import com.tinkerpop.blueprints.util.wrappers.id.IdGraph;
+import com.tinkerpop.blueprints.util.wrappers.partition.PartitionGraph;
+import com.tinkerpop.blueprints.util.wrappers.wrapped.WrappedGraph;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+
+public class CachedGraphTest extends GraphTest {
+
+    public void testVertexTestSuite() throws Exception {
+        this.stopWatch();
+        doTestSuite(new VertexTestSuite(this));
+        printTestPerformance("VertexTestSuite", this.stopWatch());
+    }
+
+    public void testEdgeTestSuite() throws Exception {
+        this.stopWatch();
+        doTestSuite(new EdgeTestSuite(this));
+        printTestPerformance("EdgeTestSuite", this.stopWatch());
+    }
+
+    public void testGraphTestSuite() throws Exception {
+        this.stopWatch();
+        doTestSuite(new GraphTestSuite(this));
+        printTestPerformance("GraphTestSuite", this.stopWatch());
+    }
+
+    public void testKeyIndexableGraphTestSuite() throws Exception {
+        this.stopWatch();
+        doTestSuite(new KeyIndexableGraphTestSuite(this));
+        printTestPerformance("KeyIndexableGraphTestSuite", this.stopWatch());
+    }
+
+    public void testGraphQueryTestSuite() throws Exception {
+        this.stopWatch();
+        doTestSuite(new GraphQueryTestSuite(this));
+        printTestPerformance("GraphQueryTestSuite", this.stopWatch());
+    }
+
+    public void testLookupsAreCachedAndInvalidated() {
+        final CachedGraph<TinkerGraph> graph = new CachedGraph<TinkerGraph>(new TinkerGraph());
+        final Vertex marko = graph.addVertex(null);
+        marko.setProperty("name", "marko");
+        final Vertex peter = graph.addVertex(null);
+        peter.setProperty("name", "peter");
+
+        assertEquals(count(graph.getVertices("name", "marko")), 1);
+        assertEquals(graph.getCache().getMissCount(), 1);
+        assertEquals(count(graph.getVertices("name", "marko")), 1);
+        assertEquals(graph.getCache().getHitCount(), 1);
+        assertEquals(graph.getVertices("name", "marko").iterator().next(), marko);
+        assertEquals(count(graph.getVertices("name", "peter")), 1);
+
+        peter.setProperty("name", "marko");
+        assertEquals(count(graph.getVertices("name", "marko")), 2);
+        assertEquals(count(graph.getVertices("name", "peter")), 0);
+
+        // a lookup on another value of the key is kept
+        final long hits = graph.getCache().getHitCount();
+        assertEquals(count(graph.getVertices("name", "peter")), 0);
+        assertEquals(graph.getCache().getHitCount(), hits + 1);
+
+        marko.remove();
+        assertEquals(count(graph.getVertices("name", "marko")), 1);
+        peter.removeProperty("name");
+        assertEquals(count(graph.getVertices("name", "marko")), 0);
+        assertTrue(graph.getCache().getHitRate() > 0.0d);
+        graph.shutdown();
+    }
+
+    public void testQueriesAreCachedAndInvalidated() {
+        final CachedGraph<TinkerGraph> graph = new CachedGraph<TinkerGraph>(new TinkerGraph());
+        final Vertex a = graph.addVertex(null);
+        final Vertex b = graph.addVertex(null);
+        a.setProperty("age", 29);
+        b.setProperty("age", 35);
+        final Edge edge = a.addEdge("knows", b);
+        edge.setProperty("weight", 0.5);
+
+        assertEquals(count(graph.query().has("age", Contains.IN, Arrays.asList(29, 35)).vertices()), 2);
+        assertEquals(count(graph.query().has("age", Contains.IN, Arrays.asList(29, 35)).vertices()), 2);
+        assertEquals(graph.getCache().getHitCount(), 1);
+
+        // a new vertex has no age and can not change the result
+        graph.addVertex(null);
+        assertEquals(count(graph.query().has("age", Contains.IN, Arrays.asList(29, 35)).vertices()), 2);
+        assertEquals(graph.getCache().getHitCount(), 2);
+        assertEquals(count(graph.query().hasNot("age").vertices()), 1);
+        graph.addVertex(null);
+        assertEquals(count(graph.query().hasNot("age").vertices()), 2);
+
+        b.setProperty("age", 40);
+        assertEquals(count(graph.query().has("age", Contains.IN, Arrays.asList(29, 35)).vertices()), 1);
+
+        assertEquals(count(graph.query().has("label", "knows").edges()), 1);
+        assertEquals(count(graph.query().has("weight", 0.5).edges()), 1);
+        edge.setProperty("weight", 1.0);
+        assertEquals(count(graph.query().has("weight", 0.5).edges()), 0);
+        a.addEdge("knows", b);
+        assertEquals(count(graph.query().has("label", "knows").edges()), 2);
+        b.remove();
+        assertEquals(count(graph.query().has("label", "knows").edges()), 0);
+        graph.shutdown();
+    }
+
+    public void testLeastRecentlyUsedEviction() {
+        final CachedGraph<TinkerGraph> graph = new CachedGraph<TinkerGraph>(new TinkerGraph(), new ElementIdCache(2, 10));
+        for (int i = 0; i < 3; i++) {
+            graph.addVertex(null).setProperty("name", "v" + i);
+        }
+        for (int i = 0; i < 3; i++) {
+            assertEquals(count(graph.getVertices("name", "v" + i)), 1);
+        }
+        assertEquals(graph.getCache().size(), 2);
+        assertEquals(graph.getCache().getEvictionCount(), 1);
+
+        graph.getCache().resetStatistics();
+        assertEquals(count(graph.getVertices("name", "v2")), 1);
+        assertEquals(count(graph.getVertices("name", "v0")), 1);
+        assertEquals(graph.getCache().getHitCount(), 1);
+        assertEquals(graph.getCache().getMissCount(), 1);
+        graph.shutdown();
+    }
+
+    public void testStackedBeneathIdGraph() {
+        final IdGraph<CachedGraph<TinkerGraph>> graph = new IdGraph<CachedGraph<TinkerGraph>>(new CachedGraph<TinkerGraph>(new TinkerGraph()));
+        // let the id lookups reach the cached graph
+        graph.setIdCacheSize(0);
+        final Vertex a = graph.addVertex("a");
+        final Vertex b = graph.addVertex("b");
+        graph.addEdge("ab", a, b, "knows");
+
+        assertEquals(graph.getVertex("a"), a);
+        assertEquals(graph.getVertex("a"), a);
+        assertEquals(graph.getEdge("ab").getVertex(Direction.IN), b);
+        final ElementIdCache cache = graph.getBaseGraph().getCache();
+        assertTrue(cache.getHitCount() > 0);
+
+        graph.removeVertex(graph.getVertex("a"));
+        assertNull(graph.getVertex("a"));
+        assertNull(graph.getEdge("ab"));
+        assertEquals(graph.addVertex("a").getId(), "a");
+        assertNotNull(graph.getVertex("a"));
+        graph.shutdown();
+    }
+
+    public void testStackedWithPartitionGraph() {
+        final TinkerGraph baseGraph = new TinkerGraph();
+        final PartitionGraph<CachedGraph<TinkerGraph>> graph = new PartitionGraph<CachedGraph<TinkerGraph>>(new CachedGraph<TinkerGraph>(baseGraph), "_partition", "a");
+        graph.addVertex(null).setProperty("name", "marko");
+        graph.setWritePartition("b");
+        graph.addVertex(null).setProperty("name", "marko");
+
+        assertEquals(count(graph.getVertices("name", "marko")), 1);
+        assertEquals(count(graph.query().has("name", "marko").vertices()), 1);
+        graph.addReadPartition("b");
+        assertEquals(count(graph.getVertices("name", "marko")), 2);
+        assertEquals(count(graph.query().has("name", "marko").vertices()), 2);
+
+        final PartitionGraph<TinkerGraph> partitionGraph = new PartitionGraph<TinkerGraph>(baseGraph, "_partition", "a");
+        final CachedGraph<PartitionGraph<TinkerGraph>> cachedGraph = new CachedGraph<PartitionGraph<TinkerGraph>>(partitionGraph);
+        assertEquals(count(cachedGraph.getVertices("name", "marko")), 1);
+        cachedGraph.addVertex(null).setProperty("name", "marko");
+        assertEquals(count(cachedGraph.getVertices("name", "marko")), 2);
+        assertEquals(count(cachedGraph.query().has("name", "marko").vertices()), 2);
+        assertEquals(count(cachedGraph.getVertices("name", "marko")), 2);
+        assertTrue(cachedGraph.getCache().getHitCount() > 0);
+
+        // the cached results follow the read partitions of the partition graph beneath
+        partitionGraph.addReadPartition("b");
+        assertEquals(count(cachedGraph.getVertices("name", "marko")), 3);
+        assertEquals(count(cachedGraph.query().has("name", "marko").vertices()), 3);
+        partitionGraph.removeReadPartition("a");
+        assertEquals(count(cachedGraph.getVertices("name", "marko")), 1);
+        assertEquals(count(cachedGraph.query().has("name", "marko").vertices()), 1);
+
+        // a new write partition only places the elements added afterwards
+        partitionGraph.setWritePartition("c");
+        cachedGraph.addVertex(null).setProperty("name", "marko");
+        assertEquals(count(cachedGraph.getVertices("name", "marko")), 1);
+        partitionGraph.addReadPartition("c");
+        assertEquals(count(cachedGraph.getVertices("name", "marko")), 2);
+
+        // the partition key decides which elements are visible as well
+        partitionGraph.setPartitionKey("_other");
+        assertEquals(count(cachedGraph.getVertices("name", "marko")), 4);
+
+        // a partition graph wrapped by another wrapper beneath the cache is followed too
+        final PartitionGraph<TinkerGraph> innerPartitionGraph = new PartitionGraph<TinkerGraph>(baseGraph, "_partition", "a");
+        final CachedGraph<WrappedGraph<PartitionGraph<TinkerGraph>>> stackedGraph = new CachedGraph<WrappedGraph<PartitionGraph<TinkerGraph>>>(
+                new WrappedGraph<PartitionGraph<TinkerGraph>>(innerPartitionGraph));
+        assertEquals(count(stackedGraph.getVertices("name", "marko")), 2);
+        innerPartitionGraph.addReadPartition("b");
+        assertEquals(count(stackedGraph.getVertices("name", "marko")), 3);
+        graph.shutdown();
+    }
+
+    public Graph generateGraph() {
+        return generateGraph("");
+    }
+
+    public Graph generateGraph(final String graphDirectoryName) {
+        return new CachedGraph<TinkerGraph>(new TinkerGraph());
+    }
+
+    public void doTestSuite(final TestSuite testSuite) throws Exception {
+        for (Method method : testSuite.getClass().getDeclaredMethods()) {
+            if (method.getName().startsWith("test")) {
+                System.out.println("Testing " + method.getName() + "...");
+                method.invoke(testSuite);
+            }
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.tinkerpop.blueprints.Direction;
 import com.tinkerpop.blueprints.Edge;
 import com.tinkerpop.blueprints.EdgeTestSuite;
 import com.tinkerpop.blueprints.Graph;
+import com.tinkerpop.blueprints.GraphQueryTestSuite;
 import com.tinkerpop.blueprints.GraphTestSuite;
 import com.tinkerpop.blueprints.IndexTestSuite;
 import com.tinkerpop.blueprints.IndexableGraphTestSuite;
@@ -16,17 +17,24 @@ import com.tinkerpop.blueprints.impls.tg.TinkerGraphFactory;
 import com.tinkerpop.blueprints.util.io.gml.GMLReaderTestSuite;
 import com.tinkerpop.blueprints.util.io.graphml.GraphMLReaderTestSuite;
 import com.tinkerpop.blueprints.util.io.graphson.GraphSONReaderTestSuite;
+import com.tinkerpop.blueprints.util.wrappers.event.listener.BatchGraphChangedListener;
 import com.tinkerpop.blueprints.util.wrappers.event.listener.ConsoleGraphChangedListener;
+import com.tinkerpop.blueprints.util.wrappers.event.listener.Event;
+import com.tinkerpop.blueprints.util.wrappers.event.listener.EventFilter;
+import com.tinkerpop.blueprints.util.wrappers.event.listener.EventType;
 import com.tinkerpop.blueprints.util.wrappers.event.listener.GraphChangedListener;
 import com.tinkerpop.blueprints.util.wrappers.event.listener.StubGraphChangedListener;
+import com.tinkerpop.blueprints.util.wrappers.event.listener.VertexAddedEvent;
 
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
 
 public class EventGraphTest extends GraphTest {
 
@@ -51,6 +59,12 @@ public class EventGraphTest extends GraphTest {
         printTestPerformance("GraphTestSuite", this.stopWatch());
     }
 
+    public void testGraphQueryTestSuite() throws Exception {
+        this.stopWatch();
+        doTestSuite(new GraphQueryTestSuite(this));
+        printTestPerformance("GraphQueryTestSuite", this.stopWatch());
+    }
+
     public void testIndexableGraphTestSuite() throws Exception {
         this.stopWatch();
         doTestSuite(new IndexableGraphTestSuite(this));
@@ -437,4 +451,224 @@ public class EventGraphTest extends GraphTest {
         assertEquals(12345, vertex.getProperty("setInListener"));
         assertEquals(2, listener.vertexPropertyChangedEventRecorded());
     }
+
+    public void testBatchListener() {
+        final List<Integer> batches = new ArrayList<Integer>();
+        graph.addBatchListener(new BatchGraphChangedListener() {
+            public void eventsFired(final List<Event> events) {
+                batches.add(events.size());
+            }
+        });
+        createEdge();
+        // without transactions every event is a batch of its own
+        assertEquals(3, batches.size());
+        assertEquals(1, batches.get(0).intValue());
+    }
+
+    public void testAsynchronousDispatch() {
+        final Thread[] listenerThread = new Thread[1];
+        graph.addListener(new StubGraphChangedListener() {
+            @Override
+            public void vertexAdded(final Vertex vertex) {
+                listenerThread[0] = Thread.currentThread();
+            }
+        });
+        graph.addListener(graphChangedListener);
+        final long[] events = new long[1];
+        graph.addBatchListener(new BatchGraphChangedListener() {
+            public void eventsFired(final List<Event> batch) {
+                assertTrue(batch.size() <= 4);
+                events[0] += batch.size();
+            }
+        });
+        final AsyncEventDispatcher dispatcher = graph.dispatchAsynchronously(2, 4, BackpressurePolicy.BLOCK);
+        assertSame(dispatcher, graph.getDispatcher());
+        for (int i = 0; i < 100; i++) {
+            createVertex().setProperty("number", i);
+        }
+        dispatcher.flush();
+        assertEquals(100, graphChangedListener.addVertexEventRecorded());
+        assertEquals(100, graphChangedListener.vertexPropertyChangedEventRecorded());
+        assertEquals(200, events[0]);
+        assertEquals(200, dispatcher.getDeliveredEventCount());
+        assertNotSame(Thread.currentThread(), listenerThread[0]);
+
+        graph.dispatchSynchronously();
+        assertNull(graph.getDispatcher());
+        createVertex();
+        assertSame(Thread.currentThread(), listenerThread[0]);
+        try {
+            dispatcher.publish(Arrays.<Event>asList(new VertexAddedEvent(graph.getBaseGraph().addVertex(null))));
+            fail();
+        } catch (IllegalStateException e) {
+        }
+    }
+
+    public void testFailingListener() {
+        final StubGraphChangedListener before = new StubGraphChangedListener();
+        graph.addListener(before);
+        graph.addListener(new StubGraphChangedListener() {
+            private int added = 0;
+
+            @Override
+            public void vertexAdded(final Vertex vertex) {
+                if (added++ % 2 == 0) throw new IllegalStateException("broken listener");
+            }
+        });
+        graph.addListener(graphChangedListener);
+        final List<Event> batched = new ArrayList<Event>();
+        graph.addBatchListener(new BatchGraphChangedListener() {
+            public void eventsFired(final List<Event> events) {
+                batched.addAll(events);
+            }
+        });
+
+        // notified synchronously, the failure is thrown once all listeners have been notified
+        int failures = 0;
+        for (int i = 0; i < 10; i++) {
+            try {
+                graph.addVertex(null);
+            } catch (IllegalStateException e) {
+                failures++;
+            }
+        }
+        assertEquals(5, failures);
+        assertEquals(10, before.addVertexEventRecorded());
+        assertEquals(10, graphChangedListener.addVertexEventRecorded());
+        assertEquals(10, batched.size());
+
+        final AsyncEventDispatcher dispatcher = graph.dispatchAsynchronously(1000, 512, BackpressurePolicy.BLOCK);
+        for (int i = 10; i < 110; i++) {
+            graph.addVertex(null).setProperty("number", i);
+        }
+        dispatcher.flush();
+        assertEquals(110, before.addVertexEventRecorded());
+        assertEquals(110, graphChangedListener.addVertexEventRecorded());
+        assertEquals(100, graphChangedListener.vertexPropertyChangedEventRecorded());
+        assertEquals(210, batched.size());
+        assertEquals(50, dispatcher.getFailedDeliveryCount());
+        assertTrue(dispatcher.getFailedBatchCount() > 0);
+        assertEquals(150, dispatcher.getDeliveredEventCount());
+        graph.dispatchSynchronously();
+    }
+
+    public void testAsynchronousDispatchDrop() throws Exception {
+        final BlockingListener listener = new BlockingListener();
+        graph.addListener(listener);
+        final AsyncEventDispatcher dispatcher = graph.dispatchAsynchronously(2, 1, BackpressurePolicy.DROP);
+        createVertex();
+        listener.entered.await();
+        for (int i = 0; i < 9; i++) {
+            createVertex();
+        }
+        assertEquals(7, dispatcher.getDroppedEventCount());
+        listener.release.countDown();
+        dispatcher.flush();
+        assertEquals(3, listener.addVertexEventRecorded());
+        graph.dispatchSynchronously();
+    }
+
+    public void testAsynchronousDispatchCoalesce() throws Exception {
+        final BlockingListener listener = new BlockingListener();
+        graph.addListener(listener);
+        final AsyncEventDispatcher dispatcher = graph.dispatchAsynchronously(2, 1, BackpressurePolicy.COALESCE);
+        final Vertex vertex = createVertex();
+        listener.entered.await();
+        for (int i = 0; i < 100; i++) {
+            vertex.setProperty("name", i);
+        }
+        assertEquals(98, dispatcher.getCoalescedEventCount());
+        assertEquals(0, dispatcher.getDroppedEventCount());
+        listener.release.countDown();
+        dispatcher.flush();
+        final List<String> order = listener.getOrder();
+        assertEquals(3, order.size());
+        assertEquals("v-property-changed-" + vertex.getId() + "-name:null->0", order.get(1));
+        assertEquals("v-property-changed-" + vertex.getId() + "-name:0->99", order.get(2));
+        graph.dispatchSynchronously();
+    }
+
+    /**
+     * Blocks the dispatch thread in the first vertexAdded until released.
+     */
+    private static class BlockingListener extends StubGraphChangedListener {
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public void vertexAdded(final Vertex vertex) {
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+            super.vertexAdded(vertex);
+        }
+    }
+
+    public void testFilteredListeners() {
+        final StubGraphChangedListener typed = new StubGraphChangedListener();
+        final StubGraphChangedListener labelled = new StubGraphChangedListener();
+        final StubGraphChangedListener keyed = new StubGraphChangedListener();
+        final List<Event> batched = new ArrayList<Event>();
+        graph.addListener(typed, EventFilter.all().types(EventType.VERTEX_ADDED));
+        graph.addListener(labelled, EventFilter.all().labels("knows"));
+        graph.addListener(keyed, EventFilter.all().keys("weight"));
+        graph.addListener(graphChangedListener);
+        graph.addBatchListener(new BatchGraphChangedListener() {
+            public void eventsFired(final List<Event> events) {
+                assertFalse(events.isEmpty());
+                batched.addAll(events);
+            }
+        }, EventFilter.all().types(EventType.EDGE_ADDED, EventType.EDGE_PROPERTY_CHANGED).labels("likes"));
+
+        final Vertex vertex = createVertex();
+        final Edge knows = graph.addEdge(null, vertex, vertex, "knows");
+        final Edge likes = graph.addEdge(null, vertex, vertex, "likes");
+        knows.setProperty("weight", 1);
+        likes.setProperty("weight", 2);
+        vertex.setProperty("weight", 3);
+        vertex.setProperty("name", "marko");
+        likes.removeProperty("weight");
+
+        assertEquals(8, graphChangedListener.getOrder().size());
+        assertEquals(1, typed.getOrder().size());
+        assertEquals(1, typed.addVertexEventRecorded());
+        assertEquals(2, labelled.getOrder().size());
+        assertEquals(1, labelled.addEdgeEventRecorded());
+        assertEquals(1, labelled.edgePropertyChangedEventRecorded());
+        assertEquals(4, keyed.getOrder().size());
+        assertEquals(2, keyed.edgePropertyChangedEventRecorded());
+        assertEquals(1, keyed.vertexPropertyChangedEventRecorded());
+        assertEquals(1, keyed.edgePropertyRemovedEventRecorded());
+        assertEquals(2, batched.size());
+        assertEquals(EventType.EDGE_ADDED, EventType.of(batched.get(0)));
+        assertEquals(EventType.EDGE_PROPERTY_CHANGED, EventType.of(batched.get(1)));
+
+        graph.removeListener(typed);
+        createVertex();
+        assertEquals(1, typed.getOrder().size());
+
+        // added again without a filter
+        graph.addListener(typed);
+        graph.removeEdge(knows);
+        assertEquals(2, typed.getOrder().size());
+        assertEquals(3, labelled.getOrder().size());
+    }
+
+    public void testListenerRegistrationDuringFire() {
+        final StubGraphChangedListener added = new StubGraphChangedListener();
+        graph.addListener(new StubGraphChangedListener() {
+            @Override
+            public void vertexAdded(final Vertex vertex) {
+                graph.removeListener(this);
+                graph.addListener(added);
+            }
+        });
+        createVertex();
+        assertEquals(0, added.addVertexEventRecorded());
+        createVertex();
+        assertEquals(1, added.addVertexEventRecorded());
+    }
 }
@@ -14,11 +14,14 @@ import com.tinkerpop.blueprints.impls.GraphTest;
 import com.tinkerpop.blueprints.util.io.gml.GMLReaderTestSuite;
 import com.tinkerpop.blueprints.util.io.graphml.GraphMLReaderTestSuite;
 import com.tinkerpop.blueprints.util.io.graphson.GraphSONReaderTestSuite;
+import com.tinkerpop.blueprints.util.wrappers.event.listener.BatchGraphChangedListener;
 import com.tinkerpop.blueprints.util.wrappers.event.listener.ConsoleGraphChangedListener;
+import com.tinkerpop.blueprints.util.wrappers.event.listener.Event;
 import com.tinkerpop.blueprints.util.wrappers.event.listener.GraphChangedListener;
 import com.tinkerpop.blueprints.util.wrappers.event.listener.StubGraphChangedListener;
 
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
@@ -435,6 +438,167 @@ public class EventTransactionalGraphTest extends GraphTest {
         assertEquals(2, listener.vertexPropertyChangedEventRecorded());
     }
 
-}
+    public void testBatchListener() {
+        final List<List<Event>> batches = new ArrayList<List<Event>>();
+        graph.addBatchListener(new BatchGraphChangedListener() {
+            public void eventsFired(final List<Event> events) {
+                batches.add(new ArrayList<Event>(events));
+            }
+        });
+        createEdge();
+        assertEquals(0, batches.size());
+        graph.commit();
+        assertEquals(1, batches.size());
+        assertEquals(3, batches.get(0).size());
+        createVertex();
+        graph.rollback();
+        graph.commit();
+        assertEquals(1, batches.size());
+    }
+
+    public void testAsynchronousDispatchPreservesTransactionOrder() {
+        final List<String> batchOrder = new ArrayList<String>();
+        graph.addListener(graphChangedListener);
+        graph.addBatchListener(new BatchGraphChangedListener() {
+            public void eventsFired(final List<Event> events) {
+                for (final Event event : events) {
+                    batchOrder.add(event.getClass().getSimpleName());
+                }
+            }
+        });
+        // the transactions are larger than the buffer
+        final AsyncEventDispatcher dispatcher = graph.dispatchAsynchronously(3, 2, BackpressurePolicy.BLOCK);
+        for (int i = 0; i < 20; i++) {
+            final Vertex vertex = graph.addVertex(1000 + i);
+            vertex.setProperty("a", i);
+            vertex.setProperty("b", i);
+            vertex.removeProperty("a");
+            graph.commit();
+        }
+        dispatcher.flush();
+        final List<String> order = graphChangedListener.getOrder();
+        assertEquals(80, order.size());
+        assertEquals(80, batchOrder.size());
+        for (int i = 0; i < 20; i++) {
+            assertEquals("v-added-" + (1000 + i), order.get(4 * i));
+            assertEquals("v-property-changed-" + (1000 + i) + "-a:null->" + i, order.get(4 * i + 1));
+            assertEquals("v-property-changed-" + (1000 + i) + "-b:null->" + i, order.get(4 * i + 2));
+            assertEquals("v-property-removed-" + (1000 + i) + "-a:" + i, order.get(4 * i + 3));
+            assertEquals("VertexAddedEvent", batchOrder.get(4 * i));
+            assertEquals("VertexPropertyRemovedEvent", batchOrder.get(4 * i + 3));
+        }
+        graph.shutdown();
+        assertNull(graph.getDispatcher());
+    }
+
+    public void testCoalesceEvents() {
+        graph.setCoalesceEvents(true);
+        assertTrue(graph.isCoalesceEvents());
+        graph.addListener(graphChangedListener);
 
+        final Vertex marko = graph.getVertex(1);
+        for (int i = 0; i < 1000; i++) {
+            marko.setProperty("name", i);
+        }
+        graph.commit();
+        assertEquals(1, graphChangedListener.getOrder().size());
+        assertEquals("v-property-changed-1-name:marko->999", graphChangedListener.getOrder().get(0));
 
+        // elements added and removed again raise no events
+        graphChangedListener.reset();
+        final Vertex vertex = createVertex();
+        vertex.setProperty("name", "temporary");
+        final Edge edge = graph.addEdge(null, marko, marko, "knows");
+        edge.setProperty("weight", 1.0f);
+        graph.removeEdge(edge);
+        graph.removeVertex(vertex);
+        graph.commit();
+        assertEquals(0, graphChangedListener.getOrder().size());
+
+        // a property set and removed again
+        marko.setProperty("temporary", true);
+        marko.removeProperty("temporary");
+        graph.commit();
+        assertEquals(0, graphChangedListener.getOrder().size());
+
+        // a property changed and removed is removed with its value before the transaction
+        marko.setProperty("age", 30);
+        marko.removeProperty("age");
+        marko.setProperty("name", "marko");
+        graph.commit();
+        assertEquals(2, graphChangedListener.getOrder().size());
+        assertEquals("v-property-removed-1-age:29", graphChangedListener.getOrder().get(0));
+        assertEquals("v-property-changed-1-name:999->marko", graphChangedListener.getOrder().get(1));
+
+        // the order of events of different elements is kept
+        graphChangedListener.reset();
+        final Vertex other = graph.getVertex(2);
+        marko.setProperty("name", "a");
+        other.setProperty("name", "b");
+        marko.setProperty("name", "c");
+        graph.commit();
+        assertEquals(2, graphChangedListener.getOrder().size());
+        assertEquals("v-property-changed-2-name:vadas->b", graphChangedListener.getOrder().get(0));
+        assertEquals("v-property-changed-1-name:marko->c", graphChangedListener.getOrder().get(1));
+
+        graphChangedListener.reset();
+        marko.setProperty("name", "d");
+        graph.rollback();
+        graph.commit();
+        assertEquals(0, graphChangedListener.getOrder().size());
+
+        graph.setCoalesceEvents(false);
+        marko.setProperty("name", "e");
+        marko.setProperty("name", "f");
+        graph.commit();
+        assertEquals(2, graphChangedListener.getOrder().size());
+    }
+
+    public void testCoalesceEventsOfRemovedElements() {
+        graph.setCoalesceEvents(true);
+        graph.addListener(graphChangedListener);
+        final Vertex vertex = createVertex();
+        graph.commit();
+        graphChangedListener.reset();
+
+        final Object id = vertex.getId();
+        for (int i = 0; i < 10; i++) {
+            vertex.setProperty("name", i);
+        }
+        graph.removeVertex(vertex);
+        graph.commit();
+        final List<String> order = graphChangedListener.getOrder();
+        assertEquals(2, order.size());
+        assertEquals("v-property-changed-" + id + "-name:null->9", order.get(0));
+        assertEquals("v-removed-" + id, order.get(1));
+    }
+
+    public void testCoalesceEventsOfEdgesOfRemovedVertices() {
+        graph.setCoalesceEvents(true);
+        graph.addListener(graphChangedListener);
+        final Vertex marko = graph.getVertex(1);
+        final Vertex existing = createVertex();
+        graph.commit();
+        graphChangedListener.reset();
+
+        // the edges of a new vertex are removed with it
+        final Vertex vertex = createVertex();
+        graph.addEdge(null, marko, vertex, "knows").setProperty("weight", 0.5f);
+        graph.addEdge(null, vertex, vertex, "self");
+        graph.removeVertex(vertex);
+        graph.commit();
+        assertEquals(0, graphChangedListener.getOrder().size());
+
+        // new edges of an existing vertex are removed with it as well
+        final Edge edge = graph.addEdge(null, existing, marko, "knows");
+        edge.setProperty("weight", 0.5f);
+        final Edge kept = graph.addEdge(null, marko, marko, "knows");
+        final Object id = existing.getId();
+        graph.removeVertex(existing);
+        graph.commit();
+        final List<String> order = graphChangedListener.getOrder();
+        assertEquals(2, order.size());
+        assertEquals("e-added-" + kept.getId(), order.get(0));
+        assertEquals("v-removed-" + id, order.get(1));
+    }
+}
@@ -0,0 +1,355 @@
+package com.tinkerpop.blueprints.util.wrappers.event.log;
+
+import com.tinkerpop.blueprints.BaseTest;
+import com.tinkerpop.blueprints.Direction;
+import com.tinkerpop.blueprints.Edge;
+import com.tinkerpop.blueprints.Graph;
+import com.tinkerpop.blueprints.TransactionalGraph;
+import com.tinkerpop.blueprints.Vertex;
+import com.tinkerpop.blueprints.impls.tg.IgnoreIdTinkerGraph;
+import com.tinkerpop.blueprints.impls.tg.TinkerGraph;
+import com.tinkerpop.blueprints.impls.tg.TinkerGraphFactory;
+import com.tinkerpop.blueprints.util.ElementHelper;
+import com.tinkerpop.blueprints.util.GraphHelper;
+import com.tinkerpop.blueprints.util.wrappers.event.AsyncEventDispatcher;
+import com.tinkerpop.blueprints.util.wrappers.event.BackpressurePolicy;
+import com.tinkerpop.blueprints.util.wrappers.event.EventTransactionalGraph;
+import com.tinkerpop.blueprints.util.wrappers.event.listener.BatchGraphChangedListener;
+import com.tinkerpop.blueprints.util.wrappers.event.listener.Event;
+import com.tinkerpop.blueprints.util.wrappers.event.listener.EventType;
+import com.tinkerpop.blueprints.util.wrappers.event.listener.StubGraphChangedListener;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class ChangeLogTest extends BaseTest {
+
+    private File directory;
+    private EventTransactionalGraph<TransactionalTinkerGraph> graph;
+
+    public void setUp() {
+        directory = new File(computeTestDataRoot(), "change-log");
+        deleteDirectory(directory);
+        graph = new EventTransactionalGraph<TransactionalTinkerGraph>(new TransactionalTinkerGraph());
+    }
+
+    public void tearDown() {
+        deleteDirectory(directory);
+    }
+
+    public void testAppendAndRead() {
+        final ChangeLog log = new ChangeLog(directory);
+        graph.addBatchListener(log);
+
+        final Vertex marko = graph.addVertex("1");
+        marko.setProperty("name", "marko");
+        final Vertex vadas = graph.addVertex("2");
+        final Edge knows = graph.addEdge("7", marko, vadas, "knows");
+        knows.setProperty("weight", 0.5f);
+        knows.setProperty("since", new Date(0));
+        graph.commit();
+        assertEquals(0, log.getStartOffset());
+        final long firstEnd = log.getEndOffset();
+        assertTrue(firstEnd > 0);
+
+        marko.removeProperty("name");
+        knows.removeProperty("weight");
+        graph.removeEdge(knows);
+        graph.removeVertex(vadas);
+        graph.commit();
+        graph.rollback();
+        assertTrue(log.getEndOffset() > firstEnd);
+
+        final ChangeLogReader reader = log.openReader(0);
+        final ChangeSet first = reader.next();
+        assertEquals(0, first.getOffset());
+        assertEquals(firstEnd, first.getNextOffset());
+        assertEquals(0, first.getSequence());
+        assertTrue(first.getTimestamp() > 0);
+        final List<Change> added = first.getChanges();
+        assertEquals(6, added.size());
+        assertEquals(EventType.VERTEX_ADDED, added.get(0).getType());
+        assertEquals("1", added.get(0).getElementId());
+        assertEquals(EventType.VERTEX_PROPERTY_CHANGED, added.get(1).getType());
+        assertEquals("name", added.get(1).getKey());
+        assertEquals("marko", added.get(1).getValue());
+        assertEquals(EventType.EDGE_ADDED, added.get(3).getType());
+        assertEquals("7", added.get(3).getElementId());
+        assertEquals("knows", added.get(3).getLabel());
+        assertEquals("1", added.get(3).getOutVertexId());
+        assertEquals("2", added.get(3).getInVertexId());
+        assertEquals(0.5f, added.get(4).getValue());
+        assertEquals(new Date(0), added.get(5).getValue());
+
+        final ChangeSet second = reader.next();
+        assertEquals(1, second.getSequence());
+        assertEquals(firstEnd, second.getOffset());
+        assertEquals(log.getEndOffset(), second.getNextOffset());
+        assertEquals(4, second.getChanges().size());
+        assertEquals(EventType.VERTEX_PROPERTY_REMOVED, second.getChanges().get(0).getType());
+        assertEquals(EventType.EDGE_PROPERTY_REMOVED, second.getChanges().get(1).getType());
+        assertEquals(EventType.EDGE_REMOVED, second.getChanges().get(2).getType());
+        assertEquals(EventType.VERTEX_REMOVED, second.getChanges().get(3).getType());
+        assertNull(reader.next());
+
+        // resume from an offset
+        reader.seek(firstEnd);
+        assertEquals(1, reader.next().getSequence());
+        reader.close();
+        log.close();
+    }
+
+    public void testReplay() {
+        final ChangeLog log = new ChangeLog(directory);
+        graph.addBatchListener(log);
+        GraphHelper.copyGraph(TinkerGraphFactory.createTinkerGraph(), graph);
+        graph.commit();
+
+        final TinkerGraph replica = new TinkerGraph();
+        final ChangeLogReplayer replayer = new ChangeLogReplayer(replica);
+        final ChangeLogReader reader = log.openReader(0);
+        assertEquals(1, replayer.replay(reader));
+        assertEquals(0, replayer.getSkippedChangeCount());
+        assertGraphsEqual(graph, replica);
+
+        // incremental changes
+        graph.getVertex(1).setProperty("name", "okram");
+        graph.removeVertex(graph.getVertex(4));
+        graph.getEdge(7).setProperty("weight", 1.0f);
+        graph.commit();
+        graph.addEdge(null, graph.getVertex(2), graph.getVertex(3), "created");
+        graph.commit();
+        assertEquals(2, replayer.replay(reader));
+        assertEquals(0, replayer.replay(reader));
+        assertGraphsEqual(graph, replica);
+
+        // replay the whole log into a graph which assigns its own ids
+        final IgnoreIdTinkerGraph other = new IgnoreIdTinkerGraph();
+        final ChangeLogReplayer otherReplayer = new ChangeLogReplayer(other);
+        assertEquals(3, otherReplayer.replay(log.openReader(0)));
+        assertEquals(0, otherReplayer.getSkippedChangeCount());
+        assertEquals(5, count(other.getVertices()));
+        assertEquals(4, count(other.getEdges()));
+        int okram = 0;
+        for (final Vertex vertex : other.getVertices()) {
+            if ("okram".equals(vertex.getProperty("name"))) okram++;
+        }
+        assertEquals(1, okram);
+
+        // replaying from the middle of the log skips changes of elements which do not exist
+        final TinkerGraph partial = new TinkerGraph();
+        final ChangeLogReplayer partialReplayer = new ChangeLogReplayer(partial);
+        final ChangeLogReader partialReader = log.openReader(0);
+        partialReader.next();
+        assertEquals(2, partialReplayer.replay(partialReader));
+        assertEquals(4, partialReplayer.getSkippedChangeCount());
+        log.close();
+    }
+
+    public void testRotationAndTailing() throws Exception {
+        final ChangeLog log = new ChangeLog(directory, 512);
+        graph.addBatchListener(log);
+        final ChangeLogReader reader = log.openReader(0);
+        assertNull(reader.next());
+
+        for (int i = 0; i < 100; i++) {
+            graph.addVertex("v" + i).setProperty("number", i);
+            graph.commit();
+        }
+        assertTrue(log.getSegmentCount() > 5);
+        for (int i = 0; i < 50; i++) {
+            final ChangeSet changeSet = reader.next();
+            assertEquals(i, changeSet.getSequence());
+            assertEquals("v" + i, changeSet.getChanges().get(0).getElementId());
+            assertEquals(i, changeSet.getChanges().get(1).getValue());
+        }
+
+        // segments already read are removed, the reader continues
+        final int segments = log.getSegmentCount();
+        final int deleted = log.deleteSegmentsBefore(reader.getOffset());
+        assertTrue(deleted > 0);
+        assertEquals(segments - deleted, log.getSegmentCount());
+        assertTrue(log.getStartOffset() <= reader.getOffset());
+        for (int i = 50; i < 100; i++) {
+            assertEquals(i, reader.next().getSequence());
+        }
+        assertNull(reader.next());
+        assertEquals(log.getEndOffset(), reader.getOffset());
+
+        graph.addVertex("v100");
+        graph.commit();
+        assertEquals(100, reader.poll(1, TimeUnit.SECONDS).getSequence());
+        assertNull(reader.poll(10, TimeUnit.MILLISECONDS));
+
+        try {
+            log.openReader(0).next();
+            fail();
+        } catch (IllegalStateException e) {
+        }
+        reader.close();
+        log.close();
+    }
+
+    public void testRecovery() throws Exception {
+        ChangeLog log = new ChangeLog(directory);
+        graph.addBatchListener(log);
+        graph.addVertex("a");
+        graph.commit();
+        final long end = log.getEndOffset();
+        log.close();
+        graph.removeAllListeners();
+
+        // a record only partially written before a crash
+        final List<Long> segments = ChangeLogCodec.listSegments(directory);
+        final FileOutputStream out = new FileOutputStream(ChangeLogCodec.segmentFile(directory, segments.get(0)), true);
+        out.write(new byte[]{0, 0, 0, 100, 1, 2, 3, 4, 5});
+        out.close();
+
+        log = new ChangeLog(directory);
+        assertEquals(end, log.getEndOffset());
+        graph.addBatchListener(log);
+        graph.addVertex("b");
+        graph.commit();
+
+        final ChangeLogReader reader = log.openReader(0);
+        assertEquals("a", reader.next().getChanges().get(0).getElementId());
+        final ChangeSet changeSet = reader.next();
+        assertEquals(1, changeSet.getSequence());
+        assertEquals("b", changeSet.getChanges().get(0).getElementId());
+        assertNull(reader.next());
+        reader.close();
+        log.close();
+        try {
+            log.append(Collections.<Event>emptyList());
+            fail();
+        } catch (IllegalStateException e) {
+        }
+    }
+
+    public void testStableTypeCodes() throws Exception {
+        final int typeByte = ChangeLogCodec.HEADER_LENGTH + 8 + 8 + 4;
+        final byte[] added = ChangeLogCodec.encode(0, 0, Collections.singletonList(new Change(EventType.VERTEX_ADDED, "a", null, null, null, null, null)));
+        assertEquals(0, added[typeByte]);
+        final byte[] removed = ChangeLogCodec.encode(0, 0, Collections.singletonList(new Change(EventType.EDGE_REMOVED, "e", null, null, null, null, null)));
+        assertEquals(7, removed[typeByte]);
+
+        removed[typeByte] = 42;
+        try {
+            ChangeLogCodec.decode(0, Arrays.copyOfRange(removed, ChangeLogCodec.HEADER_LENGTH, removed.length));
+            fail();
+        } catch (IOException e) {
+        }
+    }
+
+    public void testAppendDespiteFailingListeners() {
+        final ChangeLog log = new ChangeLog(directory);
+        final long[] appended = new long[]{-1};
+        graph.addListener(new StubGraphChangedListener() {
+            @Override
+            public void vertexAdded(final Vertex vertex) {
+                // the transaction has been appended before the listeners of single events are notified
+                appended[0] = log.getEndOffset();
+                throw new IllegalStateException("broken listener");
+            }
+        });
+        graph.addBatchListener(new BatchGraphChangedListener() {
+            public void eventsFired(final List<Event> events) {
+                throw new IllegalStateException("broken batch listener");
+            }
+        });
+        graph.addBatchListener(log);
+
+        graph.addVertex("1");
+        try {
+            graph.commit();
+            fail();
+        } catch (IllegalStateException e) {
+        }
+        assertTrue(appended[0] > 0);
+        assertEquals(appended[0], log.getEndOffset());
+
+        final AsyncEventDispatcher dispatcher = graph.dispatchAsynchronously(100, 10, BackpressurePolicy.BLOCK);
+        graph.addVertex("2");
+        graph.commit();
+        dispatcher.flush();
+        assertEquals(2, dispatcher.getFailedDeliveryCount());
+        graph.dispatchSynchronously();
+
+        final ChangeLogReader reader = log.openReader(0);
+        assertEquals("1", reader.next().getChanges().get(0).getElementId());
+        assertEquals("2", reader.next().getChanges().get(0).getElementId());
+        reader.close();
+        log.close();
+    }
+
+    public void testReplayRolledBack() {
+        final ChangeLog log = new ChangeLog(directory);
+        graph.addBatchListener(log);
+        graph.addVertex("a");
+        graph.commit();
+        graph.getVertex("a").setProperty("name", "marko");
+        graph.commit();
+
+        final FailingCommitGraph replica = new FailingCommitGraph();
+        final ChangeLogReplayer replayer = new ChangeLogReplayer(replica);
+        final ChangeLogReader reader = log.openReader(0);
+        replica.failCommit = true;
+        try {
+            replayer.replay(reader.next());
+            fail();
+        } catch (IllegalStateException e) {
+        }
+        // the id of the vertex added by the rolled back change set is not mapped
+        replica.failCommit = false;
+        replayer.replay(reader.next());
+        assertEquals(1, replayer.getSkippedChangeCount());
+        reader.close();
+        log.close();
+    }
+
+    private static void assertGraphsEqual(final Graph expected, final Graph actual) {
+        assertEquals(count(expected.getVertices()), count(actual.getVertices()));
+        assertEquals(count(expected.getEdges()), count(actual.getEdges()));
+        for (final Vertex vertex : expected.getVertices()) {
+            assertTrue(ElementHelper.haveEqualProperties(vertex, actual.getVertex(vertex.getId())));
+        }
+        for (final Edge edge : expected.getEdges()) {
+            final Edge other = actual.getEdge(edge.getId());
+            assertTrue(ElementHelper.haveEqualProperties(edge, other));
+            assertEquals(edge.getLabel(), other.getLabel());
+            assertEquals(edge.getVertex(Direction.OUT).getId(), other.getVertex(Direction.OUT).getId());
+        }
+    }
+
+    private static class FailingCommitGraph extends IgnoreIdTinkerGraph implements TransactionalGraph {
+        private boolean failCommit = false;
+
+        public void stopTransaction(final Conclusion conclusion) {
+        }
+
+        public void commit() {
+            if (failCommit) throw new IllegalStateException("commit failed");
+        }
+
+        public void rollback() {
+        }
+    }
+
+    private static class TransactionalTinkerGraph extends TinkerGraph implements TransactionalGraph {
+
+        public void stopTransaction(final Conclusion conclusion) {
+        }
+
+        public void commit() {
+        }
+
+        public void rollback() {
+        }
+    }
+}
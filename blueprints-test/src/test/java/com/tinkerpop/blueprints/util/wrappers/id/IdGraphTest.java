@@ -4,6 +4,7 @@ import com.tinkerpop.blueprints.Direction;
 import com.tinkerpop.blueprints.Edge;
 import com.tinkerpop.blueprints.EdgeTestSuite;
 import com.tinkerpop.blueprints.Graph;
+import com.tinkerpop.blueprints.GraphQueryTestSuite;
 import com.tinkerpop.blueprints.GraphTestSuite;
 import com.tinkerpop.blueprints.KeyIndexableGraph;
 import com.tinkerpop.blueprints.KeyIndexableGraphTestSuite;
@@ -17,7 +18,9 @@ import com.tinkerpop.blueprints.util.io.graphson.GraphSONReaderTestSuite;
 import com.tinkerpop.blueprints.util.wrappers.WrapperGraph;
 
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -175,6 +178,129 @@ public class IdGraphTest extends GraphTest {
         assertFalse(e1.getId().equals("edge1"));
     }
 
+    public void testIdCache() throws Exception {
+        final LookupCountingTinkerGraph baseGraph = new LookupCountingTinkerGraph();
+        final IdGraph<LookupCountingTinkerGraph> graph = new IdGraph<LookupCountingTinkerGraph>(baseGraph);
+
+        final Vertex v1 = graph.addVertex("v1");
+        final Vertex v2 = graph.addVertex("v2");
+        graph.addEdge("e1", v1, v2, "knows");
+        baseGraph.lookups = 0;
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(v1, graph.getVertex("v1"));
+            assertEquals("e1", graph.getEdge("e1").getId());
+        }
+        assertEquals(0, baseGraph.lookups);
+        assertEquals(100, graph.getVertexIdCache().getHitCount());
+        assertEquals(100, graph.getEdgeIdCache().getHitCount());
+
+        // misses fall back to the index
+        assertNull(graph.getVertex("v3"));
+        assertEquals(1, baseGraph.lookups);
+
+        // removal through the wrapper
+        graph.removeEdge(graph.getEdge("e1"));
+        assertNull(graph.getEdge("e1"));
+        graph.removeVertex(v2);
+        assertNull(graph.getVertex("v2"));
+        graph.addVertex("v2");
+        assertNotNull(graph.getVertex("v2"));
+
+        // removal and re-insertion bypassing the wrapper
+        baseGraph.removeVertex(baseGraph.getVertices(IdGraph.ID, "v1").iterator().next());
+        assertNull(graph.getVertex("v1"));
+        baseGraph.addVertex(null).setProperty(IdGraph.ID, "v1");
+        assertNotNull(graph.getVertex("v1"));
+
+        // a small cache evicts the least recently used ids
+        graph.setIdCacheSize(10);
+        for (int i = 0; i < 20; i++) {
+            graph.addVertex("n" + i);
+        }
+        assertEquals(10, graph.getVertexIdCache().size());
+        baseGraph.lookups = 0;
+        graph.getVertex("n0");
+        assertEquals(1, baseGraph.lookups);
+        graph.getVertex("n19");
+        assertEquals(1, baseGraph.lookups);
+
+        graph.setIdCacheSize(0);
+        assertNull(graph.getVertexIdCache());
+        assertNotNull(graph.getVertex("n19"));
+        assertEquals(2, baseGraph.lookups);
+        graph.shutdown();
+    }
+
+    public void testRangeIdFactory() throws Exception {
+        final LookupCountingTinkerGraph baseGraph = new LookupCountingTinkerGraph();
+        final IdGraph<LookupCountingTinkerGraph> graph = new IdGraph<LookupCountingTinkerGraph>(baseGraph);
+        final List<Integer> allocations = new ArrayList<Integer>();
+        final RangeIdFactory factory = new RangeIdFactory(new RangeIdFactory.Allocator() {
+            private long next = 1000;
+
+            public long allocate(final int size) {
+                allocations.add(size);
+                final long first = next;
+                next += size;
+                return first;
+            }
+        }, 10);
+        graph.setVertexIdFactory(factory);
+
+        for (int i = 0; i < 25; i++) {
+            assertEquals(1000l + i, graph.addVertex(null).getId());
+        }
+        assertEquals(3, allocations.size());
+
+        // a bulk loader assigning ids of the factory itself takes them without another allocation
+        final long first = factory.reserve(100);
+        assertEquals(1030l, first);
+        assertEquals(4, allocations.size());
+        for (long id = first; id < first + 100; id++) {
+            graph.addVertex(id);
+        }
+        assertEquals(125, count(graph.getVertices()));
+        assertEquals(1000l + 25, graph.addVertex(null).getId());
+
+        // supplied ids are checked, also those handed out by the factory
+        try {
+            graph.addVertex(first);
+            fail();
+        } catch (IllegalArgumentException e) {
+        }
+        graph.addVertex(5l);
+        try {
+            graph.addVertex(5l);
+            fail();
+        } catch (IllegalArgumentException e) {
+        }
+
+        graph.addVertex("other");
+        try {
+            graph.addVertex("other");
+            fail();
+        } catch (IllegalArgumentException e) {
+        }
+        graph.shutdown();
+    }
+
+    private static class LookupCountingTinkerGraph extends TinkerGraph {
+        private int lookups = 0;
+
+        @Override
+        public Iterable<Vertex> getVertices(final String key, final Object value) {
+            if (IdGraph.ID.equals(key)) lookups++;
+            return super.getVertices(key, value);
+        }
+
+        @Override
+        public Iterable<Edge> getEdges(final String key, final Object value) {
+            if (IdGraph.ID.equals(key)) lookups++;
+            return super.getEdges(key, value);
+        }
+    }
+
     public void testVertexTestSuite() throws Exception {
         this.stopWatch();
         doTestSuite(new VertexTestSuite(this));
@@ -193,6 +319,12 @@ public class IdGraphTest extends GraphTest {
         printTestPerformance("GraphTestSuite", this.stopWatch());
     }
 
+    public void testGraphQueryTestSuite() throws Exception {
+        this.stopWatch();
+        doTestSuite(new GraphQueryTestSuite(this));
+        printTestPerformance("GraphQueryTestSuite", this.stopWatch());
+    }
+
     public void testKeyIndexableGraphTestSuite() throws Exception {
         this.stopWatch();
         doTestSuite(new KeyIndexableGraphTestSuite(this));
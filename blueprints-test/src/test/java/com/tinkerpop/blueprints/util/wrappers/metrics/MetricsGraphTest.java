@@ -0,0 +1,150 @@
+package com.tinkerpop.blueprints.util.wrappers.metrics;
+
+import com.tinkerpop.blueprints.Direction;
+import com.tinkerpop.blueprints.Edge;
+import com.tinkerpop.blueprints.EdgeTestSuite;
+import com.tinkerpop.blueprints.Graph;
+import com.tinkerpop.blueprints.GraphQueryTestSuite;
+import com.tinkerpop.blueprints.GraphTestSuite;
+import com.tinkerpop.blueprints.TestSuite;
+import com.tinkerpop.blueprints.Vertex;
+import com.tinkerpop.blueprints.VertexTestSuite;
+import com.tinkerpop.blueprints.impls.GraphTest;
+import com.tinkerpop.blueprints.impls.tg.TinkerGraph;
+import com.tinkerpop.blueprints.impls.tg.TinkerGraphFactory;
+
+import javax.management.ObjectName;
+import javax.management.openmbean.TabularData;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
+
+public class MetricsGraphTest extends GraphTest {
+
+    public void testVertexTestSuite() throws Exception {
+        this.stopWatch();
+        doTestSuite(new VertexTestSuite(this));
+        printTestPerformance("VertexTestSuite", this.stopWatch());
+    }
+
+    public void testEdgeTestSuite() throws Exception {
+        this.stopWatch();
+        doTestSuite(new EdgeTestSuite(this));
+        printTestPerformance("EdgeTestSuite", this.stopWatch());
+    }
+
+    public void testGraphTestSuite() throws Exception {
+        this.stopWatch();
+        doTestSuite(new GraphTestSuite(this));
+        printTestPerformance("GraphTestSuite", this.stopWatch());
+    }
+
+    public void testGraphQueryTestSuite() throws Exception {
+        this.stopWatch();
+        doTestSuite(new GraphQueryTestSuite(this));
+        printTestPerformance("GraphQueryTestSuite", this.stopWatch());
+    }
+
+    public void testOperationCounts() {
+        final MetricsGraph<TinkerGraph> graph = new MetricsGraph<TinkerGraph>(TinkerGraphFactory.createTinkerGraph());
+        final Vertex marko = graph.getVertex(1);
+        assertNull(graph.getVertex(100));
+        assertEquals("marko", marko.getProperty("name"));
+        assertEquals(29, marko.getProperty("age"));
+        marko.setProperty("name", "okram");
+        assertEquals(2, count(marko.getVertices(Direction.OUT, "knows")));
+        assertEquals(3, count(marko.getEdges(Direction.OUT)));
+        assertEquals(1, count(graph.getVertices("name", "okram")));
+        assertEquals(6, count(graph.getEdges()));
+        assertEquals(2, count(graph.query().has("lang", "java").vertices()));
+        final Edge edge = graph.addEdge(null, marko, graph.addVertex(null), "likes");
+        marko.addEdge("likes", graph.getVertex(2));
+        graph.removeEdge(edge);
+
+        final MetricsSnapshot snapshot = graph.getSnapshot();
+        assertEquals(3, snapshot.getOperation(Operation.GET_VERTEX).getCount());
+        assertEquals(2, snapshot.getOperation(Operation.GET_PROPERTY).getCount());
+        assertEquals(1, snapshot.getOperation(Operation.GET_PROPERTY, "name").getCount());
+        assertEquals(1, snapshot.getOperation(Operation.GET_PROPERTY, "age").getCount());
+        assertEquals(1, snapshot.getOperation(Operation.SET_PROPERTY, "name").getCount());
+        assertEquals(1, snapshot.getOperation(Operation.GET_ADJACENT_VERTICES, "knows").getCount());
+        assertEquals(1, snapshot.getOperation(Operation.GET_ADJACENT_EDGES).getCount());
+        assertEquals(1, snapshot.getOperation(Operation.GET_VERTICES_BY_KEY, "name").getCount());
+        assertEquals(1, snapshot.getOperation(Operation.GET_EDGES).getCount());
+        assertEquals(1, snapshot.getOperation(Operation.QUERY).getCount());
+        assertEquals(1, snapshot.getOperation(Operation.ADD_VERTEX).getCount());
+        assertEquals(2, snapshot.getOperation(Operation.ADD_EDGE, "likes").getCount());
+        assertEquals(1, snapshot.getOperation(Operation.REMOVE_EDGE, "likes").getCount());
+        assertNull(snapshot.getOperation(Operation.REMOVE_VERTEX));
+
+        // results iterated to their end are sampled, including the iteration
+        final OperationSnapshot edges = snapshot.getOperation(Operation.GET_EDGES);
+        assertEquals(1, edges.getSampledCount());
+        assertTrue(edges.getTotalLatency() > 0);
+        assertTrue(edges.getLatencyPercentile(99) >= edges.getLatencyPercentile(50));
+        assertEquals(3, snapshot.getOperation(Operation.GET_VERTEX).getSampledCount());
+        assertEquals(OperationMetrics.NUMBER_OF_BUCKETS, edges.getLatencyHistogram().length);
+
+        graph.getMetrics().reset();
+        assertTrue(graph.getSnapshot().getOperations().isEmpty());
+    }
+
+    public void testSamplingAndBreakdown() {
+        final MetricsRegistry registry = new MetricsRegistry(2);
+        final MetricsGraph<TinkerGraph> graph = new MetricsGraph<TinkerGraph>(new TinkerGraph(), registry);
+        registry.setSampleRate(10);
+        final Vertex vertex = graph.addVertex(null);
+        for (int i = 0; i < 100; i++) {
+            vertex.setProperty("key" + (i % 4), i);
+        }
+        final MetricsSnapshot snapshot = graph.getSnapshot();
+        assertEquals(100, snapshot.getOperation(Operation.SET_PROPERTY).getCount());
+        assertTrue(snapshot.getOperation(Operation.SET_PROPERTY).getSampledCount() <= 20);
+        // only two keys are broken down, the others are recorded in total
+        assertEquals(25, snapshot.getOperation(Operation.SET_PROPERTY, "key0").getCount());
+        assertEquals(25, snapshot.getOperation(Operation.SET_PROPERTY, "key1").getCount());
+        assertNull(snapshot.getOperation(Operation.SET_PROPERTY, "key2"));
+
+        registry.setBreakdown(false);
+        vertex.getProperty("key0");
+        assertEquals(1, graph.getSnapshot().getOperation(Operation.GET_PROPERTY).getCount());
+        assertNull(graph.getSnapshot().getOperation(Operation.GET_PROPERTY, "key0"));
+        try {
+            registry.setSampleRate(0);
+            fail();
+        } catch (IllegalArgumentException e) {
+        }
+    }
+
+    public void testMBean() throws Exception {
+        final MetricsGraph<TinkerGraph> graph = new MetricsGraph<TinkerGraph>(TinkerGraphFactory.createTinkerGraph());
+        final ObjectName name = graph.getMetrics().registerMBean("test");
+        try {
+            graph.getVertex(1).getProperty("name");
+            final TabularData counts = (TabularData) ManagementFactory.getPlatformMBeanServer().getAttribute(name, "Counts");
+            assertEquals(1L, counts.get(new Object[]{"getProperty[name]"}).get("value"));
+            assertEquals(1, ManagementFactory.getPlatformMBeanServer().getAttribute(name, "SampleRate"));
+            ManagementFactory.getPlatformMBeanServer().invoke(name, "reset", new Object[0], new String[0]);
+            assertTrue(graph.getSnapshot().getOperations().isEmpty());
+        } finally {
+            graph.getMetrics().unregisterMBean();
+        }
+        assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+    }
+
+    public Graph generateGraph() {
+        return generateGraph("");
+    }
+
+    public Graph generateGraph(final String graphDirectoryName) {
+        return new MetricsGraph<TinkerGraph>(new TinkerGraph());
+    }
+
+    public void doTestSuite(final TestSuite testSuite) throws Exception {
+        for (Method method : testSuite.getClass().getDeclaredMethods()) {
+            if (method.getName().startsWith("test")) {
+                System.out.println("Testing " + method.getName() + "...");
+                method.invoke(testSuite);
+            }
+        }
+    }
+}
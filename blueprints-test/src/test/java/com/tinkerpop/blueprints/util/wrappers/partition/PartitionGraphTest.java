@@ -3,7 +3,9 @@ package com.tinkerpop.blueprints.util.wrappers.partition;
 import com.tinkerpop.blueprints.Direction;
 import com.tinkerpop.blueprints.Edge;
 import com.tinkerpop.blueprints.EdgeTestSuite;
+import com.tinkerpop.blueprints.Features;
 import com.tinkerpop.blueprints.Graph;
+import com.tinkerpop.blueprints.GraphQueryTestSuite;
 import com.tinkerpop.blueprints.GraphTestSuite;
 import com.tinkerpop.blueprints.IndexTestSuite;
 import com.tinkerpop.blueprints.IndexableGraphTestSuite;
@@ -43,6 +45,12 @@ public class PartitionGraphTest extends GraphTest {
         printTestPerformance("GraphTestSuite", this.stopWatch());
     }
 
+    public void testGraphQueryTestSuite() throws Exception {
+        this.stopWatch();
+        doTestSuite(new GraphQueryTestSuite(this));
+        printTestPerformance("GraphQueryTestSuite", this.stopWatch());
+    }
+
     public void testIndexableGraphTestSuite() throws Exception {
         this.stopWatch();
         doTestSuite(new IndexableGraphTestSuite(this));
@@ -227,4 +235,93 @@ public class PartitionGraphTest extends GraphTest {
 
         graph.shutdown();
     }
-}
\ No newline at end of file
+
+    public void testPartitionIndexPushdown() {
+        final ScanCountingTinkerGraph rawGraph = new ScanCountingTinkerGraph();
+        final PartitionGraph<ScanCountingTinkerGraph> graph = new PartitionGraph<ScanCountingTinkerGraph>(rawGraph, "_partition", "t0");
+        // without opting in, the schema is left alone and scans keep elements without partition
+        assertFalse(graph.isPartitionKeyIndexed());
+        assertTrue(rawGraph.getIndexedKeys(Vertex.class).isEmpty());
+        assertTrue(rawGraph.getIndexedKeys(Edge.class).isEmpty());
+        final Vertex unpartitioned = rawGraph.addVertex(null);
+        unpartitioned.setProperty("number", 1);
+        assertEquals(1, count(graph.getVertices()));
+        assertEquals(1, count(graph.getVertices("number", 1)));
+        assertNotNull(graph.getVertex(unpartitioned.getId()));
+        rawGraph.removeVertex(unpartitioned);
+
+        graph.indexPartitionKey();
+        assertTrue(graph.isPartitionKeyIndexed());
+        assertTrue(rawGraph.getIndexedKeys(Vertex.class).contains("_partition"));
+        assertTrue(rawGraph.getIndexedKeys(Edge.class).contains("_partition"));
+        // creating the indices reads all elements once
+        rawGraph.scans = 0;
+
+        for (int tenant = 0; tenant < 20; tenant++) {
+            graph.setWritePartition("t" + tenant);
+            Vertex previous = null;
+            for (int i = 0; i < 10; i++) {
+                final Vertex vertex = graph.addVertex(null);
+                vertex.setProperty("number", i);
+                if (null != previous) graph.addEdge(null, previous, vertex, "next").setProperty("number", i);
+                previous = vertex;
+            }
+        }
+        graph.addReadPartition("t5");
+        assertEquals(20, count(graph.getVertices()));
+        assertEquals(18, count(graph.getEdges()));
+        assertEquals(2, count(graph.getVertices("number", 3)));
+        assertEquals(2, count(graph.getEdges("number", 3)));
+        for (final Vertex vertex : graph.getVertices("number", 3)) {
+            assertEquals(3, vertex.getProperty("number"));
+            assertNull(vertex.getProperty("_partition"));
+        }
+        assertEquals(0, rawGraph.scans);
+
+        // indexed keys are looked up directly
+        rawGraph.createKeyIndex("number", Vertex.class);
+        rawGraph.scans = 0;
+        assertEquals(2, count(graph.getVertices("number", 3)));
+        assertEquals(0, rawGraph.scans);
+
+        graph.removeReadPartition("t0");
+        graph.removeReadPartition("t5");
+        assertEquals(0, count(graph.getVertices()));
+        assertEquals(0, count(graph.getEdges("number", 3)));
+
+        graph.setPartitionKey("_tenant");
+        assertFalse(graph.isPartitionKeyIndexed());
+        assertFalse(rawGraph.getIndexedKeys(Vertex.class).contains("_tenant"));
+        graph.indexPartitionKey();
+        assertTrue(rawGraph.getIndexedKeys(Vertex.class).contains("_tenant"));
+
+        try {
+            new PartitionGraph<TinkerGraph>(new TinkerGraph() {
+                public Features getFeatures() {
+                    final Features features = super.getFeatures().copyFeatures();
+                    features.supportsKeyIndices = false;
+                    return features;
+                }
+            }, "_partition", "t0").indexPartitionKey();
+            fail();
+        } catch (IllegalStateException e) {
+        }
+        graph.shutdown();
+    }
+
+    private static class ScanCountingTinkerGraph extends TinkerGraph {
+        private int scans = 0;
+
+        @Override
+        public Iterable<Vertex> getVertices() {
+            scans++;
+            return super.getVertices();
+        }
+
+        @Override
+        public Iterable<Edge> getEdges() {
+            scans++;
+            return super.getEdges();
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.tinkerpop.blueprints.util.wrappers.sharded;
+
+import com.tinkerpop.blueprints.Direction;
+import com.tinkerpop.blueprints.Edge;
+import com.tinkerpop.blueprints.EdgeTestSuite;
+import com.tinkerpop.blueprints.Graph;
+import com.tinkerpop.blueprints.GraphTestSuite;
+import com.tinkerpop.blueprints.TestSuite;
+import com.tinkerpop.blueprints.Vertex;
+import com.tinkerpop.blueprints.VertexTestSuite;
+import com.tinkerpop.blueprints.impls.GraphTest;
+import com.tinkerpop.blueprints.impls.tg.TinkerGraph;
+import com.tinkerpop.blueprints.impls.tg.TinkerGraphFactory;
+import com.tinkerpop.blueprints.util.GraphHelper;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class ShardedGraphTest extends GraphTest {
+
+    public void testVertexTestSuite() throws Exception {
+        this.stopWatch();
+        doTestSuite(new VertexTestSuite(this));
+        printTestPerformance("VertexTestSuite", this.stopWatch());
+    }
+
+    public void testEdgeTestSuite() throws Exception {
+        this.stopWatch();
+        doTestSuite(new EdgeTestSuite(this));
+        printTestPerformance("EdgeTestSuite", this.stopWatch());
+    }
+
+    public void testGraphTestSuite() throws Exception {
+        this.stopWatch();
+        doTestSuite(new GraphTestSuite(this));
+        printTestPerformance("GraphTestSuite", this.stopWatch());
+    }
+
+    public void testGhostVertices() {
+        final ShardedGraph<TinkerGraph> graph = createGraph(3);
+        GraphHelper.copyGraph(TinkerGraphFactory.createTinkerGraph(), graph);
+        assertEquals(6, count(graph.getVertices()));
+        assertEquals(6, count(graph.getEdges()));
+
+        int stored = 0;
+        for (final TinkerGraph shard : graph.getShards()) {
+            stored = stored + count(shard.getVertices());
+        }
+        assertTrue(stored > 6);
+
+        final Vertex marko = graph.getVertex(1);
+        assertEquals(graph.getShard(1), ((ShardedVertex) marko).getShard());
+        assertEquals(3, count(marko.getEdges(Direction.OUT)));
+        assertEquals(2, count(marko.getVertices(Direction.OUT, "knows")));
+        final Vertex lop = graph.getVertex(3);
+        assertEquals(3, count(lop.getEdges(Direction.IN)));
+        for (final Vertex vertex : lop.getVertices(Direction.IN)) {
+            assertNotNull(vertex.getProperty("name"));
+            assertEquals(graph.getShard(vertex.getId()), ((ShardedVertex) vertex).getShard());
+        }
+        for (final Edge edge : marko.getEdges(Direction.OUT)) {
+            assertEquals(((ShardedVertex) marko).getShard(), ((ShardedEdge) edge).getShard());
+            assertNotNull(edge.getVertex(Direction.IN).getProperty("name"));
+        }
+        assertEquals(1, count(graph.getVertices("name", "lop")));
+        assertEquals(2, count(graph.query().has("lang", "java").vertices()));
+        assertEquals(3, count(lop.query().direction(Direction.IN).edges()));
+
+        // removing the edges and vertices leaves no ghosts behind
+        for (final Edge edge : graph.getVertex(6).getEdges(Direction.OUT)) {
+            graph.removeEdge(edge);
+        }
+        graph.removeVertex(lop);
+        graph.removeVertex(graph.getVertex(4));
+        assertEquals(4, count(graph.getVertices()));
+        assertEquals(1, count(graph.getEdges()));
+        stored = 0;
+        for (final TinkerGraph shard : graph.getShards()) {
+            stored = stored + count(shard.getVertices());
+        }
+        assertTrue(stored <= 5);
+        graph.removeVertex(graph.getVertex(2));
+        stored = 0;
+        for (final TinkerGraph shard : graph.getShards()) {
+            stored = stored + count(shard.getVertices());
+        }
+        assertEquals(3, stored);
+        graph.shutdown();
+    }
+
+    public void testConcurrentWrites() throws Exception {
+        final ShardedGraph<TinkerGraph> graph = createGraph(4);
+        final int threads = 4;
+        final int perThread = 2000;
+        final AtomicReference<Throwable> error = new AtomicReference<Throwable>();
+        final List<Thread> writers = new ArrayList<Thread>();
+        this.stopWatch();
+        for (int t = 0; t < threads; t++) {
+            final int thread = t;
+            writers.add(new Thread() {
+                public void run() {
+                    try {
+                        Vertex previous = graph.addVertex(thread + ":start");
+                        for (int i = 0; i < perThread; i++) {
+                            final Vertex vertex = graph.addVertex(thread + ":" + i);
+                            vertex.setProperty("thread", thread);
+                            graph.addEdge(null, previous, vertex, "next");
+                            previous = vertex;
+                        }
+                    } catch (Throwable e) {
+                        error.set(e);
+                    }
+                }
+            });
+        }
+        for (final Thread writer : writers) {
+            writer.start();
+        }
+        for (final Thread writer : writers) {
+            writer.join();
+        }
+        printPerformance(graph.toString(), threads * perThread, "vertices and edges added concurrently", this.stopWatch());
+        assertNull(error.get());
+        assertEquals(threads * (perThread + 1), count(graph.getVertices()));
+        assertEquals(threads * perThread, count(graph.getEdges()));
+        assertEquals(perThread, count(graph.getVertices("thread", 2)));
+        for (final TinkerGraph shard : graph.getShards()) {
+            assertTrue(count(shard.getVertices()) > 0);
+        }
+        final Vertex vertex = graph.getVertex("1:100");
+        assertEquals("1:99", vertex.getVertices(Direction.IN, "next").iterator().next().getId());
+        assertEquals("1:101", vertex.getVertices(Direction.OUT, "next").iterator().next().getId());
+        graph.shutdown();
+    }
+
+    private static ShardedGraph<TinkerGraph> createGraph(final int shards) {
+        final List<TinkerGraph> graphs = new ArrayList<TinkerGraph>();
+        for (int i = 0; i < shards; i++) {
+            graphs.add(new TinkerGraph());
+        }
+        return new ShardedGraph<TinkerGraph>(graphs);
+    }
+
+    public Graph generateGraph() {
+        return generateGraph("");
+    }
+
+    public Graph generateGraph(final String graphDirectoryName) {
+        return createGraph(3);
+    }
+
+    public void doTestSuite(final TestSuite testSuite) throws Exception {
+        for (Method method : testSuite.getClass().getDeclaredMethods()) {
+            if (method.getName().startsWith("test")) {
+                System.out.println("Testing " + method.getName() + "...");
+                method.invoke(testSuite);
+            }
+        }
+    }
+}